@@ -0,0 +1,3 @@
+#!/bin/sh
+java -Xss1024k -Xmn256m -Xms512m -Xmx1024m -Djava.awt.headless=true -XX:+IgnoreUnrecognizedVMOptions --add-opens=java.base/java.lang=ALL-UNNAMED --add-opens=java.base/java.lang.reflect=ALL-UNNAMED --add-opens=java.base/java.util=ALL-UNNAMED --add-opens=java.base/java.text=ALL-UNNAMED --add-opens=java.base/java.math=ALL-UNNAMED --add-opens=java.base/java.io=ALL-UNNAMED --add-opens=java.base/sun.util.calendar=ALL-UNNAMED -cp lib/*:bin/omsimulation-1.0.jar de.bfs.radon.omsimulation.benchmark.OMBenchmarkRunner -baseline benchmark/baseline.csv "$@"
+        
\ No newline at end of file
@@ -0,0 +1,356 @@
+/*
+ * OM Simulation Tool: This tool intends to test and evaluate the scientific
+ * robustness of the protocol `6+1`. Therefore, it generates a huge amount of
+ * virtual measurement campaigns based on real radon concentration data
+ * following the mentioned protocol. <http://github.com/donschoe/omsimulation>
+ * 
+ * Copyright (C) 2012 Alexander Schoedon <a.schoedon@student.htw-berlin.de>
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package de.bfs.radon.omsimulation;
+
+import java.io.File;
+
+import de.bfs.radon.omsimulation.data.OMLogLevel;
+import de.bfs.radon.omsimulation.engine.OMQuantileSketch;
+import de.bfs.radon.omsimulation.engine.OMSimulationEngine;
+
+/**
+ * Class OMArguments, used to parse and validate the command line arguments of
+ * a single simulation. Shared by the headless launcher and the lines of a
+ * batch job file.
+ * 
+ * @author A. Schoedon
+ */
+class OMArguments {
+
+  /**
+   * Stores the absolute path to the OMB object.
+   */
+  private String     ombFile;
+
+  /**
+   * Stores the absolute path to the OMS object or null to use the default.
+   */
+  private String     omsFile;
+
+  /**
+   * Stores the name of the building or null.
+   */
+  private String     buildingName;
+
+  /**
+   * Indicates whether the simulation is systematic or random.
+   */
+  private boolean    isSystematic       = true;
+
+  /**
+   * Stores the maximum number of random campaigns.
+   */
+  private int        randomCampaigns    = 10000;
+
+  /**
+   * Stores the ratio of campaigns with three, four, five and six different
+   * rooms.
+   */
+  private int[]      ratio              = { 2, 5, 20, 73 };
+
+  /**
+   * Stores the random noise that is added to the values. The unit is [%].
+   */
+  private int        randomNoise        = 5;
+
+  /**
+   * Stores the target precision of an adaptive random simulation or 0. The
+   * unit is [%].
+   */
+  private double     precision          = 0;
+
+  /**
+   * Stores the number of threads or 0 to use the default.
+   */
+  private int        threads            = 0;
+
+  /**
+   * Stores the compression of the quantile sketches.
+   */
+  private int        compression        = OMQuantileSketch.DEFAULT_COMPRESSION;
+
+  /**
+   * Stores the master seed or null to draw a random one.
+   */
+  private Long       seed;
+
+  /**
+   * Indicates whether the campaigns are exported as CSV.
+   */
+  private boolean    isCampaignsCsv     = true;
+
+  /**
+   * Stores the number of batches queued for the campaign writer.
+   */
+  private int        writerQueue        = 4;
+
+  /**
+   * Indicates whether a systematic simulation resumes from its checkpoint.
+   */
+  private boolean    isResume           = false;
+
+  /**
+   * Stores the interval between two checkpoints. The unit is [s].
+   */
+  private int        checkpointInterval = 600;
+
+  /**
+   * Stores the minimum level of messages written to the log file.
+   */
+  private OMLogLevel logLevel           = OMLogLevel.Info;
+
+  /**
+   * Stores the memory reserved for a batch job or 0 to use the default. The
+   * unit is [MB].
+   */
+  private int        memory             = 0;
+
+  /**
+   * Gets the absolute path to the OMB object.
+   * 
+   * @return The absolute path to the OMB object.
+   */
+  String getOmbFile() {
+    return this.ombFile;
+  }
+
+  /**
+   * Gets the absolute path to the OMS object.
+   * 
+   * @return The absolute path to the OMS object or null to use the default.
+   */
+  String getOmsFile() {
+    return this.omsFile;
+  }
+
+  /**
+   * Gets the name of the building.
+   * 
+   * @return The name of the building or null.
+   */
+  String getBuildingName() {
+    return this.buildingName;
+  }
+
+  /**
+   * Indicates whether the simulation is systematic or random.
+   * 
+   * @return True if the simulation is systematic.
+   */
+  boolean isSystematic() {
+    return this.isSystematic;
+  }
+
+  /**
+   * Gets the number of threads.
+   * 
+   * @return The number of threads or 0 to use the default.
+   */
+  int getThreads() {
+    return this.threads;
+  }
+
+  /**
+   * Gets the minimum level of messages written to the log file.
+   * 
+   * @return The minimum level of messages written to the log file.
+   */
+  OMLogLevel getLogLevel() {
+    return this.logLevel;
+  }
+
+  /**
+   * Gets the memory reserved for a batch job. The unit is [MB].
+   * 
+   * @return The memory reserved for a batch job or 0 to use the default.
+   */
+  int getMemory() {
+    return this.memory;
+  }
+
+  /**
+   * Gets the default path to the OMS object of a random simulation, next to
+   * the OMB object.
+   * 
+   * @param ombFile
+   *          The absolute path to the OMB object.
+   * @param suffix
+   *          A suffix to tell several buildings of the same OMB object apart
+   *          or null.
+   * @return The default path to the OMS object.
+   */
+  static String getDefaultOmsFile(String ombFile, String suffix) {
+    String omsFile = ombFile.replaceAll("\\.[oO][mM][bB]$", "");
+    if (suffix != null) {
+      omsFile = omsFile + "_" + suffix;
+    }
+    return omsFile + ".oms";
+  }
+
+  /**
+   * Configures a simulation engine using the arguments. The building and the
+   * paths are not set.
+   * 
+   * @param engine
+   *          The simulation engine.
+   */
+  void configure(OMSimulationEngine engine) {
+    engine.setSystematic(this.isSystematic);
+    engine.setRandomCampaigns(this.randomCampaigns);
+    engine.setRatio3(this.ratio[0]);
+    engine.setRatio4(this.ratio[1]);
+    engine.setRatio5(this.ratio[2]);
+    engine.setRatio6(this.ratio[3]);
+    engine.setRandomNoise(this.randomNoise);
+    engine.setPrecision(this.precision);
+    engine.setThreads(this.threads);
+    engine.setCompression(this.compression);
+    engine.setSeed(this.seed);
+    engine.setCampaignsCsv(this.isCampaignsCsv);
+    engine.setWriterQueue(this.writerQueue);
+    engine.setResume(this.isResume);
+    engine.setCheckpointInterval(this.checkpointInterval);
+  }
+
+  /**
+   * Parses and validates the arguments of a single simulation.
+   * 
+   * @param args
+   *          The arguments, see the usage of the headless launcher.
+   * @param isBatch
+   *          True if the arguments are a line of a batch job file. Allows
+   *          -memory instead of -loglevel.
+   * @return The parsed arguments.
+   * @throws IllegalArgumentException
+   *           If the arguments are invalid. The message tells why.
+   */
+  static OMArguments parse(String[] args, boolean isBatch) {
+    OMArguments arguments = new OMArguments();
+    try {
+      for (int i = 0; i < args.length; i++) {
+        String arg = args[i];
+        if (arg.equals("-omb")) {
+          arguments.ombFile = args[++i];
+        } else if (arg.equals("-oms")) {
+          arguments.omsFile = args[++i];
+        } else if (arg.equals("-building")) {
+          arguments.buildingName = args[++i];
+        } else if (arg.equals("-systematic")) {
+          arguments.isSystematic = true;
+        } else if (arg.equals("-random")) {
+          arguments.isSystematic = false;
+          arguments.randomCampaigns = Integer.parseInt(args[++i]);
+        } else if (arg.equals("-ratio")) {
+          String[] tmpRatio = args[++i].split(":");
+          if (tmpRatio.length != 4) {
+            throw new IllegalArgumentException(
+                "Error: The ratio needs four values, e.g. 2:5:20:73.");
+          }
+          for (int r = 0; r < 4; r++) {
+            arguments.ratio[r] = Integer.parseInt(tmpRatio[r]);
+          }
+        } else if (arg.equals("-precision")) {
+          arguments.precision = Double.parseDouble(args[++i]);
+        } else if (arg.equals("-noise")) {
+          arguments.randomNoise = Integer.parseInt(args[++i]);
+        } else if (arg.equals("-threads")) {
+          arguments.threads = Integer.parseInt(args[++i]);
+        } else if (arg.equals("-compression")) {
+          arguments.compression = Integer.parseInt(args[++i]);
+        } else if (arg.equals("-seed")) {
+          arguments.seed = Long.valueOf(args[++i]);
+        } else if (arg.equals("-nocsv")) {
+          arguments.isCampaignsCsv = false;
+        } else if (arg.equals("-queue")) {
+          arguments.writerQueue = Integer.parseInt(args[++i]);
+        } else if (arg.equals("-resume")) {
+          arguments.isResume = true;
+        } else if (arg.equals("-checkpoint")) {
+          arguments.checkpointInterval = Integer.parseInt(args[++i]);
+        } else if (arg.equals("-loglevel") && !isBatch) {
+          String level = args[++i];
+          try {
+            arguments.logLevel = OMLogLevel.valueOf(level);
+          } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Error: The log level has to "
+                + "be one of Trace, Debug, Info, Warning or Error.");
+          }
+        } else if (arg.equals("-memory") && isBatch) {
+          arguments.memory = Integer.parseInt(args[++i]);
+        } else {
+          throw new IllegalArgumentException("Error: Unknown argument '" + arg
+              + "'.");
+        }
+      }
+    } catch (ArrayIndexOutOfBoundsException e) {
+      throw new IllegalArgumentException(
+          "Error: Missing value for the last argument.");
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Error: " + e.getMessage());
+    }
+    arguments.validate();
+    return arguments;
+  }
+
+  /**
+   * Validates the parsed arguments.
+   * 
+   * @throws IllegalArgumentException
+   *           If the arguments are invalid. The message tells why.
+   */
+  private void validate() {
+    if (this.ombFile == null || !new File(this.ombFile).isFile()) {
+      throw new IllegalArgumentException(
+          "Error: Please, select a valid OMB file.");
+    }
+    if (this.randomNoise < 0 || this.randomNoise > 20) {
+      throw new IllegalArgumentException(
+          "Error: The random noise has to be between 0 and 20.");
+    }
+    if (this.precision < 0) {
+      throw new IllegalArgumentException(
+          "Error: The precision has to be at least 0.");
+    }
+    if (this.compression != 0 && this.compression < 10) {
+      throw new IllegalArgumentException(
+          "Error: The compression has to be 0 or at least 10.");
+    }
+    if (this.writerQueue < 0) {
+      throw new IllegalArgumentException(
+          "Error: The writer queue has to be at least 0.");
+    }
+    if (this.checkpointInterval < 0) {
+      throw new IllegalArgumentException(
+          "Error: The checkpoint interval has to be at least 0.");
+    }
+    if (this.memory < 0) {
+      throw new IllegalArgumentException(
+          "Error: The memory has to be at least 0.");
+    }
+    if (!this.isSystematic && this.randomCampaigns < 1) {
+      throw new IllegalArgumentException(
+          "Error: Simulate at least one random campaign.");
+    }
+  }
+}
@@ -0,0 +1,333 @@
+/*
+ * OM Simulation Tool: This tool intends to test and evaluate the scientific
+ * robustness of the protocol `6+1`. Therefore, it generates a huge amount of
+ * virtual measurement campaigns based on real radon concentration data
+ * following the mentioned protocol. <http://github.com/donschoe/omsimulation>
+ * 
+ * Copyright (C) 2012 Alexander Schoedon <a.schoedon@student.htw-berlin.de>
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package de.bfs.radon.omsimulation;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import de.bfs.radon.omsimulation.data.OMBuilding;
+import de.bfs.radon.omsimulation.data.OMHelper;
+import de.bfs.radon.omsimulation.data.OMLogLevel;
+import de.bfs.radon.omsimulation.engine.OMBatchJob;
+import de.bfs.radon.omsimulation.engine.OMBatchListener;
+import de.bfs.radon.omsimulation.engine.OMBatchScheduler;
+import de.bfs.radon.omsimulation.engine.OMProgressSample;
+import de.bfs.radon.omsimulation.engine.OMSimulationEngine;
+
+/**
+ * Public class OMBatch, the command line entry point for batches of
+ * simulations. Reads a job file and runs the jobs on a pool of workers without
+ * loading any graphical interface, so a whole survey can run unattended.
+ * 
+ * Usage: OMBatch -jobs FILE [-workers N] [-memory MB] [-loglevel LEVEL]
+ * 
+ * Each line of the job file holds the arguments of one simulation, exactly
+ * like the headless launcher, plus -memory MB to reserve memory for the job.
+ * Empty lines and lines starting with # are ignored, arguments containing
+ * spaces can be quoted. If a line names no building, one job per building of
+ * the OMB file is created. Jobs of the same OMB file write to files named
+ * after their building. Jobs without -threads share the processors evenly
+ * among the workers. The status messages of all jobs are written to a single
+ * log file next to the job file.
+ * 
+ * @author A. Schoedon
+ */
+public abstract class OMBatch {
+
+  /**
+   * Stores the usage message printed on invalid arguments.
+   */
+  private static final String  usage    = "Usage: OMBatch -jobs FILE "
+                                            + "[-workers N] [-memory MB] "
+                                            + "[-loglevel LEVEL]";
+
+  /**
+   * Stores the pattern of a single argument of a line of the job file, either
+   * quoted or separated by white space.
+   */
+  private static final Pattern argument = Pattern
+                                            .compile("\"([^\"]*)\"|(\\S+)");
+
+  /**
+   * Launches a batch of simulations using the command line arguments. Exits
+   * with status 0 if all jobs finished successfully, 1 if any job failed and 2
+   * on invalid arguments or job files.
+   * 
+   * @param args
+   *          The command line arguments, see usage.
+   */
+  public static void main(String[] args) {
+    String jobsFile = null;
+    int workers = 0;
+    int memory = 0;
+    OMLogLevel logLevel = OMLogLevel.Info;
+    try {
+      for (int i = 0; i < args.length; i++) {
+        String arg = args[i];
+        if (arg.equals("-jobs")) {
+          jobsFile = args[++i];
+        } else if (arg.equals("-workers")) {
+          workers = Integer.parseInt(args[++i]);
+        } else if (arg.equals("-memory")) {
+          memory = Integer.parseInt(args[++i]);
+        } else if (arg.equals("-loglevel")) {
+          logLevel = OMLogLevel.valueOf(args[++i]);
+        } else {
+          exit("Error: Unknown argument '" + arg + "'.", 2);
+        }
+      }
+    } catch (ArrayIndexOutOfBoundsException e) {
+      exit("Error: Missing value for the last argument.", 2);
+    } catch (NumberFormatException e) {
+      exit("Error: " + e.getMessage(), 2);
+    } catch (IllegalArgumentException e) {
+      exit("Error: The log level has to be one of Trace, Debug, Info, "
+          + "Warning or Error.", 2);
+    }
+    if (jobsFile == null || !new File(jobsFile).isFile()) {
+      exit("Error: Please, select a valid job file.", 2);
+    }
+    if (workers < 0) {
+      exit("Error: The number of workers has to be at least 0.", 2);
+    }
+    if (memory < 0) {
+      exit("Error: The memory has to be at least 0.", 2);
+    }
+    final OMBatchScheduler scheduler = new OMBatchScheduler();
+    scheduler.setWorkers(workers);
+    scheduler.setMemory(memory);
+    try {
+      readJobs(jobsFile, scheduler);
+    } catch (IOException ioe) {
+      exit("Error: Failed to read the job file. " + ioe.getMessage(), 2);
+    }
+    final int total = scheduler.getJobs().size();
+    if (total == 0) {
+      exit("Error: The job file contains no jobs.", 2);
+    }
+    final DecimalFormat decFormat = new DecimalFormat("#");
+    scheduler.setListener(new OMBatchListener() {
+      public void update(OMBatchJob job, String message, int status) {
+        System.out.println("[" + job + "] [" + status + "%] " + message);
+        log("[" + job + "] " + message);
+      }
+
+      public void finished(OMBatchJob job) {
+        String result = "finished after "
+            + OMProgressSample.formatTime(job.getDuration() / 1000.0);
+        if (!job.isSuccessful()) {
+          result = "failed";
+          if (job.getFailure() != null) {
+            result = result + ": " + job.getFailure();
+          } else {
+            result = result + ".";
+          }
+        }
+        String message = "Batch: Job " + job + " " + result + " "
+            + scheduler.getFinished() + " of " + total + " jobs done, "
+            + scheduler.getCampaigns() + " campaigns at "
+            + decFormat.format(scheduler.getRate()) + " campaigns/s.";
+        System.out.println(message);
+        log(message);
+      }
+
+      public void progress(OMProgressSample sample) {
+        String message = "Batch: " + scheduler.getFinished() + " of " + total
+            + " jobs done, " + sample.getDone() + " campaigns ("
+            + decFormat.format(sample.getRate()) + " campaigns/s, heap "
+            + (sample.getUsedMemory() >> 20) + "/"
+            + (sample.getMaxMemory() >> 20) + " MB).";
+        System.out.println(message);
+        log(message);
+      }
+    });
+    int successful = 0;
+    try {
+      OMHelper.setLogLevel(logLevel);
+      OMHelper.setLogOutput(jobsFile, "batch");
+      log("Starting " + total + " jobs on " + scheduler.getWorkers()
+          + " workers sharing " + scheduler.getMemory() + " MB.");
+      successful = scheduler.run();
+      log("Done. " + successful + " of " + total + " jobs finished "
+          + "successfully, " + scheduler.getCampaigns() + " campaigns at "
+          + decFormat.format(scheduler.getRate()) + " campaigns/s.");
+      OMHelper.closeLog();
+    } catch (IOException ioe) {
+      System.err.println("Error: " + ioe.getMessage());
+      ioe.printStackTrace();
+    } catch (InterruptedException ie) {
+      System.err.println("Error: Interrupted while waiting for the jobs.");
+    }
+    System.out.println("Done. " + successful + " of " + total
+        + " jobs finished successfully.");
+    System.exit(successful == total ? 0 : 1);
+  }
+
+  /**
+   * Reads the job file and adds its jobs to the scheduler. Exits if a line is
+   * invalid, names a missing building or two jobs write to the same files.
+   * 
+   * @param jobsFile
+   *          The absolute path to the job file.
+   * @param scheduler
+   *          The batch scheduler the jobs are added to.
+   * @throws IOException
+   *           If reading the job file fails.
+   */
+  private static void readJobs(String jobsFile, OMBatchScheduler scheduler)
+      throws IOException {
+    int processors = Runtime.getRuntime().availableProcessors();
+    int threads = Math.max(1, processors / scheduler.getWorkers());
+    Map<String, String> outputs = new HashMap<String, String>();
+    BufferedReader reader = new BufferedReader(new FileReader(jobsFile));
+    try {
+      String line;
+      int number = 0;
+      while ((line = reader.readLine()) != null) {
+        number++;
+        line = line.trim();
+        if (line.length() == 0 || line.startsWith("#")) {
+          continue;
+        }
+        List<String> tokens = new ArrayList<String>();
+        Matcher matcher = argument.matcher(line);
+        while (matcher.find()) {
+          if (matcher.group(1) != null) {
+            tokens.add(matcher.group(1));
+          } else {
+            tokens.add(matcher.group(2));
+          }
+        }
+        OMArguments arguments = null;
+        try {
+          arguments = OMArguments.parse(tokens.toArray(new String[0]), true);
+        } catch (IllegalArgumentException e) {
+          exit("Line " + number + ": " + e.getMessage(), 2);
+        }
+        String ombFile = arguments.getOmbFile();
+        List<OMBuilding> buildings = new ArrayList<OMBuilding>();
+        try {
+          if (arguments.getBuildingName() != null) {
+            OMBuilding building = OMHeadless.loadBuilding(ombFile,
+                arguments.getBuildingName());
+            if (building == null) {
+              exit("Line " + number + ": Error: No building '"
+                  + arguments.getBuildingName() + "' found in '" + ombFile
+                  + "'.", 2);
+            }
+            buildings.add(building);
+          } else {
+            buildings.addAll(OMHeadless.loadBuildings(ombFile));
+            if (buildings.isEmpty()) {
+              exit("Line " + number + ": Error: No building found in '"
+                  + ombFile + "'.", 2);
+            }
+          }
+        } catch (IOException e) {
+          exit("Line " + number + ": Error: " + e.getMessage(), 2);
+        }
+        for (OMBuilding building : buildings) {
+          String suffix = null;
+          if (buildings.size() > 1) {
+            suffix = building.getName().replaceAll("[^\\w.-]", "_");
+          }
+          String jobOmbFile = ombFile;
+          String omsFile = arguments.getOmsFile();
+          if (suffix != null) {
+            jobOmbFile = ombFile + "_" + suffix;
+            if (omsFile != null) {
+              omsFile = omsFile.replaceAll("\\.[oO][mM][sS]$", "") + "_"
+                  + suffix + ".oms";
+            }
+          }
+          if (!arguments.isSystematic() && omsFile == null) {
+            omsFile = OMArguments.getDefaultOmsFile(ombFile, suffix);
+          }
+          String output = jobOmbFile;
+          if (!arguments.isSystematic()) {
+            output = omsFile;
+          }
+          output = new File(output).getAbsolutePath();
+          String name = "line " + number + ", " + building.getName();
+          if (outputs.containsKey(output)) {
+            exit("Line " + number + ": Error: The job for '"
+                + building.getName() + "' writes to the same files as the "
+                + outputs.get(output) + ".", 2);
+          }
+          outputs.put(output, "job of " + name);
+          OMSimulationEngine engine = new OMSimulationEngine(building,
+              jobOmbFile, omsFile);
+          arguments.configure(engine);
+          if (arguments.getThreads() == 0) {
+            engine.setThreads(threads);
+          }
+          engine.setLogOutput(false);
+          scheduler.addJob(new OMBatchJob(name, engine, arguments
+              .getMemory()));
+        }
+      }
+    } finally {
+      reader.close();
+    }
+  }
+
+  /**
+   * Writes a message to the log file of the batch if it is open.
+   * 
+   * @param message
+   *          The message.
+   */
+  private static void log(String message) {
+    try {
+      if (OMHelper.isLogOutputEnabled()) {
+        OMHelper.writeLog(message);
+      }
+    } catch (IOException e) {
+      e.printStackTrace();
+    }
+  }
+
+  /**
+   * Prints an error message and the usage and exits.
+   * 
+   * @param message
+   *          The error message.
+   * @param code
+   *          The exit status.
+   */
+  private static void exit(String message, int code) {
+    System.err.println(message);
+    System.err.println(usage);
+    System.exit(code);
+  }
+}
@@ -0,0 +1,191 @@
+/*
+ * OM Simulation Tool: This tool intends to test and evaluate the scientific
+ * robustness of the protocol `6+1`. Therefore, it generates a huge amount of
+ * virtual measurement campaigns based on real radon concentration data
+ * following the mentioned protocol. <http://github.com/donschoe/omsimulation>
+ * 
+ * Copyright (C) 2012 Alexander Schoedon <a.schoedon@student.htw-berlin.de>
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.bfs.radon.omsimulation;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.db4o.ext.DatabaseFileLockedException;
+
+import de.bfs.radon.omsimulation.data.OMBuilding;
+import de.bfs.radon.omsimulation.data.OMHelper;
+import de.bfs.radon.omsimulation.data.OMRepository;
+import de.bfs.radon.omsimulation.engine.OMProgressSample;
+import de.bfs.radon.omsimulation.engine.OMSimulationEngine;
+import de.bfs.radon.omsimulation.engine.OMSimulationListener;
+
+/**
+ * Public class OMHeadless, the command line entry point of this software. Runs
+ * systematic or random simulations for a building stored in an OMB file
+ * without loading any graphical interface. This is used to run large
+ * simulations on machines without a display.
+ * 
+ * Usage: OMHeadless -omb FILE [-building NAME] [-systematic | -random N]
+ * [-ratio R3:R4:R5:R6] [-precision P] [-noise N] [-oms FILE] [-threads N]
+ * [-compression N] [-seed N] [-nocsv] [-queue N] [-resume] [-checkpoint N]
+ * [-loglevel LEVEL]
+ * 
+ * With -precision, a random simulation stops as soon as the percentiles of
+ * all metrics are known with a relative error of at most P percent, at the
+ * latest after N campaigns.
+ * 
+ * @author A. Schoedon
+ */
+public abstract class OMHeadless {
+
+  /**
+   * Stores the usage message printed on invalid arguments.
+   */
+  private static final String usage = "Usage: OMHeadless -omb FILE "
+                                        + "[-building NAME] "
+                                        + "[-systematic | -random N] "
+                                        + "[-ratio R3:R4:R5:R6] "
+                                        + "[-precision P] [-noise N] "
+                                        + "[-oms FILE] [-threads N] "
+                                        + "[-compression N] [-seed N] "
+                                        + "[-nocsv] [-queue N] [-resume] "
+                                        + "[-checkpoint N] "
+                                        + "[-loglevel LEVEL]";
+
+  /**
+   * Launches a simulation using the command line arguments. Exits with status
+   * 0 if the simulation finished successfully, 1 if it failed and 2 on invalid
+   * arguments.
+   * 
+   * @param args
+   *          The command line arguments, see usage.
+   */
+  public static void main(String[] args) {
+    OMArguments arguments = null;
+    try {
+      arguments = OMArguments.parse(args, false);
+    } catch (IllegalArgumentException e) {
+      exit(e.getMessage(), 2);
+    }
+    String ombFile = arguments.getOmbFile();
+    String buildingName = arguments.getBuildingName();
+    String omsFile = arguments.getOmsFile();
+    if (!arguments.isSystematic() && omsFile == null) {
+      omsFile = OMArguments.getDefaultOmsFile(ombFile, null);
+    }
+    OMHelper.setLogLevel(arguments.getLogLevel());
+    OMBuilding building = null;
+    try {
+      building = loadBuilding(ombFile, buildingName);
+    } catch (IOException ioe) {
+      System.err.println("Error: " + ioe.getMessage());
+      System.exit(1);
+    }
+    if (building == null) {
+      exit("Error: No building '" + buildingName + "' found in '" + ombFile
+          + "'.", 2);
+    }
+    OMSimulationEngine engine = new OMSimulationEngine(building, ombFile,
+        omsFile);
+    arguments.configure(engine);
+    engine.setListener(new OMSimulationListener() {
+      public void update(String message, int status) {
+        System.out.println("[" + status + "%] " + message);
+      }
+
+      public void indeterminate(boolean indeterminate) {
+      }
+
+      public void progress(OMProgressSample sample) {
+        System.out.println("[" + sample.getPercent() + "%] " + sample);
+      }
+    });
+    int status = 0;
+    try {
+      status = engine.run();
+    } catch (IOException ioe) {
+      System.err.println("Error: " + ioe.getMessage());
+      System.err.println("Error: Completely Failed.");
+      ioe.printStackTrace();
+    }
+    System.exit(status == 100 ? 0 : 1);
+  }
+
+  /**
+   * Loads a building from an OMB file. If no name is given and the file
+   * contains exactly one building, this one is used.
+   * 
+   * @param ombFile
+   *          The absolute path to the OMB object.
+   * @param name
+   *          The name of the building or null.
+   * @return The building or null if none was found.
+   * @throws IOException
+   *           If the OMB file is locked by another program.
+   */
+  static OMBuilding loadBuilding(String ombFile, String name)
+      throws IOException {
+    OMBuilding building = null;
+    for (OMBuilding found : loadBuildings(ombFile)) {
+      if (name == null) {
+        if (building != null) {
+          System.err.println("Error: '" + ombFile
+              + "' contains more than one building, use -building NAME.");
+          return null;
+        }
+        building = found;
+      } else if (name.equals(found.getName())) {
+        building = found;
+        break;
+      }
+    }
+    return building;
+  }
+
+  /**
+   * Loads all buildings from an OMB file.
+   * 
+   * @param ombFile
+   *          The absolute path to the OMB object.
+   * @return The buildings of the OMB file.
+   * @throws IOException
+   *           If the OMB file is locked by another program.
+   */
+  static List<OMBuilding> loadBuildings(String ombFile) throws IOException {
+    try {
+      return new ArrayList<OMBuilding>(OMRepository.getBuildings(ombFile));
+    } catch (DatabaseFileLockedException e) {
+      throw new IOException("'" + ombFile + "' is in use by another program.");
+    }
+  }
+
+  /**
+   * Prints an error message and the usage and exits.
+   * 
+   * @param message
+   *          The error message.
+   * @param code
+   *          The exit status.
+   */
+  private static void exit(String message, int code) {
+    System.err.println(message);
+    System.err.println(usage);
+    System.exit(code);
+  }
+}
@@ -24,11 +24,14 @@ package de.bfs.radon.omsimulation;
 
 import java.awt.EventQueue;
 import java.awt.Font;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 
 import javax.swing.JFrame;
 import javax.swing.JOptionPane;
 import javax.swing.JTabbedPane;
 
+import de.bfs.radon.omsimulation.data.OMRepository;
 import de.bfs.radon.omsimulation.gui.OMPanelAbout;
 import de.bfs.radon.omsimulation.gui.OMPanelData;
 import de.bfs.radon.omsimulation.gui.OMPanelImport;
@@ -120,13 +123,20 @@ public class OMMainFrame extends JFrame {
   /**
    * Creates the main frame of the OM-Simulation tool, sets size and adds tabs
    * and panels. To find out more about the content of the tabs, see the
-   * documentation of the single panels.
+   * documentation of the single panels. All OMB and OMS files opened by the
+   * panels are released when the frame is closed.
    */
   public OMMainFrame() {
     setTitle("OM Simulation Tool " + getVersion());
     setResizable(false);
     setBounds(100, 100, 800, 600);
     setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+    addWindowListener(new WindowAdapter() {
+      @Override
+      public void windowClosing(WindowEvent e) {
+        OMRepository.releaseAll();
+      }
+    });
     getContentPane().setLayout(null);
     tabbedPane = new JTabbedPane(JTabbedPane.TOP);
     tabbedPane.setBounds(10, 11, 772, 551);
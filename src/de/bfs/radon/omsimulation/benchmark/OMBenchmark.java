@@ -0,0 +1,97 @@
+/*
+ * OM Simulation Tool: This tool intends to test and evaluate the scientific
+ * robustness of the protocol `6+1`. Therefore, it generates a huge amount of
+ * virtual measurement campaigns based on real radon concentration data
+ * following the mentioned protocol. <http://github.com/donschoe/omsimulation>
+ * 
+ * Copyright (C) 2012 Alexander Schoedon <a.schoedon@student.htw-berlin.de>
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package de.bfs.radon.omsimulation.benchmark;
+
+/**
+ * Public abstract class OMBenchmark, a single benchmark measured by the
+ * benchmark runner. The runner calls setUp() once, then run() as often as
+ * possible during the warm up and the measurement iterations and finally
+ * tearDown(). The value returned by run() is consumed by the runner, so the
+ * just-in-time compiler can not remove the measured work.
+ * 
+ * @author A. Schoedon
+ */
+public abstract class OMBenchmark {
+
+  /**
+   * Stores the unique name of the benchmark, e.g. "helper.am".
+   */
+  private final String name;
+
+  /**
+   * Constructor for a benchmark.
+   * 
+   * @param name
+   *          The unique name of the benchmark, e.g. "helper.am".
+   */
+  protected OMBenchmark(String name) {
+    super();
+    this.name = name;
+  }
+
+  /**
+   * Gets the unique name of the benchmark.
+   * 
+   * @return The unique name of the benchmark.
+   */
+  public String getName() {
+    return this.name;
+  }
+
+  /**
+   * Prepares the data used by the benchmark. Not measured.
+   * 
+   * @throws Exception
+   *           If preparing the data fails.
+   */
+  public void setUp() throws Exception {
+  }
+
+  /**
+   * Runs a single operation of the benchmark. This is measured.
+   * 
+   * @return A value depending on the result of the operation.
+   * @throws Exception
+   *           If the operation fails.
+   */
+  public abstract double run() throws Exception;
+
+  /**
+   * Releases the data used by the benchmark, e.g. temporary files. Not
+   * measured.
+   * 
+   * @throws Exception
+   *           If releasing the data fails.
+   */
+  public void tearDown() throws Exception {
+  }
+
+  /**
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    return this.name;
+  }
+}
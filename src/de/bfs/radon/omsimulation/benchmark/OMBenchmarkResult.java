@@ -0,0 +1,157 @@
+/*
+ * OM Simulation Tool: This tool intends to test and evaluate the scientific
+ * robustness of the protocol `6+1`. Therefore, it generates a huge amount of
+ * virtual measurement campaigns based on real radon concentration data
+ * following the mentioned protocol. <http://github.com/donschoe/omsimulation>
+ * 
+ * Copyright (C) 2012 Alexander Schoedon <a.schoedon@student.htw-berlin.de>
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package de.bfs.radon.omsimulation.benchmark;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * Public class OMBenchmarkResult, the measured time of a single benchmark.
+ * Results are stored as lines of a baseline file, so later runs can be
+ * compared to them: "NAME;NS_PER_OP;ERROR".
+ * 
+ * @author A. Schoedon
+ */
+public class OMBenchmarkResult {
+
+  /**
+   * Stores the name of the benchmark.
+   */
+  private final String name;
+
+  /**
+   * Stores the mean time of an operation. The unit is [ns].
+   */
+  private final double time;
+
+  /**
+   * Stores the standard deviation of the time of an operation between the
+   * measurement iterations. The unit is [ns].
+   */
+  private final double error;
+
+  /**
+   * Constructor for a benchmark result.
+   * 
+   * @param name
+   *          The name of the benchmark.
+   * @param time
+   *          The mean time of an operation. The unit is [ns].
+   * @param error
+   *          The standard deviation of the time of an operation between the
+   *          measurement iterations. The unit is [ns].
+   */
+  public OMBenchmarkResult(String name, double time, double error) {
+    super();
+    this.name = name;
+    this.time = time;
+    this.error = error;
+  }
+
+  /**
+   * Gets the name of the benchmark.
+   * 
+   * @return The name of the benchmark.
+   */
+  public String getName() {
+    return this.name;
+  }
+
+  /**
+   * Gets the mean time of an operation. The unit is [ns].
+   * 
+   * @return The mean time of an operation.
+   */
+  public double getTime() {
+    return this.time;
+  }
+
+  /**
+   * Gets the standard deviation of the time of an operation between the
+   * measurement iterations. The unit is [ns].
+   * 
+   * @return The standard deviation of the time of an operation.
+   */
+  public double getError() {
+    return this.error;
+  }
+
+  /**
+   * Indicates whether this result is a regression compared to a baseline. A
+   * result is a regression if it is slower than the baseline by more than
+   * the tolerance plus the errors of both results.
+   * 
+   * @param baseline
+   *          The result of the baseline.
+   * @param tolerance
+   *          The tolerated slow down. The unit is [%].
+   * @return True if this result is a regression.
+   */
+  public boolean isRegression(OMBenchmarkResult baseline, double tolerance) {
+    double limit = baseline.getTime() * (1.0 + tolerance / 100.0)
+        + baseline.getError() + this.error;
+    return this.time > limit;
+  }
+
+  /**
+   * Parses a line of a baseline file.
+   * 
+   * @param line
+   *          The line, "NAME;NS_PER_OP;ERROR".
+   * @return The benchmark result.
+   * @throws NumberFormatException
+   *           If the line is malformed.
+   */
+  public static OMBenchmarkResult parse(String line) {
+    String[] tmpValues = line.split("\\;");
+    if (tmpValues.length != 3) {
+      throw new NumberFormatException("Malformed baseline line: " + line);
+    }
+    return new OMBenchmarkResult(tmpValues[0],
+        Double.parseDouble(tmpValues[1]), Double.parseDouble(tmpValues[2]));
+  }
+
+  /**
+   * Formats the result as a line of a baseline file.
+   * 
+   * @return The line, "NAME;NS_PER_OP;ERROR".
+   */
+  public String toLine() {
+    DecimalFormat decFormat = new DecimalFormat("0.#",
+        new DecimalFormatSymbols(Locale.ENGLISH));
+    return this.name + ";" + decFormat.format(this.time) + ";"
+        + decFormat.format(this.error);
+  }
+
+  /**
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    DecimalFormat decFormat = new DecimalFormat("#,##0.0");
+    return this.name + ": " + decFormat.format(this.time) + " ns/op (+/- "
+        + decFormat.format(this.error) + ")";
+  }
+}
@@ -0,0 +1,304 @@
+/*
+ * OM Simulation Tool: This tool intends to test and evaluate the scientific
+ * robustness of the protocol `6+1`. Therefore, it generates a huge amount of
+ * virtual measurement campaigns based on real radon concentration data
+ * following the mentioned protocol. <http://github.com/donschoe/omsimulation>
+ * 
+ * Copyright (C) 2012 Alexander Schoedon <a.schoedon@student.htw-berlin.de>
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package de.bfs.radon.omsimulation.benchmark;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.bfs.radon.omsimulation.data.OMHelper;
+import de.bfs.radon.omsimulation.data.OMLogLevel;
+
+/**
+ * Public class OMBenchmarkRunner, the command line entry point of the
+ * benchmarks. Runs each benchmark for a number of warm up iterations followed
+ * by a number of measurement iterations of a fixed time and reports the mean
+ * time of an operation. The results can be saved as a baseline and compared
+ * to a baseline saved before, so regressions of the hot paths are visible.
+ * Baselines only compare well on the same machine and Java version.
+ * 
+ * Usage: OMBenchmarkRunner [-filter PREFIX] [-warmup N] [-iterations N]
+ * [-time MS] [-baseline FILE] [-tolerance P] [-save FILE]
+ * 
+ * Exits with status 1 if any benchmark is slower than its baseline by more
+ * than the tolerance plus the errors.
+ * 
+ * @author A. Schoedon
+ */
+public abstract class OMBenchmarkRunner {
+
+  /**
+   * Stores the usage message printed on invalid arguments.
+   */
+  private static final String usage = "Usage: OMBenchmarkRunner "
+                                        + "[-filter PREFIX] [-warmup N] "
+                                        + "[-iterations N] [-time MS] "
+                                        + "[-baseline FILE] [-tolerance P] "
+                                        + "[-save FILE]";
+
+  /**
+   * Consumes the values returned by the benchmarks, so the just-in-time
+   * compiler can not remove the measured work.
+   */
+  private static volatile double sink;
+
+  /**
+   * Runs the benchmarks using the command line arguments.
+   * 
+   * @param args
+   *          The command line arguments, see usage.
+   */
+  public static void main(String[] args) {
+    String filter = "";
+    int warmup = 3;
+    int iterations = 5;
+    long time = 1000;
+    String baselineFile = null;
+    double tolerance = 10;
+    String saveFile = null;
+    try {
+      for (int i = 0; i < args.length; i++) {
+        String arg = args[i];
+        if (arg.equals("-filter")) {
+          filter = args[++i];
+        } else if (arg.equals("-warmup")) {
+          warmup = Integer.parseInt(args[++i]);
+        } else if (arg.equals("-iterations")) {
+          iterations = Integer.parseInt(args[++i]);
+        } else if (arg.equals("-time")) {
+          time = Long.parseLong(args[++i]);
+        } else if (arg.equals("-baseline")) {
+          baselineFile = args[++i];
+        } else if (arg.equals("-tolerance")) {
+          tolerance = Double.parseDouble(args[++i]);
+        } else if (arg.equals("-save")) {
+          saveFile = args[++i];
+        } else {
+          exit("Error: Unknown argument '" + arg + "'.", 2);
+        }
+      }
+    } catch (ArrayIndexOutOfBoundsException e) {
+      exit("Error: Missing value for the last argument.", 2);
+    } catch (NumberFormatException e) {
+      exit("Error: " + e.getMessage(), 2);
+    }
+    if (warmup < 0 || iterations < 2 || time < 1 || tolerance < 0) {
+      exit("Error: Use at least 0 warm up iterations, 2 iterations, 1 ms "
+          + "per iteration and a tolerance of at least 0.", 2);
+    }
+    Map<String, OMBenchmarkResult> baseline = null;
+    if (baselineFile != null) {
+      try {
+        baseline = readResults(baselineFile);
+      } catch (IOException ioe) {
+        exit("Error: Failed to read the baseline. " + ioe.getMessage(), 2);
+      } catch (NumberFormatException nfe) {
+        exit("Error: " + nfe.getMessage(), 2);
+      }
+    }
+    OMHelper.setLogLevel(OMLogLevel.Error);
+    DecimalFormat decFormat = new DecimalFormat("0.00");
+    List<OMBenchmarkResult> results = new ArrayList<OMBenchmarkResult>();
+    int regressions = 0;
+    for (OMBenchmark benchmark : OMBenchmarks.createAll()) {
+      if (!benchmark.getName().startsWith(filter)) {
+        continue;
+      }
+      OMBenchmarkResult result;
+      try {
+        result = measure(benchmark, warmup, iterations, time);
+      } catch (Exception e) {
+        System.err.println("Error: Benchmark " + benchmark + " failed. "
+            + e.getMessage());
+        e.printStackTrace();
+        regressions++;
+        continue;
+      }
+      results.add(result);
+      String comparison = "";
+      if (baseline != null && baseline.containsKey(result.getName())) {
+        OMBenchmarkResult reference = baseline.get(result.getName());
+        comparison = " x" + decFormat.format(result.getTime()
+            / reference.getTime()) + " of baseline";
+        if (result.isRegression(reference, tolerance)) {
+          comparison = comparison + ", REGRESSION";
+          regressions++;
+        }
+      }
+      System.out.println(result + comparison);
+    }
+    if (saveFile != null) {
+      try {
+        writeResults(saveFile, results);
+        System.out.println("Saved " + results.size() + " results to '"
+            + saveFile + "'.");
+      } catch (IOException ioe) {
+        exit("Error: Failed to save the results. " + ioe.getMessage(), 2);
+      }
+    }
+    if (regressions > 0) {
+      System.out.println(regressions + " benchmark(s) regressed or failed.");
+    }
+    System.exit(regressions == 0 ? 0 : 1);
+  }
+
+  /**
+   * Measures a benchmark. Each iteration runs as many operations as possible
+   * during the given time, the time of an operation is the mean of the
+   * measurement iterations.
+   * 
+   * @param benchmark
+   *          The benchmark.
+   * @param warmup
+   *          The number of warm up iterations, which are not measured.
+   * @param iterations
+   *          The number of measurement iterations.
+   * @param time
+   *          The time of each iteration. The unit is [ms].
+   * @return The result of the benchmark.
+   * @throws Exception
+   *           If the benchmark fails.
+   */
+  public static OMBenchmarkResult measure(OMBenchmark benchmark, int warmup,
+      int iterations, long time) throws Exception {
+    double[] times = new double[iterations];
+    benchmark.setUp();
+    try {
+      double checksum = 0;
+      for (int i = 0; i < warmup + iterations; i++) {
+        long operations = 0;
+        long start = System.nanoTime();
+        long end = start + time * 1000000L;
+        long now;
+        do {
+          checksum = checksum + benchmark.run();
+          operations++;
+          now = System.nanoTime();
+        } while (now < end);
+        if (i >= warmup) {
+          times[i - warmup] = (double) (now - start) / operations;
+        }
+      }
+      sink = checksum;
+    } finally {
+      benchmark.tearDown();
+    }
+    double mean = 0;
+    for (int i = 0; i < iterations; i++) {
+      mean = mean + times[i];
+    }
+    mean = mean / iterations;
+    double variance = 0;
+    for (int i = 0; i < iterations; i++) {
+      variance = variance + (times[i] - mean) * (times[i] - mean);
+    }
+    variance = variance / (iterations - 1);
+    return new OMBenchmarkResult(benchmark.getName(), mean,
+        Math.sqrt(variance));
+  }
+
+  /**
+   * Reads benchmark results from a baseline file. Empty lines and lines
+   * starting with # are ignored.
+   * 
+   * @param path
+   *          The absolute path to the baseline file.
+   * @return The results by the names of their benchmarks.
+   * @throws IOException
+   *           If reading the file fails.
+   */
+  public static Map<String, OMBenchmarkResult> readResults(String path)
+      throws IOException {
+    Map<String, OMBenchmarkResult> results;
+    results = new LinkedHashMap<String, OMBenchmarkResult>();
+    BufferedReader reader = new BufferedReader(new FileReader(path));
+    try {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        line = line.trim();
+        if (line.length() > 0 && !line.startsWith("#")) {
+          OMBenchmarkResult result = OMBenchmarkResult.parse(line);
+          results.put(result.getName(), result);
+        }
+      }
+    } finally {
+      reader.close();
+    }
+    return results;
+  }
+
+  /**
+   * Writes benchmark results to a baseline file, headed by the Java version
+   * and the machine they were measured on.
+   * 
+   * @param path
+   *          The absolute path to the baseline file.
+   * @param results
+   *          The results.
+   * @throws IOException
+   *           If writing the file fails.
+   */
+  public static void writeResults(String path, List<OMBenchmarkResult> results)
+      throws IOException {
+    BufferedWriter output = new BufferedWriter(new FileWriter(new File(path)));
+    try {
+      output.write("# OM Simulation benchmark baseline, Java "
+          + System.getProperty("java.version") + ", "
+          + System.getProperty("os.name") + " "
+          + System.getProperty("os.arch") + ", "
+          + Runtime.getRuntime().availableProcessors() + " processors");
+      output.newLine();
+      output.write("# BENCHMARK;NS_PER_OP;ERROR");
+      output.newLine();
+      for (OMBenchmarkResult result : results) {
+        output.write(result.toLine());
+        output.newLine();
+      }
+    } finally {
+      output.close();
+    }
+  }
+
+  /**
+   * Prints an error message and the usage and exits.
+   * 
+   * @param message
+   *          The error message.
+   * @param code
+   *          The exit status.
+   */
+  private static void exit(String message, int code) {
+    System.err.println(message);
+    System.err.println(usage);
+    System.exit(code);
+  }
+}
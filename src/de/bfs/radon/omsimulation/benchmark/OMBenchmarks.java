@@ -0,0 +1,610 @@
+/*
+ * OM Simulation Tool: This tool intends to test and evaluate the scientific
+ * robustness of the protocol `6+1`. Therefore, it generates a huge amount of
+ * virtual measurement campaigns based on real radon concentration data
+ * following the mentioned protocol. <http://github.com/donschoe/omsimulation>
+ * 
+ * Copyright (C) 2012 Alexander Schoedon <a.schoedon@student.htw-berlin.de>
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package de.bfs.radon.omsimulation.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+import org.apache.commons.math.stat.descriptive.DescriptiveStatistics;
+
+import de.bfs.radon.omsimulation.data.OMBuilding;
+import de.bfs.radon.omsimulation.data.OMCampaign;
+import de.bfs.radon.omsimulation.data.OMCampaignIndex;
+import de.bfs.radon.omsimulation.data.OMDistribution;
+import de.bfs.radon.omsimulation.data.OMHelper;
+import de.bfs.radon.omsimulation.data.OMRepository;
+import de.bfs.radon.omsimulation.data.OMRoom;
+import de.bfs.radon.omsimulation.data.OMSimulation;
+import de.bfs.radon.omsimulation.data.OMVariationSpace;
+import de.bfs.radon.omsimulation.engine.OMImportEngine;
+import de.bfs.radon.omsimulation.engine.OMQuantileSketch;
+import de.bfs.radon.omsimulation.engine.OMSimulationStore;
+
+/**
+ * Public abstract class OMBenchmarks, defining the benchmarks of the hot paths
+ * of the simulation. All benchmarks use synthetic buildings with log-normal
+ * radon concentrations drawn from a fixed seed, so every run measures the
+ * same work. Can not be instantiated.
+ * 
+ * @author A. Schoedon
+ */
+public abstract class OMBenchmarks {
+
+  /**
+   * The number of hourly values of the synthetic buildings, six weeks.
+   */
+  public static final int VALUES    = 1008;
+
+  /**
+   * The number of campaigns of the synthetic simulation stored to and loaded
+   * from an OMS file.
+   */
+  public static final int CAMPAIGNS = 10000;
+
+  /**
+   * The number of values of the distributions used to compute percentiles.
+   */
+  public static final int SAMPLES   = 100000;
+
+  /**
+   * Creates all benchmarks in the order they are run.
+   * 
+   * @return All benchmarks.
+   */
+  public static List<OMBenchmark> createAll() {
+    List<OMBenchmark> benchmarks = new ArrayList<OMBenchmark>();
+    benchmarks.add(createCampaignBenchmark("campaign.create", 0));
+    benchmarks.add(createCampaignBenchmark("campaign.noise", 5));
+    benchmarks.add(createAttributesBenchmark());
+    benchmarks.addAll(createHelperBenchmarks());
+    for (int roomCount = 3; roomCount <= 8; roomCount++) {
+      benchmarks.add(createVariationBenchmark(roomCount));
+    }
+    benchmarks.add(createImportBenchmark());
+    benchmarks.addAll(createPercentileBenchmarks());
+    benchmarks.addAll(createLookupBenchmarks());
+    benchmarks.addAll(createStorageBenchmarks());
+    return benchmarks;
+  }
+
+  /**
+   * Creates a synthetic building with normal rooms "R1" to "Rn" and one cellar
+   * "C1". The values are log-normal distributed around a median differing per
+   * room.
+   * 
+   * @param name
+   *          The name of the building.
+   * @param roomCount
+   *          The number of normal rooms.
+   * @param seed
+   *          The seed of the random values.
+   * @return The synthetic building.
+   * @throws IOException
+   *           If creating the building fails.
+   */
+  public static OMBuilding createBuilding(String name, int roomCount,
+      long seed) throws IOException {
+    Random random = new Random(seed);
+    OMRoom[] rooms = new OMRoom[roomCount];
+    for (int i = 0; i < roomCount; i++) {
+      rooms[i] = new OMRoom("R" + (i + 1), createValues(random,
+          100 + 50 * i));
+    }
+    OMRoom[] cellars = { new OMRoom("C1", createValues(random, 1000)) };
+    return new OMBuilding(name, new Date(0), roomCount + 1, VALUES, rooms,
+        cellars, new OMRoom[0]);
+  }
+
+  /**
+   * Creates log-normal distributed hourly radon concentrations, rounded to
+   * integers like measured values and at least 5 Bq/m\0x00B3.
+   * 
+   * @param random
+   *          The random generator.
+   * @param median
+   *          The median of the values.
+   * @return The values.
+   */
+  private static double[] createValues(Random random, double median) {
+    double[] values = new double[VALUES];
+    for (int i = 0; i < VALUES; i++) {
+      double value = median * Math.exp(0.8 * random.nextGaussian());
+      values[i] = Math.max(5, Math.rint(value));
+    }
+    return values;
+  }
+
+  /**
+   * Creates patterns of six different rooms out of seven spread over the
+   * whole variation space.
+   * 
+   * @param building
+   *          The building with at least six normal rooms.
+   * @param count
+   *          The number of patterns.
+   * @return The patterns.
+   */
+  private static OMRoom[][] createPatterns(OMBuilding building, int count) {
+    OMVariationSpace space = building.getVariationSpace(6);
+    OMRoom[][] patterns = new OMRoom[count][];
+    for (int i = 0; i < count; i++) {
+      patterns[i] = space.getPattern((space.getSize() * i) / count);
+    }
+    return patterns;
+  }
+
+  /**
+   * Creates the benchmark of the construction of campaigns, including the
+   * calculation of their attributes.
+   * 
+   * @param name
+   *          The name of the benchmark.
+   * @param randomNoise
+   *          The random noise that is added to the values. The unit is [%].
+   * @return The benchmark.
+   */
+  private static OMBenchmark createCampaignBenchmark(String name,
+      final int randomNoise) {
+    return new OMBenchmark(name) {
+      private OMRoom[][]       patterns;
+      private SplittableRandom generator;
+      private int              index;
+
+      @Override
+      public void setUp() throws Exception {
+        this.patterns = createPatterns(createBuilding("Campaigns", 7, 1),
+            1024);
+        this.generator = new SplittableRandom(1);
+      }
+
+      @Override
+      public double run() throws Exception {
+        int i = this.index++;
+        int start = i % (VALUES - 7 * 24 + 1);
+        OMCampaign campaign = new OMCampaign(start,
+            this.patterns[i & 1023], randomNoise, this.generator);
+        return campaign.getRoomAverage();
+      }
+    };
+  }
+
+  /**
+   * Creates the benchmark of the calculation of all attributes of an existing
+   * campaign.
+   * 
+   * @return The benchmark.
+   */
+  private static OMBenchmark createAttributesBenchmark() {
+    return new OMBenchmark("campaign.attributes") {
+      private OMCampaign campaign;
+
+      @Override
+      public void setUp() throws Exception {
+        OMRoom[][] patterns = createPatterns(createBuilding("Attributes", 7,
+            1), 1);
+        this.campaign = new OMCampaign(0, patterns[0], 0);
+      }
+
+      @Override
+      public double run() throws Exception {
+        this.campaign.calculateAttributes();
+        return this.campaign.getRoomAverage();
+      }
+    };
+  }
+
+  /**
+   * Creates the benchmarks of the statistical helpers, using the 168 values
+   * of a campaign.
+   * 
+   * @return The benchmarks.
+   */
+  private static List<OMBenchmark> createHelperBenchmarks() {
+    Random random = new Random(2);
+    final double[] values = createValues(random, 300);
+    final double[] chain = new double[7 * 24];
+    System.arraycopy(values, 0, chain, 0, chain.length);
+    final double am = OMHelper.calculateAM(chain);
+    final double gm = OMHelper.calculateGM(chain);
+    List<OMBenchmark> benchmarks = new ArrayList<OMBenchmark>();
+    benchmarks.add(new OMBenchmark("helper.am") {
+      @Override
+      public double run() {
+        return OMHelper.calculateAM(chain);
+      }
+    });
+    benchmarks.add(new OMBenchmark("helper.sd") {
+      @Override
+      public double run() {
+        return OMHelper.calculateSD(chain, am);
+      }
+    });
+    benchmarks.add(new OMBenchmark("helper.gm") {
+      @Override
+      public double run() {
+        return OMHelper.calculateGM(chain);
+      }
+    });
+    benchmarks.add(new OMBenchmark("helper.gsd") {
+      @Override
+      public double run() {
+        return OMHelper.calculateGSD(chain, gm);
+      }
+    });
+    return benchmarks;
+  }
+
+  /**
+   * Creates the benchmark of the generation of variation patterns for a
+   * building with a number of normal rooms. An operation creates the
+   * variation space of up to six different rooms and generates its first
+   * 1000 patterns.
+   * 
+   * @param roomCount
+   *          The number of normal rooms of the building, 3 to 8.
+   * @return The benchmark.
+   */
+  private static OMBenchmark createVariationBenchmark(final int roomCount) {
+    return new OMBenchmark("variations." + roomCount) {
+      private OMBuilding building;
+
+      @Override
+      public void setUp() throws Exception {
+        this.building = createBuilding("Variations", roomCount, 3);
+      }
+
+      @Override
+      public double run() {
+        OMVariationSpace space = this.building.getVariationSpace(Math.min(
+            roomCount, 6));
+        Iterator<OMRoom[]> patterns = space.iterator(0,
+            Math.min(space.getSize(), 1000));
+        double checksum = 0;
+        while (patterns.hasNext()) {
+          checksum = checksum + patterns.next()[0].getValues()[0];
+        }
+        return checksum;
+      }
+    };
+  }
+
+  /**
+   * Creates the benchmark of the import of a CSV file shaped like
+   * example.csv: an ID column, two cellars, seven normal rooms and two misc
+   * rooms, six weeks of hourly values. An operation runs the import engine used
+   * by the import panel: it reads the file, parses the values, creates the
+   * rooms and separates them into a building.
+   * 
+   * @return The benchmark.
+   */
+  private static OMBenchmark createImportBenchmark() {
+    return new OMBenchmark("import.csv") {
+      private File csvFile;
+
+      @Override
+      public void setUp() throws Exception {
+        String[] roomIds = { "C1", "C2", "R1", "R2", "R3", "R4", "R5", "R6",
+            "R7", "M1", "M2" };
+        Random random = new Random(4);
+        double[][] values = new double[roomIds.length][];
+        for (int i = 0; i < roomIds.length; i++) {
+          values[i] = createValues(random, 200 + 100 * i);
+        }
+        this.csvFile = File.createTempFile("omsimulation", ".csv");
+        BufferedWriter csvOutput = new BufferedWriter(new FileWriter(
+            this.csvFile));
+        try {
+          csvOutput.write("ID");
+          for (int i = 0; i < roomIds.length; i++) {
+            csvOutput.write(";" + roomIds[i]);
+          }
+          csvOutput.newLine();
+          for (int v = 0; v < VALUES; v++) {
+            csvOutput.write(Integer.toString(v));
+            for (int i = 0; i < roomIds.length; i++) {
+              csvOutput.write(";" + (int) values[i][v]);
+            }
+            csvOutput.newLine();
+          }
+        } finally {
+          csvOutput.close();
+        }
+      }
+
+      @Override
+      public double run() throws Exception {
+        OMImportEngine engine = new OMImportEngine();
+        OMBuilding building = engine.createBuilding(this.csvFile.getPath(),
+            "Import", new Date(0), 0.0);
+        return building.getValueCount();
+      }
+
+      @Override
+      public void tearDown() {
+        this.csvFile.delete();
+      }
+    };
+  }
+
+  /**
+   * Creates the benchmarks of the computation of the 5th, 50th and 95th
+   * percentile of a distribution, exactly, using a quantile sketch and using
+   * the compact distribution stored in the catalog of an OMS file.
+   * 
+   * @return The benchmarks.
+   */
+  private static List<OMBenchmark> createPercentileBenchmarks() {
+    Random random = new Random(5);
+    final DescriptiveStatistics statistics = new DescriptiveStatistics();
+    final OMQuantileSketch sketch = new OMQuantileSketch();
+    for (int i = 0; i < SAMPLES; i++) {
+      double value = 100 * Math.exp(0.8 * random.nextGaussian());
+      statistics.addValue(value);
+      sketch.addValue(value);
+    }
+    final OMDistribution distribution = new OMDistribution(
+        statistics.getSortedValues());
+    List<OMBenchmark> benchmarks = new ArrayList<OMBenchmark>();
+    benchmarks.add(new OMBenchmark("percentile.descriptive") {
+      @Override
+      public double run() {
+        return statistics.getPercentile(5) + statistics.getPercentile(50)
+            + statistics.getPercentile(95);
+      }
+    });
+    benchmarks.add(new OMBenchmark("percentile.sketch") {
+      @Override
+      public double run() {
+        return sketch.getPercentile(5) + sketch.getPercentile(50)
+            + sketch.getPercentile(95);
+      }
+    });
+    benchmarks.add(new OMBenchmark("percentile.distribution") {
+      @Override
+      public double run() {
+        int count = distribution.getCount();
+        return distribution.getValueAt(OMDistribution.getQ05Rank(count))
+            + distribution.getValueAt(OMDistribution.getQ50Rank(count))
+            + distribution.getValueAt(OMDistribution.getQ95Rank(count));
+      }
+    });
+    return benchmarks;
+  }
+
+  /**
+   * Creates the benchmarks of finding the campaign of a value of a metric as
+   * done when clicking a distribution chart, scanning all campaigns and using
+   * the campaign index of the metric.
+   * 
+   * @return The benchmarks.
+   */
+  private static List<OMBenchmark> createLookupBenchmarks() {
+    Random random = new Random(7);
+    final float[] values = new float[SAMPLES];
+    for (int i = 0; i < SAMPLES; i++) {
+      values[i] = (float) (100 * Math.exp(0.8 * random.nextGaussian()));
+    }
+    final float value = values[SAMPLES / 3];
+    final OMCampaignIndex index = new OMCampaignIndex(values);
+    List<OMBenchmark> benchmarks = new ArrayList<OMBenchmark>();
+    benchmarks.add(new OMBenchmark("lookup.scan") {
+      @Override
+      public double run() {
+        int found = -1;
+        for (int i = 0; i < values.length; i++) {
+          if (values[i] == value) {
+            found = i;
+          }
+        }
+        return found;
+      }
+    });
+    benchmarks.add(new OMBenchmark("lookup.index") {
+      @Override
+      public double run() {
+        return index.findNearest(value);
+      }
+    });
+    return benchmarks;
+  }
+
+  /**
+   * Creates the campaigns of a synthetic random simulation of CAMPAIGNS
+   * campaigns with six different rooms.
+   * 
+   * @param building
+   *          The building of the simulation.
+   * @param indices
+   *          The array receiving the pattern index of each campaign.
+   * @return The campaigns.
+   * @throws IOException
+   *           If creating the campaigns fails.
+   */
+  private static OMCampaign[] createCampaigns(OMBuilding building,
+      long[] indices) throws IOException {
+    OMVariationSpace space = building.getVariationSpace(6);
+    OMCampaign[] campaigns = new OMCampaign[CAMPAIGNS];
+    SplittableRandom random = new SplittableRandom(6);
+    for (int i = 0; i < CAMPAIGNS; i++) {
+      indices[i] = random.nextLong(space.getSize());
+      campaigns[i] = new OMCampaign(random.nextInt(VALUES - 7 * 24 + 1),
+          space.getPattern(indices[i]), 0);
+    }
+    return campaigns;
+  }
+
+  /**
+   * Stores a synthetic random simulation to an OMS file, streaming the
+   * campaigns through a simulation store.
+   * 
+   * @param omsFile
+   *          The absolute path to the OMS file.
+   * @param building
+   *          The building of the simulation.
+   * @param campaigns
+   *          The campaigns of the simulation.
+   * @param indices
+   *          The pattern index of each campaign.
+   * @return The sealed simulation.
+   * @throws IOException
+   *           If the OMS file is locked by another program.
+   */
+  private static OMSimulation storeSimulation(String omsFile,
+      OMBuilding building, OMCampaign[] campaigns, long[] indices)
+      throws IOException {
+    DescriptiveStatistics[] stats = new DescriptiveStatistics[8];
+    for (int m = 0; m < stats.length; m++) {
+      stats[m] = new DescriptiveStatistics();
+    }
+    OMSimulation simulation = new OMSimulation(building.getName(), building,
+        0, stats[OMSimulation.ROOM_AM], stats[OMSimulation.CELLAR_AM],
+        stats[OMSimulation.ROOM_GM], stats[OMSimulation.CELLAR_GM],
+        stats[OMSimulation.ROOM_MED], stats[OMSimulation.CELLAR_MED],
+        stats[OMSimulation.ROOM_MAX], stats[OMSimulation.CELLAR_MAX]);
+    OMSimulationStore store = new OMSimulationStore(omsFile, simulation);
+    for (int i = 0; i < campaigns.length; i++) {
+      OMCampaign campaign = campaigns[i];
+      stats[OMSimulation.ROOM_AM].addValue(campaign.getRoomAverage());
+      stats[OMSimulation.ROOM_GM].addValue(campaign.getRoomLogAverage());
+      stats[OMSimulation.ROOM_MED].addValue(campaign.getRoomMedian());
+      stats[OMSimulation.ROOM_MAX].addValue(campaign.getRoomMaximum());
+      stats[OMSimulation.CELLAR_AM].addValue(campaign.getCellarAverage());
+      stats[OMSimulation.CELLAR_GM].addValue(campaign.getCellarLogAverage());
+      stats[OMSimulation.CELLAR_MED].addValue(campaign.getCellarMedian());
+      stats[OMSimulation.CELLAR_MAX].addValue(campaign.getCellarMaximum());
+      store.add(campaign, 6, indices[i], i);
+    }
+    store.seal();
+    return simulation;
+  }
+
+  /**
+   * Creates the benchmarks of storing a simulation to an OMS file, loading it
+   * again and listing it from the catalog of the OMS file. The loading
+   * benchmarks open and release the OMS file through the shared repository.
+   * 
+   * @return The benchmarks.
+   */
+  private static List<OMBenchmark> createStorageBenchmarks() {
+    List<OMBenchmark> benchmarks = new ArrayList<OMBenchmark>();
+    benchmarks.add(new OMBenchmark("db4o.store") {
+      private OMBuilding   building;
+      private OMCampaign[] campaigns;
+      private long[]       indices;
+      private File         omsFile;
+
+      @Override
+      public void setUp() throws Exception {
+        this.building = createBuilding("Storage", 7, 6);
+        this.indices = new long[CAMPAIGNS];
+        this.campaigns = createCampaigns(this.building, this.indices);
+        this.omsFile = File.createTempFile("omsimulation", ".oms");
+      }
+
+      @Override
+      public double run() throws Exception {
+        this.omsFile.delete();
+        storeSimulation(this.omsFile.getAbsolutePath(), this.building,
+            this.campaigns, this.indices);
+        return this.omsFile.length();
+      }
+
+      @Override
+      public void tearDown() {
+        this.omsFile.delete();
+      }
+    });
+    benchmarks.add(new OMBenchmark("db4o.load") {
+      private File omsFile;
+
+      @Override
+      public void setUp() throws Exception {
+        this.omsFile = File.createTempFile("omsimulation", ".oms");
+        this.omsFile.delete();
+        OMBuilding building = createBuilding("Storage", 7, 6);
+        long[] indices = new long[CAMPAIGNS];
+        storeSimulation(this.omsFile.getAbsolutePath(), building,
+            createCampaigns(building, indices), indices);
+      }
+
+      @Override
+      public double run() {
+        String path = this.omsFile.getAbsolutePath();
+        OMRepository.acquire(path);
+        try {
+          OMSimulation simulation = OMRepository.getCatalog(path).get(0)
+              .getSimulation();
+          return simulation.getMetric(simulation.getTotal() - 1,
+              OMSimulation.ROOM_AM);
+        } finally {
+          OMRepository.release(path);
+        }
+      }
+
+      @Override
+      public void tearDown() {
+        this.omsFile.delete();
+      }
+    });
+    benchmarks.add(new OMBenchmark("db4o.catalog") {
+      private File omsFile;
+
+      @Override
+      public void setUp() throws Exception {
+        this.omsFile = File.createTempFile("omsimulation", ".oms");
+        this.omsFile.delete();
+        OMBuilding building = createBuilding("Storage", 7, 6);
+        long[] indices = new long[CAMPAIGNS];
+        storeSimulation(this.omsFile.getAbsolutePath(), building,
+            createCampaigns(building, indices), indices);
+      }
+
+      @Override
+      public double run() {
+        String path = this.omsFile.getAbsolutePath();
+        OMRepository.acquire(path);
+        try {
+          return OMRepository.getCatalog(path).get(0)
+              .getMedian(OMSimulation.ROOM_AM);
+        } finally {
+          OMRepository.release(path);
+        }
+      }
+
+      @Override
+      public void tearDown() {
+        this.omsFile.delete();
+      }
+    });
+    return benchmarks;
+  }
+}
@@ -40,7 +40,7 @@ public class OMBuilding {
    * Stores a custom name for the object which is set by the user creating the
    * building.
    */
-  private String     name;
+  private String   name;
 
   /**
    * Stores a custom start date which is set by the user creating the building.
@@ -48,56 +48,32 @@ public class OMBuilding {
    * measurements or to identify the start date of the simulations. That's up to
    * the user and does not affect the simulations.
    */
-  private Date       start;
+  private Date     start;
 
   /**
    * Stores the total number of measurements for the building.
    */
-  private int        valueCount;
+  private int      valueCount;
 
   /**
    * Stores the total number of rooms for the building.
    */
-  private int        roomCount;
+  private int      roomCount;
 
   /**
    * Stores an array of all normal rooms of the building.
    */
-  private OMRoom[]   rooms;
+  private OMRoom[] rooms;
 
   /**
    * Stores an array of all cellar rooms of the building.
    */
-  private OMRoom[]   cellars;
+  private OMRoom[] cellars;
 
   /**
    * Stores an array of all misc rooms of the building.
    */
-  private OMRoom[]   miscs;
-
-  /**
-   * Stores an array of rooms-arrays representing all available variations using
-   * six rooms. If there are not enough rooms, this array will be empty.
-   */
-  private OMRoom[][] variationSchemeSix;
-
-  /**
-   * Stores an array of rooms-arrays representing all available variations using
-   * five rooms. If there are not enough rooms, this array will be empty.
-   */
-  private OMRoom[][] variationSchemeFive;
-
-  /**
-   * Stores an array of rooms-arrays representing all available variations using
-   * four rooms. If there are not enough rooms, this array will be empty.
-   */
-  private OMRoom[][] variationSchemeFour;
-
-  /**
-   * Stores an array of rooms-arrays representing all available variations using
-   * three rooms.
-   */
-  private OMRoom[][] variationSchemeThree;
+  private OMRoom[] miscs;
 
   /**
    * Gets a custom name for the object which was set by the user creating the
@@ -192,9 +168,8 @@ public class OMBuilding {
   }
 
   /**
-   * Sets an array of all normal rooms of the building. Triggers re-generation
-   * of all possible variations. Use with care as this can take a couple of
-   * minutes.
+   * Sets an array of all normal rooms of the building. Logs the number of all
+   * possible variations.
    * 
    * @param rooms
    *          An array of all normal rooms of the building.
@@ -203,7 +178,7 @@ public class OMBuilding {
    */
   public void setRooms(OMRoom[] rooms) throws IOException {
     this.rooms = rooms;
-    generateVariations();
+    logVariations();
   }
 
   /**
@@ -216,9 +191,8 @@ public class OMBuilding {
   }
 
   /**
-   * Sets an array of all cellar rooms of the building. Triggers re-generation
-   * of all possible variations. Use with care as this can take a couple of
-   * minutes.
+   * Sets an array of all cellar rooms of the building. Logs the number of all
+   * possible variations.
    * 
    * @param cellars
    *          An array of all cellar rooms of the building.
@@ -227,7 +201,7 @@ public class OMBuilding {
    */
   public void setCellars(OMRoom[] cellars) throws IOException {
     this.cellars = cellars;
-    generateVariations();
+    logVariations();
   }
 
   /**
@@ -250,95 +224,17 @@ public class OMBuilding {
   }
 
   /**
-   * Gets an array of rooms-arrays representing all available variations using
-   * six rooms. If there are not enough rooms, this array will be empty.
-   * 
-   * @return An array of rooms-arrays representing all available variations
-   *         using six rooms.
-   */
-  public OMRoom[][] getVariationSchemeSix() {
-    return this.variationSchemeSix;
-  }
-
-  /**
-   * Sets an array of rooms-arrays representing all available variations using
-   * six rooms. If there are not enough rooms, this array should be empty.
-   * 
-   * @param variationScheme
-   *          An array of rooms-arrays representing all available variations
-   *          using six rooms.
-   */
-  private void setVariationSchemeSix(OMRoom[][] variationScheme) {
-    this.variationSchemeSix = variationScheme;
-  }
-
-  /**
-   * Gets an array of rooms-arrays representing all available variations using
-   * five rooms. If there are not enough rooms, this array will be empty.
-   * 
-   * @return An array of rooms-arrays representing all available variations
-   *         using five rooms.
-   */
-  public OMRoom[][] getVariationSchemeFive() {
-    return this.variationSchemeFive;
-  }
-
-  /**
-   * Sets an array of rooms-arrays representing all available variations using
-   * five rooms. If there are not enough rooms, this array should be empty.
-   * 
-   * @param variationScheme
-   *          An array of rooms-arrays representing all available variations
-   *          using five rooms.
-   */
-  private void setVariationSchemeFive(OMRoom[][] variationScheme) {
-    this.variationSchemeFive = variationScheme;
-  }
-
-  /**
-   * Gets an array of rooms-arrays representing all available variations using
-   * four rooms. If there are not enough rooms, this array will be empty.
-   * 
-   * @return An array of rooms-arrays representing all available variations
-   *         using four rooms.
-   */
-  public OMRoom[][] getVariationSchemeFour() {
-    return this.variationSchemeFour;
-  }
-
-  /**
-   * Sets an array of rooms-arrays representing all available variations using
-   * four rooms. If there are not enough rooms, this array should be empty.
-   * 
-   * @param variationScheme
-   *          An array of rooms-arrays representing all available variations
-   *          using four rooms.
-   */
-  private void setVariationSchemeFour(OMRoom[][] variationScheme) {
-    this.variationSchemeFour = variationScheme;
-  }
-
-  /**
-   * Gets an array of rooms-arrays representing all available variations using
-   * three rooms.
-   * 
-   * @return An array of rooms-arrays representing all available variations
-   *         using three rooms.
-   */
-  public OMRoom[][] getVariationSchemeThree() {
-    return this.variationSchemeThree;
-  }
-
-  /**
-   * Sets an array of rooms-arrays representing all available variations using
-   * three rooms.
+   * Gets the space of all available variations using a fixed number of
+   * different rooms. The patterns are calculated on demand. If there are not
+   * enough rooms, the space will be empty.
    * 
-   * @param variationScheme
-   *          An array of rooms-arrays representing all available variations
-   *          using three rooms.
+   * @param differentRooms
+   *          The number of different normal rooms, three to six.
+   * @return The space of all available variations using the given number of
+   *         different rooms.
    */
-  private void setVariationSchemeThree(OMRoom[][] variationScheme) {
-    this.variationSchemeThree = variationScheme;
+  public OMVariationSpace getVariationSpace(int differentRooms) {
+    return new OMVariationSpace(this.rooms, this.cellars, differentRooms);
   }
 
   /**
@@ -355,15 +251,11 @@ public class OMBuilding {
     this.rooms = null;
     this.cellars = null;
     this.miscs = null;
-    this.variationSchemeThree = new OMRoom[0][0];
-    this.variationSchemeFour = new OMRoom[0][0];
-    this.variationSchemeFive = new OMRoom[0][0];
-    this.variationSchemeSix = new OMRoom[0][0];
   }
 
   /**
    * Constructor for creating building objects to store their rooms. Using this
-   * constructor will trigger the generation of all available variations.
+   * constructor will log the number of all available variations.
    * 
    * @param name
    *          A custom name for the object which is set by the user creating the
@@ -398,1495 +290,49 @@ public class OMBuilding {
     this.rooms = rooms;
     this.cellars = cellars;
     this.miscs = miscs;
-    this.variationSchemeThree = new OMRoom[0][0];
-    this.variationSchemeFour = new OMRoom[0][0];
-    this.variationSchemeFive = new OMRoom[0][0];
-    this.variationSchemeSix = new OMRoom[0][0];
-    generateVariations();
+    logVariations();
   }
 
   /**
-   * Method to generate all possible variations of any room and cellar, always
-   * following the protocol "6+1", using only one cellar at any position and
-   * three, four five or six normal rooms at any other possible position. Those
-   * "patterns" are used to generate campaigns later on. Read more about how
-   * these patterns are generated at the handbook.
+   * Method to log the number of all possible variations of any room and cellar,
+   * always following the protocol "6+1", using only one cellar at any position
+   * and three, four five or six normal rooms at any other possible position.
+   * Those "patterns" are used to generate campaigns later on. The patterns are
+   * not stored, they are calculated on demand by the variation spaces. Read
+   * more about how these patterns are generated at the handbook.
    * 
    * @throws IOException
    *           If creating log file or writing logs fails.
    */
-  private void generateVariations() throws IOException {
-    OMHelper.writeLog("Generating all possible variations.");
-    OMRoom[] rooms = this.rooms;
-    int roomCount = this.rooms.length;
-    int tmpArraySize = 1048576;
-    OMRoom[] tmpScheme[] = new OMRoom[0][0];
-    int i = 0;
-    int n = 0;
-    if (roomCount >= 3) {
-      OMHelper.writeLog("Generating variations: 3 out of " + roomCount
-          + " rooms.");
-      tmpArraySize = (OMHelper.calculateFactorial(roomCount) / OMHelper
-          .calculateFactorial(roomCount - 3));
-      OMHelper.writeLog("Creating " + tmpArraySize + " variations for "
-          + roomCount + " normal rooms:");
-      tmpScheme = new OMRoom[tmpArraySize][6];
-      i = 0;
-      n = 0;
-      for (int a = 0; a < roomCount; a++) {
-        for (int b = 0; b < roomCount; b++) {
-          for (int c = 0; c < roomCount; c++) {
-            if (i < tmpArraySize) {
-              tmpScheme[i][0] = rooms[a];
-              tmpScheme[i][1] = rooms[a];
-              if (rooms[a] != rooms[b]) {
-                tmpScheme[i][2] = rooms[b];
-                tmpScheme[i][3] = rooms[b];
-                if (rooms[a] != rooms[c] && rooms[b] != rooms[c]) {
-                  tmpScheme[i][4] = rooms[c];
-                  tmpScheme[i][5] = rooms[c];
-                  OMHelper.writeLog(rooms[a] + "" + rooms[b] + rooms[c]);
-                  i++;
-                }
-              }
-            }
-            n++;
-          }
-        }
-      }
-      OMHelper.writeLog("Created " + i + " variations of " + roomCount
-          + " rooms within " + n + " iterations.");
-      generateVariationsThree(tmpScheme, tmpArraySize);
-      if (roomCount >= 4) {
-        OMHelper.writeLog("Generating variations: 4 out of " + roomCount
-            + " rooms.");
-        tmpArraySize = (OMHelper.calculateFactorial(roomCount) / OMHelper
-            .calculateFactorial(roomCount - 4));
-        OMHelper.writeLog("Creating " + tmpArraySize + " variations for "
-            + roomCount + " normal rooms:");
-        tmpScheme = new OMRoom[tmpArraySize][4];
-        i = 0;
-        n = 0;
-        for (int a = 0; a < roomCount; a++) {
-          for (int b = 0; b < roomCount; b++) {
-            for (int c = 0; c < roomCount; c++) {
-              for (int d = 0; d < roomCount; d++) {
-                if (i < tmpArraySize) {
-                  tmpScheme[i][0] = rooms[a];
-                  if (rooms[a] != rooms[b]) {
-                    tmpScheme[i][1] = rooms[b];
-                    if (rooms[a] != rooms[c] && rooms[b] != rooms[c]) {
-                      tmpScheme[i][2] = rooms[c];
-                      if (rooms[a] != rooms[d] && rooms[b] != rooms[d]
-                          && rooms[c] != rooms[d]) {
-                        tmpScheme[i][3] = rooms[d];
-                        OMHelper.writeLog(rooms[a] + "" + rooms[b] + rooms[c]
-                            + rooms[d]);
-                        i++;
-                      }
-                    }
-                  }
-                }
-                n++;
-              }
-            }
-          }
-        }
-        OMHelper.writeLog("Created " + i + " variations of " + roomCount
-            + " rooms within " + n + " iterations.");
-        generateVariationsFour(tmpScheme, tmpArraySize);
-        if (roomCount >= 5) {
-          OMHelper.writeLog("Generating variations: 5 out of " + roomCount
-              + " rooms.");
-          tmpArraySize = (OMHelper.calculateFactorial(roomCount) / OMHelper
-              .calculateFactorial(roomCount - 5));
-          OMHelper.writeLog("Creating " + tmpArraySize + " variations for "
-              + roomCount + " normal rooms:");
-          tmpScheme = new OMRoom[tmpArraySize][5];
-          i = 0;
-          n = 0;
-          for (int a = 0; a < roomCount; a++) {
-            for (int b = 0; b < roomCount; b++) {
-              for (int c = 0; c < roomCount; c++) {
-                for (int d = 0; d < roomCount; d++) {
-                  for (int e = 0; e < roomCount; e++) {
-                    if (i < tmpArraySize) {
-                      tmpScheme[i][0] = rooms[a];
-                      if (rooms[a] != rooms[b]) {
-                        tmpScheme[i][1] = rooms[b];
-                        if (rooms[a] != rooms[c] && rooms[b] != rooms[c]) {
-                          tmpScheme[i][2] = rooms[c];
-                          if (rooms[a] != rooms[d] && rooms[b] != rooms[d]
-                              && rooms[c] != rooms[d]) {
-                            tmpScheme[i][3] = rooms[d];
-                            if (rooms[a] != rooms[e] && rooms[b] != rooms[e]
-                                && rooms[c] != rooms[e] && rooms[d] != rooms[e]) {
-                              tmpScheme[i][4] = rooms[e];
-                              OMHelper.writeLog(rooms[a] + "" + rooms[b]
-                                  + rooms[c] + rooms[d] + rooms[e]);
-                              i++;
-                            }
-                          }
-                        }
-                      }
-                    }
-                    n++;
-                  }
-                }
-              }
-            }
-          }
-          OMHelper.writeLog("Created " + i + " variations of " + roomCount
-              + " rooms within " + n + " iterations.");
-          generateVariationsFive(tmpScheme, tmpArraySize);
-          if (roomCount >= 6) {
-            OMHelper.writeLog("Generating variations: 6 out of " + roomCount
-                + " rooms.");
-            tmpArraySize = (OMHelper.calculateFactorial(roomCount) / OMHelper
-                .calculateFactorial(roomCount - 6));
-            OMHelper.writeLog("Creating " + tmpArraySize + " variations for "
-                + roomCount + " normal rooms:");
-            tmpScheme = new OMRoom[tmpArraySize][6];
-            i = 0;
-            n = 0;
-            for (int a = 0; a < roomCount; a++) {
-              for (int b = 0; b < roomCount; b++) {
-                for (int c = 0; c < roomCount; c++) {
-                  for (int d = 0; d < roomCount; d++) {
-                    for (int e = 0; e < roomCount; e++) {
-                      for (int f = 0; f < roomCount; f++) {
-                        if (i < tmpArraySize) {
-                          tmpScheme[i][0] = rooms[a];
-                          if (rooms[a] != rooms[b]) {
-                            tmpScheme[i][1] = rooms[b];
-                            if (rooms[a] != rooms[c] && rooms[b] != rooms[c]) {
-                              tmpScheme[i][2] = rooms[c];
-                              if (rooms[a] != rooms[d] && rooms[b] != rooms[d]
-                                  && rooms[c] != rooms[d]) {
-                                tmpScheme[i][3] = rooms[d];
-                                if (rooms[a] != rooms[e]
-                                    && rooms[b] != rooms[e]
-                                    && rooms[c] != rooms[e]
-                                    && rooms[d] != rooms[e]) {
-                                  tmpScheme[i][4] = rooms[e];
-                                  if (rooms[a] != rooms[f]
-                                      && rooms[b] != rooms[f]
-                                      && rooms[c] != rooms[f]
-                                      && rooms[d] != rooms[f]
-                                      && rooms[e] != rooms[f]) {
-                                    tmpScheme[i][5] = rooms[f];
-                                    OMHelper.writeLog(rooms[a] + "" + rooms[b]
-                                        + rooms[c] + rooms[d] + rooms[e]
-                                        + rooms[f]);
-                                    i++;
-                                  }
-                                }
-                              }
-                            }
-                          }
-                        }
-                        n++;
-                      }
-                    }
-                  }
-                }
-              }
-            }
-            OMHelper.writeLog("Created " + i + " variations of " + roomCount
-                + " rooms within " + n + " iterations.");
-            generateVariationsSix(tmpScheme, tmpArraySize);
-          } else {
-            OMHelper.writeLog("Warning: Not enough rooms for 6-of-" + roomCount
-                + "-rooms-variations.");
-          }
+  private void logVariations() throws IOException {
+    OMHelper.writeLog("Counting all possible variations.");
+    int roomCount = 0;
+    if (this.rooms != null) {
+      roomCount = this.rooms.length;
+    }
+    int cellarCount = 0;
+    if (this.cellars != null) {
+      cellarCount = this.cellars.length;
+    }
+    if (roomCount >= 3 && cellarCount >= 1) {
+      for (int i = 3; i <= 6; i++) {
+        OMVariationSpace space = getVariationSpace(i);
+        if (space.getSize() > 0) {
+          OMHelper.writeLog("Created " + space.getSize() + " variations of "
+              + i + " out of " + roomCount + " rooms for " + cellarCount
+              + " cellar(s).");
         } else {
-          OMHelper.writeLog("Warning: Not enough rooms for 5-of-" + roomCount
-              + "-rooms-variations.");
-          OMHelper.writeLog("Warning: Not enough rooms for 6-of-" + roomCount
-              + "-rooms-variations.");
+          OMHelper.writeLog(OMLogLevel.Warning, "Warning: Not enough rooms for "
+              + i + "-of-" + roomCount + "-rooms-variations.");
         }
-      } else {
-        OMHelper.writeLog("Warning: Not enough rooms for 4-of-" + roomCount
-            + "-rooms-variations.");
-        OMHelper.writeLog("Warning: Not enough rooms for 5-of-" + roomCount
-            + "-rooms-variations.");
-        OMHelper.writeLog("Warning: Not enough rooms for 6-of-" + roomCount
-            + "-rooms-variations.");
       }
     } else {
-      OMHelper.writeLog("Error: Not enough rooms to create any variations.");
-      OMHelper
-          .writeLog("Error: Make sure at least 3 rooms and 1 cellar are available.");
-      OMHelper.writeLog("Error: No variations created.");
-    }
-  }
-
-  /**
-   * Generates all variations with adding one cellar at any possible position
-   * using six different rooms. Sets VariationSchemeSix in the end.
-   * 
-   * @param tmpScheme
-   *          An array of normal rooms-arrays which are used as a pattern to
-   *          generate the final variations for six different rooms.
-   * @param tmpArraySize
-   *          The number of variations available for six different rooms = (R! /
-   *          (R-X)!)
-   * @throws IOException
-   *           If creating log file or writing logs fails.
-   */
-  private void generateVariationsSix(OMRoom[][] tmpScheme, int tmpArraySize)
-      throws IOException {
-    OMRoom[] cellars = this.cellars;
-    int cellarCount = this.cellars.length;
-    int roomCount = this.rooms.length;
-    OMHelper.writeLog("Adding " + cellarCount
-        + " cellar(s) now at any possible position.");
-    int finalArraySize = tmpArraySize * cellarCount * 7;
-    OMRoom[] variationScheme[] = new OMRoom[finalArraySize][7];
-    OMHelper.writeLog("Calculating " + finalArraySize + " variations for "
-        + cellarCount + " cellar(s) and " + roomCount + " rooms:");
-    int x = 0;
-    int y = 0;
-    for (int g = 0; g < cellarCount; g++) {
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = cellars[g];
-        variationScheme[x][1] = tmpScheme[y][0];
-        variationScheme[x][2] = tmpScheme[y][1];
-        variationScheme[x][3] = tmpScheme[y][2];
-        variationScheme[x][4] = tmpScheme[y][3];
-        variationScheme[x][5] = tmpScheme[y][4];
-        variationScheme[x][6] = tmpScheme[y][5];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = cellars[g];
-        variationScheme[x][2] = tmpScheme[y][1];
-        variationScheme[x][3] = tmpScheme[y][2];
-        variationScheme[x][4] = tmpScheme[y][3];
-        variationScheme[x][5] = tmpScheme[y][4];
-        variationScheme[x][6] = tmpScheme[y][5];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][1];
-        variationScheme[x][2] = cellars[g];
-        variationScheme[x][3] = tmpScheme[y][2];
-        variationScheme[x][4] = tmpScheme[y][3];
-        variationScheme[x][5] = tmpScheme[y][4];
-        variationScheme[x][6] = tmpScheme[y][5];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][1];
-        variationScheme[x][2] = tmpScheme[y][2];
-        variationScheme[x][3] = cellars[g];
-        variationScheme[x][4] = tmpScheme[y][3];
-        variationScheme[x][5] = tmpScheme[y][4];
-        variationScheme[x][6] = tmpScheme[y][5];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][1];
-        variationScheme[x][2] = tmpScheme[y][2];
-        variationScheme[x][3] = tmpScheme[y][3];
-        variationScheme[x][4] = cellars[g];
-        variationScheme[x][5] = tmpScheme[y][4];
-        variationScheme[x][6] = tmpScheme[y][5];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][1];
-        variationScheme[x][2] = tmpScheme[y][2];
-        variationScheme[x][3] = tmpScheme[y][3];
-        variationScheme[x][4] = tmpScheme[y][4];
-        variationScheme[x][5] = cellars[g];
-        variationScheme[x][6] = tmpScheme[y][5];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][1];
-        variationScheme[x][2] = tmpScheme[y][2];
-        variationScheme[x][3] = tmpScheme[y][3];
-        variationScheme[x][4] = tmpScheme[y][4];
-        variationScheme[x][5] = tmpScheme[y][5];
-        variationScheme[x][6] = cellars[g];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-    }
-    OMHelper.writeLog("Created " + x + " variations for " + cellarCount
-        + " cellar(s) and " + roomCount + " rooms.");
-    setVariationSchemeSix(variationScheme);
-  }
-
-  /**
-   * Generates all variations while adding one cellar at any possible position
-   * using five different rooms. Sets VariationSchemeFive in the end.
-   * 
-   * @param tmpScheme
-   *          An array of normal rooms-arrays which are used as a pattern to
-   *          generate the final variations using five different rooms.
-   * @param tmpArraySize
-   *          The number of variations available for five different rooms = (R!
-   *          / (R-X)!)
-   * @throws IOException
-   *           If creating log file or writing logs fails.
-   */
-  private void generateVariationsFive(OMRoom[][] tmpScheme, int tmpArraySize)
-      throws IOException {
-    OMRoom[] cellars = this.cellars;
-    int cellarCount = this.cellars.length;
-    int roomCount = this.rooms.length;
-    OMHelper.writeLog("Adding " + cellarCount
-        + " cellar(s) now at any possible position.");
-    int finalArraySize = tmpArraySize * 5 * cellarCount * 6;
-    OMRoom[] variationScheme[] = new OMRoom[finalArraySize][7];
-    OMHelper.writeLog("Calculating " + finalArraySize + " variations for "
-        + cellarCount + " cellar(s) and " + roomCount + " rooms:");
-    int x = 0;
-    int y = 0;
-    for (int a = 0; a < cellarCount; a++) {
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = cellars[a];
-        variationScheme[x][1] = tmpScheme[y][0];
-        variationScheme[x][2] = tmpScheme[y][0];
-        variationScheme[x][3] = tmpScheme[y][1];
-        variationScheme[x][4] = tmpScheme[y][2];
-        variationScheme[x][5] = tmpScheme[y][3];
-        variationScheme[x][6] = tmpScheme[y][4];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][0];
-        variationScheme[x][2] = cellars[a];
-        variationScheme[x][3] = tmpScheme[y][1];
-        variationScheme[x][4] = tmpScheme[y][2];
-        variationScheme[x][5] = tmpScheme[y][3];
-        variationScheme[x][6] = tmpScheme[y][4];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][0];
-        variationScheme[x][2] = tmpScheme[y][1];
-        variationScheme[x][3] = cellars[a];
-        variationScheme[x][4] = tmpScheme[y][2];
-        variationScheme[x][5] = tmpScheme[y][3];
-        variationScheme[x][6] = tmpScheme[y][4];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][0];
-        variationScheme[x][2] = tmpScheme[y][1];
-        variationScheme[x][3] = tmpScheme[y][2];
-        variationScheme[x][4] = cellars[a];
-        variationScheme[x][5] = tmpScheme[y][3];
-        variationScheme[x][6] = tmpScheme[y][4];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][0];
-        variationScheme[x][2] = tmpScheme[y][1];
-        variationScheme[x][3] = tmpScheme[y][2];
-        variationScheme[x][4] = tmpScheme[y][3];
-        variationScheme[x][5] = cellars[a];
-        variationScheme[x][6] = tmpScheme[y][4];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][0];
-        variationScheme[x][2] = tmpScheme[y][1];
-        variationScheme[x][3] = tmpScheme[y][2];
-        variationScheme[x][4] = tmpScheme[y][3];
-        variationScheme[x][5] = tmpScheme[y][4];
-        variationScheme[x][6] = cellars[a];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = cellars[a];
-        variationScheme[x][1] = tmpScheme[y][0];
-        variationScheme[x][2] = tmpScheme[y][1];
-        variationScheme[x][3] = tmpScheme[y][1];
-        variationScheme[x][4] = tmpScheme[y][2];
-        variationScheme[x][5] = tmpScheme[y][3];
-        variationScheme[x][6] = tmpScheme[y][4];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = cellars[a];
-        variationScheme[x][2] = tmpScheme[y][1];
-        variationScheme[x][3] = tmpScheme[y][1];
-        variationScheme[x][4] = tmpScheme[y][2];
-        variationScheme[x][5] = tmpScheme[y][3];
-        variationScheme[x][6] = tmpScheme[y][4];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][1];
-        variationScheme[x][2] = tmpScheme[y][1];
-        variationScheme[x][3] = cellars[a];
-        variationScheme[x][4] = tmpScheme[y][2];
-        variationScheme[x][5] = tmpScheme[y][3];
-        variationScheme[x][6] = tmpScheme[y][4];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][1];
-        variationScheme[x][2] = tmpScheme[y][1];
-        variationScheme[x][3] = tmpScheme[y][2];
-        variationScheme[x][4] = cellars[a];
-        variationScheme[x][5] = tmpScheme[y][3];
-        variationScheme[x][6] = tmpScheme[y][4];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][1];
-        variationScheme[x][2] = tmpScheme[y][1];
-        variationScheme[x][3] = tmpScheme[y][2];
-        variationScheme[x][4] = tmpScheme[y][3];
-        variationScheme[x][5] = cellars[a];
-        variationScheme[x][6] = tmpScheme[y][4];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][1];
-        variationScheme[x][2] = tmpScheme[y][1];
-        variationScheme[x][3] = tmpScheme[y][2];
-        variationScheme[x][4] = tmpScheme[y][3];
-        variationScheme[x][5] = tmpScheme[y][4];
-        variationScheme[x][6] = cellars[a];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = cellars[a];
-        variationScheme[x][1] = tmpScheme[y][0];
-        variationScheme[x][2] = tmpScheme[y][1];
-        variationScheme[x][3] = tmpScheme[y][2];
-        variationScheme[x][4] = tmpScheme[y][2];
-        variationScheme[x][5] = tmpScheme[y][3];
-        variationScheme[x][6] = tmpScheme[y][4];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = cellars[a];
-        variationScheme[x][2] = tmpScheme[y][1];
-        variationScheme[x][3] = tmpScheme[y][2];
-        variationScheme[x][4] = tmpScheme[y][2];
-        variationScheme[x][5] = tmpScheme[y][3];
-        variationScheme[x][6] = tmpScheme[y][4];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][1];
-        variationScheme[x][2] = cellars[a];
-        variationScheme[x][3] = tmpScheme[y][2];
-        variationScheme[x][4] = tmpScheme[y][2];
-        variationScheme[x][5] = tmpScheme[y][3];
-        variationScheme[x][6] = tmpScheme[y][4];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][1];
-        variationScheme[x][2] = tmpScheme[y][2];
-        variationScheme[x][3] = tmpScheme[y][2];
-        variationScheme[x][4] = cellars[a];
-        variationScheme[x][5] = tmpScheme[y][3];
-        variationScheme[x][6] = tmpScheme[y][4];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][1];
-        variationScheme[x][2] = tmpScheme[y][2];
-        variationScheme[x][3] = tmpScheme[y][2];
-        variationScheme[x][4] = tmpScheme[y][3];
-        variationScheme[x][5] = cellars[a];
-        variationScheme[x][6] = tmpScheme[y][4];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][1];
-        variationScheme[x][2] = tmpScheme[y][2];
-        variationScheme[x][3] = tmpScheme[y][2];
-        variationScheme[x][4] = tmpScheme[y][3];
-        variationScheme[x][5] = tmpScheme[y][4];
-        variationScheme[x][6] = cellars[a];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = cellars[a];
-        variationScheme[x][1] = tmpScheme[y][0];
-        variationScheme[x][2] = tmpScheme[y][1];
-        variationScheme[x][3] = tmpScheme[y][2];
-        variationScheme[x][4] = tmpScheme[y][3];
-        variationScheme[x][5] = tmpScheme[y][3];
-        variationScheme[x][6] = tmpScheme[y][4];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = cellars[a];
-        variationScheme[x][2] = tmpScheme[y][1];
-        variationScheme[x][3] = tmpScheme[y][2];
-        variationScheme[x][4] = tmpScheme[y][3];
-        variationScheme[x][5] = tmpScheme[y][3];
-        variationScheme[x][6] = tmpScheme[y][4];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][1];
-        variationScheme[x][2] = cellars[a];
-        variationScheme[x][3] = tmpScheme[y][2];
-        variationScheme[x][4] = tmpScheme[y][3];
-        variationScheme[x][5] = tmpScheme[y][3];
-        variationScheme[x][6] = tmpScheme[y][4];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][1];
-        variationScheme[x][2] = tmpScheme[y][2];
-        variationScheme[x][3] = cellars[a];
-        variationScheme[x][4] = tmpScheme[y][3];
-        variationScheme[x][5] = tmpScheme[y][3];
-        variationScheme[x][6] = tmpScheme[y][4];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][1];
-        variationScheme[x][2] = tmpScheme[y][2];
-        variationScheme[x][3] = tmpScheme[y][3];
-        variationScheme[x][4] = tmpScheme[y][3];
-        variationScheme[x][5] = cellars[a];
-        variationScheme[x][6] = tmpScheme[y][4];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][1];
-        variationScheme[x][2] = tmpScheme[y][2];
-        variationScheme[x][3] = tmpScheme[y][3];
-        variationScheme[x][4] = tmpScheme[y][3];
-        variationScheme[x][5] = tmpScheme[y][4];
-        variationScheme[x][6] = cellars[a];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = cellars[a];
-        variationScheme[x][1] = tmpScheme[y][0];
-        variationScheme[x][2] = tmpScheme[y][1];
-        variationScheme[x][3] = tmpScheme[y][2];
-        variationScheme[x][4] = tmpScheme[y][3];
-        variationScheme[x][5] = tmpScheme[y][4];
-        variationScheme[x][6] = tmpScheme[y][4];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = cellars[a];
-        variationScheme[x][2] = tmpScheme[y][1];
-        variationScheme[x][3] = tmpScheme[y][2];
-        variationScheme[x][4] = tmpScheme[y][3];
-        variationScheme[x][5] = tmpScheme[y][4];
-        variationScheme[x][6] = tmpScheme[y][4];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][1];
-        variationScheme[x][2] = cellars[a];
-        variationScheme[x][3] = tmpScheme[y][2];
-        variationScheme[x][4] = tmpScheme[y][3];
-        variationScheme[x][5] = tmpScheme[y][4];
-        variationScheme[x][6] = tmpScheme[y][4];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][1];
-        variationScheme[x][2] = tmpScheme[y][2];
-        variationScheme[x][3] = cellars[a];
-        variationScheme[x][4] = tmpScheme[y][3];
-        variationScheme[x][5] = tmpScheme[y][4];
-        variationScheme[x][6] = tmpScheme[y][4];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][1];
-        variationScheme[x][2] = tmpScheme[y][2];
-        variationScheme[x][3] = tmpScheme[y][3];
-        variationScheme[x][4] = cellars[a];
-        variationScheme[x][5] = tmpScheme[y][4];
-        variationScheme[x][6] = tmpScheme[y][4];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][1];
-        variationScheme[x][2] = tmpScheme[y][2];
-        variationScheme[x][3] = tmpScheme[y][3];
-        variationScheme[x][4] = tmpScheme[y][4];
-        variationScheme[x][5] = tmpScheme[y][4];
-        variationScheme[x][6] = cellars[a];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-    }
-    OMHelper.writeLog("Created " + x + " variations for " + cellarCount
-        + " cellar(s) and " + roomCount + " rooms.");
-    setVariationSchemeFive(variationScheme);
-  }
-
-  /**
-   * Generates all variations while adding one cellar at any possible position
-   * using four different rooms. Sets VariationSchemeFour in the end.
-   * 
-   * @param tmpScheme
-   *          An array of normal rooms-arrays which are used as a pattern to
-   *          generate the final variations using four different rooms.
-   * @param tmpArraySize
-   *          The number of variations available for four different rooms = (R!
-   *          / (R-X)!)
-   * @throws IOException
-   *           If creating log file or writing logs fails.
-   */
-  private void generateVariationsFour(OMRoom[][] tmpScheme, int tmpArraySize)
-      throws IOException {
-    OMRoom[] cellars = this.cellars;
-    int cellarCount = this.cellars.length;
-    int roomCount = this.rooms.length;
-    OMHelper.writeLog("Adding " + cellarCount
-        + " cellar(s) now at any possible position.");
-    int finalArraySize = tmpArraySize * 6 * cellarCount * 5;
-    OMRoom[] variationScheme[] = new OMRoom[finalArraySize][7];
-    OMHelper.writeLog("Calculating " + finalArraySize + " variations for "
-        + cellarCount + " cellar(s) and " + roomCount + " rooms:");
-    int x = 0;
-    int y = 0;
-    for (int a = 0; a < cellarCount; a++) {
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = cellars[a];
-        variationScheme[x][1] = tmpScheme[y][0];
-        variationScheme[x][2] = tmpScheme[y][0];
-        variationScheme[x][3] = tmpScheme[y][1];
-        variationScheme[x][4] = tmpScheme[y][1];
-        variationScheme[x][5] = tmpScheme[y][2];
-        variationScheme[x][6] = tmpScheme[y][3];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][0];
-        variationScheme[x][2] = cellars[a];
-        variationScheme[x][3] = tmpScheme[y][1];
-        variationScheme[x][4] = tmpScheme[y][1];
-        variationScheme[x][5] = tmpScheme[y][2];
-        variationScheme[x][6] = tmpScheme[y][3];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][0];
-        variationScheme[x][2] = tmpScheme[y][1];
-        variationScheme[x][3] = tmpScheme[y][1];
-        variationScheme[x][4] = cellars[a];
-        variationScheme[x][5] = tmpScheme[y][2];
-        variationScheme[x][6] = tmpScheme[y][3];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][0];
-        variationScheme[x][2] = tmpScheme[y][1];
-        variationScheme[x][3] = tmpScheme[y][1];
-        variationScheme[x][4] = tmpScheme[y][2];
-        variationScheme[x][5] = cellars[a];
-        variationScheme[x][6] = tmpScheme[y][3];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][0];
-        variationScheme[x][2] = tmpScheme[y][1];
-        variationScheme[x][3] = tmpScheme[y][1];
-        variationScheme[x][4] = tmpScheme[y][2];
-        variationScheme[x][5] = tmpScheme[y][3];
-        variationScheme[x][6] = cellars[a];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = cellars[a];
-        variationScheme[x][1] = tmpScheme[y][0];
-        variationScheme[x][2] = tmpScheme[y][0];
-        variationScheme[x][3] = tmpScheme[y][1];
-        variationScheme[x][4] = tmpScheme[y][2];
-        variationScheme[x][5] = tmpScheme[y][2];
-        variationScheme[x][6] = tmpScheme[y][3];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][0];
-        variationScheme[x][2] = cellars[a];
-        variationScheme[x][3] = tmpScheme[y][1];
-        variationScheme[x][4] = tmpScheme[y][2];
-        variationScheme[x][5] = tmpScheme[y][2];
-        variationScheme[x][6] = tmpScheme[y][3];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][0];
-        variationScheme[x][2] = tmpScheme[y][1];
-        variationScheme[x][3] = cellars[a];
-        variationScheme[x][4] = tmpScheme[y][2];
-        variationScheme[x][5] = tmpScheme[y][2];
-        variationScheme[x][6] = tmpScheme[y][3];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][0];
-        variationScheme[x][2] = tmpScheme[y][1];
-        variationScheme[x][3] = tmpScheme[y][2];
-        variationScheme[x][4] = tmpScheme[y][2];
-        variationScheme[x][5] = cellars[a];
-        variationScheme[x][6] = tmpScheme[y][3];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][0];
-        variationScheme[x][2] = tmpScheme[y][1];
-        variationScheme[x][3] = tmpScheme[y][2];
-        variationScheme[x][4] = tmpScheme[y][2];
-        variationScheme[x][5] = tmpScheme[y][3];
-        variationScheme[x][6] = cellars[a];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = cellars[a];
-        variationScheme[x][1] = tmpScheme[y][0];
-        variationScheme[x][2] = tmpScheme[y][0];
-        variationScheme[x][3] = tmpScheme[y][1];
-        variationScheme[x][4] = tmpScheme[y][2];
-        variationScheme[x][5] = tmpScheme[y][3];
-        variationScheme[x][6] = tmpScheme[y][3];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][0];
-        variationScheme[x][2] = cellars[a];
-        variationScheme[x][3] = tmpScheme[y][1];
-        variationScheme[x][4] = tmpScheme[y][2];
-        variationScheme[x][5] = tmpScheme[y][3];
-        variationScheme[x][6] = tmpScheme[y][3];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][0];
-        variationScheme[x][2] = tmpScheme[y][1];
-        variationScheme[x][3] = cellars[a];
-        variationScheme[x][4] = tmpScheme[y][2];
-        variationScheme[x][5] = tmpScheme[y][3];
-        variationScheme[x][6] = tmpScheme[y][3];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][0];
-        variationScheme[x][2] = tmpScheme[y][1];
-        variationScheme[x][3] = tmpScheme[y][2];
-        variationScheme[x][4] = cellars[a];
-        variationScheme[x][5] = tmpScheme[y][3];
-        variationScheme[x][6] = tmpScheme[y][3];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][0];
-        variationScheme[x][2] = tmpScheme[y][1];
-        variationScheme[x][3] = tmpScheme[y][2];
-        variationScheme[x][4] = tmpScheme[y][3];
-        variationScheme[x][5] = tmpScheme[y][3];
-        variationScheme[x][6] = cellars[a];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = cellars[a];
-        variationScheme[x][1] = tmpScheme[y][0];
-        variationScheme[x][2] = tmpScheme[y][1];
-        variationScheme[x][3] = tmpScheme[y][1];
-        variationScheme[x][4] = tmpScheme[y][2];
-        variationScheme[x][5] = tmpScheme[y][2];
-        variationScheme[x][6] = tmpScheme[y][3];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = cellars[a];
-        variationScheme[x][2] = tmpScheme[y][1];
-        variationScheme[x][3] = tmpScheme[y][1];
-        variationScheme[x][4] = tmpScheme[y][2];
-        variationScheme[x][5] = tmpScheme[y][2];
-        variationScheme[x][6] = tmpScheme[y][3];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][1];
-        variationScheme[x][2] = tmpScheme[y][1];
-        variationScheme[x][3] = cellars[a];
-        variationScheme[x][4] = tmpScheme[y][2];
-        variationScheme[x][5] = tmpScheme[y][2];
-        variationScheme[x][6] = tmpScheme[y][3];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][1];
-        variationScheme[x][2] = tmpScheme[y][1];
-        variationScheme[x][3] = tmpScheme[y][2];
-        variationScheme[x][4] = tmpScheme[y][2];
-        variationScheme[x][5] = cellars[a];
-        variationScheme[x][6] = tmpScheme[y][3];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][1];
-        variationScheme[x][2] = tmpScheme[y][1];
-        variationScheme[x][3] = tmpScheme[y][2];
-        variationScheme[x][4] = tmpScheme[y][2];
-        variationScheme[x][5] = tmpScheme[y][3];
-        variationScheme[x][6] = cellars[a];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = cellars[a];
-        variationScheme[x][1] = tmpScheme[y][0];
-        variationScheme[x][2] = tmpScheme[y][1];
-        variationScheme[x][3] = tmpScheme[y][1];
-        variationScheme[x][4] = tmpScheme[y][2];
-        variationScheme[x][5] = tmpScheme[y][3];
-        variationScheme[x][6] = tmpScheme[y][3];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = cellars[a];
-        variationScheme[x][2] = tmpScheme[y][1];
-        variationScheme[x][3] = tmpScheme[y][1];
-        variationScheme[x][4] = tmpScheme[y][2];
-        variationScheme[x][5] = tmpScheme[y][3];
-        variationScheme[x][6] = tmpScheme[y][3];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][1];
-        variationScheme[x][2] = tmpScheme[y][1];
-        variationScheme[x][3] = cellars[a];
-        variationScheme[x][4] = tmpScheme[y][2];
-        variationScheme[x][5] = tmpScheme[y][3];
-        variationScheme[x][6] = tmpScheme[y][3];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][1];
-        variationScheme[x][2] = tmpScheme[y][1];
-        variationScheme[x][3] = tmpScheme[y][2];
-        variationScheme[x][4] = cellars[a];
-        variationScheme[x][5] = tmpScheme[y][3];
-        variationScheme[x][6] = tmpScheme[y][3];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][1];
-        variationScheme[x][2] = tmpScheme[y][1];
-        variationScheme[x][3] = tmpScheme[y][2];
-        variationScheme[x][4] = tmpScheme[y][3];
-        variationScheme[x][5] = tmpScheme[y][3];
-        variationScheme[x][6] = cellars[a];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = cellars[a];
-        variationScheme[x][1] = tmpScheme[y][0];
-        variationScheme[x][2] = tmpScheme[y][1];
-        variationScheme[x][3] = tmpScheme[y][2];
-        variationScheme[x][4] = tmpScheme[y][2];
-        variationScheme[x][5] = tmpScheme[y][3];
-        variationScheme[x][6] = tmpScheme[y][3];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = cellars[a];
-        variationScheme[x][2] = tmpScheme[y][1];
-        variationScheme[x][3] = tmpScheme[y][2];
-        variationScheme[x][4] = tmpScheme[y][2];
-        variationScheme[x][5] = tmpScheme[y][3];
-        variationScheme[x][6] = tmpScheme[y][3];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][1];
-        variationScheme[x][2] = cellars[a];
-        variationScheme[x][3] = tmpScheme[y][2];
-        variationScheme[x][4] = tmpScheme[y][2];
-        variationScheme[x][5] = tmpScheme[y][3];
-        variationScheme[x][6] = tmpScheme[y][3];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][1];
-        variationScheme[x][2] = tmpScheme[y][2];
-        variationScheme[x][3] = tmpScheme[y][2];
-        variationScheme[x][4] = cellars[a];
-        variationScheme[x][5] = tmpScheme[y][3];
-        variationScheme[x][6] = tmpScheme[y][3];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][1];
-        variationScheme[x][2] = tmpScheme[y][2];
-        variationScheme[x][3] = tmpScheme[y][2];
-        variationScheme[x][4] = tmpScheme[y][3];
-        variationScheme[x][5] = tmpScheme[y][3];
-        variationScheme[x][6] = cellars[a];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-    }
-    OMHelper.writeLog("Created " + x + " variations for " + cellarCount
-        + " cellar(s) and " + roomCount + " rooms.");
-    setVariationSchemeFour(variationScheme);
-  }
-
-  /**
-   * Generates all variations while adding one cellar at any possible position
-   * using three different rooms. Sets VariationSchemeThree in the end.
-   * 
-   * @param tmpScheme
-   *          An array of normal rooms-arrays which are used as a pattern to
-   *          generate the final variations using three different rooms.
-   * @param tmpArraySize
-   *          The number of variations available for three different rooms = (R!
-   *          / (R-X)!)
-   * @throws IOException
-   *           If creating log file or writing logs fails.
-   */
-  private void generateVariationsThree(OMRoom[][] tmpScheme, int tmpArraySize)
-      throws IOException {
-    OMRoom[] cellars = this.cellars;
-    int cellarCount = this.cellars.length;
-    int roomCount = this.rooms.length;
-    OMHelper.writeLog("Adding " + cellarCount
-        + " cellar(s) now at any possible position.");
-    int finalArraySize = tmpArraySize * cellarCount * 4;
-    OMRoom[] variationScheme[] = new OMRoom[finalArraySize][7];
-    OMHelper.writeLog("Calculating " + finalArraySize + " variations for "
-        + cellarCount + " cellar(s) and " + roomCount + " rooms:");
-    int x = 0;
-    int y = 0;
-    for (int a = 0; a < cellarCount; a++) {
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = cellars[a];
-        variationScheme[x][1] = tmpScheme[y][0];
-        variationScheme[x][2] = tmpScheme[y][1];
-        variationScheme[x][3] = tmpScheme[y][2];
-        variationScheme[x][4] = tmpScheme[y][3];
-        variationScheme[x][5] = tmpScheme[y][4];
-        variationScheme[x][6] = tmpScheme[y][5];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][1];
-        variationScheme[x][2] = cellars[a];
-        variationScheme[x][3] = tmpScheme[y][2];
-        variationScheme[x][4] = tmpScheme[y][3];
-        variationScheme[x][5] = tmpScheme[y][4];
-        variationScheme[x][6] = tmpScheme[y][5];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][1];
-        variationScheme[x][2] = tmpScheme[y][2];
-        variationScheme[x][3] = tmpScheme[y][3];
-        variationScheme[x][4] = cellars[a];
-        variationScheme[x][5] = tmpScheme[y][4];
-        variationScheme[x][6] = tmpScheme[y][5];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
-      y = 0;
-      while (y < tmpArraySize) {
-        variationScheme[x][0] = tmpScheme[y][0];
-        variationScheme[x][1] = tmpScheme[y][1];
-        variationScheme[x][2] = tmpScheme[y][2];
-        variationScheme[x][3] = tmpScheme[y][3];
-        variationScheme[x][4] = tmpScheme[y][4];
-        variationScheme[x][5] = tmpScheme[y][5];
-        variationScheme[x][6] = cellars[a];
-        OMHelper.writeLog("" + variationScheme[x][0] + variationScheme[x][1]
-            + variationScheme[x][2] + variationScheme[x][3]
-            + variationScheme[x][4] + variationScheme[x][5]
-            + variationScheme[x][6]);
-        x++;
-        y++;
-      }
+      OMHelper.writeLog(OMLogLevel.Error,
+          "Error: Not enough rooms to create any variations.");
+      OMHelper.writeLog(OMLogLevel.Error,
+          "Error: Make sure at least 3 rooms and 1 cellar are available.");
+      OMHelper.writeLog(OMLogLevel.Error, "Error: No variations created.");
     }
-    OMHelper.writeLog("Created " + x + " variations for " + cellarCount
-        + " cellar(s) and " + roomCount + " rooms.");
-    setVariationSchemeThree(variationScheme);
   }
 
   /**
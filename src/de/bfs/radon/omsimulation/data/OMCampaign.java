@@ -24,7 +24,7 @@ package de.bfs.radon.omsimulation.data;
 
 import java.io.IOException;
 import java.util.Arrays;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * Public class OMCampaign, defining the simulated campaigns and its attributes.
@@ -37,221 +37,227 @@ public class OMCampaign {
    * Stores the timestamp of the first measurement for the simulated campaign,
    * starting with 0 for the first hour of the real value-sets. The unit is [h].
    */
-  private int            start;
+  private int                        start;
 
   /**
    * Stores a simple string to identify the used rooms and their order in this
    * campaign.
    */
-  private String         variation;
+  private String                     variation;
 
   /**
    * Stores the campaign type. The campaign type identifies how many different
    * rooms were used to create this campaign. For example 'Five' means 5
    * different rooms were used.
    */
-  private OMCampaignType type;
+  private OMCampaignType             type;
 
   /**
    * Stores an integer which defines the random noise that is added to the
    * values. A random noise of 0 means the original values wont be modified. The
    * unit is [%].
    */
-  private int            randomNoise;
+  private int                        randomNoise;
+
+  /**
+   * Stores the random generator used to add random noise. It is not stored in
+   * OMS files.
+   */
+  private transient SplittableRandom generator;
 
   /**
    * Stores all rooms and the cellars keeping their order to simplify
    * reconstruction of the campaign later.
    */
-  private OMRoom[]       roomPattern;
+  private OMRoom[]                   roomPattern;
 
   /**
    * Stores an array of different rooms of the simulated survey campaign.
    */
-  private OMRoom[]       rooms;
+  private OMRoom[]                   rooms;
 
   /**
    * Stores the cellar for the campaign.
    */
-  private OMRoom         cellar;
+  private OMRoom                     cellar;
 
   /**
    * Stores an array of selected values of all 6 normal rooms. The first value
    * is determined by the start timestamp. The unit is [Bq/m^3].
    */
-  private double[]       roomValues;
+  private double[]                   roomValues;
 
   /**
    * Stores an array of selected values for the cellar room. The first value is
    * determined by the start timestamp. The unit is [Bq/m^3].
    */
-  private double[]       cellarValues;
+  private double[]                   cellarValues;
 
   /**
    * Stores an array of selected values for the whole campaign. The first value
    * is determined by the start timestamp. The unit is [Bq/m^3].
    */
-  private double[]       valueChain;
+  private double[]                   valueChain;
 
   /**
    * Stores an array of logarithmic values of the normal values. Used for
    * geometric mean later on.
    */
-  private double[]       roomLogValues;
+  private double[]                   roomLogValues;
 
   /**
    * Stores an array of logarithmic values for the cellar values. Used for
    * geometric mean later on.
    */
-  private double[]       cellarLogValues;
+  private double[]                   cellarLogValues;
 
   /**
    * Stores the arithmetic average of the selected values for normal rooms. The
    * unit is [Bq/m^3].
    */
-  private double         roomAverage;
+  private double                     roomAverage;
 
   /**
    * Stores the arithmetic average of the selected cellar. The unit is [Bq/m^3].
    */
-  private double         cellarAverage;
+  private double                     cellarAverage;
 
   /**
    * Stores the highest value out of the selected normal rooms. The unit is
    * [Bq/m^3].
    */
-  private double         roomMaximum;
+  private double                     roomMaximum;
 
   /**
    * Stores the highest value out of the selected cellar. The unit is [Bq/m^3].
    */
-  private double         cellarMaximum;
+  private double                     cellarMaximum;
 
   /**
    * Stores the lowest value out of the selected normal rooms. The unit is
    * [Bq/m^3].
    */
-  private double         roomMinimum;
+  private double                     roomMinimum;
 
   /**
    * Stores the lowest value out of the selected cellar. The unit is [Bq/m^3].
    */
-  private double         cellarMinimum;
+  private double                     cellarMinimum;
 
   /**
    * Stores the standard deviation of the selected values for normal rooms. The
    * unit is [Bq/m^3].
    */
-  private double         roomDeviation;
+  private double                     roomDeviation;
 
   /**
    * Stores the standard deviation of the selected cellar. The unit is [Bq/m^3].
    */
-  private double         cellarDeviation;
+  private double                     cellarDeviation;
 
   /**
    * Stores the variation coefficient which determines the ratio between
    * arithmetic mean and standard deviation for normal rooms.
    */
-  private double         roomVarCoefficient;
+  private double                     roomVarCoefficient;
 
   /**
    * Stores the variation coefficient which determines the ratio between
    * arithmetic mean and standard deviation for cellars.
    */
-  private double         cellarVarCoefficient;
+  private double                     cellarVarCoefficient;
 
   /**
    * Stores the range of the values which is calculated by subtracting the
    * minimum by the maximum value for normal rooms. The unit is [Bq/m^3].
    */
-  private double         roomRange;
+  private double                     roomRange;
 
   /**
    * Stores the range of the values which is calculated by subtracting the
    * minimum by the maximum value for cellar rooms. The unit is [Bq/m^3].
    */
-  private double         cellarRange;
+  private double                     cellarRange;
 
   /**
    * Stores the quantile 5 for normal rooms, where only 5% of the values are
    * lower. The unit is [Bq/m^3].
    */
-  private double         roomQuantile05;
+  private double                     roomQuantile05;
 
   /**
    * Stores the quantile 5 for cellar rooms, where only 5% of values are lower.
    * The unit is [Bq/m^3].
    */
-  private double         cellarQuantile05;
+  private double                     cellarQuantile05;
 
   /**
    * Stores the quantile 95 for normal rooms, where 95% of the values are lower.
    * The unit is [Bq/m^3].
    */
-  private double         roomQuantile95;
+  private double                     roomQuantile95;
 
   /**
    * Stores the quantile 95 for cellar rooms, where 95% of the values are lower.
    * The unit is [Bq/m^3].
    */
-  private double         cellarQuantile95;
+  private double                     cellarQuantile95;
 
   /**
    * Stores the median (quantile 50) for normal rooms, where 50% of the values
    * are lower. The unit is [Bq/m^3].
    */
-  private double         roomMedian;
+  private double                     roomMedian;
 
   /**
    * Stores the median (quantile 50) for cellar rooms, where 50% of the values
    * are lower. The unit is [Bq/m^3].
    */
-  private double         cellarMedian;
+  private double                     cellarMedian;
 
   /**
    * Stores the quantile deviation for normal rooms which determines the
    * deviation of the quantiles.
    */
-  private double         roomQuantileDeviation;
+  private double                     roomQuantileDeviation;
 
   /**
    * Stores the quantile deviation for cellar rooms which determines the
    * deviation of the quantiles.
    */
-  private double         cellarQuantileDeviation;
+  private double                     cellarQuantileDeviation;
 
   /**
    * Stores the relative quantile deviation for normal rooms which determines
    * the ratio of the quantiles.
    */
-  private double         roomRelativeQuantileDeviation;
+  private double                     roomRelativeQuantileDeviation;
 
   /**
    * Stores the relative quantile deviation for cellar rooms which determines
    * the ratio of the quantiles.
    */
-  private double         cellarRelativeQuantileDeviation;
+  private double                     cellarRelativeQuantileDeviation;
 
   /**
    * Stores the geometric mean for normal rooms. The unit is [Bq/m^3].
    */
-  private double         roomLogAverage;
+  private double                     roomLogAverage;
 
   /**
    * Stores the geometric mean for cellar rooms. The unit is [Bq/m^3].
    */
-  private double         cellarLogAverage;
+  private double                     cellarLogAverage;
 
   /**
    * Stores the geometric standard deviation for normal rooms.
    */
-  private double         roomLogDeviation;
+  private double                     roomLogDeviation;
 
   /**
    * Stores the geometric standard deviation for cellar rooms.
    */
-  private double         cellarLogDeviation;
+  private double                     cellarLogDeviation;
 
   /**
    * Gets the timestamp of the first measurement for the simulated campaign. The
@@ -598,92 +604,21 @@ public class OMCampaign {
     int total = 144;
     int day = 24;
     int randomNoise = this.randomNoise * 10;
-    Random generator = new Random();
-    double tmpNoise = 0.0;
     double[] values = new double[total];
     int x = 0;
-    double[] tmpValues = rooms[0].getValues();
-    if (start == cellarStart) {
-      start = start + day;
-    }
-    for (int i = start; i < start + day; i++) {
-      if (randomNoise > 0) {
-        tmpNoise = ((double) generator.nextInt(randomNoise * 2) - (double) randomNoise) / 1000;
-        values[x] = (double) tmpValues[i] + ((double) tmpValues[i] * tmpNoise);
-      } else {
-        values[x] = (double) tmpValues[i];
-      }
-      x++;
-    }
-    start = start + day;
-    if (start == cellarStart) {
-      start = start + day;
-    }
-    tmpValues = rooms[1].getValues();
-    for (int i = start; i < start + day; i++) {
-      if (randomNoise > 0) {
-        tmpNoise = ((double) generator.nextInt(randomNoise * 2) - (double) randomNoise) / 1000;
-        values[x] = (double) tmpValues[i] + ((double) tmpValues[i] * tmpNoise);
-      } else {
-        values[x] = (double) tmpValues[i];
-      }
-      x++;
-    }
-    start = start + day;
-    if (start == cellarStart) {
-      start = start + day;
-    }
-    tmpValues = rooms[2].getValues();
-    for (int i = start; i < start + day; i++) {
-      if (randomNoise > 0) {
-        tmpNoise = ((double) generator.nextInt(randomNoise * 2) - (double) randomNoise) / 1000;
-        values[x] = (double) tmpValues[i] + ((double) tmpValues[i] * tmpNoise);
-      } else {
-        values[x] = (double) tmpValues[i];
+    for (int r = 0; r < 6; r++) {
+      if (start == cellarStart) {
+        start = start + day;
       }
-      x++;
-    }
-    start = start + day;
-    if (start == cellarStart) {
+      System.arraycopy(rooms[r].getValues(), start, values, x, day);
+      x = x + day;
       start = start + day;
     }
-    tmpValues = rooms[3].getValues();
-    for (int i = start; i < start + day; i++) {
-      if (randomNoise > 0) {
-        tmpNoise = ((double) generator.nextInt(randomNoise * 2) - (double) randomNoise) / 1000;
-        values[x] = (double) tmpValues[i] + ((double) tmpValues[i] * tmpNoise);
-      } else {
-        values[x] = (double) tmpValues[i];
-      }
-      x++;
-    }
-    start = start + day;
-    if (start == cellarStart) {
-      start = start + day;
-    }
-    tmpValues = rooms[4].getValues();
-    for (int i = start; i < start + day; i++) {
-      if (randomNoise > 0) {
-        tmpNoise = ((double) generator.nextInt(randomNoise * 2) - (double) randomNoise) / 1000;
-        values[x] = (double) tmpValues[i] + ((double) tmpValues[i] * tmpNoise);
-      } else {
-        values[x] = (double) tmpValues[i];
-      }
-      x++;
-    }
-    start = start + day;
-    if (start == cellarStart) {
-      start = start + day;
-    }
-    tmpValues = rooms[5].getValues();
-    for (int i = start; i < start + day; i++) {
-      if (randomNoise > 0) {
-        tmpNoise = ((double) generator.nextInt(randomNoise * 2) - (double) randomNoise) / 1000;
-        values[x] = (double) tmpValues[i] + ((double) tmpValues[i] * tmpNoise);
-      } else {
-        values[x] = (double) tmpValues[i];
-      }
-      x++;
+    if (randomNoise > 0) {
+      OMNoise noise = OMNoise.getInstance(this.randomNoise);
+      int[] draws = new int[total];
+      noise.draw(getGenerator(), draws, 0, total);
+      noise.apply(values, 0, draws, 0, total);
     }
     this.roomValues = values;
   }
@@ -714,21 +649,14 @@ public class OMCampaign {
       }
     }
     int total = 24;
-    int day = 24;
     int randomNoise = this.randomNoise * 10;
-    Random generator = new Random();
-    double tmpNoise = 0.0;
     double[] values = new double[total];
-    int x = 0;
-    double[] tmpValues = cellar.getValues();
-    for (int i = start; i < start + day; i++) {
-      if (randomNoise > 0) {
-        tmpNoise = ((double) generator.nextInt(randomNoise * 2) - (double) randomNoise) / 1000;
-        values[x] = (double) tmpValues[i] + ((double) tmpValues[i] * tmpNoise);
-      } else {
-        values[x] = (double) tmpValues[i];
-      }
-      x++;
+    System.arraycopy(cellar.getValues(), start, values, 0, total);
+    if (randomNoise > 0) {
+      OMNoise noise = OMNoise.getInstance(this.randomNoise);
+      int[] draws = new int[total];
+      noise.draw(getGenerator(), draws, 0, total);
+      noise.apply(values, 0, draws, 0, total);
     }
     this.cellarValues = values;
   }
@@ -1420,9 +1348,23 @@ public class OMCampaign {
     this.cellarLogDeviation = gsd;
   }
 
+  /**
+   * Gets the random generator used to add random noise. Creates a new
+   * generator using a random seed if none was set.
+   * 
+   * @return The random generator used to add random noise.
+   */
+  private SplittableRandom getGenerator() {
+    if (this.generator == null) {
+      this.generator = new SplittableRandom();
+    }
+    return this.generator;
+  }
+
   /**
    * Constructor for objects of the class OMCampaign. Creates survey campaigns
    * for 7 days in 7 different Rooms using 6 normal rooms and 1 cellar room.
+   * The random noise is drawn from a generator using a random seed.
    * 
    * @param start
    *          The timestamp of the first measurement for the simulated campaign,
@@ -1440,8 +1382,37 @@ public class OMCampaign {
    */
   public OMCampaign(int start, OMRoom[] rooms, int randomNoise)
       throws IOException {
+    this(start, rooms, randomNoise, null);
+  }
+
+  /**
+   * Constructor for objects of the class OMCampaign. Creates survey campaigns
+   * for 7 days in 7 different Rooms using 6 normal rooms and 1 cellar room.
+   * The random noise is drawn from the given generator, first for the normal
+   * rooms, then for the cellar, so campaigns can be reproduced.
+   * 
+   * @param start
+   *          The timestamp of the first measurement for the simulated campaign,
+   *          starting with 0 for the first hour of the real value-sets. The
+   *          unit is [h].
+   * @param rooms
+   *          An array of seven rooms for the seven days (steps) of the
+   *          simulated campaign. Should be 6 normal rooms and 1 cellar.
+   * @param randomNoise
+   *          An integer which defines the random noise that is added to the
+   *          values. A random noise of 0 means the original values wont be
+   *          modified. The unit is [%].
+   * @param generator
+   *          The random generator used to add random noise or null to use a
+   *          random seed.
+   * @throws IOException
+   *           If creating log file or writing logs fails.
+   */
+  public OMCampaign(int start, OMRoom[] rooms, int randomNoise,
+      SplittableRandom generator) throws IOException {
     super();
     this.start = start;
+    this.generator = generator;
     try {
       this.rooms = new OMRoom[6];
       int x = 0;
@@ -0,0 +1,209 @@
+/*
+ * OM Simulation Tool: This tool intends to test and evaluate the scientific
+ * robustness of the protocol `6+1`. Therefore, it generates a huge amount of
+ * virtual measurement campaigns based on real radon concentration data
+ * following the mentioned protocol. <http://github.com/donschoe/omsimulation>
+ * 
+ * Copyright (C) 2012 Alexander Schoedon <a.schoedon@student.htw-berlin.de>
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package de.bfs.radon.omsimulation.data;
+
+import java.util.Arrays;
+
+/**
+ * Public class OMCampaignIndex, an index of the campaigns of a simulation
+ * ordered by the value of one metric. Each entry packs the value and the
+ * index of a campaign into a single long, so the index is sorted as an array
+ * of primitives and campaigns of equal values keep their order. The campaign
+ * of a value, the nearest campaign and all campaigns of a range of values are
+ * found by binary search.
+ * 
+ * @author A. Schoedon
+ */
+public class OMCampaignIndex {
+
+  /**
+   * Stores the ascending entries, the sortable bits of the value in the upper
+   * and the index of the campaign in the lower half of each entry.
+   */
+  private final long[] entries;
+
+  /**
+   * Constructor for the index of the values of a metric.
+   * 
+   * @param values
+   *          The value of the metric of each campaign, ordered by the index of
+   *          the campaigns.
+   */
+  public OMCampaignIndex(float[] values) {
+    super();
+    long[] entries = new long[values.length];
+    for (int i = 0; i < values.length; i++) {
+      entries[i] = ((long) toSortable(values[i]) << 32) | i;
+    }
+    Arrays.sort(entries);
+    this.entries = entries;
+  }
+
+  /**
+   * Gets the number of indexed campaigns.
+   * 
+   * @return The number of indexed campaigns.
+   */
+  public int getSize() {
+    return this.entries.length;
+  }
+
+  /**
+   * Gets the index of the campaign at a rank of the ordered values.
+   * 
+   * @param rank
+   *          The rank within the ordered values.
+   * @return The index of the campaign.
+   */
+  public int getCampaign(int rank) {
+    return (int) this.entries[rank];
+  }
+
+  /**
+   * Gets the value at a rank of the ordered values.
+   * 
+   * @param rank
+   *          The rank within the ordered values.
+   * @return The value at the rank.
+   */
+  public float getValue(int rank) {
+    return toValue((int) (this.entries[rank] >> 32));
+  }
+
+  /**
+   * Finds the campaign whose value is nearest to a value. Of several
+   * campaigns with the same value, the one with the highest index is
+   * returned.
+   * 
+   * @param value
+   *          The value to search for.
+   * @return The index of the campaign or -1 if no campaigns are indexed.
+   */
+  public int findNearest(double value) {
+    int size = this.entries.length;
+    if (size == 0) {
+      return -1;
+    }
+    float key = (float) value;
+    int rank = getUpperRank(key);
+    if (rank > 0 && getValue(rank - 1) == key) {
+      return getCampaign(rank - 1);
+    }
+    if (rank == size) {
+      return getCampaign(size - 1);
+    }
+    if (rank > 0 && key - getValue(rank - 1) <= getValue(rank) - key) {
+      return getCampaign(rank - 1);
+    }
+    return getCampaign(getUpperRank(getValue(rank)) - 1);
+  }
+
+  /**
+   * Finds all campaigns whose value lies within a range of values.
+   * 
+   * @param from
+   *          The lower bound of the range, inclusive.
+   * @param to
+   *          The upper bound of the range, inclusive.
+   * @return The indices of the campaigns ordered by their value, empty if no
+   *         campaign lies within the range.
+   */
+  public int[] findRange(double from, double to) {
+    int first = getLowerRank(from);
+    int last = getUpperRank(to);
+    int[] campaigns = new int[Math.max(last - first, 0)];
+    for (int i = 0; i < campaigns.length; i++) {
+      campaigns[i] = getCampaign(first + i);
+    }
+    return campaigns;
+  }
+
+  /**
+   * Gets the first rank whose value is not lower than a value.
+   * 
+   * @param value
+   *          The value.
+   * @return The first rank whose value is not lower than the value, the
+   *         number of indexed campaigns if there is none.
+   */
+  private int getLowerRank(double value) {
+    int low = 0;
+    int high = this.entries.length;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (getValue(middle) < value) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Gets the first rank whose value is greater than a value.
+   * 
+   * @param value
+   *          The value.
+   * @return The first rank whose value is greater than the value, the number
+   *         of indexed campaigns if there is none.
+   */
+  private int getUpperRank(double value) {
+    int low = 0;
+    int high = this.entries.length;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (getValue(middle) <= value) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Converts a value to bits whose signed order equals the order of the
+   * values.
+   * 
+   * @param value
+   *          The value.
+   * @return The sortable bits of the value.
+   */
+  private static int toSortable(float value) {
+    int bits = Float.floatToIntBits(value);
+    return bits ^ ((bits >> 31) & 0x7fffffff);
+  }
+
+  /**
+   * Converts sortable bits back to the value.
+   * 
+   * @param sortable
+   *          The sortable bits of the value.
+   * @return The value.
+   */
+  private static float toValue(int sortable) {
+    return Float.intBitsToFloat(sortable ^ ((sortable >> 31) & 0x7fffffff));
+  }
+}
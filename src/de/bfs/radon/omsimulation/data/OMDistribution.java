@@ -0,0 +1,295 @@
+/*
+ * OM Simulation Tool: This tool intends to test and evaluate the scientific
+ * robustness of the protocol `6+1`. Therefore, it generates a huge amount of
+ * virtual measurement campaigns based on real radon concentration data
+ * following the mentioned protocol. <http://github.com/donschoe/omsimulation>
+ * 
+ * Copyright (C) 2012 Alexander Schoedon <a.schoedon@student.htw-berlin.de>
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package de.bfs.radon.omsimulation.data;
+
+import java.util.Arrays;
+
+/**
+ * Public class OMDistribution, a compact summary of the empirical distribution
+ * of one metric of a simulation. Stores the values at a fixed set of ranks of
+ * the sorted values: a coarse grid over the whole range, a finer grid in the
+ * lowest and highest five percent and the exact ranks of the minimum, the
+ * percentiles Q5, Q50 and Q95 and the maximum. Small distributions are stored
+ * completely. The summary is created once when a simulation is stored, so the
+ * distribution charts are drawn without loading the values of all campaigns.
+ * Coarser resolutions, e.g. for previews, are derived from it on demand.
+ * 
+ * @author A. Schoedon
+ */
+public class OMDistribution {
+
+  /**
+   * Stores the number of intervals of the grid over the whole range of ranks.
+   */
+  public static final int POINTS      = 512;
+
+  /**
+   * Stores the number of intervals of the grid in each of the tails.
+   */
+  public static final int TAIL_POINTS = 128;
+
+  /**
+   * Stores the number of values of the distribution.
+   */
+  private int             count;
+
+  /**
+   * Stores the ascending ranks of the stored values within the sorted values.
+   */
+  private int[]           ranks;
+
+  /**
+   * Stores the values at the stored ranks.
+   */
+  private double[]        values;
+
+  /**
+   * Constructor for the summary of a distribution.
+   * 
+   * @param sorted
+   *          All values of the distribution in ascending order.
+   */
+  public OMDistribution(double[] sorted) {
+    super();
+    int count = sorted.length;
+    int[] ranks = getRanks(count);
+    double[] values = new double[ranks.length];
+    for (int i = 0; i < ranks.length; i++) {
+      values[i] = sorted[ranks[i]];
+    }
+    this.count = count;
+    this.ranks = ranks;
+    this.values = values;
+  }
+
+  /**
+   * Constructor for a distribution of which only the values at some ranks are
+   * known, e.g. estimated by a quantile sketch or selected for a coarser
+   * resolution.
+   * 
+   * @param count
+   *          The number of values of the distribution.
+   * @param ranks
+   *          The ascending ranks of the stored values, see getRanks.
+   * @param values
+   *          The values at the stored ranks.
+   */
+  public OMDistribution(int count, int[] ranks, double[] values) {
+    super();
+    this.count = count;
+    this.ranks = ranks;
+    this.values = values;
+  }
+
+  /**
+   * Gets the ranks of the values stored for a distribution: all ranks of
+   * small distributions, otherwise an even grid, finer grids within the
+   * lowest and highest 5% and the ranks of the 5th, 50th and 95th percentile.
+   * 
+   * @param count
+   *          The number of values of the distribution.
+   * @return The ascending ranks of the values to store.
+   */
+  public static int[] getRanks(int count) {
+    int[] ranks;
+    if (count <= POINTS + 2 * TAIL_POINTS) {
+      ranks = new int[count];
+      for (int i = 0; i < count; i++) {
+        ranks[i] = i;
+      }
+    } else {
+      int tail = count / 20;
+      ranks = new int[POINTS + 2 * TAIL_POINTS + 6];
+      int k = 0;
+      for (int i = 0; i <= POINTS; i++) {
+        ranks[k++] = (int) ((long) i * (count - 1) / POINTS);
+      }
+      for (int i = 0; i <= TAIL_POINTS; i++) {
+        int offset = (int) ((long) i * tail / TAIL_POINTS);
+        ranks[k++] = offset;
+        ranks[k++] = count - 1 - offset;
+      }
+      ranks[k++] = getQ05Rank(count);
+      ranks[k++] = getQ50Rank(count);
+      ranks[k++] = getQ95Rank(count);
+      ranks = unique(ranks, k);
+    }
+    return ranks;
+  }
+
+  /**
+   * Gets the number of values of the distribution.
+   * 
+   * @return The number of values of the distribution.
+   */
+  public int getCount() {
+    return this.count;
+  }
+
+  /**
+   * Gets the number of stored values.
+   * 
+   * @return The number of stored values.
+   */
+  public int getSize() {
+    return this.ranks.length;
+  }
+
+  /**
+   * Gets the rank of a stored value within the sorted values.
+   * 
+   * @param i
+   *          The index of the stored value.
+   * @return The rank of the stored value.
+   */
+  public int getRank(int i) {
+    return this.ranks[i];
+  }
+
+  /**
+   * Gets a stored value.
+   * 
+   * @param i
+   *          The index of the stored value.
+   * @return The stored value.
+   */
+  public double getValue(int i) {
+    return this.values[i];
+  }
+
+  /**
+   * Gets the value at a rank of the sorted values. The value is exact if the
+   * rank is stored, e.g. for the minimum, the percentiles Q5, Q50 and Q95 and
+   * the maximum, and interpolated linearly between the neighbouring stored
+   * ranks otherwise.
+   * 
+   * @param rank
+   *          The rank within the sorted values.
+   * @return The value at the rank.
+   */
+  public double getValueAt(int rank) {
+    int i = Arrays.binarySearch(this.ranks, rank);
+    if (i >= 0) {
+      return this.values[i];
+    }
+    i = -i - 1;
+    if (i == 0) {
+      return this.values[0];
+    }
+    if (i == this.ranks.length) {
+      return this.values[i - 1];
+    }
+    double fraction = (double) (rank - this.ranks[i - 1])
+        / (double) (this.ranks[i] - this.ranks[i - 1]);
+    return this.values[i - 1] + fraction
+        * (this.values[i] - this.values[i - 1]);
+  }
+
+  /**
+   * Gets a coarser resolution of the distribution holding at most the given
+   * number of evenly spaced stored values plus the ranks of the minimum, the
+   * percentiles Q5, Q50 and Q95 and the maximum.
+   * 
+   * @param maximum
+   *          The maximum number of evenly spaced stored values, at least 2.
+   * @return The coarser distribution or this distribution if it is small
+   *         enough already.
+   */
+  public OMDistribution getResolution(int maximum) {
+    int size = this.ranks.length;
+    if (size <= maximum) {
+      return this;
+    }
+    int[] selected = new int[maximum + 3];
+    int k = 0;
+    for (int i = 0; i < maximum; i++) {
+      selected[k++] = this.ranks[(int) ((long) i * (size - 1) / (maximum - 1))];
+    }
+    selected[k++] = getQ05Rank(this.count);
+    selected[k++] = getQ50Rank(this.count);
+    selected[k++] = getQ95Rank(this.count);
+    int[] ranks = unique(selected, k);
+    double[] values = new double[ranks.length];
+    for (int i = 0; i < ranks.length; i++) {
+      values[i] = getValueAt(ranks[i]);
+    }
+    return new OMDistribution(this.count, ranks, values);
+  }
+
+  /**
+   * Gets the rank of the percentile Q5 as annotated in the distribution
+   * charts.
+   * 
+   * @param count
+   *          The number of values of the distribution.
+   * @return The rank of the percentile Q5.
+   */
+  public static int getQ05Rank(int count) {
+    return Math.max((int) (((double) count / 100.0 * 5.0) - 1.0), 0);
+  }
+
+  /**
+   * Gets the rank of the percentile Q50 as annotated in the distribution
+   * charts.
+   * 
+   * @param count
+   *          The number of values of the distribution.
+   * @return The rank of the percentile Q50.
+   */
+  public static int getQ50Rank(int count) {
+    return Math.max((int) (((double) count / 2.0) - 1.0), 0);
+  }
+
+  /**
+   * Gets the rank of the percentile Q95 as annotated in the distribution
+   * charts.
+   * 
+   * @param count
+   *          The number of values of the distribution.
+   * @return The rank of the percentile Q95.
+   */
+  public static int getQ95Rank(int count) {
+    return Math.max((int) (((double) count / 100.0 * 95.0) - 1.0), 0);
+  }
+
+  /**
+   * Sorts the first ranks of an array and removes duplicates.
+   * 
+   * @param ranks
+   *          The ranks.
+   * @param length
+   *          The number of ranks used of the array.
+   * @return The sorted unique ranks.
+   */
+  private static int[] unique(int[] ranks, int length) {
+    Arrays.sort(ranks, 0, length);
+    int k = 0;
+    for (int i = 0; i < length; i++) {
+      if (k == 0 || ranks[i] != ranks[k - 1]) {
+        ranks[k++] = ranks[i];
+      }
+    }
+    return Arrays.copyOf(ranks, k);
+  }
+}
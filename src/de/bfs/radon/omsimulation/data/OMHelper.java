@@ -40,12 +40,17 @@ public abstract class OMHelper {
   /**
    * Stores the generic log writer, used for the whole program's log output.
    */
-  private static BufferedWriter logOutput;
+  private static OMLogWriter         logOutput;
 
   /**
    * Indicates whether a log-output buffer is initialised or not.
    */
-  private static boolean        isLogOutputEnabled = false;
+  private static volatile boolean    isLogOutputEnabled = false;
+
+  /**
+   * Stores the minimum level of messages written to the log file.
+   */
+  private static volatile OMLogLevel logLevel           = OMLogLevel.Info;
 
   /**
    * Sets the log-writer, creates a filename based on the path and the project
@@ -80,7 +85,7 @@ public abstract class OMHelper {
     }
     FileWriter logWriter = new FileWriter(logFile);
     BufferedWriter tmpOutput = new BufferedWriter(logWriter);
-    OMHelper.logOutput = tmpOutput;
+    OMHelper.logOutput = new OMLogWriter(tmpOutput);
     setLogOutputEnabled(true);
   }
 
@@ -94,6 +99,40 @@ public abstract class OMHelper {
     return OMHelper.isLogOutputEnabled;
   }
 
+  /**
+   * Indicates whether messages of a level are written to the log file. Use
+   * this to avoid building messages which are not written anyway.
+   * 
+   * @param level
+   *          The level of the messages.
+   * @return True if a log-output buffer is initialised and the level is
+   *         enabled.
+   */
+  public static boolean isLogEnabled(OMLogLevel level) {
+    return OMHelper.isLogOutputEnabled
+        && level.compareTo(OMHelper.logLevel) >= 0;
+  }
+
+  /**
+   * Gets the minimum level of messages written to the log file.
+   * 
+   * @return The minimum level of messages written to the log file.
+   */
+  public static OMLogLevel getLogLevel() {
+    return OMHelper.logLevel;
+  }
+
+  /**
+   * Sets the minimum level of messages written to the log file. The default
+   * is Info, so trace output per campaign or per value is not written.
+   * 
+   * @param logLevel
+   *          The minimum level of messages written to the log file.
+   */
+  public static void setLogLevel(OMLogLevel logLevel) {
+    OMHelper.logLevel = logLevel;
+  }
+
   /**
    * Indicates whether a log-output buffer is initialised or not. Set true after
    * successfully initialising log-output.
@@ -247,39 +286,49 @@ public abstract class OMHelper {
   }
 
   /**
-   * Gets the current timestamp using the format "dd.MM.yyyy HH:mm:ss,SSS ".
+   * Writes a new line with a timestamp to the log file using the level Info.
+   * Call this method once per line to write. Lines written by different
+   * threads are never mixed up. The line is written asynchronously, so this
+   * returns without waiting for the file system.
    * 
-   * @return The current timestamp.
+   * @param newLine
+   *          A string to write into the log file.
+   * @throws IOException
+   *           If creating log file or writing logs fails.
    */
-  public static String getTimestamp() {
-    Format format = new SimpleDateFormat("dd.MM.yyyy HH:mm:ss,SSS ");
-    double current = System.currentTimeMillis();
-    String timestamp = format.format(current);
-    return timestamp;
+  public static void writeLog(String newLine) throws IOException {
+    writeLog(OMLogLevel.Info, newLine);
   }
 
   /**
-   * Writes a new line with a timestamp to the log file using the
-   * BufferedReader. Call this method once per line to write.
+   * Writes a new line with a timestamp to the log file if the level is
+   * enabled. Call this method once per line to write. Lines written by
+   * different threads are never mixed up. The line is written asynchronously,
+   * so this returns without waiting for the file system.
    * 
+   * @param level
+   *          The level of the line.
    * @param newLine
    *          A string to write into the log file.
    * @throws IOException
    *           If creating log file or writing logs fails.
    */
-  public static void writeLog(String newLine) throws IOException {
-    OMHelper.logOutput.write(getTimestamp() + newLine);
-    OMHelper.logOutput.newLine();
+  public static void writeLog(OMLogLevel level, String newLine)
+      throws IOException {
+    if (level.compareTo(OMHelper.logLevel) >= 0) {
+      OMHelper.logOutput.write(newLine);
+    }
   }
 
   /**
-   * Helper method to close the log file and the BufferedReader.
+   * Helper method to close the log file and the BufferedReader. Waits until
+   * all lines are written.
    * 
    * @throws IOException
    *           If closing log file or writing logs fails.
    */
   public static void closeLog() throws IOException {
-    OMHelper.logOutput.close();
     setLogOutputEnabled(false);
+    OMHelper.logOutput.close();
   }
 }
@@ -0,0 +1,273 @@
+/*
+ * OM Simulation Tool: This tool intends to test and evaluate the scientific
+ * robustness of the protocol `6+1`. Therefore, it generates a huge amount of
+ * virtual measurement campaigns based on real radon concentration data
+ * following the mentioned protocol. <http://github.com/donschoe/omsimulation>
+ * 
+ * Copyright (C) 2012 Alexander Schoedon <a.schoedon@student.htw-berlin.de>
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package de.bfs.radon.omsimulation.data;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Class OMLogWriter, used to write log messages asynchronously. The messages
+ * are put into a bounded ring buffer without taking any lock and written to
+ * the log file by a background thread, which prepends the timestamp of each
+ * message. The formatted date and time is cached per second, so only the
+ * milliseconds are formatted per message. Threads writing messages only block
+ * if the buffer is full.
+ * 
+ * @author A. Schoedon
+ */
+class OMLogWriter implements Runnable {
+
+  /**
+   * Number of messages the ring buffer can hold, a power of two.
+   */
+  private static final int                   CAPACITY = 8192;
+
+  /**
+   * Time in nanoseconds the background thread waits for new messages.
+   */
+  private static final long                  IDLE     = 5000000L;
+
+  /**
+   * Stores the buffered writer of the log file.
+   */
+  private final BufferedWriter               output;
+
+  /**
+   * Stores the timestamps of the messages per slot of the ring buffer.
+   */
+  private final long[]                       times;
+
+  /**
+   * Stores the messages per slot of the ring buffer, null if a slot is empty.
+   * Setting a message publishes its timestamp as well.
+   */
+  private final AtomicReferenceArray<String> messages;
+
+  /**
+   * Stores the index of the next slot to claim by a writing thread.
+   */
+  private final AtomicLong                   tail;
+
+  /**
+   * Stores the index of the next slot to write to the log file.
+   */
+  private volatile long                      head;
+
+  /**
+   * Indicates whether the log writer is closed.
+   */
+  private volatile boolean                   isClosed;
+
+  /**
+   * Stores the exception thrown while writing the log file, if any.
+   */
+  private volatile IOException               failure;
+
+  /**
+   * Stores the background thread writing the log file.
+   */
+  private final Thread                       thread;
+
+  /**
+   * Stores the format of the cached date and time.
+   */
+  private final SimpleDateFormat             format;
+
+  /**
+   * Stores the second of the cached date and time.
+   */
+  private long                               second;
+
+  /**
+   * Stores the cached date and time, formatted up to the second.
+   */
+  private String                             prefix;
+
+  /**
+   * Constructor for a log writer, starts the background thread.
+   * 
+   * @param output
+   *          The buffered writer of the log file.
+   */
+  OMLogWriter(BufferedWriter output) {
+    super();
+    this.output = output;
+    this.times = new long[CAPACITY];
+    this.messages = new AtomicReferenceArray<String>(CAPACITY);
+    this.tail = new AtomicLong();
+    this.format = new SimpleDateFormat("dd.MM.yyyy HH:mm:ss,");
+    this.second = Long.MIN_VALUE;
+    this.thread = new Thread(this, "OMLogWriter");
+    this.thread.setDaemon(true);
+    this.thread.start();
+  }
+
+  /**
+   * Puts a message into the ring buffer. Waits if the buffer is full.
+   * 
+   * @param message
+   *          The message to write.
+   * @throws IOException
+   *           If writing the log file failed before.
+   */
+  void write(String message) throws IOException {
+    checkFailure();
+    long index;
+    while (true) {
+      index = this.tail.get();
+      if (index - this.head >= CAPACITY) {
+        LockSupport.unpark(this.thread);
+        Thread.yield();
+      } else if (this.tail.compareAndSet(index, index + 1)) {
+        break;
+      }
+    }
+    int slot = (int) index & (CAPACITY - 1);
+    this.times[slot] = System.currentTimeMillis();
+    this.messages.set(slot, message);
+  }
+
+  /**
+   * Writes all remaining messages, closes the log file and stops the
+   * background thread.
+   * 
+   * @throws IOException
+   *           If writing or closing the log file fails.
+   */
+  void close() throws IOException {
+    this.isClosed = true;
+    LockSupport.unpark(this.thread);
+    boolean isInterrupted = false;
+    while (this.thread.isAlive()) {
+      try {
+        this.thread.join();
+      } catch (InterruptedException e) {
+        isInterrupted = true;
+      }
+    }
+    if (isInterrupted) {
+      Thread.currentThread().interrupt();
+    }
+    checkFailure();
+  }
+
+  /**
+   * Writes the messages of the ring buffer to the log file until the log
+   * writer is closed and all messages are written. The log file is flushed
+   * whenever the buffer runs empty. After a failure the messages are
+   * discarded, so writing threads never block forever.
+   * 
+   * @see java.lang.Runnable#run()
+   */
+  public void run() {
+    boolean isDirty = false;
+    while (true) {
+      long index = this.head;
+      int slot = (int) index & (CAPACITY - 1);
+      String message = this.messages.get(slot);
+      if (message != null) {
+        long time = this.times[slot];
+        this.messages.lazySet(slot, null);
+        this.head = index + 1;
+        if (this.failure == null) {
+          try {
+            this.output.write(getTimestamp(time));
+            this.output.write(message);
+            this.output.newLine();
+            isDirty = true;
+          } catch (IOException e) {
+            this.failure = e;
+          }
+        }
+      } else if (index == this.tail.get()) {
+        if (isDirty && this.failure == null) {
+          try {
+            this.output.flush();
+          } catch (IOException e) {
+            this.failure = e;
+          }
+          isDirty = false;
+        }
+        if (this.isClosed && index == this.tail.get()) {
+          break;
+        }
+        LockSupport.parkNanos(IDLE);
+      } else {
+        Thread.yield();
+      }
+    }
+    try {
+      this.output.close();
+    } catch (IOException e) {
+      if (this.failure == null) {
+        this.failure = e;
+      }
+    }
+  }
+
+  /**
+   * Gets the timestamp of a message using the format
+   * "dd.MM.yyyy HH:mm:ss,SSS ". The date and time is formatted once per
+   * second, only the milliseconds are appended per message.
+   * 
+   * @param time
+   *          The time of the message in milliseconds.
+   * @return The timestamp of the message.
+   */
+  private String getTimestamp(long time) {
+    long second = Math.floorDiv(time, 1000L);
+    if (second != this.second) {
+      this.second = second;
+      this.prefix = this.format.format(second * 1000L);
+    }
+    int millis = (int) (time - second * 1000L);
+    StringBuilder timestamp = new StringBuilder(this.prefix.length() + 4);
+    timestamp.append(this.prefix);
+    if (millis < 100) {
+      timestamp.append('0');
+    }
+    if (millis < 10) {
+      timestamp.append('0');
+    }
+    timestamp.append(millis).append(' ');
+    return timestamp.toString();
+  }
+
+  /**
+   * Throws the exception thrown while writing the log file, if any.
+   * 
+   * @throws IOException
+   *           If writing the log file failed.
+   */
+  private void checkFailure() throws IOException {
+    IOException failure = this.failure;
+    if (failure != null) {
+      throw failure;
+    }
+  }
+}
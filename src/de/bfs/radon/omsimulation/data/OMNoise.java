@@ -0,0 +1,236 @@
+/*
+ * OM Simulation Tool: This tool intends to test and evaluate the scientific
+ * robustness of the protocol `6+1`. Therefore, it generates a huge amount of
+ * virtual measurement campaigns based on real radon concentration data
+ * following the mentioned protocol. <http://github.com/donschoe/omsimulation>
+ * 
+ * Copyright (C) 2012 Alexander Schoedon <a.schoedon@student.htw-berlin.de>
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.bfs.radon.omsimulation.data;
+
+import java.util.SplittableRandom;
+
+/**
+ * Public class OMNoise, used to add random noise to the values of a campaign.
+ * The noise of a whole chain of values is drawn in one pass as indices into
+ * precalculated tables and applied in a second pass, so the second loop has no
+ * dependencies between its iterations and can be vectorised by the JIT
+ * compiler. The logarithms of the noise factors are tabulated as well, which
+ * allows calculating geometric means of noisy values without calculating a
+ * logarithm per value. Objects are immutable and can be shared by threads.
+ * 
+ * @author A. Schoedon
+ */
+public class OMNoise {
+
+  /**
+   * Stores the highest supported random noise. At 100 % or more a value could
+   * be reduced to zero or below and the logarithm of its factor would be
+   * undefined. The unit is [%].
+   */
+  public static final int        MAXIMUM   = 99;
+
+  /**
+   * Stores the shared noise stages per random noise, created on first use.
+   */
+  private static final OMNoise[] instances = new OMNoise[MAXIMUM + 1];
+
+  /**
+   * Stores the random noise in tenths of a percent.
+   */
+  private final int              noise;
+
+  /**
+   * Stores the number of different noise values, twice the noise but at least
+   * one.
+   */
+  private final long             bound;
+
+  /**
+   * Stores the lowest accepted fraction of a draw, draws below are rejected to
+   * keep the distribution unbiased.
+   */
+  private final long             threshold;
+
+  /**
+   * Stores the relative noise per index, from -noise/1000 (inclusive) to
+   * +noise/1000 (exclusive).
+   */
+  private final double[]         factors;
+
+  /**
+   * Stores the natural logarithm of 1 plus the relative noise per index.
+   */
+  private final double[]         logFactors;
+
+  /**
+   * Constructor for a noise stage.
+   * 
+   * @param randomNoise
+   *          The random noise that is added to the values, from 0 to MAXIMUM.
+   *          The unit is [%].
+   * @throws IllegalArgumentException
+   *           If the random noise is out of range.
+   */
+  public OMNoise(int randomNoise) {
+    super();
+    checkRandomNoise(randomNoise);
+    this.noise = randomNoise * 10;
+    this.bound = Math.max(this.noise * 2, 1);
+    this.threshold = (1L << 32) % this.bound;
+    this.factors = new double[(int) this.bound];
+    this.logFactors = new double[(int) this.bound];
+    for (int k = 0; k < this.bound; k++) {
+      this.factors[k] = ((double) k - (double) this.noise) / 1000;
+      this.logFactors[k] = Math.log(1.0 + this.factors[k]);
+    }
+  }
+
+  /**
+   * Gets the shared noise stage for a random noise. Noise stages are immutable,
+   * so one stage per random noise is enough for all campaigns and threads.
+   * 
+   * @param randomNoise
+   *          The random noise that is added to the values, from 0 to MAXIMUM.
+   *          The unit is [%].
+   * @return The noise stage.
+   * @throws IllegalArgumentException
+   *           If the random noise is out of range.
+   */
+  public static OMNoise getInstance(int randomNoise) {
+    checkRandomNoise(randomNoise);
+    OMNoise instance = instances[randomNoise];
+    if (instance == null) {
+      instance = new OMNoise(randomNoise);
+      instances[randomNoise] = instance;
+    }
+    return instance;
+  }
+
+  /**
+   * Checks whether a random noise is supported.
+   * 
+   * @param randomNoise
+   *          The random noise. The unit is [%].
+   * @throws IllegalArgumentException
+   *           If the random noise is not between 0 and MAXIMUM.
+   */
+  private static void checkRandomNoise(int randomNoise) {
+    if (randomNoise < 0 || randomNoise > MAXIMUM) {
+      throw new IllegalArgumentException("Unsupported random noise: "
+          + randomNoise + " %, has to be between 0 and " + MAXIMUM + ".");
+    }
+  }
+
+  /**
+   * Gets the random noise that is added to the values. The unit is [%].
+   * 
+   * @return The random noise that is added to the values.
+   */
+  public int getRandomNoise() {
+    return this.noise / 10;
+  }
+
+  /**
+   * Draws noise indices for a range of values. The indices are uniformly
+   * distributed like Random.nextInt(2 * noise) used to be. Two indices are
+   * drawn from every random long using the unbiased multiply and shift method
+   * instead of a division per value.
+   * 
+   * @param generator
+   *          The random generator.
+   * @param draws
+   *          The array receiving the indices.
+   * @param from
+   *          The first position to fill.
+   * @param length
+   *          The number of indices to draw.
+   */
+  public void draw(SplittableRandom generator, int[] draws, int from,
+      int length) {
+    long bound = this.bound;
+    long threshold = this.threshold;
+    int to = from + length;
+    int x = from;
+    while (x < to) {
+      long bits = generator.nextLong();
+      long m = (bits >>> 32) * bound;
+      if ((m & 0xffffffffL) >= threshold) {
+        draws[x] = (int) (m >>> 32);
+        x++;
+      }
+      m = (bits & 0xffffffffL) * bound;
+      if (x < to && (m & 0xffffffffL) >= threshold) {
+        draws[x] = (int) (m >>> 32);
+        x++;
+      }
+    }
+  }
+
+  /**
+   * Adds the noise to a range of values in place.
+   * 
+   * @param values
+   *          The values to modify.
+   * @param from
+   *          The first value to modify.
+   * @param draws
+   *          The noise indices as drawn by draw().
+   * @param offset
+   *          The position of the first noise index.
+   * @param length
+   *          The number of values to modify.
+   */
+  public void apply(double[] values, int from, int[] draws, int offset,
+      int length) {
+    double[] factors = this.factors;
+    int shift = offset - from;
+    for (int i = from; i < from + length; i++) {
+      values[i] = values[i] + values[i] * factors[draws[i + shift]];
+    }
+  }
+
+  /**
+   * Gets the sum of the logarithmic noise factors of the positive values in a
+   * range. Added to the sum of the logarithmic original values, this is the sum
+   * of the logarithmic noisy values, as positive values stay positive.
+   * 
+   * @param values
+   *          The noisy values.
+   * @param from
+   *          The first value.
+   * @param draws
+   *          The noise indices as drawn by draw().
+   * @param offset
+   *          The position of the first noise index.
+   * @param length
+   *          The number of values.
+   * @return The sum of the logarithmic noise factors.
+   */
+  public double getLogSum(double[] values, int from, int[] draws, int offset,
+      int length) {
+    double[] logFactors = this.logFactors;
+    int shift = offset - from;
+    double sum = 0.0;
+    for (int i = from; i < from + length; i++) {
+      if (values[i] > 0) {
+        sum = sum + logFactors[draws[i + shift]];
+      }
+    }
+    return sum;
+  }
+}
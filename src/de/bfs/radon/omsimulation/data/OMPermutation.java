@@ -0,0 +1,135 @@
+/*
+ * OM Simulation Tool: This tool intends to test and evaluate the scientific
+ * robustness of the protocol `6+1`. Therefore, it generates a huge amount of
+ * virtual measurement campaigns based on real radon concentration data
+ * following the mentioned protocol. <http://github.com/donschoe/omsimulation>
+ * 
+ * Copyright (C) 2012 Alexander Schoedon <a.schoedon@student.htw-berlin.de>
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package de.bfs.radon.omsimulation.data;
+
+import java.util.SplittableRandom;
+
+/**
+ * Public class OMPermutation, a pseudo-random permutation of the indices from
+ * 0 to size - 1, used to sample combinations of variation patterns and start
+ * hours without replacement. The permutation is computed on demand by a
+ * balanced Feistel network with round keys drawn from a random stream, using
+ * cycle walking to stay within the size, so it needs constant memory. The
+ * permutation is immutable, so workers can walk disjoint ranges of it in
+ * parallel and still never sample the same index twice.
+ * 
+ * @author A. Schoedon
+ */
+public class OMPermutation {
+
+  /**
+   * Number of rounds of the Feistel network.
+   */
+  private static final int ROUNDS = 6;
+
+  /**
+   * Stores the number of indices of the permutation.
+   */
+  private final long       size;
+
+  /**
+   * Stores the number of bits of each half of the Feistel network.
+   */
+  private final int        halfBits;
+
+  /**
+   * Stores the mask of each half of the Feistel network.
+   */
+  private final long       mask;
+
+  /**
+   * Stores the round keys of the Feistel network.
+   */
+  private final long[]     keys;
+
+  /**
+   * Constructor for a permutation of the indices from 0 to size - 1.
+   * 
+   * @param size
+   *          The number of indices, at least 1.
+   * @param generator
+   *          The random stream used to draw the round keys.
+   */
+  public OMPermutation(long size, SplittableRandom generator) {
+    super();
+    if (size < 1) {
+      throw new IllegalArgumentException("The size has to be at least 1.");
+    }
+    this.size = size;
+    int bits = 64 - Long.numberOfLeadingZeros(size - 1);
+    this.halfBits = Math.max(1, (bits + 1) / 2);
+    this.mask = (1L << this.halfBits) - 1;
+    this.keys = new long[ROUNDS];
+    for (int i = 0; i < ROUNDS; i++) {
+      this.keys[i] = generator.nextLong();
+    }
+  }
+
+  /**
+   * Gets the number of indices of the permutation.
+   * 
+   * @return The number of indices of the permutation.
+   */
+  public long getSize() {
+    return this.size;
+  }
+
+  /**
+   * Gets the permuted index at a position. Positions from 0 to size - 1 map to
+   * distinct indices. Larger positions wrap around, so indices only repeat
+   * after all indices were returned once.
+   * 
+   * @param position
+   *          The position in the permutation, at least 0.
+   * @return The permuted index from 0 to size - 1.
+   */
+  public long get(long position) {
+    long value = position % this.size;
+    do {
+      value = encrypt(value);
+    } while (value >= this.size);
+    return value;
+  }
+
+  /**
+   * Encrypts a value of the domain of the Feistel network, which is the
+   * smallest power of four not less than the size. Each round replaces the
+   * left half by the right half and the right half by the left half combined
+   * with a keyed hash of the right half.
+   * 
+   * @param value
+   *          The value to encrypt.
+   * @return The encrypted value.
+   */
+  private long encrypt(long value) {
+    long left = value >>> this.halfBits;
+    long right = value & this.mask;
+    for (int i = 0; i < ROUNDS; i++) {
+      long tmp = right;
+      right = (left ^ OMRandomSource.mix(right ^ this.keys[i])) & this.mask;
+      left = tmp;
+    }
+    return (left << this.halfBits) | right;
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * OM Simulation Tool: This tool intends to test and evaluate the scientific
+ * robustness of the protocol `6+1`. Therefore, it generates a huge amount of
+ * virtual measurement campaigns based on real radon concentration data
+ * following the mentioned protocol. <http://github.com/donschoe/omsimulation>
+ * 
+ * Copyright (C) 2012 Alexander Schoedon <a.schoedon@student.htw-berlin.de>
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package de.bfs.radon.omsimulation.data;
+
+import java.util.SplittableRandom;
+
+/**
+ * Public class OMRandomSource, the source of all random numbers used by the
+ * simulations. It is defined by a single master seed. Independent random
+ * streams are derived from the seed for each purpose and index, e.g. one
+ * stream per variation pattern or per random campaign, so the results do not
+ * depend on the number of threads or the order in which campaigns are
+ * simulated. Simulations using the same seed produce the same results.
+ * 
+ * @author A. Schoedon
+ */
+public class OMRandomSource {
+
+  /**
+   * Identifies the streams used to sample variations and start hours of
+   * random simulations.
+   */
+  public static final int SAMPLING = 1;
+
+  /**
+   * Identifies the streams used to add random noise to the values of
+   * campaigns.
+   */
+  public static final int NOISE    = 2;
+
+  /**
+   * Stores the master seed of the source.
+   */
+  private final long      seed;
+
+  /**
+   * Constructor for a source using a new random master seed.
+   */
+  public OMRandomSource() {
+    this(new SplittableRandom().nextLong());
+  }
+
+  /**
+   * Constructor for a source using a custom master seed.
+   * 
+   * @param seed
+   *          The master seed of the source.
+   */
+  public OMRandomSource(long seed) {
+    super();
+    this.seed = seed;
+  }
+
+  /**
+   * Gets the master seed of the source.
+   * 
+   * @return The master seed of the source.
+   */
+  public long getSeed() {
+    return this.seed;
+  }
+
+  /**
+   * Gets a new random stream for a purpose, a group and an index. Calling this
+   * twice with the same arguments returns two generators producing the same
+   * numbers. Generators are not thread-safe, use one per thread.
+   * 
+   * @param purpose
+   *          The purpose of the stream, e.g. SAMPLING or NOISE.
+   * @param group
+   *          The group of the stream, e.g. the number of different rooms.
+   * @param index
+   *          The index of the stream, e.g. the pattern or campaign index.
+   * @return A new random generator.
+   */
+  public SplittableRandom getStream(int purpose, int group, long index) {
+    long key = mix(((long) purpose << 56) ^ ((long) group << 48)) ^ index;
+    return new SplittableRandom(mix(this.seed ^ mix(key)));
+  }
+
+  /**
+   * Gets a new pseudo-random permutation for a group, keyed by the sampling
+   * stream of the group. Calling this twice with the same arguments returns
+   * the same permutation.
+   * 
+   * @param group
+   *          The group of the permutation, e.g. the number of different rooms.
+   * @param size
+   *          The number of indices of the permutation, at least 1.
+   * @return A new permutation of the indices from 0 to size - 1.
+   */
+  public OMPermutation getPermutation(int group, long size) {
+    return new OMPermutation(size, getStream(SAMPLING, group, 0));
+  }
+
+  /**
+   * Mixes the bits of a value, so neighbouring indices result in unrelated
+   * seeds (variant 13 of the MurmurHash3 finaliser).
+   * 
+   * @param z
+   *          The value to mix.
+   * @return The mixed value.
+   */
+  static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+}
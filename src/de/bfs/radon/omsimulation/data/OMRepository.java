@@ -0,0 +1,315 @@
+/*
+ * OM Simulation Tool: This tool intends to test and evaluate the scientific
+ * robustness of the protocol `6+1`. Therefore, it generates a huge amount of
+ * virtual measurement campaigns based on real radon concentration data
+ * following the mentioned protocol. <http://github.com/donschoe/omsimulation>
+ * 
+ * Copyright (C) 2012 Alexander Schoedon <a.schoedon@student.htw-berlin.de>
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package de.bfs.radon.omsimulation.data;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import com.db4o.Db4oEmbedded;
+import com.db4o.ObjectContainer;
+import com.db4o.ObjectSet;
+import com.db4o.config.EmbeddedConfiguration;
+import com.db4o.query.Query;
+
+/**
+ * Public abstract class OMRepository, the shared access to OMB and OMS files
+ * for all panels and simulations. Each file is opened once per application, so
+ * a simulation writing to an OMS file and a panel reading it share the same
+ * object container. The references to each file are counted: every acquire
+ * adds a reference, every release removes one and the file is closed when no
+ * reference is left. Each getter holds a reference of its own while it reads,
+ * so a file nobody acquired is closed again right after reading, just like
+ * before. The buildings of an OMB file and the catalog of an OMS file are
+ * cached as read-only lists while the file is open. Storing an object through
+ * the repository invalidates the cached lists of the file. Can not be
+ * instantiated.
+ * 
+ * @author A. Schoedon
+ */
+public abstract class OMRepository {
+
+  /**
+   * Stores the open object containers by absolute file path.
+   */
+  private static final Map<String, ObjectContainer> containers =
+      new HashMap<String, ObjectContainer>();
+
+  /**
+   * Stores the number of references to the open object containers by
+   * absolute file path.
+   */
+  private static final Map<String, Integer> references =
+      new HashMap<String, Integer>();
+
+  /**
+   * Stores the cached buildings by absolute path of the OMB file.
+   */
+  private static final Map<String, List<OMBuilding>> buildings =
+      new HashMap<String, List<OMBuilding>>();
+
+  /**
+   * Stores the cached catalogs by absolute path of the OMS file.
+   */
+  private static final Map<String, List<OMSimulationSummary>> catalogs =
+      new HashMap<String, List<OMSimulationSummary>>();
+
+  /**
+   * Gets the key of a file in the maps of the repository.
+   * 
+   * @param file
+   *          The path to the OMB or OMS file.
+   * @return The absolute path to the file.
+   */
+  private static String getKey(String file) {
+    return new File(file).getAbsolutePath();
+  }
+
+  /**
+   * Acquires an OMB or OMS file: opens the file if it is not open yet and adds
+   * a reference, so the file stays open until the reference is released. Each
+   * call has to be followed by exactly one call of release.
+   * 
+   * @param file
+   *          The path to the OMB or OMS file.
+   * @return The shared object container of the file.
+   */
+  public static synchronized ObjectContainer acquire(String file) {
+    String key = getKey(file);
+    ObjectContainer db4o = containers.get(key);
+    if (db4o == null) {
+      EmbeddedConfiguration config = Db4oEmbedded.newConfiguration();
+      config.common().objectClass(OMSimulationChunk.class)
+          .objectField("index").indexed(true);
+      db4o = Db4oEmbedded.openFile(config, key);
+      containers.put(key, db4o);
+    }
+    Integer count = references.get(key);
+    references.put(key, count == null ? 1 : count + 1);
+    return db4o;
+  }
+
+  /**
+   * Gets all buildings of an OMB file. The list is loaded once and shared by
+   * all callers until the file changes.
+   * 
+   * @param ombFile
+   *          The path to the OMB file.
+   * @return The read-only list of buildings.
+   */
+  public static synchronized List<OMBuilding> getBuildings(String ombFile) {
+    String key = getKey(ombFile);
+    ObjectContainer db4o = acquire(key);
+    try {
+      List<OMBuilding> list = buildings.get(key);
+      if (list == null) {
+        ObjectSet<OMBuilding> result = db4o.queryByExample(OMBuilding.class);
+        list = Collections
+            .unmodifiableList(new ArrayList<OMBuilding>(result));
+        buildings.put(key, list);
+      }
+      return list;
+    } finally {
+      release(key);
+    }
+  }
+
+  /**
+   * Gets the catalog of all simulations of an OMS file. The catalog entries
+   * do not reference their simulations, which are loaded when needed.
+   * Simulations without a catalog entry, e.g. of older versions, are loaded
+   * completely and added to the catalog. The list is loaded once and shared by
+   * all callers until the file changes.
+   * 
+   * @param omsFile
+   *          The path to the OMS file.
+   * @return The read-only list of catalog entries.
+   */
+  public static synchronized List<OMSimulationSummary> getCatalog(
+      String omsFile) {
+    String key = getKey(omsFile);
+    ObjectContainer db4o = acquire(key);
+    try {
+      List<OMSimulationSummary> list = catalogs.get(key);
+      if (list == null) {
+        list = new ArrayList<OMSimulationSummary>();
+        Query catalog = db4o.query();
+        catalog.constrain(OMSimulationSummary.class);
+        ObjectSet<OMSimulationSummary> summaries = catalog.execute();
+        Query uncataloged = db4o.query();
+        uncataloged.constrain(OMSimulation.class);
+        while (summaries.hasNext()) {
+          OMSimulationSummary summary = summaries.next();
+          summary.setOmsFile(key);
+          list.add(summary);
+          uncataloged.descend("key").constrain(summary.getKey()).not();
+        }
+        ObjectSet<OMSimulation> result = uncataloged.execute();
+        while (result.hasNext()) {
+          OMSimulation simulation = result.next();
+          db4o.activate(simulation, Integer.MAX_VALUE);
+          simulation.setOmsFile(key);
+          list.add(new OMSimulationSummary(simulation));
+        }
+        list = Collections.unmodifiableList(list);
+        catalogs.put(key, list);
+      }
+      return list;
+    } finally {
+      release(key);
+    }
+  }
+
+  /**
+   * Gets a simulation of an OMS file by its key, fully activated.
+   * 
+   * @param omsFile
+   *          The path to the OMS file.
+   * @param key
+   *          The unique key of the simulation.
+   * @return The simulation or null if none was found.
+   */
+  public static synchronized OMSimulation getSimulation(String omsFile,
+      String key) {
+    ObjectContainer db4o = acquire(omsFile);
+    try {
+      Query query = db4o.query();
+      query.constrain(OMSimulation.class);
+      query.descend("key").constrain(key);
+      ObjectSet<OMSimulation> result = query.execute();
+      if (!result.hasNext()) {
+        return null;
+      }
+      OMSimulation simulation = result.next();
+      db4o.activate(simulation, Integer.MAX_VALUE);
+      simulation.setOmsFile(getKey(omsFile));
+      return simulation;
+    } finally {
+      release(omsFile);
+    }
+  }
+
+  /**
+   * Gets a single chunk of a simulation of an OMS file by its index.
+   * 
+   * @param omsFile
+   *          The path to the OMS file.
+   * @param key
+   *          The unique key of the simulation.
+   * @param index
+   *          The index of the chunk within the simulation.
+   * @return The chunk or null if it was not found.
+   */
+  public static synchronized OMSimulationChunk getChunk(String omsFile,
+      String key, int index) {
+    ObjectContainer db4o = acquire(omsFile);
+    try {
+      Query query = db4o.query();
+      query.constrain(OMSimulationChunk.class);
+      query.descend("key").constrain(key);
+      query.descend("index").constrain(index);
+      ObjectSet<OMSimulationChunk> result = query.execute();
+      return result.hasNext() ? result.next() : null;
+    } finally {
+      release(omsFile);
+    }
+  }
+
+  /**
+   * Stores an object to an OMB or OMS file, commits and invalidates the
+   * cached lists of the file.
+   * 
+   * @param file
+   *          The path to the OMB or OMS file.
+   * @param object
+   *          The object to store, e.g. a building.
+   */
+  public static synchronized void store(String file, Object object) {
+    ObjectContainer db4o = acquire(file);
+    try {
+      db4o.store(object);
+      db4o.commit();
+      invalidate(file);
+    } finally {
+      release(file);
+    }
+  }
+
+  /**
+   * Invalidates the cached lists of an OMB or OMS file, e.g. after objects
+   * were stored to the file. The lists are loaded again on next access.
+   * 
+   * @param file
+   *          The path to the OMB or OMS file.
+   */
+  public static synchronized void invalidate(String file) {
+    String key = getKey(file);
+    buildings.remove(key);
+    catalogs.remove(key);
+  }
+
+  /**
+   * Releases a reference to an OMB or OMS file which was acquired before. If
+   * no reference is left, the cached lists are invalidated and the object
+   * container is closed. Releasing a file which is not acquired has no effect.
+   * 
+   * @param file
+   *          The path to the OMB or OMS file.
+   */
+  public static synchronized void release(String file) {
+    String key = getKey(file);
+    Integer count = references.get(key);
+    if (count == null) {
+      return;
+    }
+    if (count > 1) {
+      references.put(key, count - 1);
+      return;
+    }
+    references.remove(key);
+    invalidate(key);
+    ObjectContainer db4o = containers.remove(key);
+    if (db4o != null) {
+      db4o.close();
+    }
+  }
+
+  /**
+   * Releases all files, e.g. when the application is closed.
+   */
+  public static synchronized void releaseAll() {
+    buildings.clear();
+    catalogs.clear();
+    references.clear();
+    Iterator<ObjectContainer> iterator = containers.values().iterator();
+    while (iterator.hasNext()) {
+      iterator.next().close();
+      iterator.remove();
+    }
+  }
+}
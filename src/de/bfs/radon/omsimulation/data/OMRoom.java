@@ -34,38 +34,59 @@ public class OMRoom {
    * 
    * @see enum OMRoomType
    */
-  private OMRoomType type;
+  private OMRoomType                    type;
 
   /**
    * Stores the unique ID of the room which is used to parse the type.
    */
-  private String     id;
+  private String                        id;
 
   /**
    * Stores an array of radon values for the certain room. Each value[i] equals
    * the average of one hour. The unit is [Bq/m^3].
    */
-  private double[]   values;
+  private double[]                      values;
 
   /**
    * Stores the total number of measurements for the room. The unit is [h].
    */
-  private int        count;
+  private int                           count;
 
   /**
    * Stores the arithmetic average of all values. The unit is [Bq/m^3].
    */
-  private double     average;
+  private double                        average;
 
   /**
    * Stores the highest value out of all measurements. The unit is [Bq/m^3].
    */
-  private double     maximum;
+  private double                        maximum;
 
   /**
    * Stores the standard deviation of all values. The unit is [Bq/m^3].
    */
-  private double     deviation;
+  private double                        deviation;
+
+  /**
+   * Stores the prefix sums of the values, where valueSums[i] is the sum of the
+   * first i values. Built lazily on first use and not stored in object files.
+   */
+  private transient volatile double[]   valueSums;
+
+  /**
+   * Stores the prefix sums of the logarithmic values, where logSums[i] is the
+   * sum of ln(value) of the first i values. Values lower or equal 0 are
+   * ignored like in OMHelper.calculateGM(). Built lazily on first use and not
+   * stored in object files.
+   */
+  private transient volatile double[]   logSums;
+
+  /**
+   * Stores the sparse table used for range maximum queries, where
+   * maxTable[k][i] is the highest value of the 2^k values starting at i. Built
+   * lazily on first use and not stored in object files.
+   */
+  private transient volatile double[][] maxTable;
 
   /**
    * Gets the type of the room: Normal, Cellar, Misc.
@@ -149,6 +170,7 @@ public class OMRoom {
    */
   public void setValues(double[] values) {
     this.values = values;
+    this.valueSums = null;
     calculateAttributes();
   }
 
@@ -233,6 +255,104 @@ public class OMRoom {
     this.deviation = deviation;
   }
 
+  /**
+   * Gets the sum of the values from index from (inclusive) to index to
+   * (exclusive). Takes constant time after the index is built.
+   * 
+   * @param from
+   *          The index of the first value.
+   * @param to
+   *          The index after the last value.
+   * @return The sum of the values in the range.
+   */
+  public double getSum(int from, int to) {
+    double[] valueSums = this.valueSums;
+    if (valueSums == null) {
+      valueSums = buildIndex();
+    }
+    return valueSums[to] - valueSums[from];
+  }
+
+  /**
+   * Gets the sum of the logarithmic values from index from (inclusive) to
+   * index to (exclusive). Values lower or equal 0 are ignored. Takes constant
+   * time after the index is built.
+   * 
+   * @param from
+   *          The index of the first value.
+   * @param to
+   *          The index after the last value.
+   * @return The sum of the logarithmic values in the range.
+   */
+  public double getLogSum(int from, int to) {
+    if (this.valueSums == null) {
+      buildIndex();
+    }
+    double[] logSums = this.logSums;
+    return logSums[to] - logSums[from];
+  }
+
+  /**
+   * Gets the highest value from index from (inclusive) to index to
+   * (exclusive). Takes constant time after the index is built.
+   * 
+   * @param from
+   *          The index of the first value.
+   * @param to
+   *          The index after the last value, has to be greater than from.
+   * @return The highest value in the range.
+   */
+  public double getMaximum(int from, int to) {
+    if (this.valueSums == null) {
+      buildIndex();
+    }
+    double[][] maxTable = this.maxTable;
+    int k = 31 - Integer.numberOfLeadingZeros(to - from);
+    double[] level = maxTable[k];
+    return Math.max(level[from], level[to - (1 << k)]);
+  }
+
+  /**
+   * Builds the prefix sums and the sparse table of the values. This is done
+   * once per room, the arrays are rebuilt after the values have changed.
+   * 
+   * @return The prefix sums of the values.
+   */
+  private synchronized double[] buildIndex() {
+    double[] valueSums = this.valueSums;
+    if (valueSums != null) {
+      return valueSums;
+    }
+    double[] values = this.values;
+    int count = values.length;
+    valueSums = new double[count + 1];
+    double[] logSums = new double[count + 1];
+    for (int i = 0; i < count; i++) {
+      valueSums[i + 1] = valueSums[i] + values[i];
+      if (values[i] > 0) {
+        logSums[i + 1] = logSums[i] + Math.log(values[i]);
+      } else {
+        logSums[i + 1] = logSums[i];
+      }
+    }
+    int levels = 32 - Integer.numberOfLeadingZeros(Math.max(count, 1));
+    double[][] maxTable = new double[levels][];
+    maxTable[0] = values.clone();
+    for (int k = 1; k < levels; k++) {
+      double[] lower = maxTable[k - 1];
+      int half = 1 << (k - 1);
+      double[] level = new double[count - (1 << k) + 1];
+      for (int i = 0; i < level.length; i++) {
+        level[i] = Math.max(lower[i], lower[i + half]);
+      }
+      maxTable[k] = level;
+    }
+    this.logSums = logSums;
+    this.maxTable = maxTable;
+    this.valueSums = valueSums;
+    return valueSums;
+  }
+
   /**
    * Constructor for objects of the class OMRoom. Creates rooms using an unique
    * ID and a set of radon values.
@@ -22,10 +22,15 @@
 
 package de.bfs.radon.omsimulation.data;
 
+import java.io.IOException;
 import java.text.DecimalFormat;
 import java.text.SimpleDateFormat;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
 
 import org.apache.commons.math.stat.descriptive.DescriptiveStatistics;
 
@@ -34,75 +39,220 @@ import org.apache.commons.math.stat.descriptive.DescriptiveStatistics;
  * custom name and all the campaigns used for analysis later. OMS simulation
  * files are DB4O databases of this type!
  * 
+ * The campaigns are stored as packed columns of primitives: the start hour,
+ * the index of the variation pattern in a dictionary shared by all campaigns,
+ * the index of the random noise stream and the eight metrics as floats. A
+ * complete campaign is only simulated again on demand, using the building,
+ * the pattern, the random noise and the seed of the simulation.
+ * 
+ * The columns are split into chunks of CHUNK_SIZE campaigns which are stored
+ * to the OMS file on their own while the simulation runs, see
+ * OMSimulationChunk. The simulation itself is stored last, holding the
+ * dictionary, and loads single chunks from the OMS file on access, keeping
+ * only the last CACHED_CHUNKS of them in memory. The distributions of the
+ * metrics are stored in the catalog entry of the simulation, see
+ * OMSimulationSummary; simulations of older versions hold the statistics of
+ * all metrics instead.
+ * 
  * @author A. Schoedon
  */
 public class OMSimulation {
 
+  /**
+   * Index of the room arithmetic means in the metric columns.
+   */
+  public static final int                ROOM_AM       = 0;
+
+  /**
+   * Index of the room geometric means in the metric columns.
+   */
+  public static final int                ROOM_GM       = 1;
+
+  /**
+   * Index of the room medians in the metric columns.
+   */
+  public static final int                ROOM_MED      = 2;
+
+  /**
+   * Index of the room maxima in the metric columns.
+   */
+  public static final int                ROOM_MAX      = 3;
+
+  /**
+   * Index of the cellar arithmetic means in the metric columns.
+   */
+  public static final int                CELLAR_AM     = 4;
+
+  /**
+   * Index of the cellar geometric means in the metric columns.
+   */
+  public static final int                CELLAR_GM     = 5;
+
+  /**
+   * Index of the cellar medians in the metric columns.
+   */
+  public static final int                CELLAR_MED    = 6;
+
+  /**
+   * Index of the cellar maxima in the metric columns.
+   */
+  public static final int                CELLAR_MAX    = 7;
+
+  /**
+   * The number of metric columns.
+   */
+  public static final int                METRICS       = 8;
+
+  /**
+   * The maximum number of campaigns per chunk.
+   */
+  public static final int                CHUNK_SIZE    = 65536;
+
+  /**
+   * The maximum number of chunks kept in memory while reading campaigns.
+   */
+  public static final int                CACHED_CHUNKS = 4;
+
   /**
    * Stores a custom name for the simulation.
    */
-  private String                name;
+  private String                         name;
 
   /**
    * Stores a date string marking the day when the simulation was run.
    * (YYYY-MM-dd)
    */
-  private String                date;
+  private String                         date;
+
+  /**
+   * Stores an array of campaigns of simulation files written by older
+   * versions, null for simulations with packed columns.
+   */
+  private OMCampaign[]                   campaigns;
 
   /**
-   * Stores an array of campaigns after simulation.
+   * Stores the unique key identifying the chunks of the simulation in the OMS
+   * file.
    */
-  private OMCampaign[]          campaigns;
+  private String                         key;
+
+  /**
+   * Stores the number of chunks of the simulation.
+   */
+  private int                            chunkCount;
+
+  /**
+   * Stores the chunk campaigns are currently added to. Not stored to the OMS
+   * file.
+   */
+  private transient OMSimulationChunk    chunk;
+
+  /**
+   * Stores the chunks loaded from the OMS file last, each chunk at its index
+   * modulo CACHED_CHUNKS. Not stored to the OMS file.
+   */
+  private transient OMSimulationChunk[]  chunks;
+
+  /**
+   * Stores the index of the campaigns ordered by the value of each metric once
+   * built. Not stored to the OMS file.
+   */
+  private transient OMCampaignIndex[]    campaignIndices;
+
+  /**
+   * Stores the absolute path to the OMS file the chunks are loaded from. Not
+   * stored to the OMS file.
+   */
+  private transient String               omsFile;
+
+  /**
+   * Stores the variation string of each pattern in the dictionary.
+   */
+  private String[]                       variations;
+
+  /**
+   * Stores the number of different rooms of each pattern in the dictionary.
+   */
+  private int[]                          differentRooms;
+
+  /**
+   * Stores the index in its variation space of each pattern in the
+   * dictionary.
+   */
+  private long[]                         indices;
+
+  /**
+   * Stores the number of patterns in the dictionary.
+   */
+  private int                            patternCount;
+
+  /**
+   * Stores the dictionary index of each variation string while adding
+   * campaigns. Not stored to the OMS file.
+   */
+  private transient Map<String, Integer> dictionary;
+
+  /**
+   * Stores the random noise that was added to the values. The unit is [%].
+   */
+  private int                            randomNoise;
 
   /**
    * Stores the used building of the simulation.
    */
-  private OMBuilding            building;
+  private OMBuilding                     building;
 
   /**
    * Stores the total number of generated campaigns.
    */
-  private int                   count;
+  private int                            count;
+
+  /**
+   * Stores the master seed of the random source used to draw the random
+   * campaigns and the random noise. Simulating the same building with the same
+   * parameters and seed reproduces the campaigns.
+   */
+  private long                           seed;
 
   /**
    * Stores all room's arithmetic means and connected statistics.
    */
-  private DescriptiveStatistics roomAmDescriptiveStats;
+  private DescriptiveStatistics          roomAmDescriptiveStats;
 
   /**
    * Stores all cellar's arithmetic means and connected statistics.
    */
-  private DescriptiveStatistics cellarAmDescriptiveStats;
+  private DescriptiveStatistics          cellarAmDescriptiveStats;
 
   /**
    * Stores all room's geometric means and connected statistics.
    */
-  private DescriptiveStatistics roomGmDescriptiveStats;
+  private DescriptiveStatistics          roomGmDescriptiveStats;
 
   /**
    * Stores all cellar's geometric means and connected statistics.
    */
-  private DescriptiveStatistics cellarGmDescriptiveStats;
+  private DescriptiveStatistics          cellarGmDescriptiveStats;
 
   /**
    * Stores all room's medians and connected statistics.
    */
-  private DescriptiveStatistics roomMedDescriptiveStats;
+  private DescriptiveStatistics          roomMedDescriptiveStats;
 
   /**
    * Stores all cellar's medians and connected statistics.
    */
-  private DescriptiveStatistics cellarMedDescriptiveStats;
+  private DescriptiveStatistics          cellarMedDescriptiveStats;
 
   /**
    * Stores all room's maximum and connected statistics.
    */
-  private DescriptiveStatistics roomMaxDescriptiveStats;
+  private DescriptiveStatistics          roomMaxDescriptiveStats;
 
   /**
    * Stores all cellar's maximum and connected statistics.
    */
-  private DescriptiveStatistics cellarMaxDescriptiveStats;
+  private DescriptiveStatistics          cellarMaxDescriptiveStats;
 
   /**
    * Gets a custom name for the simulation.
@@ -145,22 +295,311 @@ public class OMSimulation {
   }
 
   /**
-   * Gets an array of campaigns after simulation.
+   * Gets the start hour of a campaign.
    * 
-   * @return An array of campaigns.
+   * @param campaign
+   *          The index of the campaign.
+   * @return The start hour of the campaign. The unit is [h].
    */
-  public OMCampaign[] getCampaigns() {
-    return this.campaigns;
+  public int getStart(int campaign) {
+    if (this.campaigns != null) {
+      return this.campaigns[campaign].getStart();
+    }
+    return getChunk(campaign).getStart(campaign % CHUNK_SIZE);
   }
 
   /**
-   * Sets array of campaigns after simulation.
+   * Gets the variation string of a campaign.
    * 
-   * @param campaigns
-   *          An array of campaigns.
+   * @param campaign
+   *          The index of the campaign.
+   * @return The variation string of the campaign.
    */
-  public void setCampaigns(OMCampaign[] campaigns) {
-    this.campaigns = campaigns;
+  public String getVariation(int campaign) {
+    if (this.campaigns != null) {
+      return this.campaigns[campaign].getVariation();
+    }
+    return this.variations[getChunk(campaign).getPattern(
+        campaign % CHUNK_SIZE)];
+  }
+
+  /**
+   * Gets a metric of a campaign.
+   * 
+   * @param campaign
+   *          The index of the campaign.
+   * @param metric
+   *          The index of the metric, e.g. ROOM_AM.
+   * @return The metric of the campaign.
+   */
+  public float getMetric(int campaign, int metric) {
+    if (this.campaigns != null) {
+      OMCampaign tmpCampaign = this.campaigns[campaign];
+      switch (metric) {
+        case ROOM_AM:
+          return (float) tmpCampaign.getRoomAverage();
+        case ROOM_GM:
+          return (float) tmpCampaign.getRoomLogAverage();
+        case ROOM_MED:
+          return (float) tmpCampaign.getRoomMedian();
+        case ROOM_MAX:
+          return (float) tmpCampaign.getRoomMaximum();
+        case CELLAR_AM:
+          return (float) tmpCampaign.getCellarAverage();
+        case CELLAR_GM:
+          return (float) tmpCampaign.getCellarLogAverage();
+        case CELLAR_MED:
+          return (float) tmpCampaign.getCellarMedian();
+        case CELLAR_MAX:
+          return (float) tmpCampaign.getCellarMaximum();
+        default:
+          throw new IllegalArgumentException("Unknown metric " + metric
+              + ".");
+      }
+    }
+    return getChunk(campaign).getMetric(campaign % CHUNK_SIZE, metric);
+  }
+
+  /**
+   * Gets a complete campaign. The campaign is simulated again using its
+   * pattern, its start hour and its random noise stream, so it equals the
+   * simulated one.
+   * 
+   * @param campaign
+   *          The index of the campaign.
+   * @return The campaign.
+   * @throws IOException
+   *           If creating the campaign fails.
+   */
+  public OMCampaign getCampaign(int campaign) throws IOException {
+    if (this.campaigns != null) {
+      return this.campaigns[campaign];
+    }
+    OMSimulationChunk tmpChunk = getChunk(campaign);
+    int offset = campaign % CHUNK_SIZE;
+    int pattern = tmpChunk.getPattern(offset);
+    OMRoom[] rooms = this.building.getVariationSpace(
+        this.differentRooms[pattern]).getPattern(this.indices[pattern]);
+    SplittableRandom generator = new OMRandomSource(this.seed).getStream(
+        OMRandomSource.NOISE, this.differentRooms[pattern],
+        tmpChunk.getStream(offset));
+    return new OMCampaign(tmpChunk.getStart(offset), rooms, this.randomNoise,
+        generator);
+  }
+
+  /**
+   * Gets the index of the campaigns ordered by the value of a metric. The
+   * index is built on first access and kept as long as the simulation is
+   * loaded. The values are read chunk by chunk, holding the OMS file open
+   * while reading, so only the values of the metric and a few chunks are kept
+   * in memory.
+   * 
+   * @param metric
+   *          The index of the metric, e.g. ROOM_AM.
+   * @return The index of the campaigns ordered by the value of the metric.
+   */
+  public synchronized OMCampaignIndex getCampaignIndex(int metric) {
+    if (this.campaignIndices == null) {
+      this.campaignIndices = new OMCampaignIndex[METRICS];
+    }
+    if (this.campaignIndices[metric] == null) {
+      float[] values = new float[getTotal()];
+      String tmpFile = this.campaigns == null ? this.omsFile : null;
+      if (tmpFile != null) {
+        OMRepository.acquire(tmpFile);
+      }
+      try {
+        for (int i = 0; i < values.length; i++) {
+          values[i] = getMetric(i, metric);
+        }
+      } finally {
+        if (tmpFile != null) {
+          OMRepository.release(tmpFile);
+        }
+      }
+      this.campaignIndices[metric] = new OMCampaignIndex(values);
+    }
+    return this.campaignIndices[metric];
+  }
+
+  /**
+   * Gets the chunk containing a campaign. Loads the chunk from the OMS file if
+   * it is not one of the chunks loaded last.
+   * 
+   * @param campaign
+   *          The index of the campaign.
+   * @return The chunk containing the campaign.
+   */
+  private synchronized OMSimulationChunk getChunk(int campaign) {
+    int index = campaign / CHUNK_SIZE;
+    if (this.chunks == null) {
+      this.chunks = new OMSimulationChunk[CACHED_CHUNKS];
+    }
+    OMSimulationChunk tmpChunk = this.chunks[index % CACHED_CHUNKS];
+    if (tmpChunk == null || tmpChunk.getIndex() != index) {
+      tmpChunk = loadChunk(index);
+      this.chunks[index % CACHED_CHUNKS] = tmpChunk;
+    }
+    return tmpChunk;
+  }
+
+  /**
+   * Loads a single chunk of the simulation from the OMS file through the
+   * shared repository.
+   * 
+   * @param index
+   *          The index of the chunk.
+   * @return The chunk.
+   */
+  private OMSimulationChunk loadChunk(int index) {
+    if (this.omsFile == null) {
+      throw new IllegalStateException("No OMS file set to load the campaigns "
+          + "of '" + this.name + "' from.");
+    }
+    OMSimulationChunk found = null;
+    if (index < this.chunkCount) {
+      found = OMRepository.getChunk(this.omsFile, this.key, index);
+    }
+    if (found == null) {
+      throw new IllegalStateException("Chunk " + index + " of '" + this.name
+          + "' is missing in '" + this.omsFile + "'.");
+    }
+    return found;
+  }
+
+  /**
+   * Adds a campaign to the packed columns of the current chunk. Only the start
+   * hour, the pattern, the random noise stream and the metrics are stored. As
+   * soon as the chunk is full, it is returned to be stored and a new chunk is
+   * started, so the simulation never holds more than one chunk in memory.
+   * 
+   * @param campaign
+   *          The simulated campaign.
+   * @param differentRooms
+   *          The number of different rooms of the pattern of the campaign.
+   * @param index
+   *          The index of the pattern in its variation space.
+   * @param stream
+   *          The index of the random noise stream of the campaign.
+   * @return The full chunk or null if the current chunk is not full yet.
+   */
+  public OMSimulationChunk addCampaign(OMCampaign campaign,
+      int differentRooms, long index, int stream) {
+    String variation = campaign.getVariation();
+    if (this.dictionary == null) {
+      this.dictionary = new HashMap<String, Integer>();
+      for (int p = 0; p < this.patternCount; p++) {
+        this.dictionary.put(this.variations[p], p);
+      }
+    }
+    Integer pattern = this.dictionary.get(variation);
+    if (pattern == null) {
+      if (this.patternCount == this.variations.length) {
+        int capacity = Math.max(16, this.patternCount * 2);
+        this.variations = Arrays.copyOf(this.variations, capacity);
+        this.differentRooms = Arrays.copyOf(this.differentRooms, capacity);
+        this.indices = Arrays.copyOf(this.indices, capacity);
+      }
+      pattern = this.patternCount;
+      this.variations[pattern] = variation;
+      this.differentRooms[pattern] = differentRooms;
+      this.indices[pattern] = index;
+      this.dictionary.put(variation, pattern);
+      this.patternCount++;
+    }
+    if (this.chunk == null) {
+      this.chunk = new OMSimulationChunk(this.key, this.chunkCount,
+          CHUNK_SIZE);
+      this.chunkCount++;
+    }
+    OMSimulationChunk tmpChunk = this.chunk;
+    tmpChunk.add(campaign.getStart(), pattern, stream, campaign);
+    this.count++;
+    if (tmpChunk.isFull()) {
+      this.chunk = null;
+      return tmpChunk;
+    }
+    return null;
+  }
+
+  /**
+   * Closes the current chunk and trims the dictionary to the number of
+   * patterns, e.g. before storing the simulation.
+   * 
+   * @return The trimmed last chunk or null if there is none.
+   */
+  public OMSimulationChunk closeChunk() {
+    int p = this.patternCount;
+    if (this.variations != null && this.variations.length > p) {
+      this.variations = Arrays.copyOf(this.variations, p);
+      this.differentRooms = Arrays.copyOf(this.differentRooms, p);
+      this.indices = Arrays.copyOf(this.indices, p);
+    }
+    OMSimulationChunk tmpChunk = this.chunk;
+    this.chunk = null;
+    if (tmpChunk != null) {
+      tmpChunk.trim();
+    }
+    return tmpChunk;
+  }
+
+  /**
+   * Gets the unique key identifying the chunks of the simulation in the OMS
+   * file.
+   * 
+   * @return The unique key of the simulation.
+   */
+  public String getKey() {
+    return this.key;
+  }
+
+  /**
+   * Gets the number of chunks of the simulation.
+   * 
+   * @return The number of chunks of the simulation.
+   */
+  public int getChunkCount() {
+    return this.chunkCount;
+  }
+
+  /**
+   * Gets the absolute path to the OMS file the chunks are loaded from.
+   * 
+   * @return The absolute path to the OMS file.
+   */
+  public String getOmsFile() {
+    return this.omsFile;
+  }
+
+  /**
+   * Sets the absolute path to the OMS file the chunks are loaded from. Drops
+   * the chunks loaded so far.
+   * 
+   * @param omsFile
+   *          The absolute path to the OMS file.
+   */
+  public void setOmsFile(String omsFile) {
+    this.omsFile = omsFile;
+    this.chunks = null;
+  }
+
+  /**
+   * Gets the random noise that was added to the values. The unit is [%].
+   * 
+   * @return The random noise that was added to the values.
+   */
+  public int getRandomNoise() {
+    return this.randomNoise;
+  }
+
+  /**
+   * Sets the random noise that was added to the values. The unit is [%].
+   * 
+   * @param randomNoise
+   *          The random noise that was added to the values.
+   */
+  public void setRandomNoise(int randomNoise) {
+    this.randomNoise = randomNoise;
   }
 
   /**
@@ -201,6 +640,75 @@ public class OMSimulation {
     this.count = total;
   }
 
+  /**
+   * Gets the master seed of the random source used to draw the random
+   * campaigns and the random noise.
+   * 
+   * @return The master seed of the random source.
+   */
+  public long getSeed() {
+    return this.seed;
+  }
+
+  /**
+   * Sets the master seed of the random source used to draw the random
+   * campaigns and the random noise.
+   * 
+   * @param seed
+   *          The master seed of the random source.
+   */
+  public void setSeed(long seed) {
+    this.seed = seed;
+  }
+
+  /**
+   * Gets the descriptive statistics of a metric.
+   * 
+   * @param metric
+   *          The index of the metric, e.g. ROOM_AM.
+   * @return The descriptive statistics of the metric or null if they are
+   *         cleared.
+   */
+  public DescriptiveStatistics getDescriptiveStats(int metric) {
+    switch (metric) {
+      case ROOM_AM:
+        return this.roomAmDescriptiveStats;
+      case ROOM_GM:
+        return this.roomGmDescriptiveStats;
+      case ROOM_MED:
+        return this.roomMedDescriptiveStats;
+      case ROOM_MAX:
+        return this.roomMaxDescriptiveStats;
+      case CELLAR_AM:
+        return this.cellarAmDescriptiveStats;
+      case CELLAR_GM:
+        return this.cellarGmDescriptiveStats;
+      case CELLAR_MED:
+        return this.cellarMedDescriptiveStats;
+      case CELLAR_MAX:
+        return this.cellarMaxDescriptiveStats;
+      default:
+        throw new IllegalArgumentException("Unknown metric " + metric + ".");
+    }
+  }
+
+  /**
+   * Clears the descriptive statistics of all metrics, so they are not stored
+   * to the OMS file. Used once the catalog entry holding the compact
+   * distributions is created, the values of all campaigns remain available
+   * from the chunks of the simulation.
+   */
+  public void clearDescriptiveStats() {
+    this.roomAmDescriptiveStats = null;
+    this.cellarAmDescriptiveStats = null;
+    this.roomGmDescriptiveStats = null;
+    this.cellarGmDescriptiveStats = null;
+    this.roomMedDescriptiveStats = null;
+    this.cellarMedDescriptiveStats = null;
+    this.roomMaxDescriptiveStats = null;
+    this.cellarMaxDescriptiveStats = null;
+  }
+
   /**
    * Gets all room's arithmetic means and connected statistics.
    * 
@@ -362,15 +870,15 @@ public class OMSimulation {
   }
 
   /**
-   * Constructor for the simulation meta-object. Stores all the campaigns, the
-   * connected statistics and the parent building.
+   * Constructor for the simulation meta-object. Stores the connected
+   * statistics and the parent building, the campaigns are added afterwards.
    * 
    * @param name
    *          A custom name for the simulation.
    * @param building
    *          The used building of the simulation.
-   * @param campaigns
-   *          An array of campaigns after simulation.
+   * @param randomNoise
+   *          The random noise that was added to the values. The unit is [%].
    * @param roomAmDescriptiveStats
    *          All room's arithmetic means and connected statistics.
    * @param cellarAmDescriptiveStats
@@ -388,7 +896,7 @@ public class OMSimulation {
    * @param cellarMaxDescriptiveStats
    *          All cellar's maximum and connected statistics.
    */
-  public OMSimulation(String name, OMBuilding building, OMCampaign[] campaigns,
+  public OMSimulation(String name, OMBuilding building, int randomNoise,
       DescriptiveStatistics roomAmDescriptiveStats,
       DescriptiveStatistics cellarAmDescriptiveStats,
       DescriptiveStatistics roomGmDescriptiveStats,
@@ -398,7 +906,12 @@ public class OMSimulation {
       DescriptiveStatistics roomMaxDescriptiveStats,
       DescriptiveStatistics cellarMaxDescriptiveStats) {
     this.building = building;
-    this.campaigns = campaigns;
+    this.key = UUID.randomUUID().toString();
+    this.chunkCount = 0;
+    this.variations = new String[0];
+    this.differentRooms = new int[0];
+    this.indices = new long[0];
+    this.randomNoise = randomNoise;
     this.roomAmDescriptiveStats = roomAmDescriptiveStats;
     this.cellarAmDescriptiveStats = cellarAmDescriptiveStats;
     this.roomGmDescriptiveStats = roomGmDescriptiveStats;
@@ -408,7 +921,7 @@ public class OMSimulation {
     this.roomMaxDescriptiveStats = roomMaxDescriptiveStats;
     this.cellarMaxDescriptiveStats = cellarMaxDescriptiveStats;
     this.name = name;
-    this.count = campaigns.length;
+    this.count = 0;
     SimpleDateFormat dateFormat = new SimpleDateFormat("YYYY-MM-dd");
     this.date = dateFormat.format(new Date());
   }
@@ -421,6 +934,7 @@ public class OMSimulation {
     final int prime = 31;
     int result = 1;
     result = prime * result + Arrays.hashCode(this.campaigns);
+    result = prime * result + ((this.key == null) ? 0 : this.key.hashCode());
     result = prime * result + ((this.name == null) ? 0 : this.name.hashCode());
     result = prime * result + this.count;
     return result;
@@ -444,6 +958,13 @@ public class OMSimulation {
     if (!Arrays.equals(this.campaigns, other.campaigns)) {
       return false;
     }
+    if (this.key == null) {
+      if (other.key != null) {
+        return false;
+      }
+    } else if (!this.key.equals(other.key)) {
+      return false;
+    }
     if (this.name == null) {
       if (other.name != null) {
         return false;
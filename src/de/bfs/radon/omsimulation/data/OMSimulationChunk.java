@@ -0,0 +1,231 @@
+/*
+ * OM Simulation Tool: This tool intends to test and evaluate the scientific
+ * robustness of the protocol `6+1`. Therefore, it generates a huge amount of
+ * virtual measurement campaigns based on real radon concentration data
+ * following the mentioned protocol. <http://github.com/donschoe/omsimulation>
+ * 
+ * Copyright (C) 2012 Alexander Schoedon <a.schoedon@student.htw-berlin.de>
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package de.bfs.radon.omsimulation.data;
+
+import java.util.Arrays;
+
+/**
+ * Public class OMSimulationChunk, a chunk of the campaigns of a simulation
+ * stored as packed columns of primitives. The chunks are stored to the OMS
+ * file on their own while the simulation runs and are identified by the key
+ * of their simulation and their index, so a simulation never holds more than
+ * one chunk in memory while it is generated.
+ * 
+ * @author A. Schoedon
+ */
+public class OMSimulationChunk {
+
+  /**
+   * Stores the unique key of the simulation the chunk belongs to.
+   */
+  private String    key;
+
+  /**
+   * Stores the index of the chunk within its simulation.
+   */
+  private int       index;
+
+  /**
+   * Stores the number of campaigns of the chunk.
+   */
+  private int       count;
+
+  /**
+   * Stores the start hour of each campaign. The unit is [h].
+   */
+  private int[]     starts;
+
+  /**
+   * Stores the dictionary index of the variation pattern of each campaign.
+   */
+  private int[]     patterns;
+
+  /**
+   * Stores the index of the random noise stream of each campaign.
+   */
+  private int[]     streams;
+
+  /**
+   * Stores the metrics of the campaigns, one column per metric.
+   */
+  private float[][] metrics;
+
+  /**
+   * Constructor for an empty chunk.
+   * 
+   * @param key
+   *          The unique key of the simulation the chunk belongs to.
+   * @param index
+   *          The index of the chunk within its simulation.
+   * @param capacity
+   *          The maximum number of campaigns of the chunk.
+   */
+  public OMSimulationChunk(String key, int index, int capacity) {
+    super();
+    this.key = key;
+    this.index = index;
+    this.count = 0;
+    this.starts = new int[capacity];
+    this.patterns = new int[capacity];
+    this.streams = new int[capacity];
+    this.metrics = new float[OMSimulation.METRICS][capacity];
+  }
+
+  /**
+   * Gets the unique key of the simulation the chunk belongs to.
+   * 
+   * @return The unique key of the simulation.
+   */
+  public String getKey() {
+    return this.key;
+  }
+
+  /**
+   * Gets the index of the chunk within its simulation.
+   * 
+   * @return The index of the chunk.
+   */
+  public int getIndex() {
+    return this.index;
+  }
+
+  /**
+   * Gets the number of campaigns of the chunk.
+   * 
+   * @return The number of campaigns of the chunk.
+   */
+  public int getCount() {
+    return this.count;
+  }
+
+  /**
+   * Indicates whether the chunk is full.
+   * 
+   * @return True if no more campaigns can be added.
+   */
+  public boolean isFull() {
+    return this.count == this.starts.length;
+  }
+
+  /**
+   * Gets the start hour of a campaign of the chunk.
+   * 
+   * @param campaign
+   *          The index of the campaign within the chunk.
+   * @return The start hour of the campaign. The unit is [h].
+   */
+  public int getStart(int campaign) {
+    return this.starts[campaign];
+  }
+
+  /**
+   * Gets the dictionary index of the variation pattern of a campaign of the
+   * chunk.
+   * 
+   * @param campaign
+   *          The index of the campaign within the chunk.
+   * @return The dictionary index of the variation pattern.
+   */
+  public int getPattern(int campaign) {
+    return this.patterns[campaign];
+  }
+
+  /**
+   * Gets the index of the random noise stream of a campaign of the chunk.
+   * 
+   * @param campaign
+   *          The index of the campaign within the chunk.
+   * @return The index of the random noise stream.
+   */
+  public int getStream(int campaign) {
+    return this.streams[campaign];
+  }
+
+  /**
+   * Gets a metric of a campaign of the chunk.
+   * 
+   * @param campaign
+   *          The index of the campaign within the chunk.
+   * @param metric
+   *          The index of the metric, e.g. OMSimulation.ROOM_AM.
+   * @return The metric of the campaign.
+   */
+  public float getMetric(int campaign, int metric) {
+    return this.metrics[metric][campaign];
+  }
+
+  /**
+   * Adds a campaign to the chunk.
+   * 
+   * @param start
+   *          The start hour of the campaign. The unit is [h].
+   * @param pattern
+   *          The dictionary index of the variation pattern.
+   * @param stream
+   *          The index of the random noise stream.
+   * @param campaign
+   *          The campaign providing the metrics.
+   */
+  void add(int start, int pattern, int stream, OMCampaign campaign) {
+    int x = this.count;
+    this.starts[x] = start;
+    this.patterns[x] = pattern;
+    this.streams[x] = stream;
+    float[][] metrics = this.metrics;
+    metrics[OMSimulation.ROOM_AM][x] = (float) campaign.getRoomAverage();
+    metrics[OMSimulation.ROOM_GM][x] = (float) campaign.getRoomLogAverage();
+    metrics[OMSimulation.ROOM_MED][x] = (float) campaign.getRoomMedian();
+    metrics[OMSimulation.ROOM_MAX][x] = (float) campaign.getRoomMaximum();
+    metrics[OMSimulation.CELLAR_AM][x] = (float) campaign.getCellarAverage();
+    metrics[OMSimulation.CELLAR_GM][x] = (float) campaign
+        .getCellarLogAverage();
+    metrics[OMSimulation.CELLAR_MED][x] = (float) campaign.getCellarMedian();
+    metrics[OMSimulation.CELLAR_MAX][x] = (float) campaign.getCellarMaximum();
+    this.count++;
+  }
+
+  /**
+   * Trims the columns to the number of campaigns, e.g. before storing the
+   * last chunk of a simulation.
+   */
+  void trim() {
+    int x = this.count;
+    if (this.starts.length > x) {
+      this.starts = Arrays.copyOf(this.starts, x);
+      this.patterns = Arrays.copyOf(this.patterns, x);
+      this.streams = Arrays.copyOf(this.streams, x);
+      for (int m = 0; m < OMSimulation.METRICS; m++) {
+        this.metrics[m] = Arrays.copyOf(this.metrics[m], x);
+      }
+    }
+  }
+
+  /**
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    return this.key + "#" + this.index + ", " + this.count + " campaigns";
+  }
+}
@@ -0,0 +1,426 @@
+/*
+ * OM Simulation Tool: This tool intends to test and evaluate the scientific
+ * robustness of the protocol `6+1`. Therefore, it generates a huge amount of
+ * virtual measurement campaigns based on real radon concentration data
+ * following the mentioned protocol. <http://github.com/donschoe/omsimulation>
+ * 
+ * Copyright (C) 2012 Alexander Schoedon <a.schoedon@student.htw-berlin.de>
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package de.bfs.radon.omsimulation.data;
+
+import java.text.DecimalFormat;
+
+import org.apache.commons.math.stat.descriptive.DescriptiveStatistics;
+import org.apache.commons.math.stat.descriptive.StatisticalSummary;
+
+/**
+ * Public class OMSimulationSummary, the catalog entry of a simulation in an OMS
+ * file. Holds the name, the date, the number of campaigns, the name of the
+ * building, summary statistics and a compact distribution of all metrics, but
+ * no reference to the simulation itself, so listing the simulations of an OMS
+ * file and drawing their distribution charts does not load any campaigns. The
+ * simulation is loaded from the OMS file by its key on first access.
+ * 
+ * @author A. Schoedon
+ */
+public class OMSimulationSummary {
+
+  /**
+   * Stores the unique key of the simulation, null for simulations of older
+   * versions.
+   */
+  private String                 key;
+
+  /**
+   * Stores the custom name of the simulation.
+   */
+  private String                 name;
+
+  /**
+   * Stores a date string marking the day when the simulation was run.
+   * (YYYY-MM-dd)
+   */
+  private String                 date;
+
+  /**
+   * Stores the total number of generated campaigns.
+   */
+  private int                    total;
+
+  /**
+   * Stores the name of the used building of the simulation.
+   */
+  private String                 buildingName;
+
+  /**
+   * Stores the random noise that was added to the values. The unit is [%].
+   */
+  private int                    randomNoise;
+
+  /**
+   * Stores the arithmetic mean of each metric.
+   */
+  private double[]               means;
+
+  /**
+   * Stores the standard deviation of each metric.
+   */
+  private double[]               deviations;
+
+  /**
+   * Stores the minimum of each metric.
+   */
+  private double[]               minima;
+
+  /**
+   * Stores the median of each metric.
+   */
+  private double[]               medians;
+
+  /**
+   * Stores the maximum of each metric.
+   */
+  private double[]               maxima;
+
+  /**
+   * Stores the compact distribution of each metric, null for catalog entries
+   * of older versions.
+   */
+  private OMDistribution[]       distributions;
+
+  /**
+   * Stores the simulation once loaded. Not stored to the OMS file.
+   */
+  private transient OMSimulation simulation;
+
+  /**
+   * Stores the absolute path to the OMS file the simulation is loaded from.
+   * Not stored to the OMS file.
+   */
+  private transient String       omsFile;
+
+  /**
+   * Constructor for the catalog entry of a simulation. Calculates the summary
+   * statistics of all metrics from the statistics of the simulation.
+   * 
+   * @param simulation
+   *          The simulation.
+   */
+  public OMSimulationSummary(OMSimulation simulation) {
+    this(simulation, getStatistics(simulation), getMedians(simulation),
+        createDistributions(simulation));
+  }
+
+  /**
+   * Constructor for the catalog entry of a simulation whose statistics were
+   * collected separately, e.g. by quantile sketches.
+   * 
+   * @param simulation
+   *          The simulation.
+   * @param statistics
+   *          The statistics of each metric, null if not available.
+   * @param medians
+   *          The median of each metric.
+   * @param distributions
+   *          The compact distribution of each metric.
+   */
+  public OMSimulationSummary(OMSimulation simulation,
+      StatisticalSummary[] statistics, double[] medians,
+      OMDistribution[] distributions) {
+    super();
+    this.key = simulation.getKey();
+    this.name = simulation.getName();
+    this.date = simulation.getDate();
+    this.total = simulation.getTotal();
+    if (simulation.getBuilding() != null) {
+      this.buildingName = simulation.getBuilding().getName();
+    }
+    this.randomNoise = simulation.getRandomNoise();
+    this.means = new double[OMSimulation.METRICS];
+    this.deviations = new double[OMSimulation.METRICS];
+    this.minima = new double[OMSimulation.METRICS];
+    this.medians = new double[OMSimulation.METRICS];
+    this.maxima = new double[OMSimulation.METRICS];
+    for (int m = 0; m < OMSimulation.METRICS; m++) {
+      StatisticalSummary stats = statistics[m];
+      if (stats != null && stats.getN() > 0) {
+        this.means[m] = stats.getMean();
+        this.deviations[m] = stats.getStandardDeviation();
+        this.minima[m] = stats.getMin();
+        this.medians[m] = medians[m];
+        this.maxima[m] = stats.getMax();
+      }
+    }
+    this.distributions = distributions;
+    this.simulation = simulation;
+    this.omsFile = simulation.getOmsFile();
+  }
+
+  /**
+   * Gets the unique key of the simulation.
+   * 
+   * @return The unique key of the simulation or null.
+   */
+  public String getKey() {
+    return this.key;
+  }
+
+  /**
+   * Gets the custom name of the simulation.
+   * 
+   * @return The custom name of the simulation.
+   */
+  public String getName() {
+    return this.name;
+  }
+
+  /**
+   * Gets a date string marking the day when the simulation was run.
+   * (YYYY-MM-dd)
+   * 
+   * @return A date string marking the day when the simulation was run.
+   */
+  public String getDate() {
+    return this.date;
+  }
+
+  /**
+   * Gets the total number of generated campaigns.
+   * 
+   * @return The total number of generated campaigns.
+   */
+  public int getTotal() {
+    return this.total;
+  }
+
+  /**
+   * Gets the name of the used building of the simulation.
+   * 
+   * @return The name of the used building.
+   */
+  public String getBuildingName() {
+    return this.buildingName;
+  }
+
+  /**
+   * Gets the random noise that was added to the values. The unit is [%].
+   * 
+   * @return The random noise that was added to the values.
+   */
+  public int getRandomNoise() {
+    return this.randomNoise;
+  }
+
+  /**
+   * Gets the arithmetic mean of a metric.
+   * 
+   * @param metric
+   *          The index of the metric, e.g. OMSimulation.ROOM_AM.
+   * @return The arithmetic mean of the metric.
+   */
+  public double getMean(int metric) {
+    return this.means[metric];
+  }
+
+  /**
+   * Gets the standard deviation of a metric.
+   * 
+   * @param metric
+   *          The index of the metric, e.g. OMSimulation.ROOM_AM.
+   * @return The standard deviation of the metric.
+   */
+  public double getDeviation(int metric) {
+    return this.deviations[metric];
+  }
+
+  /**
+   * Gets the minimum of a metric.
+   * 
+   * @param metric
+   *          The index of the metric, e.g. OMSimulation.ROOM_AM.
+   * @return The minimum of the metric.
+   */
+  public double getMinimum(int metric) {
+    return this.minima[metric];
+  }
+
+  /**
+   * Gets the median of a metric.
+   * 
+   * @param metric
+   *          The index of the metric, e.g. OMSimulation.ROOM_AM.
+   * @return The median of the metric.
+   */
+  public double getMedian(int metric) {
+    return this.medians[metric];
+  }
+
+  /**
+   * Gets the maximum of a metric.
+   * 
+   * @param metric
+   *          The index of the metric, e.g. OMSimulation.ROOM_AM.
+   * @return The maximum of the metric.
+   */
+  public double getMaximum(int metric) {
+    return this.maxima[metric];
+  }
+
+  /**
+   * Gets the compact distribution of a metric. Catalog entries of older
+   * versions do not hold any distributions, they are created from the
+   * statistics of the simulation on first access.
+   * 
+   * @param metric
+   *          The index of the metric, e.g. OMSimulation.ROOM_AM.
+   * @return The compact distribution of the metric.
+   */
+  public synchronized OMDistribution getDistribution(int metric) {
+    if (this.distributions == null) {
+      this.distributions = createDistributions(getSimulation());
+    }
+    return this.distributions[metric];
+  }
+
+  /**
+   * Gets the statistics of all metrics of a simulation.
+   * 
+   * @param simulation
+   *          The simulation holding the statistics.
+   * @return The statistics of each metric, null if not available.
+   */
+  private static StatisticalSummary[] getStatistics(OMSimulation simulation) {
+    StatisticalSummary[] statistics =
+        new StatisticalSummary[OMSimulation.METRICS];
+    for (int m = 0; m < OMSimulation.METRICS; m++) {
+      statistics[m] = simulation.getDescriptiveStats(m);
+    }
+    return statistics;
+  }
+
+  /**
+   * Calculates the medians of all metrics of a simulation from its
+   * statistics.
+   * 
+   * @param simulation
+   *          The simulation holding the statistics.
+   * @return The median of each metric, 0 if not available.
+   */
+  private static double[] getMedians(OMSimulation simulation) {
+    double[] medians = new double[OMSimulation.METRICS];
+    for (int m = 0; m < OMSimulation.METRICS; m++) {
+      DescriptiveStatistics stats = simulation.getDescriptiveStats(m);
+      if (stats != null && stats.getN() > 0) {
+        medians[m] = stats.getPercentile(50);
+      }
+    }
+    return medians;
+  }
+
+  /**
+   * Creates the compact distributions of all metrics of a simulation from its
+   * statistics.
+   * 
+   * @param simulation
+   *          The simulation holding the statistics.
+   * @return The compact distribution of each metric.
+   */
+  private static OMDistribution[] createDistributions(OMSimulation simulation) {
+    OMDistribution[] distributions = new OMDistribution[OMSimulation.METRICS];
+    for (int m = 0; m < OMSimulation.METRICS; m++) {
+      DescriptiveStatistics stats = simulation.getDescriptiveStats(m);
+      if (stats != null) {
+        distributions[m] = new OMDistribution(stats.getSortedValues());
+      } else {
+        distributions[m] = new OMDistribution(new double[0]);
+      }
+    }
+    return distributions;
+  }
+
+  /**
+   * Gets the absolute path to the OMS file the simulation is loaded from.
+   * 
+   * @return The absolute path to the OMS file.
+   */
+  public String getOmsFile() {
+    return this.omsFile;
+  }
+
+  /**
+   * Sets the absolute path to the OMS file the simulation is loaded from.
+   * 
+   * @param omsFile
+   *          The absolute path to the OMS file.
+   */
+  public void setOmsFile(String omsFile) {
+    this.omsFile = omsFile;
+  }
+
+  /**
+   * Indicates whether the simulation is loaded already.
+   * 
+   * @return True if the simulation is loaded.
+   */
+  public synchronized boolean isLoaded() {
+    return this.simulation != null;
+  }
+
+  /**
+   * Gets the simulation. Loads the simulation with its statistics from the OMS
+   * file on first access, the campaigns are loaded on demand by the
+   * simulation itself.
+   * 
+   * @return The simulation.
+   */
+  public synchronized OMSimulation getSimulation() {
+    if (this.simulation == null) {
+      this.simulation = loadSimulation();
+    }
+    return this.simulation;
+  }
+
+  /**
+   * Loads the simulation from the OMS file by its key through the shared
+   * repository.
+   * 
+   * @return The simulation.
+   */
+  private OMSimulation loadSimulation() {
+    if (this.omsFile == null || this.key == null) {
+      throw new IllegalStateException("No OMS file set to load '"
+          + this.name + "' from.");
+    }
+    OMSimulation found = OMRepository.getSimulation(this.omsFile, this.key);
+    if (found == null) {
+      throw new IllegalStateException("Simulation '" + this.name
+          + "' is missing in '" + this.omsFile + "'.");
+    }
+    return found;
+  }
+
+  /**
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    DecimalFormat format = new DecimalFormat("#,###,###.###");
+    return this.name + ", " + format.format(this.total) + " simulations, "
+        + this.date;
+  }
+}
@@ -0,0 +1,462 @@
+/*
+ * OM Simulation Tool: This tool intends to test and evaluate the scientific
+ * robustness of the protocol `6+1`. Therefore, it generates a huge amount of
+ * virtual measurement campaigns based on real radon concentration data
+ * following the mentioned protocol. <http://github.com/donschoe/omsimulation>
+ * 
+ * Copyright (C) 2012 Alexander Schoedon <a.schoedon@student.htw-berlin.de>
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package de.bfs.radon.omsimulation.data;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Public class OMVariationSpace representing all variations of any room and
+ * cellar for a fixed number of different rooms, always following the protocol
+ * "6+1". The variations are not stored, each pattern is calculated on demand
+ * from its index and vice versa. The order of the indices is the same as the
+ * order of the former variation schemes: cellar by cellar, layout by layout
+ * and finally the permutations of the rooms in lexicographic order.
+ * 
+ * @author A. Schoedon
+ */
+public class OMVariationSpace implements Iterable<OMRoom[]> {
+
+  /**
+   * Stores the number of rooms of each pattern, six normal rooms and one
+   * cellar.
+   */
+  public static final int  PATTERN   = 7;
+
+  /**
+   * Stores the number of normal room positions of each pattern.
+   */
+  private static final int POSITIONS = 6;
+
+  /**
+   * Stores the marker for the cellar position of a layout.
+   */
+  private static final int CELLAR    = -1;
+
+  /**
+   * Stores an array of all normal rooms of the building.
+   */
+  private final OMRoom[]   rooms;
+
+  /**
+   * Stores an array of all cellar rooms of the building.
+   */
+  private final OMRoom[]   cellars;
+
+  /**
+   * Stores the number of different normal rooms of each pattern.
+   */
+  private final int        differentRooms;
+
+  /**
+   * Stores all layouts of a pattern. Each layout contains the index of the
+   * permuted room for each position or CELLAR for the cellar position.
+   */
+  private final int[][]    layouts;
+
+  /**
+   * Stores the number of permutations of the different rooms, R! / (R-X)!.
+   */
+  private final long       permutations;
+
+  /**
+   * Stores the total number of variations.
+   */
+  private final long       size;
+
+  /**
+   * Constructor for creating the variation space of a building for a fixed
+   * number of different rooms. If there are not enough rooms or no cellars,
+   * the space will be empty.
+   * 
+   * @param rooms
+   *          An array of all normal rooms of the building.
+   * @param cellars
+   *          An array of all cellar rooms of the building.
+   * @param differentRooms
+   *          The number of different normal rooms of each pattern, three to
+   *          six.
+   */
+  public OMVariationSpace(OMRoom[] rooms, OMRoom[] cellars,
+      int differentRooms) {
+    if (differentRooms < 3 || differentRooms > POSITIONS) {
+      throw new IllegalArgumentException(
+          "Unsupported number of different rooms: " + differentRooms);
+    }
+    if (rooms == null) {
+      rooms = new OMRoom[0];
+    }
+    if (cellars == null) {
+      cellars = new OMRoom[0];
+    }
+    this.rooms = rooms;
+    this.cellars = cellars;
+    this.differentRooms = differentRooms;
+    this.layouts = generateLayouts(differentRooms);
+    long permutations = 0;
+    if (rooms.length >= differentRooms) {
+      permutations = countPermutations(rooms.length, differentRooms);
+    }
+    this.permutations = permutations;
+    this.size = permutations * this.layouts.length * cellars.length;
+  }
+
+  /**
+   * Gets an array of all normal rooms of the building.
+   * 
+   * @return An array of all normal rooms of the building.
+   */
+  public OMRoom[] getRooms() {
+    return this.rooms;
+  }
+
+  /**
+   * Gets an array of all cellar rooms of the building.
+   * 
+   * @return An array of all cellar rooms of the building.
+   */
+  public OMRoom[] getCellars() {
+    return this.cellars;
+  }
+
+  /**
+   * Gets the number of different normal rooms of each pattern.
+   * 
+   * @return The number of different normal rooms of each pattern.
+   */
+  public int getDifferentRooms() {
+    return this.differentRooms;
+  }
+
+  /**
+   * Gets the total number of variations.
+   * 
+   * @return The total number of variations, 0 if the space is empty.
+   */
+  public long getSize() {
+    return this.size;
+  }
+
+  /**
+   * Gets the pattern of a variation.
+   * 
+   * @param index
+   *          The index of the variation.
+   * @return A new array of seven rooms representing the pattern.
+   */
+  public OMRoom[] getPattern(long index) {
+    OMRoom[] pattern = new OMRoom[PATTERN];
+    getPattern(index, pattern);
+    return pattern;
+  }
+
+  /**
+   * Gets the pattern of a variation and writes it into an existing array, so
+   * no pattern array is created. Two small scratch arrays sized by the number
+   * of rooms are still allocated per call to decode the permutation.
+   * 
+   * @param index
+   *          The index of the variation.
+   * @param pattern
+   *          An array of at least seven rooms to store the pattern.
+   */
+  public void getPattern(long index, OMRoom[] pattern) {
+    if (index < 0 || index >= this.size) {
+      throw new IndexOutOfBoundsException("Variation " + index
+          + " is out of range [0, " + this.size + ").");
+    }
+    long permutation = index % this.permutations;
+    long layoutIndex = index / this.permutations;
+    int[] layout = this.layouts[(int) (layoutIndex % this.layouts.length)];
+    OMRoom cellar = this.cellars[(int) (layoutIndex / this.layouts.length)];
+    int roomCount = this.rooms.length;
+    int different = this.differentRooms;
+    boolean[] used = new boolean[roomCount];
+    OMRoom[] permuted = new OMRoom[different];
+    long block = this.permutations;
+    for (int i = 0; i < different; i++) {
+      block = block / (roomCount - i);
+      int digit = (int) (permutation / block);
+      permutation = permutation % block;
+      int r = 0;
+      while (used[r] || digit > 0) {
+        if (!used[r]) {
+          digit--;
+        }
+        r++;
+      }
+      used[r] = true;
+      permuted[i] = this.rooms[r];
+    }
+    for (int i = 0; i < PATTERN; i++) {
+      if (layout[i] == CELLAR) {
+        pattern[i] = cellar;
+      } else {
+        pattern[i] = permuted[layout[i]];
+      }
+    }
+  }
+
+  /**
+   * Gets the index of a variation pattern.
+   * 
+   * @param pattern
+   *          An array of seven rooms representing the pattern.
+   * @return The index of the variation or -1 if the pattern is not part of
+   *         this space.
+   */
+  public long getIndex(OMRoom[] pattern) {
+    if (this.size == 0 || pattern == null || pattern.length != PATTERN) {
+      return -1;
+    }
+    int cellar = -1;
+    int[] layout = new int[PATTERN];
+    int[] permuted = new int[this.differentRooms];
+    int different = 0;
+    for (int i = 0; i < PATTERN; i++) {
+      int c = find(this.cellars, pattern[i]);
+      if (c >= 0) {
+        if (cellar >= 0) {
+          return -1;
+        }
+        cellar = c;
+        layout[i] = CELLAR;
+      } else {
+        int r = find(this.rooms, pattern[i]);
+        if (r < 0) {
+          return -1;
+        }
+        int p = 0;
+        while (p < different && permuted[p] != r) {
+          p++;
+        }
+        if (p == different) {
+          if (different == this.differentRooms) {
+            return -1;
+          }
+          permuted[different] = r;
+          different++;
+        }
+        layout[i] = p;
+      }
+    }
+    if (cellar < 0 || different != this.differentRooms) {
+      return -1;
+    }
+    int layoutIndex = -1;
+    for (int l = 0; l < this.layouts.length; l++) {
+      if (Arrays.equals(this.layouts[l], layout)) {
+        layoutIndex = l;
+        break;
+      }
+    }
+    if (layoutIndex < 0) {
+      return -1;
+    }
+    int roomCount = this.rooms.length;
+    boolean[] used = new boolean[roomCount];
+    long permutation = 0;
+    long block = this.permutations;
+    for (int i = 0; i < different; i++) {
+      block = block / (roomCount - i);
+      int digit = 0;
+      for (int r = 0; r < permuted[i]; r++) {
+        if (!used[r]) {
+          digit++;
+        }
+      }
+      used[permuted[i]] = true;
+      permutation = permutation + digit * block;
+    }
+    return ((long) cellar * this.layouts.length + layoutIndex)
+        * this.permutations + permutation;
+  }
+
+  /**
+   * Gets an iterator over all variation patterns of this space.
+   * 
+   * @return An iterator over all variation patterns.
+   * @see java.lang.Iterable#iterator()
+   */
+  @Override
+  public Iterator<OMRoom[]> iterator() {
+    return iterator(0, this.size);
+  }
+
+  /**
+   * Gets an iterator over a range of variation patterns of this space. Each
+   * pattern is returned as a new array.
+   * 
+   * @param from
+   *          The index of the first variation.
+   * @param to
+   *          The index after the last variation.
+   * @return An iterator over the range of variation patterns.
+   */
+  public Iterator<OMRoom[]> iterator(final long from, final long to) {
+    if (from < 0 || to > this.size || from > to) {
+      throw new IndexOutOfBoundsException("Range [" + from + ", " + to
+          + ") is out of range [0, " + this.size + ").");
+    }
+    return new Iterator<OMRoom[]>() {
+
+      /**
+       * Stores the index of the next variation.
+       */
+      private long next = from;
+
+      @Override
+      public boolean hasNext() {
+        return this.next < to;
+      }
+
+      @Override
+      public OMRoom[] next() {
+        if (this.next >= to) {
+          throw new NoSuchElementException();
+        }
+        OMRoom[] pattern = getPattern(this.next);
+        this.next++;
+        return pattern;
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    };
+  }
+
+  /**
+   * Overrides toString() to get a short description of the space.
+   * 
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    return this.size + " variations of " + this.differentRooms + " out of "
+        + this.rooms.length + " rooms and " + this.cellars.length
+        + " cellar(s)";
+  }
+
+  /**
+   * Calculates the number of permutations of k out of n elements, n! / (n-k)!.
+   * 
+   * @param n
+   *          The number of elements.
+   * @param k
+   *          The number of elements of each permutation.
+   * @return The number of permutations.
+   */
+  private static long countPermutations(int n, int k) {
+    long p = 1;
+    for (int i = 0; i < k; i++) {
+      p = p * (n - i);
+    }
+    return p;
+  }
+
+  /**
+   * Finds a room in an array of rooms.
+   * 
+   * @param rooms
+   *          An array of rooms.
+   * @param room
+   *          The room to find.
+   * @return The index of the room or -1 if not found.
+   */
+  private static int find(OMRoom[] rooms, OMRoom room) {
+    for (int i = 0; i < rooms.length; i++) {
+      if (rooms[i] == room || rooms[i].equals(room)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Generates all layouts of a pattern for a number of different rooms. Six
+   * minus the number of different rooms are measured twice in a row, chosen
+   * in lexicographic order. The cellar is added at any position which does not
+   * split a room measured twice.
+   * 
+   * @param differentRooms
+   *          The number of different normal rooms of each pattern.
+   * @return An array of layouts.
+   */
+  private static int[][] generateLayouts(int differentRooms) {
+    int doubled = POSITIONS - differentRooms;
+    int combinations = (int) (countPermutations(differentRooms, doubled)
+        / countPermutations(doubled, doubled));
+    int[][] layouts = new int[combinations * (differentRooms + 1)][];
+    int[] combination = new int[doubled];
+    for (int i = 0; i < doubled; i++) {
+      combination[i] = i;
+    }
+    int l = 0;
+    for (int c = 0; c < combinations; c++) {
+      int[] positions = new int[POSITIONS];
+      int p = 0;
+      int d = 0;
+      for (int r = 0; r < differentRooms; r++) {
+        positions[p] = r;
+        p++;
+        if (d < doubled && combination[d] == r) {
+          positions[p] = r;
+          p++;
+          d++;
+        }
+      }
+      for (int cellar = 0; cellar < PATTERN; cellar++) {
+        if (cellar == 0 || cellar == POSITIONS
+            || positions[cellar - 1] != positions[cellar]) {
+          int[] layout = new int[PATTERN];
+          for (int i = 0; i < PATTERN; i++) {
+            if (i < cellar) {
+              layout[i] = positions[i];
+            } else if (i == cellar) {
+              layout[i] = CELLAR;
+            } else {
+              layout[i] = positions[i - 1];
+            }
+          }
+          layouts[l] = layout;
+          l++;
+        }
+      }
+      int i = doubled - 1;
+      while (i >= 0 && combination[i] == differentRooms - doubled + i) {
+        i--;
+      }
+      if (i >= 0) {
+        combination[i]++;
+        for (int j = i + 1; j < doubled; j++) {
+          combination[j] = combination[j - 1] + 1;
+        }
+      }
+    }
+    return layouts;
+  }
+}
@@ -0,0 +1,211 @@
+/*
+ * OM Simulation Tool: This tool intends to test and evaluate the scientific
+ * robustness of the protocol `6+1`. Therefore, it generates a huge amount of
+ * virtual measurement campaigns based on real radon concentration data
+ * following the mentioned protocol. <http://github.com/donschoe/omsimulation>
+ * 
+ * Copyright (C) 2012 Alexander Schoedon <a.schoedon@student.htw-berlin.de>
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package de.bfs.radon.omsimulation.engine;
+
+/**
+ * Public class OMBatchJob, a single simulation of a batch. Stores the
+ * configured simulation engine, the memory reserved for it and the outcome
+ * once the batch scheduler has run it.
+ * 
+ * @author A. Schoedon
+ */
+public class OMBatchJob {
+
+  /**
+   * Stores the name of the job, used to tell the jobs apart in messages.
+   */
+  private final String             name;
+
+  /**
+   * Stores the simulation engine, configured with the building, the paths and
+   * all parameters of the simulation.
+   */
+  private final OMSimulationEngine engine;
+
+  /**
+   * Stores the memory reserved for the job, 0 to use the default of the
+   * scheduler. The unit is [MB].
+   */
+  private final int                memory;
+
+  /**
+   * Stores the final status of the simulation in percent, 100 if successful.
+   */
+  private volatile int             status;
+
+  /**
+   * Stores the number of campaigns simulated so far.
+   */
+  private volatile long            campaigns;
+
+  /**
+   * Stores the time the job took. The unit is [ms].
+   */
+  private volatile long            duration;
+
+  /**
+   * Stores the reason why the job failed, null if it did not fail.
+   */
+  private volatile String          failure;
+
+  /**
+   * Constructor for a job of a batch.
+   * 
+   * @param name
+   *          The name of the job, used to tell the jobs apart in messages.
+   * @param engine
+   *          The simulation engine, configured with the building, the paths
+   *          and all parameters of the simulation.
+   * @param memory
+   *          The memory reserved for the job, 0 to use the default of the
+   *          scheduler. The unit is [MB].
+   */
+  public OMBatchJob(String name, OMSimulationEngine engine, int memory) {
+    super();
+    this.name = name;
+    this.engine = engine;
+    this.memory = memory;
+  }
+
+  /**
+   * Gets the name of the job.
+   * 
+   * @return The name of the job.
+   */
+  public String getName() {
+    return this.name;
+  }
+
+  /**
+   * Gets the simulation engine of the job.
+   * 
+   * @return The simulation engine of the job.
+   */
+  public OMSimulationEngine getEngine() {
+    return this.engine;
+  }
+
+  /**
+   * Gets the memory reserved for the job. The unit is [MB].
+   * 
+   * @return The memory reserved for the job, 0 to use the default of the
+   *         scheduler.
+   */
+  public int getMemory() {
+    return this.memory;
+  }
+
+  /**
+   * Gets the final status of the simulation in percent.
+   * 
+   * @return The final status of the simulation, 100 if successful.
+   */
+  public int getStatus() {
+    return this.status;
+  }
+
+  /**
+   * Sets the final status of the simulation in percent.
+   * 
+   * @param status
+   *          The final status of the simulation, 100 if successful.
+   */
+  void setStatus(int status) {
+    this.status = status;
+  }
+
+  /**
+   * Gets the number of campaigns simulated so far.
+   * 
+   * @return The number of campaigns simulated so far.
+   */
+  public long getCampaigns() {
+    return this.campaigns;
+  }
+
+  /**
+   * Sets the number of campaigns simulated so far.
+   * 
+   * @param campaigns
+   *          The number of campaigns simulated so far.
+   */
+  void setCampaigns(long campaigns) {
+    this.campaigns = campaigns;
+  }
+
+  /**
+   * Gets the time the job took. The unit is [ms].
+   * 
+   * @return The time the job took.
+   */
+  public long getDuration() {
+    return this.duration;
+  }
+
+  /**
+   * Sets the time the job took. The unit is [ms].
+   * 
+   * @param duration
+   *          The time the job took.
+   */
+  void setDuration(long duration) {
+    this.duration = duration;
+  }
+
+  /**
+   * Gets the reason why the job failed.
+   * 
+   * @return The reason why the job failed, null if it did not fail.
+   */
+  public String getFailure() {
+    return this.failure;
+  }
+
+  /**
+   * Sets the reason why the job failed.
+   * 
+   * @param failure
+   *          The reason why the job failed, null if it did not fail.
+   */
+  void setFailure(String failure) {
+    this.failure = failure;
+  }
+
+  /**
+   * Indicates whether the job finished successfully.
+   * 
+   * @return True if the simulation finished with status 100.
+   */
+  public boolean isSuccessful() {
+    return this.status == 100 && this.failure == null;
+  }
+
+  /**
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    return this.name;
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * OM Simulation Tool: This tool intends to test and evaluate the scientific
+ * robustness of the protocol `6+1`. Therefore, it generates a huge amount of
+ * virtual measurement campaigns based on real radon concentration data
+ * following the mentioned protocol. <http://github.com/donschoe/omsimulation>
+ * 
+ * Copyright (C) 2012 Alexander Schoedon <a.schoedon@student.htw-berlin.de>
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package de.bfs.radon.omsimulation.engine;
+
+/**
+ * Public interface OMBatchListener, used by the batch scheduler to report the
+ * status of its jobs and the aggregate progress of the batch. The samples of
+ * the aggregate progress have no total, as the number of campaigns of a job
+ * is not known before it runs. All methods are called from worker or timer
+ * threads.
+ * 
+ * @author A. Schoedon
+ */
+public interface OMBatchListener extends OMProgressListener {
+
+  /**
+   * Called whenever a job reports a new status message.
+   * 
+   * @param job
+   *          The job reporting the message.
+   * @param message
+   *          The current log message.
+   * @param status
+   *          The status of the job in percent.
+   */
+  void update(OMBatchJob job, String message, int status);
+
+  /**
+   * Called whenever a job finished, successfully or not.
+   * 
+   * @param job
+   *          The finished job.
+   */
+  void finished(OMBatchJob job);
+}
@@ -0,0 +1,352 @@
+/*
+ * OM Simulation Tool: This tool intends to test and evaluate the scientific
+ * robustness of the protocol `6+1`. Therefore, it generates a huge amount of
+ * virtual measurement campaigns based on real radon concentration data
+ * following the mentioned protocol. <http://github.com/donschoe/omsimulation>
+ * 
+ * Copyright (C) 2012 Alexander Schoedon <a.schoedon@student.htw-berlin.de>
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package de.bfs.radon.omsimulation.engine;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Public class OMBatchScheduler, used to run a batch of simulations, e.g. all
+ * buildings of a survey, unattended. The jobs are started in the given order
+ * on a pool of workers. Each job reserves its memory from the heap before it
+ * starts, so a job only runs if its reservation fits next to the jobs already
+ * running. The reservation is not enforced, a job running out of memory fails
+ * while the others continue.
+ * 
+ * @author A. Schoedon
+ */
+public class OMBatchScheduler {
+
+  /**
+   * The default interval between two reports of the aggregate progress. The
+   * unit is [ms].
+   */
+  public static final long       REPORT_INTERVAL = 10000;
+
+  /**
+   * Stores the jobs of the batch in the order they are started.
+   */
+  private final List<OMBatchJob> jobs;
+
+  /**
+   * Stores the number of workers running jobs at the same time.
+   */
+  private int                    workers;
+
+  /**
+   * Stores the memory shared by all running jobs. The unit is [MB].
+   */
+  private int                    memory;
+
+  /**
+   * Stores the listener which is notified about the jobs and the aggregate
+   * progress, can be null.
+   */
+  private OMBatchListener        listener;
+
+  /**
+   * Stores the number of finished jobs.
+   */
+  private final AtomicInteger    finished;
+
+  /**
+   * Stores the aggregate progress of all jobs while the batch runs.
+   */
+  private OMProgress             progress;
+
+  /**
+   * Stores the starting timestamp of the batch. The unit is [ms].
+   */
+  private long                   start;
+
+  /**
+   * Constructor for a batch scheduler using one worker per available
+   * processor and the whole heap.
+   */
+  public OMBatchScheduler() {
+    super();
+    this.jobs = new ArrayList<OMBatchJob>();
+    this.finished = new AtomicInteger();
+    setWorkers(0);
+    setMemory(0);
+  }
+
+  /**
+   * Gets the jobs of the batch.
+   * 
+   * @return The jobs of the batch in the order they are started.
+   */
+  public List<OMBatchJob> getJobs() {
+    return this.jobs;
+  }
+
+  /**
+   * Adds a job to the end of the batch.
+   * 
+   * @param job
+   *          The job to add.
+   */
+  public void addJob(OMBatchJob job) {
+    this.jobs.add(job);
+  }
+
+  /**
+   * Gets the number of workers running jobs at the same time.
+   * 
+   * @return The number of workers.
+   */
+  public int getWorkers() {
+    return this.workers;
+  }
+
+  /**
+   * Sets the number of workers running jobs at the same time.
+   * 
+   * @param workers
+   *          The number of workers, 0 to use one per available processor.
+   */
+  public void setWorkers(int workers) {
+    if (workers < 1) {
+      workers = Runtime.getRuntime().availableProcessors();
+    }
+    this.workers = workers;
+  }
+
+  /**
+   * Gets the memory shared by all running jobs. The unit is [MB].
+   * 
+   * @return The memory shared by all running jobs.
+   */
+  public int getMemory() {
+    return this.memory;
+  }
+
+  /**
+   * Sets the memory shared by all running jobs. The unit is [MB].
+   * 
+   * @param memory
+   *          The memory shared by all running jobs, 0 to use the maximum
+   *          heap size.
+   */
+  public void setMemory(int memory) {
+    if (memory < 1) {
+      memory = (int) Math.max(1, Runtime.getRuntime().maxMemory() >> 20);
+    }
+    this.memory = memory;
+  }
+
+  /**
+   * Gets the listener which is notified about the jobs and the aggregate
+   * progress.
+   * 
+   * @return The listener or null.
+   */
+  public OMBatchListener getListener() {
+    return this.listener;
+  }
+
+  /**
+   * Sets the listener which is notified about the jobs and the aggregate
+   * progress.
+   * 
+   * @param listener
+   *          The listener or null.
+   */
+  public void setListener(OMBatchListener listener) {
+    this.listener = listener;
+  }
+
+  /**
+   * Gets the number of finished jobs.
+   * 
+   * @return The number of finished jobs.
+   */
+  public int getFinished() {
+    return this.finished.get();
+  }
+
+  /**
+   * Gets the number of campaigns simulated by all jobs so far.
+   * 
+   * @return The number of campaigns simulated by all jobs so far.
+   */
+  public long getCampaigns() {
+    long campaigns = 0;
+    for (OMBatchJob job : this.jobs) {
+      campaigns = campaigns + job.getCampaigns();
+    }
+    return campaigns;
+  }
+
+  /**
+   * Gets the aggregate throughput of all jobs since the batch started.
+   * 
+   * @return The aggregate throughput in campaigns per second.
+   */
+  public double getRate() {
+    long time = System.currentTimeMillis() - this.start;
+    if (this.start == 0 || time <= 0) {
+      return 0;
+    }
+    return getCampaigns() * 1000.0 / time;
+  }
+
+  /**
+   * Gets the memory reserved for a job, using the default share of the
+   * memory if the job does not reserve any. Reservations larger than the
+   * memory are limited to the memory.
+   * 
+   * @param job
+   *          The job.
+   * @return The memory reserved for the job. The unit is [MB].
+   */
+  public int getReservation(OMBatchJob job) {
+    int reservation = job.getMemory();
+    if (reservation < 1) {
+      reservation = Math.max(1, this.memory / this.workers);
+    }
+    return Math.min(reservation, this.memory);
+  }
+
+  /**
+   * Runs all jobs of the batch and waits until they are finished.
+   * 
+   * @return The number of jobs which finished successfully.
+   * @throws InterruptedException
+   *           If the thread is interrupted while waiting for the jobs.
+   */
+  public int run() throws InterruptedException {
+    this.finished.set(0);
+    this.start = System.currentTimeMillis();
+    this.progress = new OMProgress(0, 0, REPORT_INTERVAL,
+        new OMProgressListener() {
+          public void progress(OMProgressSample sample) {
+            OMBatchListener listener = getListener();
+            if (listener != null) {
+              listener.progress(sample);
+            }
+          }
+        });
+    final Semaphore reservations = new Semaphore(this.memory, true);
+    ExecutorService executor = Executors.newFixedThreadPool(this.workers);
+    try {
+      for (final OMBatchJob job : this.jobs) {
+        executor.execute(new Runnable() {
+          public void run() {
+            int reservation = getReservation(job);
+            try {
+              reservations.acquire(reservation);
+            } catch (InterruptedException e) {
+              job.setFailure("Interrupted before the job started.");
+              finish(job);
+              return;
+            }
+            try {
+              runJob(job);
+            } finally {
+              reservations.release(reservation);
+            }
+            finish(job);
+          }
+        });
+      }
+      executor.shutdown();
+      while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+        continue;
+      }
+    } finally {
+      executor.shutdownNow();
+      this.progress.stop();
+    }
+    int successful = 0;
+    for (OMBatchJob job : this.jobs) {
+      if (job.isSuccessful()) {
+        successful++;
+      }
+    }
+    return successful;
+  }
+
+  /**
+   * Runs the simulation of a job on the current thread. Failures are stored
+   * to the job and do not affect the other jobs.
+   * 
+   * @param job
+   *          The job to run.
+   */
+  private void runJob(final OMBatchJob job) {
+    final OMProgress progress = this.progress;
+    OMSimulationEngine engine = job.getEngine();
+    engine.setListener(new OMSimulationListener() {
+      public void update(String message, int status) {
+        OMBatchListener listener = getListener();
+        if (listener != null) {
+          listener.update(job, message, status);
+        }
+      }
+
+      public void indeterminate(boolean indeterminate) {
+      }
+
+      public void progress(OMProgressSample sample) {
+        long done = sample.getDone();
+        progress.add(done - job.getCampaigns());
+        job.setCampaigns(done);
+      }
+    });
+    long start = System.currentTimeMillis();
+    try {
+      job.setStatus(engine.run());
+    } catch (IOException e) {
+      job.setFailure(e.getMessage());
+    } catch (RuntimeException e) {
+      job.setFailure(e.toString());
+    } catch (OutOfMemoryError e) {
+      job.setFailure("Out of memory, reserve more memory for the job.");
+    } finally {
+      job.setDuration(System.currentTimeMillis() - start);
+      engine.setListener(null);
+    }
+  }
+
+  /**
+   * Counts a finished job and notifies the listener.
+   * 
+   * @param job
+   *          The finished job.
+   */
+  private void finish(OMBatchJob job) {
+    this.finished.incrementAndGet();
+    OMBatchListener listener = getListener();
+    if (listener != null) {
+      listener.finished(job);
+    }
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * OM Simulation Tool: This tool intends to test and evaluate the scientific
+ * robustness of the protocol `6+1`. Therefore, it generates a huge amount of
+ * virtual measurement campaigns based on real radon concentration data
+ * following the mentioned protocol. <http://github.com/donschoe/omsimulation>
+ * 
+ * Copyright (C) 2012 Alexander Schoedon <a.schoedon@student.htw-berlin.de>
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package de.bfs.radon.omsimulation.engine;
+
+/**
+ * Class OMCampaignBatch, a batch of campaign records handed from the
+ * simulation to the writer thread of an OMCampaignWriter. The records are
+ * stored as primitive integers per column, metrics as float bits. Batches are
+ * reused after they have been written.
+ * 
+ * @author A. Schoedon
+ */
+class OMCampaignBatch {
+
+  /**
+   * Stores the records per column.
+   */
+  private final int[][] values;
+
+  /**
+   * Stores the number of records in the batch.
+   */
+  private int           size;
+
+  /**
+   * Stores the index of the first campaign of the batch in the file.
+   */
+  private long          first;
+
+  /**
+   * Constructor for an empty batch.
+   * 
+   * @param columns
+   *          The number of columns.
+   * @param length
+   *          The maximum number of records.
+   */
+  OMCampaignBatch(int columns, int length) {
+    super();
+    this.values = new int[columns][length];
+  }
+
+  /**
+   * Gets the records per column.
+   * 
+   * @return The records per column.
+   */
+  int[][] getValues() {
+    return this.values;
+  }
+
+  /**
+   * Gets the number of records in the batch.
+   * 
+   * @return The number of records in the batch.
+   */
+  int getSize() {
+    return this.size;
+  }
+
+  /**
+   * Sets the number of records in the batch.
+   * 
+   * @param size
+   *          The number of records in the batch.
+   */
+  void setSize(int size) {
+    this.size = size;
+  }
+
+  /**
+   * Gets the index of the first campaign of the batch in the file.
+   * 
+   * @return The index of the first campaign of the batch.
+   */
+  long getFirst() {
+    return this.first;
+  }
+
+  /**
+   * Sets the index of the first campaign of the batch in the file.
+   * 
+   * @param first
+   *          The index of the first campaign of the batch.
+   */
+  void setFirst(long first) {
+    this.first = first;
+  }
+}
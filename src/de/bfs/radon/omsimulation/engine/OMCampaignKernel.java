@@ -0,0 +1,559 @@
+/*
+ * OM Simulation Tool: This tool intends to test and evaluate the scientific
+ * robustness of the protocol `6+1`. Therefore, it generates a huge amount of
+ * virtual measurement campaigns based on real radon concentration data
+ * following the mentioned protocol. <http://github.com/donschoe/omsimulation>
+ * 
+ * Copyright (C) 2012 Alexander Schoedon <a.schoedon@student.htw-berlin.de>
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.bfs.radon.omsimulation.engine;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import de.bfs.radon.omsimulation.data.OMNoise;
+import de.bfs.radon.omsimulation.data.OMRoom;
+import de.bfs.radon.omsimulation.data.OMRoomType;
+
+/**
+ * Public class OMCampaignKernel, which evaluates campaigns without creating
+ * OMCampaign objects. It calculates the eight metrics R_AM, R_GM, R_MED, R_MAX,
+ * C_AM, C_GM, C_MED and C_MAX of a campaign like OMCampaign does, but reuses
+ * its scratch buffers, so evaluating a campaign does not allocate any memory.
+ * A kernel is not thread-safe, use one kernel per thread.
+ * 
+ * Medians and maxima are exactly the ones of OMCampaign. The sums and
+ * logarithmic sums of the values are taken from the prefix sums over the
+ * whole series of each room instead of adding the values of the campaign in
+ * order like OMHelper, so the arithmetic and geometric means are rounded
+ * differently and may differ from OMCampaign in the last digits.
+ * 
+ * @author A. Schoedon
+ */
+public class OMCampaignKernel {
+
+  /**
+   * The number of hours of a single measurement day.
+   */
+  private static final int       DAY   = 24;
+
+  /**
+   * The number of normal rooms of a campaign.
+   */
+  private static final int       ROOMS = 6;
+
+  /**
+   * Stores the random generator used to add random noise.
+   */
+  private final SplittableRandom generator;
+
+  /**
+   * Stores the six normal rooms of the current pattern.
+   */
+  private final OMRoom[]         patternRooms;
+
+  /**
+   * Stores the cellar of the current pattern.
+   */
+  private OMRoom                 patternCellar;
+
+  /**
+   * Stores the table of precalculated cellar metrics, can be null.
+   */
+  private OMCellarTable          cellarTable;
+
+  /**
+   * Stores the precalculated metrics of the cellar of the current pattern, null
+   * if no table is used or the cellar is not part of the table.
+   */
+  private double[]               cellarMetrics;
+
+  /**
+   * Stores the offset of the cellar measurement relative to the start of the
+   * campaign, derived from the variation string like OMCampaign does.
+   */
+  private int                    cellarOffset;
+
+  /**
+   * Stores the offsets of the measurement days of the six normal rooms
+   * relative to the start of the campaign, skipping the cellar day.
+   */
+  private final int[]            dayOffsets;
+
+  /**
+   * Scratch buffer for the selected values of the normal rooms.
+   */
+  private final double[]         roomValues;
+
+  /**
+   * Scratch buffer for the selected values of the cellar.
+   */
+  private final double[]         cellarValues;
+
+  /**
+   * Scratch buffer for the random noise indices of the normal rooms or the
+   * cellar.
+   */
+  private final int[]            noiseDraws;
+
+  /**
+   * Constructor for a kernel using its own random generator for noise.
+   */
+  public OMCampaignKernel() {
+    this(new SplittableRandom());
+  }
+
+  /**
+   * Constructor for a kernel using the given random generator for noise.
+   * 
+   * @param generator
+   *          The random generator used to add random noise.
+   */
+  public OMCampaignKernel(SplittableRandom generator) {
+    super();
+    this.generator = generator;
+    this.patternRooms = new OMRoom[ROOMS];
+    this.dayOffsets = new int[ROOMS];
+    this.roomValues = new double[ROOMS * DAY];
+    this.cellarValues = new double[DAY];
+    this.noiseDraws = new int[ROOMS * DAY];
+  }
+
+  /**
+   * Gets the table of precalculated cellar metrics.
+   * 
+   * @return The table of precalculated cellar metrics or null.
+   */
+  public OMCellarTable getCellarTable() {
+    return this.cellarTable;
+  }
+
+  /**
+   * Sets the table of precalculated cellar metrics which is used for campaigns
+   * without random noise. Call this before setting the pattern.
+   * 
+   * @param cellarTable
+   *          The table of precalculated cellar metrics or null.
+   */
+  public void setCellarTable(OMCellarTable cellarTable) {
+    this.cellarTable = cellarTable;
+  }
+
+  /**
+   * Gets the offset of the cellar measurement relative to the start of the
+   * campaign. Like OMCampaign, this adds i * 12 hours for every character 'C'
+   * or 'c' at position i of the variation string, which equals 24 hours per
+   * preceding room for two-character room IDs.
+   * 
+   * @param pattern
+   *          A pattern of seven rooms.
+   * @return The offset of the cellar measurement in hours.
+   */
+  public static int getCellarOffset(OMRoom[] pattern) {
+    int offset = 0;
+    int i = 0;
+    for (int r = 0; r < pattern.length; r++) {
+      String id = pattern[r].getId();
+      for (int c = 0; c < id.length(); c++) {
+        char ch = id.charAt(c);
+        if (ch == 'C' || ch == 'c') {
+          offset = offset + i * 12;
+        }
+        i++;
+      }
+    }
+    return offset;
+  }
+
+  /**
+   * Gets the variation string of a pattern by concatenating the room IDs, the
+   * same way OMCampaign does.
+   * 
+   * @param pattern
+   *          A pattern of seven rooms.
+   * @return The variation string of the pattern.
+   */
+  public static String getVariation(OMRoom[] pattern) {
+    StringBuilder variation = new StringBuilder();
+    for (int r = 0; r < pattern.length; r++) {
+      variation.append(pattern[r].getId());
+    }
+    return variation.toString();
+  }
+
+  /**
+   * Sets the pattern of seven rooms used for the following evaluations. The
+   * normal rooms are used in the order of the pattern.
+   * 
+   * @param pattern
+   *          A pattern of seven rooms.
+   */
+  public void setPattern(OMRoom[] pattern) {
+    OMRoom[] patternRooms = this.patternRooms;
+    int x = 0;
+    for (int r = 0; r < pattern.length; r++) {
+      if (pattern[r].getType() != OMRoomType.Cellar) {
+        patternRooms[x] = pattern[r];
+        x++;
+      } else {
+        this.patternCellar = pattern[r];
+      }
+    }
+    this.cellarOffset = getCellarOffset(pattern);
+    int day = 0;
+    for (int r = 0; r < ROOMS; r++) {
+      if (day == this.cellarOffset) {
+        day = day + DAY;
+      }
+      this.dayOffsets[r] = day;
+      day = day + DAY;
+    }
+    this.cellarMetrics = null;
+    if (this.cellarTable != null) {
+      this.cellarMetrics = this.cellarTable.getMetrics(this.patternCellar);
+    }
+  }
+
+  /**
+   * Evaluates the campaign of the current pattern for a start hour and stores
+   * the eight metrics in the order of OMStatisticsAccumulator, e.g. ROOM_AM at
+   * offset + OMStatisticsAccumulator.ROOM_AM. Without random noise, sums,
+   * logarithmic sums and maxima are looked up per measurement day from the
+   * index of each room and the medians are selected without sorting. The
+   * cellar metrics are read from the cellar table if available.
+   * 
+   * @param start
+   *          The start hour of the campaign.
+   * @param randomNoise
+   *          The random noise that is added to the values. The unit is [%].
+   * @param metrics
+   *          The array receiving the metrics.
+   * @param offset
+   *          The position of the metric record in the array.
+   */
+  public void evaluate(int start, int randomNoise, double[] metrics,
+      int offset) {
+    if (randomNoise > 0) {
+      evaluateNoise(start, randomNoise, metrics, offset);
+      return;
+    }
+    double[] roomValues = this.roomValues;
+    int x = 0;
+    for (int r = 0; r < ROOMS; r++) {
+      System.arraycopy(this.patternRooms[r].getValues(),
+          start + this.dayOffsets[r], roomValues, x, DAY);
+      x = x + DAY;
+    }
+    evaluateIndexed(start, metrics, offset);
+    metrics[offset + OMStatisticsAccumulator.ROOM_MED] = select(roomValues,
+        medianIndex(roomValues.length));
+  }
+
+  /**
+   * Evaluates the campaigns of the current pattern for a range of consecutive
+   * start hours and stores the metric records one after another. Without
+   * random noise, the values of the normal rooms are kept in a sorted window:
+   * moving the start by one hour only removes the first and adds the next
+   * value of each measurement day, so the room median is updated instead of
+   * selected again. The results are the same as calling evaluate() for each
+   * start hour, which uses the same prefix sums.
+   * 
+   * @param from
+   *          The first start hour.
+   * @param to
+   *          The start hour after the last campaign.
+   * @param randomNoise
+   *          The random noise that is added to the values. The unit is [%].
+   * @param metrics
+   *          The array receiving the metric records, METRICS values per start
+   *          hour.
+   * @param offset
+   *          The position of the first metric record in the array.
+   */
+  public void evaluateRange(int from, int to, int randomNoise,
+      double[] metrics, int offset) {
+    if (randomNoise > 0) {
+      for (int start = from; start < to; start++) {
+        evaluateNoise(start, randomNoise, metrics, offset + (start - from)
+            * OMStatisticsAccumulator.METRICS);
+      }
+      return;
+    }
+    if (to <= from) {
+      return;
+    }
+    OMRoom[] patternRooms = this.patternRooms;
+    int[] dayOffsets = this.dayOffsets;
+    double[] sorted = this.roomValues;
+    int x = 0;
+    for (int r = 0; r < ROOMS; r++) {
+      System.arraycopy(patternRooms[r].getValues(), from + dayOffsets[r],
+          sorted, x, DAY);
+      x = x + DAY;
+    }
+    Arrays.sort(sorted);
+    int median = medianIndex(sorted.length);
+    int i = offset;
+    for (int start = from; start < to; start++) {
+      if (start > from) {
+        for (int r = 0; r < ROOMS; r++) {
+          double[] values = patternRooms[r].getValues();
+          int first = start - 1 + dayOffsets[r];
+          replace(sorted, values[first], values[first + DAY]);
+        }
+      }
+      evaluateIndexed(start, metrics, i);
+      metrics[i + OMStatisticsAccumulator.ROOM_MED] = sorted[median];
+      i = i + OMStatisticsAccumulator.METRICS;
+    }
+  }
+
+  /**
+   * Evaluates all metrics except the room median without random noise. Sums,
+   * logarithmic sums and maxima are looked up per measurement day from the
+   * index of each room. The cellar metrics are read from the cellar table if
+   * available.
+   * 
+   * @param start
+   *          The start hour of the campaign.
+   * @param metrics
+   *          The array receiving the metrics.
+   * @param offset
+   *          The position of the metric record in the array.
+   */
+  private void evaluateIndexed(int start, double[] metrics, int offset) {
+    OMRoom[] patternRooms = this.patternRooms;
+    int[] dayOffsets = this.dayOffsets;
+    OMRoom cellar = this.patternCellar;
+    int cellarStart = start + this.cellarOffset;
+    double roomSum = 0.0;
+    double roomLogSum = 0.0;
+    double roomMaximum = Double.NEGATIVE_INFINITY;
+    for (int r = 0; r < ROOMS; r++) {
+      int day = start + dayOffsets[r];
+      OMRoom room = patternRooms[r];
+      roomSum = roomSum + room.getSum(day, day + DAY);
+      roomLogSum = roomLogSum + room.getLogSum(day, day + DAY);
+      roomMaximum = Math.max(roomMaximum, room.getMaximum(day, day + DAY));
+    }
+    metrics[offset + OMStatisticsAccumulator.ROOM_AM] = roomSum
+        / (ROOMS * DAY);
+    metrics[offset + OMStatisticsAccumulator.ROOM_GM] = Math.exp(roomLogSum
+        / (ROOMS * DAY));
+    metrics[offset + OMStatisticsAccumulator.ROOM_MAX] = roomMaximum;
+    double[] cellarMetrics = this.cellarMetrics;
+    if (cellarMetrics != null) {
+      int c = cellarStart * OMCellarTable.METRICS;
+      metrics[offset + OMStatisticsAccumulator.CELLAR_AM] = cellarMetrics[c];
+      metrics[offset + OMStatisticsAccumulator.CELLAR_GM] = cellarMetrics[c + 1];
+      metrics[offset + OMStatisticsAccumulator.CELLAR_MED] = cellarMetrics[c + 2];
+      metrics[offset + OMStatisticsAccumulator.CELLAR_MAX] = cellarMetrics[c + 3];
+    } else {
+      double[] cellarValues = this.cellarValues;
+      System.arraycopy(cellar.getValues(), cellarStart, cellarValues, 0, DAY);
+      metrics[offset + OMStatisticsAccumulator.CELLAR_AM] = cellar.getSum(
+          cellarStart, cellarStart + DAY) / DAY;
+      metrics[offset + OMStatisticsAccumulator.CELLAR_GM] = Math.exp(cellar
+          .getLogSum(cellarStart, cellarStart + DAY) / DAY);
+      metrics[offset + OMStatisticsAccumulator.CELLAR_MED] = select(
+          cellarValues, medianIndex(DAY));
+      metrics[offset + OMStatisticsAccumulator.CELLAR_MAX] = cellar
+          .getMaximum(cellarStart, cellarStart + DAY);
+    }
+  }
+
+  /**
+   * Replaces a value of a sorted array by another value and keeps the array
+   * sorted by moving the new value to its position.
+   * 
+   * @param sorted
+   *          A sorted array containing the old value.
+   * @param oldValue
+   *          The value to remove.
+   * @param newValue
+   *          The value to add.
+   */
+  private static void replace(double[] sorted, double oldValue,
+      double newValue) {
+    if (oldValue == newValue) {
+      return;
+    }
+    int i = Arrays.binarySearch(sorted, oldValue);
+    if (newValue > oldValue) {
+      while (i + 1 < sorted.length && sorted[i + 1] < newValue) {
+        sorted[i] = sorted[i + 1];
+        i++;
+      }
+    } else {
+      while (i > 0 && sorted[i - 1] > newValue) {
+        sorted[i] = sorted[i - 1];
+        i--;
+      }
+    }
+    sorted[i] = newValue;
+  }
+
+  /**
+   * Evaluates the campaign of the current pattern with random noise added to
+   * every value. The noise is drawn in bulk, first for the normal rooms, then
+   * for the cellar, like in OMCampaign. The geometric means are derived from
+   * the logarithmic sums of the rooms and the tabulated logarithms of the noise
+   * factors, the medians are selected without sorting the values.
+   * 
+   * @param start
+   *          The start hour of the campaign.
+   * @param randomNoise
+   *          The random noise that is added to the values. The unit is [%].
+   * @param metrics
+   *          The array receiving the metrics.
+   * @param offset
+   *          The position of the metric record in the array.
+   */
+  private void evaluateNoise(int start, int randomNoise, double[] metrics,
+      int offset) {
+    OMRoom[] patternRooms = this.patternRooms;
+    double[] roomValues = this.roomValues;
+    double[] cellarValues = this.cellarValues;
+    int[] noiseDraws = this.noiseDraws;
+    OMNoise noise = OMNoise.getInstance(randomNoise);
+    int cellarStart = start + this.cellarOffset;
+    double roomLogSum = 0.0;
+    int x = 0;
+    int day = start;
+    for (int r = 0; r < ROOMS; r++) {
+      if (day == cellarStart) {
+        day = day + DAY;
+      }
+      System.arraycopy(patternRooms[r].getValues(), day, roomValues, x, DAY);
+      roomLogSum = roomLogSum + patternRooms[r].getLogSum(day, day + DAY);
+      x = x + DAY;
+      day = day + DAY;
+    }
+    System.arraycopy(this.patternCellar.getValues(), cellarStart,
+        cellarValues, 0, DAY);
+    double cellarLogSum = this.patternCellar.getLogSum(cellarStart,
+        cellarStart + DAY);
+    noise.draw(this.generator, noiseDraws, 0, ROOMS * DAY);
+    noise.apply(roomValues, 0, noiseDraws, 0, ROOMS * DAY);
+    roomLogSum = roomLogSum
+        + noise.getLogSum(roomValues, 0, noiseDraws, 0, ROOMS * DAY);
+    noise.draw(this.generator, noiseDraws, 0, DAY);
+    noise.apply(cellarValues, 0, noiseDraws, 0, DAY);
+    cellarLogSum = cellarLogSum
+        + noise.getLogSum(cellarValues, 0, noiseDraws, 0, DAY);
+    metrics[offset + OMStatisticsAccumulator.ROOM_AM] = average(roomValues);
+    metrics[offset + OMStatisticsAccumulator.ROOM_GM] = Math.exp(roomLogSum
+        / (ROOMS * DAY));
+    metrics[offset + OMStatisticsAccumulator.ROOM_MAX] = maximum(roomValues);
+    metrics[offset + OMStatisticsAccumulator.ROOM_MED] = select(roomValues,
+        medianIndex(ROOMS * DAY));
+    metrics[offset + OMStatisticsAccumulator.CELLAR_AM] = average(cellarValues);
+    metrics[offset + OMStatisticsAccumulator.CELLAR_GM] = Math.exp(cellarLogSum
+        / DAY);
+    metrics[offset + OMStatisticsAccumulator.CELLAR_MAX] = maximum(cellarValues);
+    metrics[offset + OMStatisticsAccumulator.CELLAR_MED] = select(
+        cellarValues, medianIndex(DAY));
+  }
+
+  /**
+   * Calculates the arithmetic mean like OMHelper.calculateAM().
+   * 
+   * @param values
+   *          The values.
+   * @return The arithmetic mean.
+   */
+  private static double average(double[] values) {
+    double am = 0.0;
+    for (int i = 0; i < values.length; i++) {
+      am = am + values[i];
+    }
+    return am / values.length;
+  }
+
+  /**
+   * Gets the highest value of an unsorted array.
+   * 
+   * @param values
+   *          The values.
+   * @return The highest value.
+   */
+  private static double maximum(double[] values) {
+    double max = values[0];
+    for (int i = 1; i < values.length; i++) {
+      if (values[i] > max) {
+        max = values[i];
+      }
+    }
+    return max;
+  }
+
+  /**
+   * Gets the index of the median (quantile 50) in a sorted array like
+   * OMCampaign does.
+   * 
+   * @param length
+   *          The number of values.
+   * @return The index of the median.
+   */
+  static int medianIndex(int length) {
+    double x = (double) length - (((double) length / 100.0) * 50.0);
+    return (int) x - 1;
+  }
+
+  /**
+   * Selects the k-th lowest value by partially reordering the array in place,
+   * which is the value a sorted array would hold at index k.
+   * 
+   * @param values
+   *          The values, will be reordered.
+   * @param k
+   *          The index in the sorted order.
+   * @return The k-th lowest value.
+   */
+  static double select(double[] values, int k) {
+    int left = 0;
+    int right = values.length - 1;
+    while (right > left) {
+      double pivot = values[(left + right) >>> 1];
+      int i = left;
+      int j = right;
+      while (i <= j) {
+        while (values[i] < pivot) {
+          i++;
+        }
+        while (values[j] > pivot) {
+          j--;
+        }
+        if (i <= j) {
+          double tmp = values[i];
+          values[i] = values[j];
+          values[j] = tmp;
+          i++;
+          j--;
+        }
+      }
+      if (k <= j) {
+        right = j;
+      } else if (k >= i) {
+        left = i;
+      } else {
+        return values[k];
+      }
+    }
+    return values[k];
+  }
+}
@@ -0,0 +1,283 @@
+/*
+ * OM Simulation Tool: This tool intends to test and evaluate the scientific
+ * robustness of the protocol `6+1`. Therefore, it generates a huge amount of
+ * virtual measurement campaigns based on real radon concentration data
+ * following the mentioned protocol. <http://github.com/donschoe/omsimulation>
+ * 
+ * Copyright (C) 2012 Alexander Schoedon <a.schoedon@student.htw-berlin.de>
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package de.bfs.radon.omsimulation.engine;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Public class OMCampaignReader, which reads a binary columnar campaign file
+ * (OMC) written by OMCampaignWriter. The columns are mapped into memory, so
+ * campaigns can be accessed randomly without reading the whole file. Files
+ * larger than 2 GB are mapped in several segments.
+ * 
+ * @author A. Schoedon
+ */
+public class OMCampaignReader {
+
+  /**
+   * The size of a mapped segment in bytes.
+   */
+  private static final long        SEGMENT = 1L << 30;
+
+  /**
+   * Stores the name of the simulated building.
+   */
+  private final String             name;
+
+  /**
+   * Stores the master seed of the random source of the simulation.
+   */
+  private final long               seed;
+
+  /**
+   * Stores the random noise that was added to the values. The unit is [%].
+   */
+  private final int                randomNoise;
+
+  /**
+   * Stores the number of campaigns the columns are laid out for.
+   */
+  private final long               capacity;
+
+  /**
+   * Stores the number of campaigns.
+   */
+  private final long               count;
+
+  /**
+   * Stores the variation strings of the patterns.
+   */
+  private final String[]           patterns;
+
+  /**
+   * Stores the mapped segments of the columns.
+   */
+  private final MappedByteBuffer[] segments;
+
+  /**
+   * Constructor for a reader of an existing campaign file.
+   * 
+   * @param path
+   *          The absolute path of the campaign file.
+   * @throws IOException
+   *           If reading the file fails or the file is not a campaign file.
+   */
+  public OMCampaignReader(String path) throws IOException {
+    super();
+    FileChannel channel = FileChannel.open(Paths.get(path),
+        StandardOpenOption.READ);
+    try {
+      ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+          Math.min(channel.size(), 54));
+      if (header.limit() < 54 || header.getInt(0) != OMCampaignWriter.MAGIC) {
+        throw new IOException("'" + path + "' is not a campaign file.");
+      }
+      if (header.getInt(4) != OMCampaignWriter.VERSION) {
+        throw new IOException("Unsupported campaign file version "
+            + header.getInt(4) + ".");
+      }
+      this.capacity = header.getLong(8);
+      this.count = header.getLong(16);
+      long dictionaryOffset = header.getLong(24);
+      int patternCount = header.getInt(32);
+      this.randomNoise = header.getInt(36);
+      this.seed = header.getLong(40);
+      long dataOffset = header.getInt(48);
+      int nameLength = header.getShort(52) & 0xffff;
+      ByteBuffer nameBuffer = channel.map(FileChannel.MapMode.READ_ONLY, 54,
+          nameLength);
+      byte[] nameBytes = new byte[nameLength];
+      nameBuffer.get(nameBytes);
+      this.name = new String(nameBytes, OMCampaignWriter.CHARSET);
+      long dataLength = this.capacity * OMCampaignWriter.COLUMNS
+          * OMCampaignWriter.WIDTH;
+      int segmentCount = (int) ((dataLength + SEGMENT - 1) / SEGMENT);
+      this.segments = new MappedByteBuffer[segmentCount];
+      for (int s = 0; s < segmentCount; s++) {
+        long from = s * SEGMENT;
+        this.segments[s] = channel.map(FileChannel.MapMode.READ_ONLY,
+            dataOffset + from, Math.min(SEGMENT, dataLength - from));
+      }
+      ByteBuffer dictionary = channel.map(FileChannel.MapMode.READ_ONLY,
+          dictionaryOffset, channel.size() - dictionaryOffset);
+      this.patterns = new String[patternCount];
+      for (int p = 0; p < patternCount; p++) {
+        byte[] bytes = new byte[dictionary.getShort() & 0xffff];
+        dictionary.get(bytes);
+        this.patterns[p] = new String(bytes, OMCampaignWriter.CHARSET);
+      }
+    } finally {
+      channel.close();
+    }
+  }
+
+  /**
+   * Gets the name of the simulated building.
+   * 
+   * @return The name of the simulated building.
+   */
+  public String getName() {
+    return this.name;
+  }
+
+  /**
+   * Gets the master seed of the random source of the simulation.
+   * 
+   * @return The master seed of the random source.
+   */
+  public long getSeed() {
+    return this.seed;
+  }
+
+  /**
+   * Gets the random noise that was added to the values. The unit is [%].
+   * 
+   * @return The random noise that was added to the values.
+   */
+  public int getRandomNoise() {
+    return this.randomNoise;
+  }
+
+  /**
+   * Gets the number of campaigns.
+   * 
+   * @return The number of campaigns.
+   */
+  public long getCount() {
+    return this.count;
+  }
+
+  /**
+   * Gets the number of patterns in the dictionary.
+   * 
+   * @return The number of patterns in the dictionary.
+   */
+  public int getPatternCount() {
+    return this.patterns.length;
+  }
+
+  /**
+   * Gets the index of the pattern of a campaign in the dictionary.
+   * 
+   * @param campaign
+   *          The index of the campaign.
+   * @return The index of the pattern.
+   */
+  public int getPattern(long campaign) {
+    return getInt(OMCampaignWriter.PATTERN, campaign);
+  }
+
+  /**
+   * Gets the variation string of a campaign.
+   * 
+   * @param campaign
+   *          The index of the campaign.
+   * @return The variation string.
+   */
+  public String getVariation(long campaign) {
+    return this.patterns[getPattern(campaign)];
+  }
+
+  /**
+   * Gets the start hour of a campaign.
+   * 
+   * @param campaign
+   *          The index of the campaign.
+   * @return The start hour.
+   */
+  public int getStart(long campaign) {
+    return getInt(OMCampaignWriter.START, campaign);
+  }
+
+  /**
+   * Gets a metric of a campaign.
+   * 
+   * @param campaign
+   *          The index of the campaign.
+   * @param metric
+   *          The metric, e.g. OMStatisticsAccumulator.ROOM_AM.
+   * @return The value of the metric.
+   */
+  public double getMetric(long campaign, int metric) {
+    return Float.intBitsToFloat(getInt(OMCampaignWriter.METRIC + metric,
+        campaign));
+  }
+
+  /**
+   * Exports all campaigns to a CSV file, using the same format the campaign
+   * CSV files were written in before. The metrics are truncated to integers.
+   * 
+   * @param path
+   *          The absolute path of the CSV file.
+   * @throws IOException
+   *           If writing the file fails.
+   */
+  public void exportCsv(String path) throws IOException {
+    File csvFile = new File(path);
+    FileWriter csvWriter = new FileWriter(csvFile);
+    BufferedWriter csvOutput = new BufferedWriter(csvWriter, 1 << 16);
+    try {
+      csvOutput
+          .write("\"ID\";\"CAMPAIGN\";\"START\";\"R_AM\";\"R_GM\";\"R_MED\";\"R_MAX\";\"C_AM\";\"C_GM\";\"C_MED\";\"C_MAX\"");
+      csvOutput.newLine();
+      StringBuilder line = new StringBuilder(128);
+      for (long x = 0; x < this.count; x++) {
+        line.setLength(0);
+        line.append('"').append(x).append("\";\"").append(getVariation(x))
+            .append("\";\"").append(getStart(x)).append('"');
+        for (int m = 0; m < OMStatisticsAccumulator.METRICS; m++) {
+          line.append(";\"").append((int) getMetric(x, m)).append('"');
+        }
+        csvOutput.append(line);
+        csvOutput.newLine();
+      }
+    } finally {
+      csvOutput.close();
+    }
+  }
+
+  /**
+   * Gets an entry of a column.
+   * 
+   * @param column
+   *          The column.
+   * @param campaign
+   *          The index of the campaign.
+   * @return The entry as integer bits.
+   */
+  private int getInt(int column, long campaign) {
+    long position = (column * this.capacity + campaign)
+        * OMCampaignWriter.WIDTH;
+    return this.segments[(int) (position / SEGMENT)]
+        .getInt((int) (position % SEGMENT));
+  }
+}
@@ -0,0 +1,783 @@
+/*
+ * OM Simulation Tool: This tool intends to test and evaluate the scientific
+ * robustness of the protocol `6+1`. Therefore, it generates a huge amount of
+ * virtual measurement campaigns based on real radon concentration data
+ * following the mentioned protocol. <http://github.com/donschoe/omsimulation>
+ * 
+ * Copyright (C) 2012 Alexander Schoedon <a.schoedon@student.htw-berlin.de>
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package de.bfs.radon.omsimulation.engine;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Public class OMCampaignWriter, which writes the campaigns of a simulation to
+ * a binary columnar campaign file (OMC). The file starts with a header
+ * containing the building name, the seed and the random noise, followed by one
+ * column per field with a fixed width of four bytes per campaign: the pattern,
+ * the start hour and the eight metrics as floats. The variation strings of the
+ * patterns are stored once in a dictionary after the columns. The maximum
+ * number of campaigns has to be known in advance to lay out the columns. If
+ * less campaigns are written, e.g. by an adaptive simulation stopping early,
+ * the columns and the dictionary are moved together when closing the file.
+ * Use OMCampaignReader to read the file or to export it as CSV.
+ * 
+ * Campaigns are collected in batches of primitive records. Unless the queue
+ * size is 0, full batches are handed to a dedicated writer thread, which
+ * encodes them into reusable buffers and writes them to the file while the
+ * simulation continues. The queue size limits the number of batches waiting to
+ * be written, the simulation blocks if the writer thread falls behind.
+ * 
+ * @author A. Schoedon
+ */
+public class OMCampaignWriter {
+
+  /**
+   * The magic number identifying campaign files ("OMC1").
+   */
+  public static final int                      MAGIC   = 0x4F4D4331;
+
+  /**
+   * The version of the file format.
+   */
+  public static final int                      VERSION = 1;
+
+  /**
+   * The column of the pattern, an index into the dictionary.
+   */
+  public static final int                      PATTERN = 0;
+
+  /**
+   * The column of the start hour.
+   */
+  public static final int                      START   = 1;
+
+  /**
+   * The column of the first metric, followed by the other metrics in the order
+   * of OMStatisticsAccumulator.
+   */
+  public static final int                      METRIC  = 2;
+
+  /**
+   * The number of columns, the pattern, the start hour and eight metrics.
+   */
+  public static final int                      COLUMNS = 10;
+
+  /**
+   * The width of each column entry in bytes.
+   */
+  public static final int                      WIDTH   = 4;
+
+  /**
+   * The number of campaigns buffered per column before writing.
+   */
+  private static final int                     BLOCK   = 8192;
+
+  /**
+   * The character set of the strings in the header and the dictionary.
+   */
+  static final Charset                         CHARSET = Charset
+                                                         .forName("UTF-8");
+
+  /**
+   * Stores the channel of the campaign file.
+   */
+  private final FileChannel                    channel;
+
+  /**
+   * Stores the number of campaigns the columns are laid out for.
+   */
+  private final long                           capacity;
+
+  /**
+   * Stores the position of the first column in the file.
+   */
+  private final long                           dataOffset;
+
+  /**
+   * Stores the position of the dictionary in the file.
+   */
+  private final long                           dictionaryOffset;
+
+  /**
+   * Stores the buffers of the columns, used by the writer thread only.
+   */
+  private final ByteBuffer[]                   columns;
+
+  /**
+   * Stores integer views of the buffers of the columns.
+   */
+  private final IntBuffer[]                    views;
+
+  /**
+   * Stores the batches waiting to be written, null if no writer thread is
+   * used.
+   */
+  private final BlockingQueue<OMCampaignBatch> full;
+
+  /**
+   * Stores the batches which have been written and can be filled again, null
+   * if no writer thread is used.
+   */
+  private final BlockingQueue<OMCampaignBatch> free;
+
+  /**
+   * Stores the writer thread, null if batches are written synchronously.
+   */
+  private final Thread                         thread;
+
+  /**
+   * Stores the exception thrown by the writer thread, if any.
+   */
+  private volatile IOException                 failure;
+
+  /**
+   * Stores the batch currently filled.
+   */
+  private OMCampaignBatch                      current;
+
+  /**
+   * Stores the buffer of the dictionary.
+   */
+  private final ByteBuffer                     dictionary;
+
+  /**
+   * Stores the position in the file the dictionary buffer is written to next.
+   */
+  private long                                 dictionaryPosition;
+
+  /**
+   * Stores the number of campaigns written.
+   */
+  private long                                 count;
+
+  /**
+   * Stores the number of campaigns written to the file, guarded by the writer
+   * itself.
+   */
+  private long                                 written;
+
+  /**
+   * Stores the number of patterns in the dictionary.
+   */
+  private int                                  patterns;
+
+  /**
+   * Constructor for a writer creating a new campaign file. An existing file is
+   * replaced.
+   * 
+   * @param path
+   *          The absolute path of the campaign file.
+   * @param name
+   *          The name of the simulated building.
+   * @param seed
+   *          The master seed of the random source of the simulation.
+   * @param randomNoise
+   *          The random noise that was added to the values. The unit is [%].
+   * @param capacity
+   *          The maximum number of campaigns to write.
+   * @param queueSize
+   *          The maximum number of full batches waiting for the writer thread
+   *          or 0 to write the batches without a writer thread.
+   * @throws IOException
+   *           If creating or writing the file fails.
+   */
+  public OMCampaignWriter(String path, String name, long seed,
+      int randomNoise, long capacity, int queueSize) throws IOException {
+    this(create(path, name, seed, randomNoise, capacity), capacity,
+        getDataOffset(name), 0, 0, 0, queueSize);
+  }
+
+  /**
+   * Constructor for a writer using an open campaign file.
+   * 
+   * @param channel
+   *          The channel of the campaign file.
+   * @param capacity
+   *          The maximum number of campaigns to write.
+   * @param dataOffset
+   *          The position of the first column in the file.
+   * @param dictionaryLength
+   *          The length of the existing dictionary entries in bytes.
+   * @param count
+   *          The number of existing campaigns.
+   * @param patterns
+   *          The number of existing patterns in the dictionary.
+   * @param queueSize
+   *          The maximum number of full batches waiting for the writer thread
+   *          or 0 to write the batches without a writer thread.
+   */
+  private OMCampaignWriter(FileChannel channel, long capacity,
+      long dataOffset, long dictionaryLength, long count, int patterns,
+      int queueSize) {
+    super();
+    this.channel = channel;
+    this.capacity = capacity;
+    this.dataOffset = dataOffset;
+    this.dictionaryOffset = dataOffset + capacity * COLUMNS * WIDTH;
+    this.dictionaryPosition = this.dictionaryOffset + dictionaryLength;
+    this.count = count;
+    this.written = count;
+    this.patterns = patterns;
+    this.columns = new ByteBuffer[COLUMNS];
+    this.views = new IntBuffer[COLUMNS];
+    for (int c = 0; c < COLUMNS; c++) {
+      this.columns[c] = ByteBuffer.allocateDirect(BLOCK * WIDTH);
+      this.views[c] = this.columns[c].asIntBuffer();
+    }
+    this.dictionary = ByteBuffer.allocateDirect(1 << 16);
+    this.current = new OMCampaignBatch(COLUMNS, BLOCK);
+    this.current.setFirst(count);
+    if (queueSize > 0) {
+      this.full = new LinkedBlockingQueue<OMCampaignBatch>();
+      this.free = new ArrayBlockingQueue<OMCampaignBatch>(queueSize);
+      for (int b = 0; b < queueSize; b++) {
+        this.free.add(new OMCampaignBatch(COLUMNS, BLOCK));
+      }
+      this.thread = new Thread(new Runnable() {
+        public void run() {
+          drain();
+        }
+      }, "OMCampaignWriter");
+      this.thread.setDaemon(true);
+      this.thread.start();
+    } else {
+      this.full = null;
+      this.free = null;
+      this.thread = null;
+    }
+  }
+
+  /**
+   * Opens an existing campaign file to continue writing after the given number
+   * of campaigns and patterns, e.g. when resuming a simulation from a
+   * checkpoint. Campaigns and patterns after these are overwritten.
+   * 
+   * @param path
+   *          The absolute path of the campaign file.
+   * @param count
+   *          The number of campaigns to keep.
+   * @param patterns
+   *          The number of patterns in the dictionary to keep.
+   * @param queueSize
+   *          The maximum number of full batches waiting for the writer thread
+   *          or 0 to write the batches without a writer thread.
+   * @return The writer continuing the campaign file.
+   * @throws IOException
+   *           If reading the file fails or the file is not a campaign file.
+   */
+  public static OMCampaignWriter resume(String path, long count,
+      int patterns, int queueSize) throws IOException {
+    FileChannel channel = FileChannel.open(Paths.get(path),
+        StandardOpenOption.READ, StandardOpenOption.WRITE);
+    try {
+      ByteBuffer header = ByteBuffer.allocate(54);
+      read(channel, header, 0);
+      if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+        throw new IOException("'" + path + "' is not a campaign file.");
+      }
+      long capacity = header.getLong(8);
+      long dictionaryOffset = header.getLong(24);
+      long dataOffset = header.getInt(48);
+      if (count > capacity || patterns > header.getInt(32)) {
+        throw new IOException("'" + path + "' contains less campaigns than "
+            + "expected.");
+      }
+      long position = dictionaryOffset;
+      ByteBuffer length = ByteBuffer.allocate(2);
+      for (int p = 0; p < patterns; p++) {
+        length.clear();
+        read(channel, length, position);
+        position = position + 2 + (length.getShort(0) & 0xffff);
+      }
+      return new OMCampaignWriter(channel, capacity, dataOffset, position
+          - dictionaryOffset, count, patterns, queueSize);
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Creates a new campaign file and writes the header.
+   * 
+   * @param path
+   *          The absolute path of the campaign file.
+   * @param name
+   *          The name of the simulated building.
+   * @param seed
+   *          The master seed of the random source of the simulation.
+   * @param randomNoise
+   *          The random noise that was added to the values. The unit is [%].
+   * @param capacity
+   *          The maximum number of campaigns to write.
+   * @return The channel of the new campaign file.
+   * @throws IOException
+   *           If creating or writing the file fails.
+   */
+  private static FileChannel create(String path, String name, long seed,
+      int randomNoise, long capacity) throws IOException {
+    byte[] nameBytes = name.getBytes(CHARSET);
+    long dataOffset = getDataOffset(name);
+    FileChannel channel = FileChannel.open(Paths.get(path),
+        StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+        StandardOpenOption.READ, StandardOpenOption.WRITE);
+    ByteBuffer header = ByteBuffer.allocate((int) dataOffset);
+    header.putInt(MAGIC);
+    header.putInt(VERSION);
+    header.putLong(capacity);
+    header.putLong(0);
+    header.putLong(dataOffset + capacity * COLUMNS * WIDTH);
+    header.putInt(0);
+    header.putInt(randomNoise);
+    header.putLong(seed);
+    header.putInt((int) dataOffset);
+    header.putShort((short) nameBytes.length);
+    header.put(nameBytes);
+    header.rewind();
+    try {
+      while (header.hasRemaining()) {
+        channel.write(header, header.position());
+      }
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+    return channel;
+  }
+
+  /**
+   * Gets the position of the first column, the header is padded to a multiple
+   * of eight bytes.
+   * 
+   * @param name
+   *          The name of the simulated building.
+   * @return The position of the first column.
+   */
+  private static long getDataOffset(String name) {
+    return (54 + name.getBytes(CHARSET).length + 7) & ~7L;
+  }
+
+  /**
+   * Reads a buffer completely from a position of a file.
+   * 
+   * @param channel
+   *          The channel of the file.
+   * @param buffer
+   *          The buffer to fill.
+   * @param position
+   *          The position in the file.
+   * @throws IOException
+   *           If reading the file fails or the file ends before.
+   */
+  private static void read(FileChannel channel, ByteBuffer buffer,
+      long position) throws IOException {
+    while (buffer.hasRemaining()) {
+      int read = channel.read(buffer, position);
+      if (read < 0) {
+        throw new IOException("Unexpected end of campaign file.");
+      }
+      position = position + read;
+    }
+  }
+
+  /**
+   * Gets the number of campaigns written.
+   * 
+   * @return The number of campaigns written.
+   */
+  public long getCount() {
+    return this.count;
+  }
+
+  /**
+   * Gets the number of patterns in the dictionary.
+   * 
+   * @return The number of patterns in the dictionary.
+   */
+  public int getPatterns() {
+    return this.patterns;
+  }
+
+  /**
+   * Adds the variation string of a pattern to the dictionary.
+   * 
+   * @param variation
+   *          The variation string of the pattern.
+   * @return The index of the pattern in the dictionary.
+   * @throws IOException
+   *           If writing the file fails.
+   */
+  public int addPattern(String variation) throws IOException {
+    byte[] bytes = variation.getBytes(CHARSET);
+    ByteBuffer dictionary = this.dictionary;
+    if (dictionary.remaining() < bytes.length + 2) {
+      flushDictionary();
+    }
+    dictionary.putShort((short) bytes.length);
+    dictionary.put(bytes);
+    int pattern = this.patterns;
+    this.patterns++;
+    return pattern;
+  }
+
+  /**
+   * Writes a campaign.
+   * 
+   * @param pattern
+   *          The index of the pattern in the dictionary.
+   * @param start
+   *          The start hour of the campaign.
+   * @param metrics
+   *          The array containing the metrics of the campaign.
+   * @param offset
+   *          The position of the metric record in the array.
+   * @throws IOException
+   *           If writing the file fails or the capacity is exceeded.
+   */
+  public void write(int pattern, int start, double[] metrics, int offset)
+      throws IOException {
+    if (this.count >= this.capacity) {
+      throw new IOException("Campaign file is full after " + this.capacity
+          + " campaigns.");
+    }
+    OMCampaignBatch batch = this.current;
+    int[][] values = batch.getValues();
+    int i = batch.getSize();
+    values[PATTERN][i] = pattern;
+    values[START][i] = start;
+    for (int m = 0; m < OMStatisticsAccumulator.METRICS; m++) {
+      values[METRIC + m][i] = Float.floatToRawIntBits(toFloat(metrics[offset
+          + m]));
+    }
+    batch.setSize(i + 1);
+    this.count++;
+    if (i + 1 == BLOCK) {
+      submit();
+    }
+  }
+
+  /**
+   * Writes all campaigns and patterns added so far and updates the header, so
+   * the file is complete up to here, even if the simulation does not finish.
+   * Waits for the writer thread and forces the data to the storage device.
+   * 
+   * @throws IOException
+   *           If writing the file fails or the thread was interrupted.
+   */
+  public void flush() throws IOException {
+    if (this.current.getSize() > 0) {
+      submit();
+    }
+    synchronized (this) {
+      try {
+        while (this.written < this.count && this.failure == null) {
+          wait();
+        }
+      } catch (InterruptedException e) {
+        throw new InterruptedIOException("Interrupted while writing "
+            + "campaigns.");
+      }
+    }
+    checkFailure();
+    flushDictionary();
+    writeCounts();
+    this.channel.force(false);
+  }
+
+  /**
+   * Writes all buffered data and the final header and closes the file. If
+   * less campaigns than the capacity were written, the file is compacted.
+   * 
+   * @throws IOException
+   *           If writing or closing the file fails.
+   */
+  public void close() throws IOException {
+    try {
+      if (this.current.getSize() > 0) {
+        submit();
+      }
+      if (this.thread != null) {
+        try {
+          this.full.put(new OMCampaignBatch(0, 0));
+          this.thread.join();
+        } catch (InterruptedException e) {
+          throw new InterruptedIOException("Interrupted while writing "
+              + "campaigns.");
+        }
+        checkFailure();
+      }
+      flushDictionary();
+      writeCounts();
+      compact();
+      this.channel.truncate(this.dictionaryPosition);
+    } finally {
+      if (this.thread != null) {
+        this.thread.interrupt();
+      }
+      this.channel.close();
+    }
+  }
+
+  /**
+   * Moves the columns and the dictionary together if less campaigns were
+   * written than the columns are laid out for and updates the capacity and
+   * the position of the dictionary in the header. Each column is moved towards
+   * the start of the file, so no data is overwritten before it is moved.
+   * 
+   * @throws IOException
+   *           If reading or writing the file fails.
+   */
+  private void compact() throws IOException {
+    long count = this.count;
+    if (count >= this.capacity) {
+      return;
+    }
+    long length = count * WIDTH;
+    ByteBuffer buffer = ByteBuffer.allocateDirect(BLOCK * WIDTH);
+    for (int c = 1; c < COLUMNS; c++) {
+      move(buffer, this.dataOffset + c * this.capacity * WIDTH,
+          this.dataOffset + c * length, length);
+    }
+    long dictionaryOffset = this.dataOffset + COLUMNS * length;
+    long dictionaryLength = this.dictionaryPosition - this.dictionaryOffset;
+    move(buffer, this.dictionaryOffset, dictionaryOffset, dictionaryLength);
+    this.dictionaryPosition = dictionaryOffset + dictionaryLength;
+    ByteBuffer header = ByteBuffer.allocate(8);
+    header.putLong(count);
+    header.rewind();
+    write(header, 8);
+    header.clear();
+    header.putLong(dictionaryOffset);
+    header.rewind();
+    write(header, 24);
+  }
+
+  /**
+   * Moves a range of the file towards the start of the file.
+   * 
+   * @param buffer
+   *          The buffer used to copy the range.
+   * @param from
+   *          The position of the range.
+   * @param to
+   *          The new position of the range, not greater than from.
+   * @param length
+   *          The length of the range in bytes.
+   * @throws IOException
+   *           If reading or writing the file fails.
+   */
+  private void move(ByteBuffer buffer, long from, long to, long length)
+      throws IOException {
+    long done = 0;
+    while (done < length) {
+      buffer.clear();
+      buffer.limit((int) Math.min(buffer.capacity(), length - done));
+      read(this.channel, buffer, from + done);
+      buffer.flip();
+      write(buffer, to + done);
+      done = done + buffer.limit();
+    }
+  }
+
+  /**
+   * Converts a metric to a float. Rounds towards zero if rounding to the
+   * nearest float would change the integer part, so CSV files exported from
+   * the campaign file contain the same integer values as before.
+   * 
+   * @param value
+   *          The metric.
+   * @return The metric as float.
+   */
+  static float toFloat(double value) {
+    float f = (float) value;
+    if ((int) f != (int) value) {
+      if (value > 0) {
+        f = Math.nextDown(f);
+      } else {
+        f = Math.nextUp(f);
+      }
+    }
+    return f;
+  }
+
+  /**
+   * Writes the number of campaigns and patterns to the header.
+   * 
+   * @throws IOException
+   *           If writing the file fails.
+   */
+  private void writeCounts() throws IOException {
+    ByteBuffer header = ByteBuffer.allocate(8);
+    header.putLong(this.count);
+    header.rewind();
+    write(header, 16);
+    header = ByteBuffer.allocate(4);
+    header.putInt(this.patterns);
+    header.rewind();
+    write(header, 32);
+  }
+
+  /**
+   * Hands the current batch to the writer thread and takes an empty batch, or
+   * writes the current batch if no writer thread is used. Blocks while no empty
+   * batch is available.
+   * 
+   * @throws IOException
+   *           If writing the file failed or the thread was interrupted.
+   */
+  private void submit() throws IOException {
+    checkFailure();
+    OMCampaignBatch batch = this.current;
+    if (this.thread == null) {
+      writeBatch(batch);
+    } else {
+      try {
+        this.full.put(batch);
+        batch = this.free.take();
+      } catch (InterruptedException e) {
+        throw new InterruptedIOException("Interrupted while writing "
+            + "campaigns.");
+      }
+      this.current = batch;
+    }
+    batch.setFirst(this.count);
+    batch.setSize(0);
+  }
+
+  /**
+   * Throws the exception thrown by the writer thread, if any.
+   * 
+   * @throws IOException
+   *           If writing the file failed.
+   */
+  private void checkFailure() throws IOException {
+    IOException failure = this.failure;
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  /**
+   * Writes the batches handed to the writer thread until the closing batch
+   * without columns arrives. Batches are still taken after a failure, so the
+   * simulation does not block before noticing the failure.
+   */
+  private void drain() {
+    try {
+      while (true) {
+        OMCampaignBatch batch = this.full.take();
+        if (batch.getValues().length == 0) {
+          break;
+        }
+        if (this.failure == null) {
+          try {
+            writeBatch(batch);
+          } catch (IOException e) {
+            setFailure(e);
+          }
+        }
+        this.free.put(batch);
+      }
+    } catch (InterruptedException e) {
+      setFailure(new InterruptedIOException("Interrupted while writing "
+          + "campaigns."));
+    }
+  }
+
+  /**
+   * Stores the exception thrown by the writer thread and wakes up a waiting
+   * flush.
+   * 
+   * @param failure
+   *          The exception thrown by the writer thread.
+   */
+  private synchronized void setFailure(IOException failure) {
+    this.failure = failure;
+    notifyAll();
+  }
+
+  /**
+   * Encodes a batch into the buffers of the columns and writes them to the
+   * file.
+   * 
+   * @param batch
+   *          The batch to write.
+   * @throws IOException
+   *           If writing the file fails.
+   */
+  private void writeBatch(OMCampaignBatch batch) throws IOException {
+    int[][] values = batch.getValues();
+    int size = batch.getSize();
+    for (int c = 0; c < COLUMNS; c++) {
+      ByteBuffer column = this.columns[c];
+      IntBuffer view = this.views[c];
+      view.clear();
+      view.put(values[c], 0, size);
+      column.clear();
+      column.limit(size * WIDTH);
+      write(column, this.dataOffset + (c * this.capacity + batch.getFirst())
+          * WIDTH);
+    }
+    synchronized (this) {
+      this.written = batch.getFirst() + size;
+      notifyAll();
+    }
+  }
+
+  /**
+   * Writes the buffered dictionary entries to the file.
+   * 
+   * @throws IOException
+   *           If writing the file fails.
+   */
+  private void flushDictionary() throws IOException {
+    ByteBuffer dictionary = this.dictionary;
+    dictionary.flip();
+    int length = dictionary.remaining();
+    write(dictionary, this.dictionaryPosition);
+    dictionary.clear();
+    this.dictionaryPosition = this.dictionaryPosition + length;
+  }
+
+  /**
+   * Writes a buffer completely to a position of the file.
+   * 
+   * @param buffer
+   *          The buffer to write.
+   * @param position
+   *          The position in the file.
+   * @throws IOException
+   *           If writing the file fails.
+   */
+  private void write(ByteBuffer buffer, long position) throws IOException {
+    while (buffer.hasRemaining()) {
+      position = position + this.channel.write(buffer, position);
+    }
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * OM Simulation Tool: This tool intends to test and evaluate the scientific
+ * robustness of the protocol `6+1`. Therefore, it generates a huge amount of
+ * virtual measurement campaigns based on real radon concentration data
+ * following the mentioned protocol. <http://github.com/donschoe/omsimulation>
+ * 
+ * Copyright (C) 2012 Alexander Schoedon <a.schoedon@student.htw-berlin.de>
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.bfs.radon.omsimulation.engine;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import de.bfs.radon.omsimulation.data.OMRoom;
+
+/**
+ * Public class OMCellarTable, storing the cellar metrics C_AM, C_GM, C_MED and
+ * C_MAX of every cellar for every possible absolute start hour of the cellar
+ * measurement. The cellar part of a campaign only depends on the cellar and
+ * this start hour, so the table is calculated once per simulation and shared
+ * by all patterns and threads. Only valid without random noise. The means are
+ * taken from the prefix sums of the cellar like in OMCampaignKernel, so they
+ * may differ from OMCampaign in the last digits.
+ * 
+ * @author A. Schoedon
+ */
+public class OMCellarTable {
+
+  /**
+   * The number of hours of a single measurement day.
+   */
+  private static final int            DAY     = 24;
+
+  /**
+   * The number of cellar metrics stored per start hour.
+   */
+  public static final int             METRICS = 4;
+
+  /**
+   * Stores the metrics per cellar, METRICS values per start hour in the order
+   * C_AM, C_GM, C_MED, C_MAX.
+   */
+  private final Map<OMRoom, double[]> metrics;
+
+  /**
+   * Constructor for the table, calculates the metrics of all given cellars for
+   * every start hour.
+   * 
+   * @param cellars
+   *          The cellars of the building.
+   */
+  public OMCellarTable(OMRoom[] cellars) {
+    super();
+    this.metrics = new HashMap<OMRoom, double[]>();
+    double[] dayValues = new double[DAY];
+    for (int c = 0; c < cellars.length; c++) {
+      OMRoom cellar = cellars[c];
+      double[] values = cellar.getValues();
+      int starts = values.length - DAY + 1;
+      if (starts < 1) {
+        continue;
+      }
+      double[] table = new double[starts * METRICS];
+      for (int start = 0; start < starts; start++) {
+        int i = start * METRICS;
+        System.arraycopy(values, start, dayValues, 0, DAY);
+        table[i] = cellar.getSum(start, start + DAY) / DAY;
+        table[i + 1] = Math.exp(cellar.getLogSum(start, start + DAY) / DAY);
+        table[i + 2] = OMCampaignKernel.select(dayValues,
+            OMCampaignKernel.medianIndex(DAY));
+        table[i + 3] = cellar.getMaximum(start, start + DAY);
+      }
+      this.metrics.put(cellar, table);
+    }
+  }
+
+  /**
+   * Gets the metrics of a cellar, METRICS values per start hour in the order
+   * C_AM, C_GM, C_MED, C_MAX.
+   * 
+   * @param cellar
+   *          The cellar.
+   * @return The metrics of the cellar or null if the cellar is unknown.
+   */
+  public double[] getMetrics(OMRoom cellar) {
+    return this.metrics.get(cellar);
+  }
+}
@@ -0,0 +1,307 @@
+/*
+ * OM Simulation Tool: This tool intends to test and evaluate the scientific
+ * robustness of the protocol `6+1`. Therefore, it generates a huge amount of
+ * virtual measurement campaigns based on real radon concentration data
+ * following the mentioned protocol. <http://github.com/donschoe/omsimulation>
+ * 
+ * Copyright (C) 2012 Alexander Schoedon <a.schoedon@student.htw-berlin.de>
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package de.bfs.radon.omsimulation.engine;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Public class OMCheckpoint, storing the progress of a systematic simulation:
+ * the next variation pattern to simulate, the number of campaigns and patterns
+ * written to the campaign file and the state of the statistics. Together with
+ * the campaign file this allows resuming a simulation without recomputing
+ * finished work. The parameters of the simulation are stored as well to
+ * refuse resuming a different simulation.
+ * 
+ * @author A. Schoedon
+ */
+public class OMCheckpoint implements Serializable {
+
+  /**
+   * Unique serial version ID.
+   */
+  private static final long             serialVersionUID = 3184416350813720567L;
+
+  /**
+   * Stores the name of the simulated building.
+   */
+  private final String                  name;
+
+  /**
+   * Stores the number of possible start hours per pattern.
+   */
+  private final int                     total;
+
+  /**
+   * Stores the number of different rooms of the variation patterns.
+   */
+  private final int                     differentRooms;
+
+  /**
+   * Stores the number of variation patterns.
+   */
+  private final long                    size;
+
+  /**
+   * Stores the random noise that is added to the values. The unit is [%].
+   */
+  private final int                     randomNoise;
+
+  /**
+   * Stores the master seed of the random source.
+   */
+  private final long                    seed;
+
+  /**
+   * Stores the index of the next pattern to simulate.
+   */
+  private final long                    pattern;
+
+  /**
+   * Stores the number of campaigns written to the campaign file.
+   */
+  private final long                    campaigns;
+
+  /**
+   * Stores the number of patterns written to the campaign file.
+   */
+  private final int                     patterns;
+
+  /**
+   * Stores the statistics of all campaigns written so far.
+   */
+  private final OMStatisticsAccumulator statistics;
+
+  /**
+   * Constructor for a checkpoint.
+   * 
+   * @param name
+   *          The name of the simulated building.
+   * @param total
+   *          The number of possible start hours per pattern.
+   * @param differentRooms
+   *          The number of different rooms of the variation patterns.
+   * @param size
+   *          The number of variation patterns.
+   * @param randomNoise
+   *          The random noise that is added to the values. The unit is [%].
+   * @param seed
+   *          The master seed of the random source.
+   * @param pattern
+   *          The index of the next pattern to simulate.
+   * @param campaigns
+   *          The number of campaigns written to the campaign file.
+   * @param patterns
+   *          The number of patterns written to the campaign file.
+   * @param statistics
+   *          The statistics of all campaigns written so far.
+   */
+  public OMCheckpoint(String name, int total, int differentRooms, long size,
+      int randomNoise, long seed, long pattern, long campaigns, int patterns,
+      OMStatisticsAccumulator statistics) {
+    super();
+    this.name = name;
+    this.total = total;
+    this.differentRooms = differentRooms;
+    this.size = size;
+    this.randomNoise = randomNoise;
+    this.seed = seed;
+    this.pattern = pattern;
+    this.campaigns = campaigns;
+    this.patterns = patterns;
+    this.statistics = statistics;
+  }
+
+  /**
+   * Gets the name of the simulated building.
+   * 
+   * @return The name of the simulated building.
+   */
+  public String getName() {
+    return this.name;
+  }
+
+  /**
+   * Gets the number of possible start hours per pattern.
+   * 
+   * @return The number of possible start hours per pattern.
+   */
+  public int getTotal() {
+    return this.total;
+  }
+
+  /**
+   * Gets the number of different rooms of the variation patterns.
+   * 
+   * @return The number of different rooms of the variation patterns.
+   */
+  public int getDifferentRooms() {
+    return this.differentRooms;
+  }
+
+  /**
+   * Gets the number of variation patterns.
+   * 
+   * @return The number of variation patterns.
+   */
+  public long getSize() {
+    return this.size;
+  }
+
+  /**
+   * Gets the random noise that is added to the values. The unit is [%].
+   * 
+   * @return The random noise that is added to the values.
+   */
+  public int getRandomNoise() {
+    return this.randomNoise;
+  }
+
+  /**
+   * Gets the master seed of the random source.
+   * 
+   * @return The master seed of the random source.
+   */
+  public long getSeed() {
+    return this.seed;
+  }
+
+  /**
+   * Gets the index of the next pattern to simulate.
+   * 
+   * @return The index of the next pattern to simulate.
+   */
+  public long getPattern() {
+    return this.pattern;
+  }
+
+  /**
+   * Gets the number of campaigns written to the campaign file.
+   * 
+   * @return The number of campaigns written to the campaign file.
+   */
+  public long getCampaigns() {
+    return this.campaigns;
+  }
+
+  /**
+   * Gets the number of patterns written to the campaign file.
+   * 
+   * @return The number of patterns written to the campaign file.
+   */
+  public int getPatterns() {
+    return this.patterns;
+  }
+
+  /**
+   * Gets the statistics of all campaigns written so far.
+   * 
+   * @return The statistics of all campaigns written so far.
+   */
+  public OMStatisticsAccumulator getStatistics() {
+    return this.statistics;
+  }
+
+  /**
+   * Saves the checkpoint to a file. The checkpoint is written to a temporary
+   * file first, which then replaces the previous checkpoint, so a crash while
+   * saving does not destroy the previous checkpoint.
+   * 
+   * @param path
+   *          The absolute path of the checkpoint file.
+   * @throws IOException
+   *           If writing the file fails.
+   */
+  public void save(String path) throws IOException {
+    File tmpFile = new File(path + ".tmp");
+    ObjectOutputStream output = new ObjectOutputStream(
+        new BufferedOutputStream(new FileOutputStream(tmpFile)));
+    try {
+      output.writeObject(this);
+    } finally {
+      output.close();
+    }
+    Files.move(tmpFile.toPath(), new File(path).toPath(),
+        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Loads a checkpoint from a file.
+   * 
+   * @param path
+   *          The absolute path of the checkpoint file.
+   * @return The checkpoint or null if the file does not exist.
+   * @throws IOException
+   *           If reading the file fails or the file is not a checkpoint.
+   */
+  public static OMCheckpoint load(String path) throws IOException {
+    File file = new File(path);
+    if (!file.isFile()) {
+      return null;
+    }
+    ObjectInputStream input = new ObjectInputStream(new BufferedInputStream(
+        new FileInputStream(file)));
+    try {
+      return (OMCheckpoint) input.readObject();
+    } catch (ClassNotFoundException e) {
+      throw new IOException("'" + path + "' is not a checkpoint.", e);
+    } catch (ClassCastException e) {
+      throw new IOException("'" + path + "' is not a checkpoint.", e);
+    } finally {
+      input.close();
+    }
+  }
+
+  /**
+   * Checks whether this checkpoint was saved by a simulation using the given
+   * parameters.
+   * 
+   * @param name
+   *          The name of the simulated building.
+   * @param total
+   *          The number of possible start hours per pattern.
+   * @param differentRooms
+   *          The number of different rooms of the variation patterns.
+   * @param size
+   *          The number of variation patterns.
+   * @param randomNoise
+   *          The random noise that is added to the values. The unit is [%].
+   * @return True if the checkpoint belongs to the simulation.
+   */
+  public boolean matches(String name, int total, int differentRooms,
+      long size, int randomNoise) {
+    return this.name.equals(name) && this.total == total
+        && this.differentRooms == differentRooms && this.size == size
+        && this.randomNoise == randomNoise;
+  }
+}
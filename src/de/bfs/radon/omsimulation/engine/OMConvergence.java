@@ -0,0 +1,238 @@
+/*
+ * OM Simulation Tool: This tool intends to test and evaluate the scientific
+ * robustness of the protocol `6+1`. Therefore, it generates a huge amount of
+ * virtual measurement campaigns based on real radon concentration data
+ * following the mentioned protocol. <http://github.com/donschoe/omsimulation>
+ * 
+ * Copyright (C) 2012 Alexander Schoedon <a.schoedon@student.htw-berlin.de>
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package de.bfs.radon.omsimulation.engine;
+
+import java.util.Arrays;
+
+/**
+ * Public abstract class OMConvergence providing helper methods to estimate the
+ * precision of the percentiles of a simulation, used to stop adaptive random
+ * simulations once the percentiles are precise enough. The precision is based
+ * on the distribution-free 95% confidence interval of the 5th, 50th and 95th
+ * percentile, which is bounded by two order statistics of the sorted values.
+ * 
+ * The error of a percentile is the smaller of two relative half widths of the
+ * interval: in value, relative to the percentile, and in rank space, relative
+ * to the share of values beyond the percentile, i.e. the smaller of p and
+ * 1 - p. The error in rank space only depends on the number of values. It is
+ * larger than the error in value for smooth distributions, but it limits the
+ * error of a percentile lying in a density gap of a multimodal metric, e.g.
+ * the cellar medians of buildings with several cellars, whose error in value
+ * barely shrinks with the number of values. Can not be instantiated.
+ * 
+ * @author A. Schoedon
+ */
+public abstract class OMConvergence {
+
+  /**
+   * Minimum number of campaigns simulated between two estimates.
+   */
+  public static final int       BATCH       = 1000;
+
+  /**
+   * Quantile of the standard normal distribution for a confidence of 95%.
+   */
+  public static final double    Z           = 1.959964;
+
+  /**
+   * The percentiles whose precision is estimated.
+   */
+  private static final double[] PERCENTILES = { 0.05, 0.5, 0.95 };
+
+  /**
+   * The short names of the metrics, ordered by their index.
+   */
+  private static final String[] METRICS     = { "R_AM", "R_GM", "R_MED",
+      "R_MAX", "C_AM", "C_GM", "C_MED", "C_MAX" };
+
+  /**
+   * Estimates the largest relative error of the 5th, 50th and 95th percentile
+   * of any of the metrics, using all values of descriptive statistics or the
+   * quantile sketches.
+   * 
+   * @param stats
+   *          The statistics of the metrics.
+   * @return The largest relative error, infinite if it can not be estimated,
+   *         e.g. for summary statistics.
+   */
+  public static double getRelativeError(OMStatisticsAccumulator stats) {
+    return getRelativeError(stats, null);
+  }
+
+  /**
+   * Estimates the largest relative error of the 5th, 50th and 95th percentile
+   * of any of the metrics and reports the metric and percentile limiting the
+   * error.
+   * 
+   * @param stats
+   *          The statistics of the metrics.
+   * @param limit
+   *          An array of two elements receiving the index of the metric and
+   *          of the percentile with the largest error, see getLimitName, or
+   *          null.
+   * @return The largest relative error, infinite if it can not be estimated,
+   *         e.g. for summary statistics.
+   */
+  public static double getRelativeError(OMStatisticsAccumulator stats,
+      int[] limit) {
+    double error = 0.0;
+    int[] tmpLimit = new int[2];
+    for (int i = 0; i < OMStatisticsAccumulator.METRICS; i++) {
+      double tmpError;
+      if (stats.isDescriptive()) {
+        double[] values = stats.getDescriptiveStats(i).getValues();
+        Arrays.sort(values);
+        tmpError = getRelativeError(values.length, values, null, tmpLimit);
+      } else if (stats.getSketch(i) != null) {
+        tmpError = getRelativeError(stats.getSketch(i).getN(), null,
+            stats.getSketch(i), tmpLimit);
+      } else {
+        tmpError = Double.POSITIVE_INFINITY;
+        tmpLimit[1] = 0;
+      }
+      if (i == 0 || tmpError > error) {
+        error = tmpError;
+        if (limit != null) {
+          limit[0] = i;
+          limit[1] = tmpLimit[1];
+        }
+      }
+      if (Double.isInfinite(error)) {
+        break;
+      }
+    }
+    return error;
+  }
+
+  /**
+   * Gets the name of the metric and percentile limiting the error, e.g.
+   * "C_AM Q50".
+   * 
+   * @param limit
+   *          The index of the metric and of the percentile as reported by
+   *          getRelativeError.
+   * @return The name of the metric and percentile.
+   */
+  public static String getLimitName(int[] limit) {
+    return METRICS[limit[0]] + " Q"
+        + Math.round(PERCENTILES[limit[1]] * 100.0);
+  }
+
+  /**
+   * Estimates the largest relative error of the 5th, 50th and 95th percentile
+   * of a set of values. The confidence interval of the p-th percentile of n
+   * values is bounded by the order statistics at the ranks n * p -/+ Z *
+   * sqrt(n * p * (1 - p)).
+   * 
+   * @param values
+   *          The values, they are sorted in place.
+   * @return The largest relative error, infinite if it can not be estimated.
+   */
+  public static double getRelativeError(double[] values) {
+    Arrays.sort(values);
+    return getRelativeError(values.length, values, null, null);
+  }
+
+  /**
+   * Estimates the largest relative error of the 5th, 50th and 95th percentile
+   * of the values added to a quantile sketch, using the order statistics
+   * estimated by the sketch.
+   * 
+   * @param sketch
+   *          The quantile sketch of the values.
+   * @return The largest relative error, infinite if it can not be estimated.
+   */
+  public static double getRelativeError(OMQuantileSketch sketch) {
+    return getRelativeError(sketch.getN(), null, sketch, null);
+  }
+
+  /**
+   * Estimates the largest relative error of the 5th, 50th and 95th percentile
+   * of either sorted values or a quantile sketch.
+   * 
+   * @param n
+   *          The number of values.
+   * @param sorted
+   *          The values in ascending order or null if a sketch is used.
+   * @param sketch
+   *          The quantile sketch of the values if sorted is null.
+   * @param limit
+   *          An array whose second element receives the index of the
+   *          percentile with the largest error, or null.
+   * @return The largest relative error, infinite if it can not be estimated.
+   */
+  private static double getRelativeError(long n, double[] sorted,
+      OMQuantileSketch sketch, int[] limit) {
+    if (limit != null) {
+      limit[1] = 0;
+    }
+    if (n < 2) {
+      return Double.POSITIVE_INFINITY;
+    }
+    double error = 0.0;
+    for (int i = 0; i < PERCENTILES.length; i++) {
+      double p = PERCENTILES[i];
+      double rank = n * p;
+      double width = Z * Math.sqrt(n * p * (1.0 - p));
+      long lower = Math.max(0, (long) Math.floor(rank - width) - 1);
+      long upper = Math.min(n - 1, (long) Math.ceil(rank + width) - 1);
+      long middle = Math.min(n - 1, Math.max(0, (long) Math.ceil(rank) - 1));
+      double estimate = Math.abs(getValue(sorted, sketch, middle));
+      double halfWidth = (getValue(sorted, sketch, upper) - getValue(sorted,
+          sketch, lower)) / 2.0;
+      double tmpError = width / n / Math.min(p, 1.0 - p);
+      if (halfWidth <= 0.0) {
+        tmpError = 0.0;
+      } else if (estimate > 0.0) {
+        tmpError = Math.min(tmpError, halfWidth / estimate);
+      }
+      if (tmpError > error) {
+        error = tmpError;
+        if (limit != null) {
+          limit[1] = i;
+        }
+      }
+    }
+    return error;
+  }
+
+  /**
+   * Gets the value at a rank of either sorted values or a quantile sketch.
+   * 
+   * @param sorted
+   *          The values in ascending order or null if a sketch is used.
+   * @param sketch
+   *          The quantile sketch of the values if sorted is null.
+   * @param rank
+   *          The rank of the value.
+   * @return The value at the rank.
+   */
+  private static double getValue(double[] sorted, OMQuantileSketch sketch,
+      long rank) {
+    if (sorted != null) {
+      return sorted[(int) rank];
+    }
+    return sketch.getValueAt(rank);
+  }
+}
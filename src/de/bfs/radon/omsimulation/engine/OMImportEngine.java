@@ -0,0 +1,549 @@
+/*
+ * OM Simulation Tool: This tool intends to test and evaluate the scientific
+ * robustness of the protocol `6+1`. Therefore, it generates a huge amount of
+ * virtual measurement campaigns based on real radon concentration data
+ * following the mentioned protocol. <http://github.com/donschoe/omsimulation>
+ * 
+ * Copyright (C) 2012 Alexander Schoedon <a.schoedon@student.htw-berlin.de>
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package de.bfs.radon.omsimulation.engine;
+
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.Date;
+
+import de.bfs.radon.omsimulation.data.OMBuilding;
+import de.bfs.radon.omsimulation.data.OMHelper;
+import de.bfs.radon.omsimulation.data.OMLogLevel;
+import de.bfs.radon.omsimulation.data.OMRoom;
+import de.bfs.radon.omsimulation.data.OMRoomType;
+
+/**
+ * Public class OMImportEngine, which parses CSV files and creates buildings out
+ * of them without depending on any graphical interface. Progress is reported
+ * to an optional OMImportListener. This is used by the import panel as well as
+ * by the benchmarks.
+ * 
+ * @author A. Schoedon
+ */
+public class OMImportEngine {
+
+  /**
+   * Stores the listener which is notified about the progress of the import.
+   * Can be null.
+   */
+  private OMImportListener listener;
+
+  /**
+   * Stores the current log message which will be both written to the log file
+   * and reported to the listener.
+   */
+  private String           logMsg;
+
+  /**
+   * Stores the current status of the import. The unit is [%].
+   */
+  private int              status;
+
+  /**
+   * Stores the total number of measurements for the building.
+   */
+  private int              valueCount;
+
+  /**
+   * Stores the total number of rooms for the building.
+   */
+  private int              roomCount;
+
+  /**
+   * Gets the listener which is notified about the progress of the import.
+   * 
+   * @return The listener or null.
+   */
+  public OMImportListener getListener() {
+    return this.listener;
+  }
+
+  /**
+   * Sets the listener which is notified about the progress of the import.
+   * 
+   * @param listener
+   *          The listener or null.
+   */
+  public void setListener(OMImportListener listener) {
+    this.listener = listener;
+  }
+
+  /**
+   * Gets the current log message.
+   * 
+   * @return The current log message.
+   */
+  public String getLogMsg() {
+    return this.logMsg;
+  }
+
+  /**
+   * Sets the current log message.
+   * 
+   * @param logMsg
+   *          The current log message.
+   */
+  private void setLogMsg(String logMsg) {
+    this.logMsg = logMsg;
+  }
+
+  /**
+   * Gets the current status of the import. The unit is [%].
+   * 
+   * @return The current status of the import.
+   */
+  public int getStatus() {
+    return this.status;
+  }
+
+  /**
+   * Sets the current status of the import. The unit is [%].
+   * 
+   * @param status
+   *          The current status of the import.
+   */
+  private void setStatus(int status) {
+    this.status = status;
+  }
+
+  /**
+   * Gets the total number of measurements for the building. The unit is [h].
+   * 
+   * @return The total number of measurements for the building.
+   */
+  public int getValueCount() {
+    return this.valueCount;
+  }
+
+  /**
+   * Sets the total number of measurements for the building. The unit is [h].
+   * 
+   * @param count
+   *          The total number of measurements for the building.
+   */
+  private void setValueCount(int count) {
+    this.valueCount = count;
+  }
+
+  /**
+   * Gets the total number of rooms for the building.
+   * 
+   * @return The total number of rooms for the building.
+   */
+  public int getRoomCount() {
+    return this.roomCount;
+  }
+
+  /**
+   * Sets the total number of rooms for the building.
+   * 
+   * @param roomCount
+   *          The total number of rooms for the building.
+   */
+  private void setRoomCount(int roomCount) {
+    this.roomCount = roomCount;
+  }
+
+  /**
+   * Updates the listener and writes the current action to a log file if
+   * existing.
+   * 
+   * @param s
+   *          The log message.
+   * @param i
+   *          The status in percent.
+   */
+  private void tmpUpdate(String s, int i) {
+    setLogMsg(s);
+    setStatus(i);
+    OMImportListener listener = this.listener;
+    if (listener != null) {
+      listener.update(s, i);
+    }
+    try {
+      if (OMHelper.isLogOutputEnabled()) {
+        OMHelper.writeLog(getLogMsg());
+      }
+    } catch (IOException ioe) {
+      ioe.printStackTrace();
+    }
+  }
+
+  /**
+   * Writes messages to the log file which are not reported to the listener.
+   * This is used to increase performance.
+   * 
+   * @param s
+   *          The log message.
+   * @param i
+   *          The status in percent.
+   */
+  private void logOnly(String s, int i) {
+    setLogMsg(s);
+    setStatus(i);
+    try {
+      if (OMHelper.isLogOutputEnabled()) {
+        OMHelper.writeLog(getLogMsg());
+      }
+    } catch (IOException ioe) {
+      ioe.printStackTrace();
+    }
+  }
+
+  /**
+   * Writes trace messages to the log file, e.g. per value. These are neither
+   * reported to the listener nor written unless the level Trace is enabled.
+   * 
+   * @param s
+   *          The log message.
+   */
+  private void logTrace(String s) {
+    try {
+      if (OMHelper.isLogOutputEnabled()) {
+        OMHelper.writeLog(OMLogLevel.Trace, s);
+      }
+    } catch (IOException ioe) {
+      ioe.printStackTrace();
+    }
+  }
+
+  /**
+   * Tells the listener that a task without progress starts or stops.
+   * 
+   * @param indeterminate
+   *          True if the current task does not report any progress.
+   */
+  private void indeterminate(boolean indeterminate) {
+    OMImportListener listener = this.listener;
+    if (listener != null) {
+      listener.indeterminate(indeterminate);
+    }
+  }
+
+  /**
+   * Method to generate a building object from the CSV file. This method
+   * triggers parsing the CSV file, parsing the rooms, separating rooms and
+   * finally creates a building.
+   * 
+   * @param csvFile
+   *          A string containing the file name of the CSV. (And path if
+   *          needed.)
+   * @param name
+   *          A custom name for the object which can be set by the user
+   *          creating the building.
+   * @param date
+   *          A custom start date which can be set by the user creating the
+   *          building. The date can be chosen either to identify the start
+   *          date of the measurements or to identify the start date of the
+   *          simulations. That's up to the user and does not affect the
+   *          simulations.
+   * @param detectionLimit
+   *          The detection limit is used to set empty or '0'-values as radon
+   *          concentrations of 0 Bq/m\0x00B3 are most likely below detection
+   *          limit.
+   * @return An building object which can be used to generate campaigns.
+   * @throws IOException
+   *           If creating log file or writing logs fails.
+   */
+  public OMBuilding createBuilding(String csvFile, String name, Date date,
+      double detectionLimit) throws IOException {
+    String[] csv;
+    try {
+      csv = parseCSV(csvFile);
+    } catch (Exception e) {
+      csv = new String[0];
+      tmpUpdate("Error: " + e.getMessage(), 0);
+      tmpUpdate("Error: Failed to read CSV-File.", 0);
+      e.printStackTrace();
+    }
+    OMRoom[] rooms = parseRooms(csv, detectionLimit);
+    OMBuilding current = separateRooms(name, date, rooms);
+    return current;
+  }
+
+  /**
+   * Method for reading and parsing an CSV-file line by line.
+   * 
+   * @param fileName
+   *          The name (and path) of the CSV-file to read.
+   * @return An array of strings, each string representing one line.
+   * @throws IOException
+   *           If creating log file or writing logs fails.
+   */
+  private String[] parseCSV(String fileName) throws IOException {
+    String[] tmpArray = new String[65536];
+    String[] csv = null;
+    tmpUpdate("Trying to read CSV-File '" + fileName + "'.", 2);
+    try {
+      FileInputStream fileInput = new FileInputStream(fileName);
+      DataInputStream dataInput = new DataInputStream(fileInput);
+      InputStreamReader inputReader = new InputStreamReader(dataInput);
+      BufferedReader buffReader = new BufferedReader(inputReader);
+      tmpUpdate("Read CSV-File with success, trying to "
+          + "parse line by line.", 2);
+      int valueCount = 0;
+      while ((tmpArray[valueCount] = buffReader.readLine()) != null) {
+        valueCount++;
+      }
+      valueCount--;
+      if (valueCount >= 168) {
+        if (valueCount <= 1008) {
+          csv = new String[valueCount + 1];
+          boolean isTrace = OMHelper.isLogEnabled(OMLogLevel.Trace);
+          for (int x = 0; x <= valueCount; x++) {
+            csv[x] = tmpArray[x];
+            if (isTrace) {
+              logTrace(csv[x]);
+            }
+          }
+          setValueCount(valueCount);
+          tmpUpdate("Parsed " + valueCount + " lines with success.", 2);
+        } else {
+          csv = new String[0];
+          tmpUpdate("Error: " + valueCount
+              + " are too many data sets. Aborting.", 0);
+          tmpUpdate(
+              "Error: Make sure you have at maximum six weeks of records (<= 1008).",
+              0);
+        }
+      } else {
+        csv = new String[0];
+        tmpUpdate("Error: " + valueCount
+            + " are not enough data sets. Aborting.", 0);
+        tmpUpdate(
+            "Error: Make sure you have at least one week of records (>= 168).",
+            0);
+      }
+      buffReader.close();
+      inputReader.close();
+      dataInput.close();
+      fileInput.close();
+    } catch (Exception e) {
+      csv = new String[0];
+      tmpUpdate("Error: " + e.getMessage(), 0);
+      tmpUpdate("Error: Failed to read CSV-File" + fileName + ".", 0);
+      e.printStackTrace();
+    }
+    tmpArray = null;
+    return csv;
+  }
+
+  /**
+   * Method for parsing rooms from the CSV-file by extracting each unique room
+   * ID and any related radon values for each room.
+   * 
+   * @param csv
+   *          An array of strings, each string representing one line of the
+   *          previously parsed CSV-file.
+   * @param detectionLimit
+   *          The detection limit is used to set empty or '0'-values as radon
+   *          concentrations of 0 Bq/m\0x00B3 are most likely below detection
+   *          limit.
+   * @return An array consisting of all rooms of the building.
+   * @throws IOException
+   *           If creating log file or writing logs fails.
+   */
+  private OMRoom[] parseRooms(String[] csv, double detectionLimit)
+      throws IOException {
+    tmpUpdate("Trying to parse rooms.", 3);
+    OMRoom[] rooms;
+    try {
+      if (csv.length > 1) {
+        String header = csv[0];
+        String[] roomId = header.split("\\;");
+        int roomCount = roomId.length;
+        for (int i = 1; i < roomCount; i++) {
+          tmpUpdate("Found room: " + roomId[i], 3);
+          if (roomId[i].isEmpty()) {
+            tmpUpdate(
+                "Warning: malformed room identifier. Using \"m0\" for misc.",
+                3);
+            roomId[i] = "m0";
+          }
+        }
+        roomCount--;
+        setRoomCount(roomCount);
+        tmpUpdate("Parsed " + roomCount + " rooms with success.", 3);
+        rooms = new OMRoom[roomCount];
+        int valueCount = getValueCount();
+        double[] values[] = new double[roomCount][valueCount];
+        tmpUpdate("Trying to collect values for each room.", 3);
+        String[] tmpValues = roomId;
+        int tmpLength = tmpValues.length;
+        boolean success = true;
+        boolean isTrace = OMHelper.isLogEnabled(OMLogLevel.Trace);
+        for (int i = 1; i < csv.length; i++) {
+          tmpValues = csv[i].split("\\;");
+          boolean isFirstDigit = Character.isDigit(csv[i].charAt(0));
+          boolean isLastDigit = Character.isDigit(csv[i].charAt(csv[i]
+              .length() - 1));
+          if (isFirstDigit && isLastDigit) {
+            if (tmpValues.length == tmpLength) {
+              for (int j = 1; j < tmpValues.length; j++) {
+                int x = j - 1;
+                int y = i - 1;
+                if (tmpValues[j].isEmpty()) {
+                  logOnly("Warning: Empty string. Using value 0.", 4);
+                  values[x][y] = 0.0;
+                } else {
+                  values[x][y] = (double) Integer.parseInt(tmpValues[j]);
+                }
+                if (values[x][y] < detectionLimit) {
+                  logOnly("Warning: Value " + i + " for room " + roomId[j]
+                      + ": '" + tmpValues[j]
+                      + "' below detection limit. Using half of the limit ("
+                      + (detectionLimit / 2.0) + ").", 4);
+                  values[x][y] = detectionLimit / 2.0;
+                }
+                if (isTrace) {
+                  logTrace("Parsed value " + i + " for room " + roomId[j]
+                      + ": " + values[x][y]);
+                }
+              }
+              tmpLength = tmpValues.length;
+            } else {
+              tmpUpdate("Error: Malformed CSV-file. Aborting.", 0);
+              i = csv.length + 1;
+              success = false;
+            }
+          } else {
+            tmpUpdate("Error: Malformed CSV-line: " + csv[i], 0);
+            i = csv.length + 1;
+            success = false;
+          }
+        }
+        if (success) {
+          for (int k = 1; k <= roomCount; k++) {
+            int z = k - 1;
+            rooms[z] = new OMRoom(roomId[k], values[z]);
+          }
+          tmpUpdate("Successfully collected values for each room.", 5);
+        } else {
+          rooms = new OMRoom[0];
+          tmpUpdate("Error: Check your CSV-File.", 0);
+        }
+      } else {
+        rooms = new OMRoom[0];
+        tmpUpdate("Error: No data records found.", 0);
+        tmpUpdate("Error: Check your CSV-File.", 0);
+      }
+    } catch (Exception e) {
+      rooms = new OMRoom[0];
+      tmpUpdate("Error: " + e.getMessage(), 0);
+      tmpUpdate("Error: Failed to parse rooms.", 0);
+      e.printStackTrace();
+    }
+    return rooms;
+  }
+
+  /**
+   * Method to separate an array of various rooms by their different types and
+   * to create an OMBuilding object out of this rooms.
+   * 
+   * @param name
+   *          A custom name for the object which can be set by the user
+   *          creating the building.
+   * @param date
+   *          A custom start date which can be set by the user creating the
+   *          building. The date can be chosen either to identify the start
+   *          date of the measurements or to identify the start date of the
+   *          simulations. That's up to the user and does not affect the
+   *          simulations.
+   * @param rooms
+   *          An building consisting of all the rooms.
+   * @return An building object.
+   * @throws IOException
+   *           If creating log file or writing logs fails.
+   */
+  private OMBuilding separateRooms(String name, Date date, OMRoom[] rooms)
+      throws IOException {
+    tmpUpdate("Trying to separate rooms.", 6);
+    int cellarCount = 0;
+    int normalCount = 0;
+    int miscCount = 0;
+    int roomCount = getRoomCount();
+    OMBuilding building = new OMBuilding();
+    if (rooms.length > 0) {
+      for (int i = 0; i < roomCount; i++) {
+        if (rooms[i].getType() == OMRoomType.Cellar) {
+          cellarCount++;
+        } else {
+          if (rooms[i].getType() == OMRoomType.Room) {
+            normalCount++;
+          } else {
+            miscCount++;
+          }
+        }
+      }
+      OMRoom[] cellars = new OMRoom[cellarCount];
+      OMRoom[] normals = new OMRoom[normalCount];
+      OMRoom[] miscs = new OMRoom[miscCount];
+      tmpUpdate("Found " + normalCount + " normal rooms, " + cellarCount
+          + " cellars and " + miscCount + " miscellaneous rooms.", 6);
+      if (normalCount >= 3 && cellarCount >= 1) {
+        if (roomCount == cellarCount + normalCount + miscCount) {
+          tmpUpdate("Separation test succeeded, separating rooms.", 6);
+          cellarCount = 0;
+          normalCount = 0;
+          miscCount = 0;
+          for (int j = 0; j < roomCount; j++) {
+            if (rooms[j].getType() == OMRoomType.Cellar) {
+              cellars[cellarCount] = rooms[j];
+              cellarCount++;
+            } else {
+              if (rooms[j].getType() == OMRoomType.Room) {
+                normals[normalCount] = rooms[j];
+                normalCount++;
+              } else {
+                miscs[miscCount] = rooms[j];
+                miscCount++;
+              }
+            }
+          }
+          tmpUpdate("Setting up rooms by types.", 7);
+          indeterminate(true);
+          int valueCount = getValueCount();
+          building = new OMBuilding(name, date, roomCount, valueCount,
+              normals, cellars, miscs);
+          indeterminate(false);
+          tmpUpdate("Done. Finished setting up rooms.", 68);
+        } else {
+          tmpUpdate("Error: Separation test failed. Malformed input.", 0);
+        }
+      } else {
+        tmpUpdate(
+            "Error: Separation test failed. Not enough rooms or cellars.", 0);
+        tmpUpdate("Error: Make sure you have at least 3 rooms and 1 cellar.",
+            0);
+      }
+    } else {
+      tmpUpdate(
+          "Error: Separation test failed. Not enough rooms or cellars.", 0);
+    }
+    return building;
+  }
+}
@@ -0,0 +1,187 @@
+/*
+ * OM Simulation Tool: This tool intends to test and evaluate the scientific
+ * robustness of the protocol `6+1`. Therefore, it generates a huge amount of
+ * virtual measurement campaigns based on real radon concentration data
+ * following the mentioned protocol. <http://github.com/donschoe/omsimulation>
+ * 
+ * Copyright (C) 2012 Alexander Schoedon <a.schoedon@student.htw-berlin.de>
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package de.bfs.radon.omsimulation.engine;
+
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Public class OMProgress, used to track the progress of a simulation without
+ * slowing it down. The simulating threads only add to a striped counter, while
+ * a timer thread samples the counter periodically and publishes the percentage
+ * done, the throughput, the estimated time left and the heap usage to a
+ * listener.
+ * 
+ * @author A. Schoedon
+ */
+public class OMProgress {
+
+  /**
+   * Default interval between two samples in milliseconds.
+   */
+  public static final long         DEFAULT_INTERVAL = 1000;
+
+  /**
+   * Stores the number of campaigns done since the progress was started.
+   */
+  private final LongAdder          counter;
+
+  /**
+   * Stores the number of campaigns done before the progress was started, e.g.
+   * when resuming a simulation.
+   */
+  private final long               initial;
+
+  /**
+   * Stores the total number of campaigns to simulate.
+   */
+  private final long               total;
+
+  /**
+   * Stores the listener the samples are published to.
+   */
+  private final OMProgressListener listener;
+
+  /**
+   * Stores the timer sampling the progress.
+   */
+  private final Timer              timer;
+
+  /**
+   * Stores the starting timestamp of the progress.
+   */
+  private final long               start;
+
+  /**
+   * Stores the number of campaigns done at the last sample.
+   */
+  private long                     lastDone;
+
+  /**
+   * Stores the timestamp of the last sample.
+   */
+  private long                     lastTime;
+
+  /**
+   * Indicates whether the progress was stopped. Guarded by this.
+   */
+  private boolean                  isStopped;
+
+  /**
+   * Constructor for a progress, starts sampling immediately.
+   * 
+   * @param total
+   *          The total number of campaigns to simulate.
+   * @param initial
+   *          The number of campaigns done before, e.g. when resuming a
+   *          simulation.
+   * @param interval
+   *          The interval between two samples in milliseconds.
+   * @param listener
+   *          The listener the samples are published to.
+   */
+  public OMProgress(long total, long initial, long interval,
+      OMProgressListener listener) {
+    super();
+    this.counter = new LongAdder();
+    this.initial = initial;
+    this.total = total;
+    this.listener = listener;
+    this.start = System.currentTimeMillis();
+    this.lastDone = initial;
+    this.lastTime = this.start;
+    this.timer = new Timer("OMProgress", true);
+    this.timer.scheduleAtFixedRate(new TimerTask() {
+      @Override
+      public void run() {
+        sample();
+      }
+    }, interval, interval);
+  }
+
+  /**
+   * Adds a number of campaigns done. This is safe to call from any thread.
+   * 
+   * @param campaigns
+   *          The number of campaigns done.
+   */
+  public void add(long campaigns) {
+    this.counter.add(campaigns);
+  }
+
+  /**
+   * Adds a single campaign done. This is safe to call from any thread.
+   */
+  public void increment() {
+    this.counter.increment();
+  }
+
+  /**
+   * Gets the number of campaigns done.
+   * 
+   * @return The number of campaigns done.
+   */
+  public long getDone() {
+    return this.initial + this.counter.sum();
+  }
+
+  /**
+   * Stops sampling and publishes a final sample.
+   */
+  public synchronized void stop() {
+    this.timer.cancel();
+    sample();
+    this.isStopped = true;
+  }
+
+  /**
+   * Samples the counter and publishes the sample to the listener. The time
+   * left is estimated using the average throughput since the start, the rate
+   * uses the throughput since the last sample.
+   */
+  private synchronized void sample() {
+    if (this.isStopped) {
+      return;
+    }
+    long now = System.currentTimeMillis();
+    long done = getDone();
+    double rate = 0;
+    if (now > this.lastTime) {
+      rate = (done - this.lastDone) * 1000.0 / (now - this.lastTime);
+    }
+    double timeLeft = -1;
+    long progress = done - this.initial;
+    if (progress > 0 && now > this.start) {
+      timeLeft = (this.total - done) * ((now - this.start) / 1000.0)
+          / progress;
+    }
+    this.lastDone = done;
+    this.lastTime = now;
+    Runtime runtime = Runtime.getRuntime();
+    this.listener.progress(new OMProgressSample(done, this.total, rate,
+        timeLeft, runtime.totalMemory() - runtime.freeMemory(), runtime
+            .maxMemory()));
+  }
+}
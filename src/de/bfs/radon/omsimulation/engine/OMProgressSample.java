@@ -0,0 +1,219 @@
+/*
+ * OM Simulation Tool: This tool intends to test and evaluate the scientific
+ * robustness of the protocol `6+1`. Therefore, it generates a huge amount of
+ * virtual measurement campaigns based on real radon concentration data
+ * following the mentioned protocol. <http://github.com/donschoe/omsimulation>
+ * 
+ * Copyright (C) 2012 Alexander Schoedon <a.schoedon@student.htw-berlin.de>
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package de.bfs.radon.omsimulation.engine;
+
+import java.text.DecimalFormat;
+
+/**
+ * Public class OMProgressSample, an immutable snapshot of the progress of a
+ * simulation: the number of campaigns done, the throughput, the estimated time
+ * left and the heap usage at the time of sampling.
+ * 
+ * @author A. Schoedon
+ */
+public class OMProgressSample {
+
+  /**
+   * Stores the number of campaigns done.
+   */
+  private final long   done;
+
+  /**
+   * Stores the total number of campaigns to simulate.
+   */
+  private final long   total;
+
+  /**
+   * Stores the number of campaigns simulated per second since the last sample.
+   */
+  private final double rate;
+
+  /**
+   * Stores the estimated time left in seconds, negative if unknown.
+   */
+  private final double timeLeft;
+
+  /**
+   * Stores the heap memory in use in bytes.
+   */
+  private final long   usedMemory;
+
+  /**
+   * Stores the maximum heap memory in bytes.
+   */
+  private final long   maxMemory;
+
+  /**
+   * Constructor for a sample of the progress.
+   * 
+   * @param done
+   *          The number of campaigns done.
+   * @param total
+   *          The total number of campaigns to simulate.
+   * @param rate
+   *          The number of campaigns simulated per second since the last
+   *          sample.
+   * @param timeLeft
+   *          The estimated time left in seconds, negative if unknown.
+   * @param usedMemory
+   *          The heap memory in use in bytes.
+   * @param maxMemory
+   *          The maximum heap memory in bytes.
+   */
+  public OMProgressSample(long done, long total, double rate,
+      double timeLeft, long usedMemory, long maxMemory) {
+    super();
+    this.done = done;
+    this.total = total;
+    this.rate = rate;
+    this.timeLeft = timeLeft;
+    this.usedMemory = usedMemory;
+    this.maxMemory = maxMemory;
+  }
+
+  /**
+   * Gets the number of campaigns done.
+   * 
+   * @return The number of campaigns done.
+   */
+  public long getDone() {
+    return this.done;
+  }
+
+  /**
+   * Gets the total number of campaigns to simulate.
+   * 
+   * @return The total number of campaigns to simulate.
+   */
+  public long getTotal() {
+    return this.total;
+  }
+
+  /**
+   * Gets the status of the simulation in percent.
+   * 
+   * @return The status of the simulation in percent.
+   */
+  public int getPercent() {
+    if (this.total <= 0) {
+      return 0;
+    }
+    return (int) Math.min(100, (this.done * 100) / this.total);
+  }
+
+  /**
+   * Gets the number of campaigns simulated per second since the last sample.
+   * 
+   * @return The number of campaigns simulated per second.
+   */
+  public double getRate() {
+    return this.rate;
+  }
+
+  /**
+   * Gets the estimated time left in seconds.
+   * 
+   * @return The estimated time left in seconds, negative if unknown.
+   */
+  public double getTimeLeft() {
+    return this.timeLeft;
+  }
+
+  /**
+   * Gets the heap memory in use in bytes.
+   * 
+   * @return The heap memory in use in bytes.
+   */
+  public long getUsedMemory() {
+    return this.usedMemory;
+  }
+
+  /**
+   * Gets the maximum heap memory in bytes.
+   * 
+   * @return The maximum heap memory in bytes.
+   */
+  public long getMaxMemory() {
+    return this.maxMemory;
+  }
+
+  /**
+   * Formats the sample as status message.
+   * 
+   * @return The status message of the sample.
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    DecimalFormat decFormat = new DecimalFormat("#");
+    String time = "unknown.";
+    if (this.timeLeft >= 0) {
+      time = formatTime(this.timeLeft);
+    }
+    return "Status: " + getPercent() + "% (" + decFormat.format(this.rate)
+        + " campaigns/s, heap " + (this.usedMemory >> 20) + "/"
+        + (this.maxMemory >> 20) + " MB, estimated time left: " + time + ")";
+  }
+
+  /**
+   * Formats a duration using the largest sensible unit.
+   * 
+   * @param seconds
+   *          The duration in seconds.
+   * @return The formatted duration.
+   */
+  public static String formatTime(double seconds) {
+    String strFormat = "#";
+    double time = seconds;
+    String unit = " seconds.";
+    final double days = time / 60.0 / 60.0 / 24.0;
+    if (time > 100) {
+      strFormat = "#";
+      time = time / 60.0;
+      unit = " minutes.";
+      if (time > 100) {
+        strFormat = "#.#";
+        time = time / 60.0;
+        unit = " hours.";
+        if (time > 48) {
+          strFormat = "#.##";
+          time = time / 24.0;
+          unit = " days.";
+          if (time > 50) {
+            strFormat = "#.##";
+            time = time / 28.0;
+            unit = " months.";
+            if (time > 20) {
+              strFormat = "#.##";
+              time = days / 365.2424;
+              unit = " years.";
+            }
+          }
+        }
+      }
+    }
+    DecimalFormat decFormat = new DecimalFormat(strFormat);
+    return decFormat.format(time) + unit;
+  }
+}
@@ -0,0 +1,460 @@
+/*
+ * OM Simulation Tool: This tool intends to test and evaluate the scientific
+ * robustness of the protocol `6+1`. Therefore, it generates a huge amount of
+ * virtual measurement campaigns based on real radon concentration data
+ * following the mentioned protocol. <http://github.com/donschoe/omsimulation>
+ * 
+ * Copyright (C) 2012 Alexander Schoedon <a.schoedon@student.htw-berlin.de>
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package de.bfs.radon.omsimulation.engine;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Public class OMQuantileSketch, a mergeable quantile sketch (t-digest) used to
+ * estimate percentiles of huge simulations in bounded memory. Values are
+ * collected in a buffer and merged into weighted centroids. The centroids are
+ * small near the tails and larger around the median, so the 5th and 95th
+ * percentiles stay accurate. The number of centroids is limited by the
+ * compression, a higher compression means more accuracy and more memory.
+ * 
+ * @author A. Schoedon
+ */
+public class OMQuantileSketch implements Serializable {
+
+  /**
+   * Unique serial version ID.
+   */
+  private static final long serialVersionUID    = -8721275459300610403L;
+
+  /**
+   * The default compression, resulting in roughly 200 centroids.
+   */
+  public static final int   DEFAULT_COMPRESSION = 200;
+
+  /**
+   * Stores the compression of the sketch.
+   */
+  private final int         compression;
+
+  /**
+   * Stores the means of the centroids in ascending order.
+   */
+  private double[]          means;
+
+  /**
+   * Stores the weights of the centroids.
+   */
+  private double[]          weights;
+
+  /**
+   * Stores the number of centroids.
+   */
+  private int               centroids;
+
+  /**
+   * Stores the values which are not merged into the centroids yet.
+   */
+  private final double[]    buffer;
+
+  /**
+   * Stores the number of values in the buffer.
+   */
+  private int               buffered;
+
+  /**
+   * Stores the total number of values.
+   */
+  private long              count;
+
+  /**
+   * Stores the smallest value.
+   */
+  private double            min;
+
+  /**
+   * Stores the largest value.
+   */
+  private double            max;
+
+  /**
+   * Constructor for a sketch using the default compression.
+   */
+  public OMQuantileSketch() {
+    this(DEFAULT_COMPRESSION);
+  }
+
+  /**
+   * Constructor for a sketch using a custom compression.
+   * 
+   * @param compression
+   *          The compression of the sketch, at least 10.
+   */
+  public OMQuantileSketch(int compression) {
+    super();
+    if (compression < 10) {
+      throw new IllegalArgumentException(
+          "The compression has to be at least 10.");
+    }
+    this.compression = compression;
+    this.means = new double[0];
+    this.weights = new double[0];
+    this.centroids = 0;
+    this.buffer = new double[compression * 5];
+    this.buffered = 0;
+    this.count = 0;
+    this.min = Double.POSITIVE_INFINITY;
+    this.max = Double.NEGATIVE_INFINITY;
+  }
+
+  /**
+   * Gets the compression of the sketch.
+   * 
+   * @return The compression of the sketch.
+   */
+  public int getCompression() {
+    return this.compression;
+  }
+
+  /**
+   * Gets the total number of values.
+   * 
+   * @return The total number of values.
+   */
+  public long getN() {
+    return this.count;
+  }
+
+  /**
+   * Gets the smallest value.
+   * 
+   * @return The smallest value or NaN if the sketch is empty.
+   */
+  public double getMin() {
+    if (this.count == 0) {
+      return Double.NaN;
+    }
+    return this.min;
+  }
+
+  /**
+   * Gets the largest value.
+   * 
+   * @return The largest value or NaN if the sketch is empty.
+   */
+  public double getMax() {
+    if (this.count == 0) {
+      return Double.NaN;
+    }
+    return this.max;
+  }
+
+  /**
+   * Gets the number of centroids after merging the buffer.
+   * 
+   * @return The number of centroids.
+   */
+  public int getCentroidCount() {
+    compress();
+    return this.centroids;
+  }
+
+  /**
+   * Adds a value to the sketch.
+   * 
+   * @param value
+   *          The value to add.
+   */
+  public void addValue(double value) {
+    if (Double.isNaN(value)) {
+      return;
+    }
+    if (value < this.min) {
+      this.min = value;
+    }
+    if (value > this.max) {
+      this.max = value;
+    }
+    this.buffer[this.buffered] = value;
+    this.buffered++;
+    this.count++;
+    if (this.buffered == this.buffer.length) {
+      compress();
+    }
+  }
+
+  /**
+   * Merges another sketch into this sketch. The other sketch is not modified,
+   * so sketches of several threads can be merged in any order.
+   * 
+   * @param other
+   *          The sketch to merge into this sketch.
+   */
+  public void merge(OMQuantileSketch other) {
+    if (other.count == 0) {
+      return;
+    }
+    compress();
+    double[] otherValues = Arrays.copyOf(other.buffer, other.buffered);
+    Arrays.sort(otherValues);
+    double[] otherWeights = new double[otherValues.length];
+    Arrays.fill(otherWeights, 1.0);
+    double[] tmpMeans = new double[other.centroids + otherValues.length];
+    double[] tmpWeights = new double[tmpMeans.length];
+    int n = mergeSorted(other.means, other.weights, other.centroids,
+        otherValues, otherWeights, otherValues.length, tmpMeans, tmpWeights);
+    double[] allMeans = new double[this.centroids + n];
+    double[] allWeights = new double[allMeans.length];
+    n = mergeSorted(this.means, this.weights, this.centroids, tmpMeans,
+        tmpWeights, n, allMeans, allWeights);
+    this.count = this.count + other.count;
+    if (other.min < this.min) {
+      this.min = other.min;
+    }
+    if (other.max > this.max) {
+      this.max = other.max;
+    }
+    collapse(allMeans, allWeights, n);
+  }
+
+  /**
+   * Estimates a percentile of all values, interpolating between the
+   * centroids. The smallest and largest values are exact.
+   * 
+   * @param p
+   *          The percentile, between 0 and 100.
+   * @return The estimated percentile or NaN if the sketch is empty.
+   */
+  public double getPercentile(double p) {
+    if (p < 0 || p > 100) {
+      throw new IllegalArgumentException(
+          "The percentile has to be between 0 and 100.");
+    }
+    compress();
+    if (this.count == 0) {
+      return Double.NaN;
+    }
+    double[] means = this.means;
+    double[] weights = this.weights;
+    int n = this.centroids;
+    double target = p / 100.0 * this.count;
+    if (target <= 0) {
+      return this.min;
+    }
+    if (target >= this.count) {
+      return this.max;
+    }
+    if (n == 1) {
+      return interpolate(this.min, this.max, target / this.count);
+    }
+    double first = weights[0] / 2.0;
+    if (target < first) {
+      return interpolate(this.min, means[0], target / first);
+    }
+    double cumulative = 0;
+    for (int i = 0; i < n - 1; i++) {
+      double left = cumulative + weights[i] / 2.0;
+      double right = cumulative + weights[i] + weights[i + 1] / 2.0;
+      if (target <= right) {
+        return interpolate(means[i], means[i + 1], (target - left)
+            / (right - left));
+      }
+      cumulative = cumulative + weights[i];
+    }
+    double last = this.count - weights[n - 1] / 2.0;
+    return interpolate(means[n - 1], this.max, (target - last)
+        / (this.count - last));
+  }
+
+  /**
+   * Estimates the value at a rank of all values in ascending order, the same
+   * way a percentile is estimated. The ranks 0 and N - 1 give the exact
+   * smallest and largest value.
+   * 
+   * @param rank
+   *          The rank, between 0 and N - 1.
+   * @return The estimated value or NaN if the sketch is empty.
+   */
+  public double getValueAt(long rank) {
+    if (this.count == 0) {
+      return Double.NaN;
+    }
+    if (rank <= 0) {
+      return this.min;
+    }
+    if (rank >= this.count - 1) {
+      return this.max;
+    }
+    return getPercentile(((double) rank + 0.5) / (double) this.count * 100.0);
+  }
+
+  /**
+   * Merges the buffer into the centroids.
+   */
+  private void compress() {
+    if (this.buffered == 0) {
+      return;
+    }
+    double[] values = this.buffer;
+    Arrays.sort(values, 0, this.buffered);
+    double[] ones = new double[this.buffered];
+    Arrays.fill(ones, 1.0);
+    double[] allMeans = new double[this.centroids + this.buffered];
+    double[] allWeights = new double[allMeans.length];
+    int n = mergeSorted(this.means, this.weights, this.centroids, values,
+        ones, this.buffered, allMeans, allWeights);
+    this.buffered = 0;
+    collapse(allMeans, allWeights, n);
+  }
+
+  /**
+   * Collapses sorted weighted points into centroids, limiting the size of each
+   * centroid by the scale function of the sketch.
+   * 
+   * @param allMeans
+   *          The sorted means of the points.
+   * @param allWeights
+   *          The weights of the points.
+   * @param n
+   *          The number of points.
+   */
+  private void collapse(double[] allMeans, double[] allWeights, int n) {
+    double total = 0;
+    for (int i = 0; i < n; i++) {
+      total = total + allWeights[i];
+    }
+    double[] means = new double[n];
+    double[] weights = new double[n];
+    int out = 0;
+    double soFar = 0;
+    double limit = total * inverseScale(scale(0) + 1);
+    double mean = allMeans[0];
+    double weight = allWeights[0];
+    for (int i = 1; i < n; i++) {
+      double proposed = weight + allWeights[i];
+      if (soFar + proposed <= limit) {
+        mean = mean + (allMeans[i] - mean) * allWeights[i] / proposed;
+        weight = proposed;
+      } else {
+        means[out] = mean;
+        weights[out] = weight;
+        out++;
+        soFar = soFar + weight;
+        limit = total * inverseScale(scale(soFar / total) + 1);
+        mean = allMeans[i];
+        weight = allWeights[i];
+      }
+    }
+    means[out] = mean;
+    weights[out] = weight;
+    out++;
+    this.means = Arrays.copyOf(means, out);
+    this.weights = Arrays.copyOf(weights, out);
+    this.centroids = out;
+  }
+
+  /**
+   * The scale function of the sketch, mapping a quantile to a centroid index.
+   * 
+   * @param q
+   *          The quantile, between 0 and 1.
+   * @return The centroid index.
+   */
+  private double scale(double q) {
+    return this.compression / (2.0 * Math.PI) * Math.asin(2.0 * q - 1.0);
+  }
+
+  /**
+   * The inverse scale function of the sketch, mapping a centroid index to a
+   * quantile.
+   * 
+   * @param k
+   *          The centroid index.
+   * @return The quantile, between 0 and 1.
+   */
+  private double inverseScale(double k) {
+    if (k >= this.compression / 4.0) {
+      return 1.0;
+    }
+    return (Math.sin(k * 2.0 * Math.PI / this.compression) + 1.0) / 2.0;
+  }
+
+  /**
+   * Merges two sorted lists of weighted points.
+   * 
+   * @param means1
+   *          The means of the first list.
+   * @param weights1
+   *          The weights of the first list.
+   * @param n1
+   *          The length of the first list.
+   * @param means2
+   *          The means of the second list.
+   * @param weights2
+   *          The weights of the second list.
+   * @param n2
+   *          The length of the second list.
+   * @param means
+   *          The means of the merged list.
+   * @param weights
+   *          The weights of the merged list.
+   * @return The length of the merged list.
+   */
+  private static int mergeSorted(double[] means1, double[] weights1, int n1,
+      double[] means2, double[] weights2, int n2, double[] means,
+      double[] weights) {
+    int i = 0;
+    int j = 0;
+    int k = 0;
+    while (i < n1 || j < n2) {
+      if (j >= n2 || (i < n1 && means1[i] <= means2[j])) {
+        means[k] = means1[i];
+        weights[k] = weights1[i];
+        i++;
+      } else {
+        means[k] = means2[j];
+        weights[k] = weights2[j];
+        j++;
+      }
+      k++;
+    }
+    return k;
+  }
+
+  /**
+   * Interpolates linearly between two values.
+   * 
+   * @param a
+   *          The first value.
+   * @param b
+   *          The second value.
+   * @param t
+   *          The position between both values, between 0 and 1.
+   * @return The interpolated value.
+   */
+  private static double interpolate(double a, double b, double t) {
+    if (t <= 0) {
+      return a;
+    }
+    if (t >= 1) {
+      return b;
+    }
+    return a + (b - a) * t;
+  }
+}
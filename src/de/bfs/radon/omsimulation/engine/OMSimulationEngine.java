@@ -0,0 +1,2420 @@
+/*
+ * OM Simulation Tool: This tool intends to test and evaluate the scientific
+ * robustness of the protocol `6+1`. Therefore, it generates a huge amount of
+ * virtual measurement campaigns based on real radon concentration data
+ * following the mentioned protocol. <http://github.com/donschoe/omsimulation>
+ * 
+ * Copyright (C) 2012 Alexander Schoedon <a.schoedon@student.htw-berlin.de>
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.bfs.radon.omsimulation.engine;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.text.DecimalFormat;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import org.apache.commons.math.stat.descriptive.DescriptiveStatistics;
+
+import de.bfs.radon.omsimulation.data.OMBuilding;
+import de.bfs.radon.omsimulation.data.OMCampaign;
+import de.bfs.radon.omsimulation.data.OMHelper;
+import de.bfs.radon.omsimulation.data.OMLogLevel;
+import de.bfs.radon.omsimulation.data.OMPermutation;
+import de.bfs.radon.omsimulation.data.OMRandomSource;
+import de.bfs.radon.omsimulation.data.OMSimulation;
+import de.bfs.radon.omsimulation.data.OMSimulationSummary;
+import de.bfs.radon.omsimulation.data.OMVariationSpace;
+
+/**
+ * Public class OMSimulationEngine, which runs systematic and random
+ * simulations for a building without depending on any graphical interface.
+ * Progress is reported to an optional OMSimulationListener. This is used by the
+ * simulation panel as well as by the headless launcher.
+ * 
+ * @author A. Schoedon
+ */
+public class OMSimulationEngine {
+
+  /**
+   * Stores the listener which is notified about the progress of the
+   * simulation. Can be null.
+   */
+  private OMSimulationListener listener;
+
+  /**
+   * Stores the building which is used to run simulations with.
+   */
+  private OMBuilding           building;
+
+  /**
+   * Stores the absolute path to the OMB object which is used for simulations.
+   */
+  private String               ombFile;
+
+  /**
+   * Stores the absolute path to the OMS object which will be used analysing the
+   * results later on.
+   */
+  private String               omsFile;
+
+  /**
+   * Indicates whether the simulation is a systematic or random simulation.
+   */
+  private boolean              isSystematic;
+
+  /**
+   * Stores the maximum number of random campaigns.
+   */
+  private int                  randomCampaigns;
+
+  /**
+   * Stores the ratio of variations which use three different rooms only.
+   */
+  private int                  ratio3;
+
+  /**
+   * Stores the ratio of variations which use four different rooms only.
+   */
+  private int                  ratio4;
+
+  /**
+   * Stores the ratio of variations which use five different rooms only.
+   */
+  private int                  ratio5;
+
+  /**
+   * Stores the ratio of variations which use six different rooms.
+   */
+  private int                  ratio6;
+
+  /**
+   * Stores the random noise that is added to the values. The unit is [%].
+   */
+  private int                  randomNoise;
+
+  /**
+   * Stores the target precision of adaptive random simulations, 0 to simulate
+   * the maximum number of random campaigns. The unit is [%].
+   */
+  private double               precision;
+
+  /**
+   * Stores the number of threads used for systematic simulations.
+   */
+  private int                  threads;
+
+  /**
+   * Stores the compression of the quantile sketches used for simulations with
+   * more than one million campaigns.
+   */
+  private int                  compression;
+
+  /**
+   * Stores the master seed of the random source, null to use a new random
+   * seed for each run.
+   */
+  private Long                 seed;
+
+  /**
+   * Stores the random source of the current run.
+   */
+  private OMRandomSource       randomSource;
+
+  /**
+   * Indicates whether the campaign files are exported as CSV files after the
+   * simulation.
+   */
+  private boolean              isCampaignsCsv;
+
+  /**
+   * Stores the maximum number of campaign batches waiting to be written by the
+   * writer thread, 0 to write without a writer thread.
+   */
+  private int                  writerQueue;
+
+  /**
+   * Indicates whether a systematic simulation is resumed from its checkpoint.
+   */
+  private boolean              isResume;
+
+  /**
+   * Stores the interval between two checkpoints of a systematic simulation in
+   * seconds, 0 to disable checkpoints.
+   */
+  private int                  checkpointInterval;
+
+  /**
+   * Indicates whether the simulation writes a log file of its own.
+   */
+  private boolean              isLogOutput;
+
+  /**
+   * Stores the checkpoint a systematic simulation is resumed from, if any.
+   */
+  private OMCheckpoint         checkpoint;
+
+  /**
+   * Stores the progress of the current simulation, if started.
+   */
+  private OMProgress           progress;
+
+  /**
+   * Stores the status of the simulation process in percent.
+   */
+  private int                  status;
+
+  /**
+   * Stores the current log message which will be both written to the log file
+   * and reported to the listener.
+   */
+  private String               logMsg;
+
+  /**
+   * Stores the starting timestamp of the simulation to calculate the status
+   * and remaining time later.
+   */
+  private double               start;
+
+  /**
+   * Stores the catalog entry of the OMS simulation object created by a random
+   * simulation.
+   */
+  private OMSimulationSummary  simulationSummary;
+
+  /**
+   * Gets the listener which is notified about the progress of the simulation.
+   * 
+   * @return The listener or null.
+   */
+  public OMSimulationListener getListener() {
+    return this.listener;
+  }
+
+  /**
+   * Sets the listener which is notified about the progress of the simulation.
+   * 
+   * @param listener
+   *          The listener or null.
+   */
+  public void setListener(OMSimulationListener listener) {
+    this.listener = listener;
+  }
+
+  /**
+   * Gets the building which is used to run simulations with.
+   * 
+   * @return The building which is used to run simulations with.
+   */
+  public OMBuilding getBuilding() {
+    return this.building;
+  }
+
+  /**
+   * Sets the building which is used to run simulations with.
+   * 
+   * @param building
+   *          The building which is used to run simulations with.
+   */
+  public void setBuilding(OMBuilding building) {
+    this.building = building;
+  }
+
+  /**
+   * Gets the absolute path to the OMB object which is used for simulations.
+   * 
+   * @return The absolute path to the OMB object.
+   */
+  public String getOmbFile() {
+    return this.ombFile;
+  }
+
+  /**
+   * Sets the absolute path to the OMB object which is used for simulations.
+   * 
+   * @param ombFile
+   *          The absolute path to the OMB object.
+   */
+  public void setOmbFile(String ombFile) {
+    this.ombFile = ombFile;
+  }
+
+  /**
+   * Gets the absolute path to the OMS object which will be used analysing the
+   * results later on.
+   * 
+   * @return The absolute path to the OMS object.
+   */
+  public String getOmsFile() {
+    return this.omsFile;
+  }
+
+  /**
+   * Sets the absolute path to the OMS object which will be used analysing the
+   * results later on.
+   * 
+   * @param omsFile
+   *          The absolute path to the OMS object.
+   */
+  public void setOmsFile(String omsFile) {
+    this.omsFile = omsFile;
+  }
+
+  /**
+   * Indicates whether the simulation is a systematic or random simulation.
+   * 
+   * @return True if the simulation is systematic.
+   */
+  public boolean isSystematic() {
+    return this.isSystematic;
+  }
+
+  /**
+   * Defines whether the simulation is a systematic or random simulation.
+   * 
+   * @param isSystematic
+   *          True if the simulation is systematic.
+   */
+  public void setSystematic(boolean isSystematic) {
+    this.isSystematic = isSystematic;
+  }
+
+  /**
+   * Gets the maximum number of random campaigns.
+   * 
+   * @return The maximum number of random campaigns.
+   */
+  public int getRandomCampaigns() {
+    return this.randomCampaigns;
+  }
+
+  /**
+   * Sets the maximum number of random campaigns.
+   * 
+   * @param randomCampaigns
+   *          The maximum number of random campaigns.
+   */
+  public void setRandomCampaigns(int randomCampaigns) {
+    this.randomCampaigns = randomCampaigns;
+  }
+
+  /**
+   * Gets the ratio of variations which use three different rooms only.
+   * 
+   * @return The ratio of variations which use three different rooms only.
+   */
+  public int getRatio3() {
+    return this.ratio3;
+  }
+
+  /**
+   * Sets the ratio of variations which use three different rooms only.
+   * 
+   * @param ratio3
+   *          The ratio of variations which use three different rooms only.
+   */
+  public void setRatio3(int ratio3) {
+    this.ratio3 = ratio3;
+  }
+
+  /**
+   * Gets the ratio of variations which use four different rooms only.
+   * 
+   * @return The ratio of variations which use four different rooms only.
+   */
+  public int getRatio4() {
+    return this.ratio4;
+  }
+
+  /**
+   * Sets the ratio of variations which use four different rooms only.
+   * 
+   * @param ratio4
+   *          The ratio of variations which use four different rooms only.
+   */
+  public void setRatio4(int ratio4) {
+    this.ratio4 = ratio4;
+  }
+
+  /**
+   * Gets the ratio of variations which use five different rooms only.
+   * 
+   * @return The ratio of variations which use five different rooms only.
+   */
+  public int getRatio5() {
+    return this.ratio5;
+  }
+
+  /**
+   * Sets the ratio of variations which use five different rooms only.
+   * 
+   * @param ratio5
+   *          The ratio of variations which use five different rooms only.
+   */
+  public void setRatio5(int ratio5) {
+    this.ratio5 = ratio5;
+  }
+
+  /**
+   * Gets the ratio of variations which use six different rooms.
+   * 
+   * @return The ratio of variations which use six different rooms.
+   */
+  public int getRatio6() {
+    return this.ratio6;
+  }
+
+  /**
+   * Sets the ratio of variations which use six different rooms.
+   * 
+   * @param ratio6
+   *          The ratio of variations which use six different rooms.
+   */
+  public void setRatio6(int ratio6) {
+    this.ratio6 = ratio6;
+  }
+
+  /**
+   * Gets the random noise that is added to the values. The unit is [%].
+   * 
+   * @return The random noise that is added to the values.
+   */
+  public int getRandomNoise() {
+    return this.randomNoise;
+  }
+
+  /**
+   * Sets the random noise that is added to the values. The unit is [%].
+   * 
+   * @param randomNoise
+   *          The random noise that is added to the values.
+   */
+  public void setRandomNoise(int randomNoise) {
+    this.randomNoise = randomNoise;
+  }
+
+  /**
+   * Gets the target precision of adaptive random simulations. The unit is [%].
+   * 
+   * @return The target precision of adaptive random simulations.
+   */
+  public double getPrecision() {
+    return this.precision;
+  }
+
+  /**
+   * Sets the target precision of adaptive random simulations. An adaptive
+   * simulation stops as soon as the relative half width of the 95% confidence
+   * interval of the 5th, 50th and 95th percentile of every metric is below
+   * the precision, in value or in rank space, see OMConvergence, at the
+   * latest after the maximum number of random campaigns. The unit is [%].
+   * 
+   * @param precision
+   *          The target precision or 0 to always simulate the maximum number
+   *          of random campaigns.
+   */
+  public void setPrecision(double precision) {
+    this.precision = precision;
+  }
+
+  /**
+   * Gets the number of threads used for systematic simulations.
+   * 
+   * @return The number of threads used for systematic simulations.
+   */
+  public int getThreads() {
+    return this.threads;
+  }
+
+  /**
+   * Sets the number of threads used for systematic simulations. Values lower
+   * than 1 select the number of available processors.
+   * 
+   * @param threads
+   *          The number of threads used for systematic simulations.
+   */
+  public void setThreads(int threads) {
+    if (threads < 1) {
+      threads = Runtime.getRuntime().availableProcessors();
+    }
+    this.threads = threads;
+  }
+
+  /**
+   * Gets the compression of the quantile sketches used for simulations with
+   * more than one million campaigns.
+   * 
+   * @return The compression of the quantile sketches.
+   */
+  public int getCompression() {
+    return this.compression;
+  }
+
+  /**
+   * Sets the compression of the quantile sketches used for simulations with
+   * more than one million campaigns. A higher compression
+   * gives more accurate percentiles and uses more memory. A compression of 0
+   * disables the sketches, only summary statistics without percentiles are
+   * calculated then.
+   * 
+   * @param compression
+   *          The compression of the quantile sketches, 0 or at least 10.
+   */
+  public void setCompression(int compression) {
+    this.compression = compression;
+  }
+
+  /**
+   * Gets the master seed of the random source.
+   * 
+   * @return The master seed of the random source or null if a new random seed
+   *         is used for each run.
+   */
+  public Long getSeed() {
+    return this.seed;
+  }
+
+  /**
+   * Sets the master seed of the random source. Runs using the same seed and
+   * parameters produce the same campaigns, independent of the number of
+   * threads.
+   * 
+   * @param seed
+   *          The master seed of the random source or null to use a new random
+   *          seed for each run.
+   */
+  public void setSeed(Long seed) {
+    this.seed = seed;
+  }
+
+  /**
+   * Indicates whether the campaign files are exported as CSV files after the
+   * simulation.
+   * 
+   * @return True if the campaign files are exported as CSV files.
+   */
+  public boolean isCampaignsCsv() {
+    return this.isCampaignsCsv;
+  }
+
+  /**
+   * Sets whether the campaign files are exported as CSV files after the
+   * simulation. The binary campaign files are written in any case.
+   * 
+   * @param isCampaignsCsv
+   *          True to export the campaign files as CSV files.
+   */
+  public void setCampaignsCsv(boolean isCampaignsCsv) {
+    this.isCampaignsCsv = isCampaignsCsv;
+  }
+
+  /**
+   * Gets the maximum number of campaign batches waiting to be written by the
+   * writer thread.
+   * 
+   * @return The maximum number of waiting campaign batches.
+   */
+  public int getWriterQueue() {
+    return this.writerQueue;
+  }
+
+  /**
+   * Sets the maximum number of campaign batches waiting to be written by the
+   * writer thread. The simulation blocks if the writer thread falls behind
+   * by more batches. A value of 0 writes the campaigns without a writer
+   * thread.
+   * 
+   * @param writerQueue
+   *          The maximum number of waiting campaign batches, at least 0.
+   */
+  public void setWriterQueue(int writerQueue) {
+    this.writerQueue = writerQueue;
+  }
+
+  /**
+   * Indicates whether a systematic simulation is resumed from its checkpoint.
+   * 
+   * @return True if a systematic simulation is resumed from its checkpoint.
+   */
+  public boolean isResume() {
+    return this.isResume;
+  }
+
+  /**
+   * Sets whether a systematic simulation is resumed from its checkpoint. The
+   * simulation starts from scratch if there is no checkpoint.
+   * 
+   * @param isResume
+   *          True to resume a systematic simulation from its checkpoint.
+   */
+  public void setResume(boolean isResume) {
+    this.isResume = isResume;
+  }
+
+  /**
+   * Gets the interval between two checkpoints of a systematic simulation.
+   * 
+   * @return The interval between two checkpoints in seconds.
+   */
+  public int getCheckpointInterval() {
+    return this.checkpointInterval;
+  }
+
+  /**
+   * Sets the interval between two checkpoints of a systematic simulation. A
+   * checkpoint stores the progress of the simulation next to the OMB object,
+   * so an interrupted simulation can be resumed later.
+   * 
+   * @param checkpointInterval
+   *          The interval between two checkpoints in seconds, 0 to disable
+   *          checkpoints.
+   */
+  public void setCheckpointInterval(int checkpointInterval) {
+    this.checkpointInterval = checkpointInterval;
+  }
+
+  /**
+   * Indicates whether the simulation writes a log file of its own.
+   * 
+   * @return True if the simulation writes a log file of its own.
+   */
+  public boolean isLogOutput() {
+    return this.isLogOutput;
+  }
+
+  /**
+   * Sets whether the simulation writes a log file of its own. The log file is
+   * shared by the whole program, so disable this if several simulations run
+   * at the same time and log their status messages using the listener.
+   * 
+   * @param isLogOutput
+   *          True if the simulation writes a log file of its own.
+   */
+  public void setLogOutput(boolean isLogOutput) {
+    this.isLogOutput = isLogOutput;
+  }
+
+  /**
+   * Gets the checkpoint a systematic simulation is resumed from.
+   * 
+   * @return The checkpoint or null if the simulation starts from scratch.
+   */
+  private OMCheckpoint getCheckpoint() {
+    return this.checkpoint;
+  }
+
+  /**
+   * Sets the checkpoint a systematic simulation is resumed from.
+   * 
+   * @param checkpoint
+   *          The checkpoint or null if the simulation starts from scratch.
+   */
+  private void setCheckpoint(OMCheckpoint checkpoint) {
+    this.checkpoint = checkpoint;
+  }
+
+  /**
+   * Gets the absolute path of the checkpoint file of systematic simulations.
+   * 
+   * @return The absolute path of the checkpoint file.
+   */
+  private String getCheckpointPath() {
+    return getOmbFile() + "_systematic_simulation.checkpoint";
+  }
+
+  /**
+   * Starts tracking the progress of the simulation. Each sample is written to
+   * the log file and published to the listener.
+   * 
+   * @param total
+   *          The total number of campaigns to simulate.
+   * @param done
+   *          The number of campaigns simulated before, e.g. when resuming.
+   * @return The progress of the simulation.
+   */
+  private OMProgress startProgress(long total, long done) {
+    stopProgress();
+    OMProgress progress = new OMProgress(total, done,
+        OMProgress.DEFAULT_INTERVAL, new OMProgressListener() {
+          public void progress(OMProgressSample sample) {
+            OMSimulationListener listener = getListener();
+            if (listener != null) {
+              listener.progress(sample);
+            }
+            try {
+              if (isLogOutput() && OMHelper.isLogOutputEnabled()) {
+                OMHelper.writeLog(sample.toString());
+              }
+            } catch (IOException e) {
+              e.printStackTrace();
+            }
+          }
+        });
+    this.progress = progress;
+    return progress;
+  }
+
+  /**
+   * Stops tracking the progress of the simulation, if started.
+   */
+  private void stopProgress() {
+    OMProgress progress = this.progress;
+    if (progress != null) {
+      this.progress = null;
+      progress.stop();
+    }
+  }
+
+  /**
+   * Gets the random source of the current run.
+   * 
+   * @return The random source of the current run.
+   */
+  public OMRandomSource getRandomSource() {
+    return this.randomSource;
+  }
+
+  /**
+   * Sets the random source of the current run.
+   * 
+   * @param randomSource
+   *          The random source of the current run.
+   */
+  private void setRandomSource(OMRandomSource randomSource) {
+    this.randomSource = randomSource;
+  }
+
+  /**
+   * Gets the status of the simulation process in percent.
+   * 
+   * @return The status of the simulation process in percent.
+   */
+  public int getStatus() {
+    return this.status;
+  }
+
+  /**
+   * Sets the status of the simulation process in percent.
+   * 
+   * @param status
+   *          The status of the simulation process in percent.
+   */
+  private void setStatus(int status) {
+    this.status = status;
+  }
+
+  /**
+   * Gets the current log message.
+   * 
+   * @return The current log message.
+   */
+  public String getLogMsg() {
+    return this.logMsg;
+  }
+
+  /**
+   * Sets the current log message.
+   * 
+   * @param logMsg
+   *          The current log message.
+   */
+  private void setLogMsg(String logMsg) {
+    this.logMsg = logMsg;
+  }
+
+  /**
+   * Gets the starting timestamp of the simulation.
+   * 
+   * @return The starting timestamp of the simulation.
+   */
+  public double getStart() {
+    return this.start;
+  }
+
+  /**
+   * Sets the starting timestamp of the simulation to calculate the status and
+   * remaining time later.
+   * 
+   * @param start
+   *          The starting timestamp of the simulation.
+   */
+  private void setStart(double start) {
+    this.start = start;
+  }
+
+  /**
+   * Gets the catalog entry of the OMS simulation object created by a random
+   * simulation.
+   * 
+   * @return The catalog entry or null for systematic simulations.
+   */
+  public OMSimulationSummary getSimulationSummary() {
+    return this.simulationSummary;
+  }
+
+  /**
+   * Sets the catalog entry of the OMS simulation object created by a random
+   * simulation.
+   * 
+   * @param simulationSummary
+   *          The catalog entry of the OMS simulation object.
+   */
+  private void setSimulationSummary(OMSimulationSummary simulationSummary) {
+    this.simulationSummary = simulationSummary;
+  }
+
+  /**
+   * Constructor for the simulation engine. All parameters of the simulation
+   * have to be set using the setters before calling run().
+   */
+  public OMSimulationEngine() {
+    super();
+    setThreads(0);
+    setCompression(OMQuantileSketch.DEFAULT_COMPRESSION);
+    setCampaignsCsv(true);
+    setWriterQueue(4);
+    setCheckpointInterval(600);
+    setLogOutput(true);
+  }
+
+  /**
+   * Constructor for the simulation engine using a building and the absolute
+   * paths to the OMB and OMS object.
+   * 
+   * @param building
+   *          The building which is used to run simulations with.
+   * @param ombFile
+   *          The absolute path to the OMB object.
+   * @param omsFile
+   *          The absolute path to the OMS object, can be null for systematic
+   *          simulations.
+   */
+  public OMSimulationEngine(OMBuilding building, String ombFile, String omsFile) {
+    super();
+    setThreads(0);
+    setCompression(OMQuantileSketch.DEFAULT_COMPRESSION);
+    setCampaignsCsv(true);
+    setWriterQueue(4);
+    setCheckpointInterval(600);
+    setLogOutput(true);
+    setBuilding(building);
+    setOmbFile(ombFile);
+    setOmsFile(omsFile);
+  }
+
+  /**
+   * Updates the listener and writes the current action to a log file if
+   * existing.
+   * 
+   * @param s
+   *          The log message.
+   * @param i
+   *          The status in percent.
+   */
+  private void tmpUpdate(String s, int i) {
+    setLogMsg(s);
+    setStatus(i);
+    OMSimulationListener listener = this.listener;
+    if (listener != null) {
+      listener.update(s, i);
+    }
+    try {
+      if (isLogOutput() && OMHelper.isLogOutputEnabled()) {
+        OMHelper.writeLog(getLogMsg());
+      }
+    } catch (IOException e) {
+      e.printStackTrace();
+    }
+  }
+
+  /**
+   * Writes messages to the log file which are not reported to the listener.
+   * This is used to increase performance.
+   * 
+   * @param s
+   *          The log message.
+   * @param i
+   *          The status in percent.
+   */
+  private void logOnly(String s, int i) {
+    setLogMsg(s);
+    setStatus(i);
+    try {
+      if (isLogOutput() && OMHelper.isLogOutputEnabled()) {
+        OMHelper.writeLog(getLogMsg());
+      }
+    } catch (IOException e) {
+      e.printStackTrace();
+    }
+  }
+
+  /**
+   * Writes trace messages to the log file, e.g. per campaign. These are
+   * neither reported to the listener nor written unless the level Trace is
+   * enabled.
+   * 
+   * @param s
+   *          The log message.
+   */
+  private void logTrace(String s) {
+    try {
+      if (isLogOutput() && OMHelper.isLogOutputEnabled()) {
+        OMHelper.writeLog(OMLogLevel.Trace, s);
+      }
+    } catch (IOException e) {
+      e.printStackTrace();
+    }
+  }
+
+  /**
+   * Tells the listener whether the current task reports any progress.
+   * 
+   * @param indeterminate
+   *          True if the current task does not report any progress.
+   */
+  private void setIndeterminate(boolean indeterminate) {
+    OMSimulationListener listener = this.listener;
+    if (listener != null) {
+      listener.indeterminate(indeterminate);
+    }
+  }
+
+  /**
+   * Runs the simulation using the current parameters. Creates a log file next
+   * to the OMB object for systematic simulations or next to the OMS object for
+   * random simulations and closes it afterwards.
+   * 
+   * @return The final status of the simulation, 100 if successful.
+   * @throws IOException
+   *           If creating log file or writing logs or results fails.
+   */
+  public int run() throws IOException {
+    int status = 0;
+    setStatus(0);
+    setSimulationSummary(null);
+    setStart(System.currentTimeMillis());
+    String logPath = getOmsFile();
+    String logType = "random_simulation";
+    if (isSystematic()) {
+      logPath = getOmbFile();
+      logType = "systematic_simulation";
+    }
+    if (isLogOutput()) {
+      OMHelper.setLogOutput(logPath, logType);
+    }
+    tmpUpdate("Starting ...", 1);
+    OMBuilding building = getBuilding();
+    tmpUpdate("Opened building: " + building, 1);
+    setCheckpoint(null);
+    if (isSystematic() && isResume()) {
+      OMCheckpoint checkpoint = OMCheckpoint.load(getCheckpointPath());
+      if (checkpoint == null) {
+        tmpUpdate("Warning: No checkpoint found, starting from scratch.", 1);
+      } else {
+        tmpUpdate("Resuming from checkpoint after " + checkpoint.getCampaigns()
+            + " campaigns.", 1);
+      }
+      setCheckpoint(checkpoint);
+    }
+    OMRandomSource randomSource;
+    if (getCheckpoint() != null) {
+      randomSource = new OMRandomSource(getCheckpoint().getSeed());
+    } else if (getSeed() == null) {
+      randomSource = new OMRandomSource();
+    } else {
+      randomSource = new OMRandomSource(getSeed());
+    }
+    setRandomSource(randomSource);
+    tmpUpdate("Using random seed " + randomSource.getSeed() + ".", 1);
+    int maxCampaigns = getRandomCampaigns();
+    int ratioThree = getRatio3();
+    int ratioFour = getRatio4();
+    int ratioFive = getRatio5();
+    int ratioSix = getRatio6();
+    int randomNoise = getRandomNoise();
+    try {
+      if (isSystematic()) {
+        generateSystematicCampaigns(building, randomNoise);
+      } else {
+        generateRandomCampaigns(building, maxCampaigns, ratioThree, ratioFour,
+            ratioFive, ratioSix, randomNoise);
+      }
+    } finally {
+      stopProgress();
+    }
+    status = getStatus();
+    String strFormat = "#.##";
+    DecimalFormat decFormat = new DecimalFormat(strFormat);
+    double total = (System.currentTimeMillis() - getStart()) / 1000;
+    String unit = " seconds.";
+    if (total > 100) {
+      total = total / 60.0;
+      unit = " minutes.";
+      if (total > 100) {
+        total = total / 60.0;
+        unit = " hours.";
+      }
+    }
+    if (status == 100) {
+      tmpUpdate("Simulation finished after " + decFormat.format(total) + unit,
+          status);
+    } else {
+      tmpUpdate("Simulation failed. See log for details.", status);
+    }
+    if (isLogOutput()) {
+      OMHelper.closeLog();
+    }
+    return status;
+  }
+
+  /**
+   * Method to simulate systematic survey campaigns. It calculates summary
+   * statistics for simulations with n > 1 million and descriptive statistics
+   * for simulations with n <= 1 million. The campaigns are simulated in a
+   * fork/join pool using all available threads. Each group of patterns
+   * collects its statistics in an accumulator of its own, the accumulators are
+   * merged in the order of the variation patterns. The campaigns are written to
+   * a binary campaign file in the same order, which is exported as CSV file if
+   * enabled. It writes a CSV file with the results of the statistics in the
+   * end. This may take a while, grab a coffee.
+   * 
+   * @param building
+   *          An building consisting of all the rooms and their values.
+   * @param randomNoise
+   *          An integer which defines the random noise that is added to the
+   *          values. A random noise of 0 means the original values wont be
+   *          modified. The unit is [%].
+   * @throws IOException
+   *           If creating log file or writing logs fails.
+   */
+  private void generateSystematicCampaigns(OMBuilding building,
+      int randomNoise) throws IOException {
+    int valueCount = building.getValueCount();
+    int total = valueCount - 7 * 24 + 1;
+    if (total >= 1) {
+      tmpUpdate(valueCount + " data records allow " + total
+          + " possible times for starting a simulation.", 1);
+      OMVariationSpace variationSpace = null;
+      int differentRooms = 2;
+      for (int i = 6; i >= 3; i--) {
+        OMVariationSpace space = building.getVariationSpace(i);
+        if (space.getSize() > 0) {
+          variationSpace = space;
+          differentRooms = i;
+          break;
+        }
+      }
+      long x = 0;
+      long perc = 1;
+      long max = 0;
+      long length = 0;
+      if (variationSpace != null) {
+        length = variationSpace.getSize();
+        max = (long) total * length;
+      }
+      OMCheckpoint checkpoint = getCheckpoint();
+      if (checkpoint != null
+          && !checkpoint.matches(building.getName(), total, differentRooms,
+              length, randomNoise)) {
+        throw new IOException("Checkpoint '" + getCheckpointPath()
+            + "' belongs to a different simulation.");
+      }
+      String strFormat = "#.#########";
+      DecimalFormat decFormat = new DecimalFormat(strFormat);
+      OMStatisticsType type = OMStatisticsType.Descriptive;
+      String statsType = "descriptive";
+      if (max > 1000000) {
+        if (getCompression() > 0) {
+          type = OMStatisticsType.Sketch;
+          statsType = "sketch";
+        } else {
+          type = OMStatisticsType.Summary;
+          statsType = "summary";
+        }
+      }
+      OMStatisticsAccumulator stats;
+      long first = 0;
+      if (checkpoint != null) {
+        stats = checkpoint.getStatistics();
+        first = checkpoint.getPattern();
+        x = checkpoint.getCampaigns();
+        if (stats.getType() != type) {
+          throw new IOException("Checkpoint '" + getCheckpointPath()
+              + "' uses " + stats.getType() + " statistics.");
+        }
+      } else {
+        new File(getCheckpointPath()).delete();
+        stats = new OMStatisticsAccumulator(type, getCompression());
+      }
+      String campaignPath = getOmbFile() + "_systematic_simulation.campaigns";
+      OMCampaignWriter campaignWriter;
+      if (checkpoint != null) {
+        campaignWriter = OMCampaignWriter.resume(campaignPath + ".omc",
+            checkpoint.getCampaigns(), checkpoint.getPatterns(),
+            getWriterQueue());
+      } else {
+        campaignWriter = new OMCampaignWriter(campaignPath + ".omc",
+            building.getName(), getRandomSource().getSeed(), randomNoise, max,
+            getWriterQueue());
+      }
+      for (int rooms = 6; rooms > differentRooms; rooms--) {
+        tmpUpdate("Warning: No variations for " + rooms
+            + " different rooms available.", (int) perc);
+      }
+      if (variationSpace != null) {
+        tmpUpdate("Starting unlimited " + statsType + " simulation for "
+            + differentRooms + " different rooms using " + getThreads()
+            + " threads.", (int) perc);
+        OMCellarTable cellarTable = null;
+        if (randomNoise <= 0) {
+          cellarTable = new OMCellarTable(building.getCellars());
+          logOnly("Calculated cellar metrics for "
+              + building.getCellars().length + " cellars.", (int) perc);
+        }
+        OMProgress progress = startProgress(max, x);
+        boolean isTrace = isLogOutput()
+            && OMHelper.isLogEnabled(OMLogLevel.Trace);
+        ForkJoinPool pool = new ForkJoinPool(getThreads());
+        try {
+          long group = OMSystematicTask.getGroupSize(total);
+          long window = getThreads() * 2 * group;
+          long interval = getCheckpointInterval() * 1000L;
+          long saved = System.currentTimeMillis();
+          OMSystematicTask task = null;
+          if (first < length) {
+            task = new OMSystematicTask(variationSpace, first, Math.min(first
+                + window, length), total, randomNoise, cellarTable,
+                getRandomSource(), progress, type, getCompression(), group);
+            pool.execute(task);
+          }
+          while (task != null) {
+            task.join();
+            if (task.getFailure() != null) {
+              throw task.getFailure();
+            }
+            OMSystematicTask next = null;
+            if (task.getTo() < length) {
+              next = new OMSystematicTask(variationSpace, task.getTo(),
+                  Math.min(task.getTo() + window, length), total, randomNoise,
+                  cellarTable, getRandomSource(), progress, type,
+                  getCompression(), group);
+              pool.execute(next);
+            }
+            for (long a = task.getFrom(); a < task.getTo(); a++) {
+              perc = (x * 100) / max;
+              OMStatisticsAccumulator groupStats = task.getStatistics(a);
+              if (groupStats != null) {
+                stats.merge(groupStats);
+              }
+              double[] metrics = task.getMetrics(a);
+              String variation = task.getVariation(a);
+              int pattern = campaignWriter.addPattern(variation);
+              for (int start = 0; start < total; start++) {
+                if (isTrace) {
+                  logTrace("Campaign: T=" + start + ", R=" + variation);
+                }
+                campaignWriter.write(pattern, start, metrics, start
+                    * OMStatisticsAccumulator.METRICS);
+                x++;
+              }
+            }
+            if (interval > 0 && System.currentTimeMillis() - saved >= interval
+                && next != null) {
+              campaignWriter.flush();
+              new OMCheckpoint(building.getName(), total, differentRooms,
+                  length, randomNoise, getRandomSource().getSeed(),
+                  task.getTo(), x, campaignWriter.getPatterns(), stats)
+                  .save(getCheckpointPath());
+              logOnly("Saved checkpoint after " + x + " campaigns.",
+                  (int) perc);
+              saved = System.currentTimeMillis();
+            }
+            task = next;
+          }
+        } finally {
+          pool.shutdownNow();
+          stopProgress();
+        }
+        perc = (x * 100) / max;
+        tmpUpdate("Status: " + perc + "% - finished for " + differentRooms
+            + " different rooms.", (int) perc);
+      } else {
+        tmpUpdate("Error: No variations generated yet, what went wrong?", 0);
+      }
+      tmpUpdate("Generated " + x + " campaigns.", (int) perc);
+      campaignWriter.close();
+      new File(getCheckpointPath()).delete();
+      exportCampaigns(campaignPath, (int) perc);
+      String csvPath = "";
+      if (getOmsFile() != null && !getOmsFile().equals("")
+          && !getOmsFile().equals(" ")) {
+        csvPath = getOmsFile();
+      } else {
+        csvPath = getOmbFile();
+      }
+      String logName = csvPath + "_systematic_simulation.result.csv";
+      File logFile = new File(logName);
+      FileWriter logWriter = new FileWriter(logFile);
+      BufferedWriter csvOutput = new BufferedWriter(logWriter);
+      if (type == OMStatisticsType.Descriptive) {
+        descriptiveStatistics(x,
+            stats.getDescriptiveStats(OMStatisticsAccumulator.ROOM_AM),
+            stats.getDescriptiveStats(OMStatisticsAccumulator.CELLAR_AM),
+            stats.getDescriptiveStats(OMStatisticsAccumulator.ROOM_GM),
+            stats.getDescriptiveStats(OMStatisticsAccumulator.CELLAR_GM),
+            stats.getDescriptiveStats(OMStatisticsAccumulator.ROOM_MED),
+            stats.getDescriptiveStats(OMStatisticsAccumulator.CELLAR_MED),
+            stats.getDescriptiveStats(OMStatisticsAccumulator.ROOM_MAX),
+            stats.getDescriptiveStats(OMStatisticsAccumulator.CELLAR_MAX),
+            csvOutput, decFormat);
+      } else if (type == OMStatisticsType.Sketch) {
+        sketchStatistics(x, stats, csvOutput, decFormat);
+      } else {
+        summaryStatistics(x,
+            stats.getSummaryStats(OMStatisticsAccumulator.ROOM_AM),
+            stats.getSummaryStats(OMStatisticsAccumulator.CELLAR_AM),
+            stats.getSummaryStats(OMStatisticsAccumulator.ROOM_GM),
+            stats.getSummaryStats(OMStatisticsAccumulator.CELLAR_GM),
+            stats.getSummaryStats(OMStatisticsAccumulator.ROOM_MED),
+            stats.getSummaryStats(OMStatisticsAccumulator.CELLAR_MED),
+            stats.getSummaryStats(OMStatisticsAccumulator.ROOM_MAX),
+            stats.getSummaryStats(OMStatisticsAccumulator.CELLAR_MAX),
+            csvOutput, decFormat);
+      }
+      csvOutput.close();
+      setStatus(100);
+    } else {
+      tmpUpdate("Error: " + valueCount + " are not enough data records.", 0);
+      tmpUpdate("Make sure you have at least one week of records (> 168).", 0);
+      setStatus(0);
+    }
+  }
+
+  /**
+   * Adds the metrics of a campaign to the statistics.
+   * 
+   * @param stats
+   *          The statistics of the metrics.
+   * @param metrics
+   *          The array to collect the metrics in, reused for all campaigns.
+   * @param campaign
+   *          The campaign to add.
+   */
+  private static void addCampaign(OMStatisticsAccumulator stats,
+      double[] metrics, OMCampaign campaign) {
+    metrics[OMStatisticsAccumulator.ROOM_AM] = campaign.getRoomAverage();
+    metrics[OMStatisticsAccumulator.ROOM_GM] = campaign.getRoomLogAverage();
+    metrics[OMStatisticsAccumulator.ROOM_MED] = campaign.getRoomMedian();
+    metrics[OMStatisticsAccumulator.ROOM_MAX] = campaign.getRoomMaximum();
+    metrics[OMStatisticsAccumulator.CELLAR_AM] = campaign.getCellarAverage();
+    metrics[OMStatisticsAccumulator.CELLAR_GM] = campaign.getCellarLogAverage();
+    metrics[OMStatisticsAccumulator.CELLAR_MED] = campaign.getCellarMedian();
+    metrics[OMStatisticsAccumulator.CELLAR_MAX] = campaign.getCellarMaximum();
+    stats.addValues(metrics, 0);
+  }
+
+  /**
+   * Writes a campaign object to a campaign file. Each variation string is
+   * added to the dictionary of the file once.
+   * 
+   * @param campaignWriter
+   *          The writer of the campaign file.
+   * @param patterns
+   *          The dictionary indices of the variation strings written so far.
+   * @param campaign
+   *          The campaign to write.
+   * @param metrics
+   *          The metrics of the campaign, as collected by addCampaign.
+   * @throws IOException
+   *           If writing the campaign file fails.
+   */
+  private static void writeCampaign(OMCampaignWriter campaignWriter,
+      Map<String, Integer> patterns, OMCampaign campaign, double[] metrics)
+      throws IOException {
+    String variation = campaign.getVariation();
+    Integer pattern = patterns.get(variation);
+    if (pattern == null) {
+      pattern = campaignWriter.addPattern(variation);
+      patterns.put(variation, pattern);
+    }
+    campaignWriter.write(pattern, campaign.getStart(), metrics, 0);
+  }
+
+  /**
+   * Exports a campaign file to a CSV file next to it if enabled. Both files
+   * share the same path except for the extension.
+   * 
+   * @param campaignPath
+   *          The path of the campaign files without extension.
+   * @param perc
+   *          The current status in percent.
+   * @throws IOException
+   *           If reading the campaign file or writing the CSV file fails.
+   */
+  private void exportCampaigns(String campaignPath, int perc)
+      throws IOException {
+    if (isCampaignsCsv()) {
+      tmpUpdate("Exporting campaigns to '" + campaignPath + ".csv'.", perc);
+      setIndeterminate(true);
+      OMCampaignReader campaignReader = new OMCampaignReader(campaignPath
+          + ".omc");
+      campaignReader.exportCsv(campaignPath + ".csv");
+      setIndeterminate(false);
+    }
+  }
+
+  /**
+   * Method to simulate random survey campaigns using a defined maximum number
+   * and a defined ratio between different types of variations used. It
+   * calculates descriptive statistics for simulations with n <= 1 million and
+   * quantile sketches, or summary statistics if the sketches are disabled, for
+   * simulations with n > 1 million. The campaigns are written to a binary
+   * campaign file, which is exported as CSV file if enabled. It writes a CSV
+   * file with the results of the statistics in the end. This may take a while,
+   * grab a coffee.
+   * 
+   * @param building
+   *          An building consisting of all the rooms and their values.
+   * @param maxCampaigns
+   *          The maximum number of campaigns to simulate.
+   * @param ratioThree
+   *          An integer to define the ratio of variations which use three
+   *          different rooms only.
+   * @param ratioFour
+   *          An integer to define the ratio of variations which use four
+   *          different rooms only.
+   * @param ratioFive
+   *          An integer to define the ratio of variations which use five
+   *          different rooms only.
+   * @param ratioSix
+   *          An integer to define the ratio of variations which use six
+   *          different rooms.
+   * @param randomNoise
+   *          An integer which defines the random noise that is added to the
+   *          values. A random noise of 0 means the original values wont be
+   *          modified. The unit is [%].
+   * @throws IOException
+   *           If creating log file or writing logs fails.
+   */
+  private void generateRandomCampaigns(OMBuilding building, int maxCampaigns,
+      int ratioThree, int ratioFour, int ratioFive, int ratioSix,
+      int randomNoise) throws IOException {
+    int valueCount = building.getValueCount();
+    int absoluteThree;
+    int absoluteFour;
+    int absoluteFive;
+    int absoluteSix;
+    long absoluteTotal;
+    if (ratioThree >= 0 && ratioFour >= 0 && ratioFive >= 0 && ratioSix >= 0) {
+      OMVariationSpace variationSpaceSix = building.getVariationSpace(6);
+      OMVariationSpace variationSpaceFive = building.getVariationSpace(5);
+      OMVariationSpace variationSpaceFour = building.getVariationSpace(4);
+      OMVariationSpace variationSpaceThree = building.getVariationSpace(3);
+      double tmpDiv = 4.0;
+      long campaignLengthSix = variationSpaceSix.getSize();
+      if (campaignLengthSix <= 0) {
+        tmpUpdate("Warning: No variations for 6 rooms. Setting ratio to 0.",
+            1);
+        ratioSix = 0;
+        tmpDiv--;
+      }
+      long campaignLengthFive = variationSpaceFive.getSize();
+      if (campaignLengthFive <= 0) {
+        tmpUpdate("Warning: No variations for 5 rooms. Setting ratio to 0.",
+            1);
+        ratioFive = 0;
+        tmpDiv--;
+      }
+      long campaignLengthFour = variationSpaceFour.getSize();
+      if (campaignLengthFour <= 0) {
+        tmpUpdate("Warning: No variations for 4 rooms. Setting ratio to 0.",
+            1);
+        ratioFour = 0;
+        tmpDiv--;
+      }
+      long campaignLengthThree = variationSpaceThree.getSize();
+      int ratioTotal = ratioThree + ratioFour + ratioFive + ratioSix;
+      int total = valueCount - 7 * 24 + 1;
+      if (ratioTotal <= 0) {
+        tmpUpdate("Warning: Your entered ratio is: " + ratioThree + ", "
+            + ratioFour + ", " + ratioFive + ", " + ratioSix + ".", 1);
+        tmpUpdate("Warning: Splitting the simulation in equal parts of 25%.",
+            1);
+        absoluteThree = (int) ((double) maxCampaigns / tmpDiv);
+        if (campaignLengthFour >= 0 && tmpDiv >= 2) {
+          absoluteFour = (int) ((double) maxCampaigns / tmpDiv);
+          if (campaignLengthFive >= 0 && tmpDiv >= 3) {
+            absoluteFive = (int) ((double) maxCampaigns / tmpDiv);
+            if (campaignLengthSix >= 0 && tmpDiv >= 4) {
+              absoluteSix = (int) ((double) maxCampaigns / tmpDiv);
+            } else {
+              absoluteSix = 0;
+            }
+          } else {
+            absoluteFive = 0;
+            absoluteSix = 0;
+          }
+        } else {
+          absoluteFour = 0;
+          absoluteFive = 0;
+          absoluteSix = 0;
+        }
+        absoluteTotal = absoluteSix + absoluteFive + absoluteFour
+            + absoluteThree;
+        while (absoluteTotal != maxCampaigns) {
+          if (absoluteTotal < maxCampaigns) {
+            if (ratioSix > 0) {
+              absoluteSix++;
+            } else {
+              if (ratioFive > 0) {
+                absoluteFive++;
+              } else {
+                if (ratioFour > 0) {
+                  absoluteFour++;
+                } else {
+                  absoluteThree++;
+                }
+              }
+            }
+          } else {
+            if (ratioSix > 0) {
+              absoluteSix--;
+            } else {
+              if (ratioFive > 0) {
+                absoluteFive--;
+              } else {
+                if (ratioFour > 0) {
+                  absoluteFour--;
+                } else {
+                  absoluteThree--;
+                }
+              }
+            }
+          }
+          absoluteTotal = absoluteSix + absoluteFive + absoluteFour
+              + absoluteThree;
+        }
+      } else {
+        absoluteThree = (int) (((double) ratioThree / (double) ratioTotal) * (double) maxCampaigns);
+        absoluteFour = (int) (((double) ratioFour / (double) ratioTotal) * (double) maxCampaigns);
+        absoluteFive = (int) (((double) ratioFive / (double) ratioTotal) * (double) maxCampaigns);
+        absoluteSix = (int) (((double) ratioSix / (double) ratioTotal) * (double) maxCampaigns);
+        absoluteTotal = absoluteSix + absoluteFive + absoluteFour
+            + absoluteThree;
+        while (absoluteTotal != maxCampaigns) {
+          if (absoluteTotal < maxCampaigns) {
+            if (ratioSix > 0) {
+              absoluteSix++;
+            } else {
+              if (ratioFive > 0) {
+                absoluteFive++;
+              } else {
+                if (ratioFour > 0) {
+                  absoluteFour++;
+                } else {
+                  absoluteThree++;
+                }
+              }
+            }
+          } else {
+            if (ratioSix > 0) {
+              absoluteSix--;
+            } else {
+              if (ratioFive > 0) {
+                absoluteFive--;
+              } else {
+                if (ratioFour > 0) {
+                  absoluteFour--;
+                } else {
+                  absoluteThree--;
+                }
+              }
+            }
+          }
+          absoluteTotal = absoluteSix + absoluteFive + absoluteFour
+              + absoluteThree;
+        }
+      }
+      tmpUpdate("Simulation will start with " + absoluteTotal
+          + " random variations:", 1);
+      tmpUpdate(absoluteThree
+          + " Simulations using 3 different rooms. (Ratio: ca. "
+          + (int) ((double) ratioThree / (double) ratioTotal * 100.0) + "% ("
+          + ratioThree + "))", 1);
+      if (absoluteThree > campaignLengthThree * total) {
+        tmpUpdate("Warning: Simulating " + absoluteThree
+            + " campaigns for 3 rooms, but only "
+            + (campaignLengthThree * total)
+            + " variations are existing for 3 rooms.", 1);
+        tmpUpdate(
+            "Warning: Consider to reduce the ratio or number of total simulations.",
+            1);
+      }
+      tmpUpdate(absoluteFour
+          + " Simulations using 4 different rooms. (Ratio: ca. "
+          + (int) ((double) ratioFour / (double) ratioTotal * 100.0) + "% ("
+          + ratioFour + "))", 1);
+      if (absoluteFour > campaignLengthFour * total) {
+        tmpUpdate("Warning: Simulating " + absoluteFour
+            + " campaigns for 4 rooms, but only "
+            + (campaignLengthFour * total)
+            + " variations are existing for 4 rooms.", 1);
+        tmpUpdate(
+            "Warning: Consider to reduce the ratio or number of total simulations.",
+            1);
+      }
+      tmpUpdate(absoluteFive
+          + " Simulations using 5 different rooms. (Ratio: ca. "
+          + (int) ((double) ratioFive / (double) ratioTotal * 100.0) + "% ("
+          + ratioFive + "))", 1);
+      if (absoluteFive > campaignLengthFive * total) {
+        tmpUpdate("Warning: Simulating " + absoluteFive
+            + " campaigns for 5 rooms, but only "
+            + (campaignLengthFive * total)
+            + " variations are existing for 5 rooms.", 1);
+        tmpUpdate(
+            "Warning: Consider to reduce the ratio or number of total simulations.",
+            1);
+      }
+      tmpUpdate(absoluteSix
+          + " Simulations using 6 different rooms. (Ratio: ca. "
+          + (int) ((double) ratioSix / (double) ratioTotal * 100.0) + "% ("
+          + ratioSix + "))", 1);
+      if (absoluteSix > campaignLengthSix * total) {
+        tmpUpdate("Warning: Simulating " + absoluteSix
+            + " campaigns for 6 rooms, but only "
+            + (campaignLengthSix * total)
+            + " variations are existing for 6 rooms.", 1);
+        tmpUpdate(
+            "Warning: Consider to reduce the ratio or number of total simulations.",
+            1);
+      }
+      if (total >= 1) {
+        tmpUpdate(valueCount + " data records allow " + total
+            + " possible times for starting a simulation.", 1);
+        long x = 0;
+        long perc = 1;
+        OMCampaign campaign;
+        OMStatisticsType type = OMStatisticsType.Descriptive;
+        String statsType = "descriptive";
+        if (absoluteTotal > 1000000) {
+          if (getCompression() > 0) {
+            type = OMStatisticsType.Sketch;
+            statsType = "sketch";
+          } else {
+            type = OMStatisticsType.Summary;
+            statsType = "summary";
+          }
+        }
+        OMStatisticsAccumulator stats = new OMStatisticsAccumulator(type,
+            getCompression());
+        double[] metrics = new double[OMStatisticsAccumulator.METRICS];
+        OMSimulation simulation = new OMSimulation(building.getName(),
+            building, randomNoise,
+            stats.getDescriptiveStats(OMStatisticsAccumulator.ROOM_AM),
+            stats.getDescriptiveStats(OMStatisticsAccumulator.CELLAR_AM),
+            stats.getDescriptiveStats(OMStatisticsAccumulator.ROOM_GM),
+            stats.getDescriptiveStats(OMStatisticsAccumulator.CELLAR_GM),
+            stats.getDescriptiveStats(OMStatisticsAccumulator.ROOM_MED),
+            stats.getDescriptiveStats(OMStatisticsAccumulator.CELLAR_MED),
+            stats.getDescriptiveStats(OMStatisticsAccumulator.ROOM_MAX),
+            stats.getDescriptiveStats(OMStatisticsAccumulator.CELLAR_MAX));
+        simulation.setSeed(getRandomSource().getSeed());
+        OMSimulationStore simulationStore = new OMSimulationStore(
+            getOmsFile(), simulation);
+        String campaignPath = getOmsFile() + "_random_simulation.campaigns";
+        OMCampaignWriter campaignWriter = new OMCampaignWriter(campaignPath
+            + ".omc", building.getName(), getRandomSource().getSeed(),
+            randomNoise, absoluteTotal, getWriterQueue());
+        OMProgress progress = startProgress(absoluteTotal, 0);
+        boolean isTrace = isLogOutput()
+            && OMHelper.isLogEnabled(OMLogLevel.Trace);
+        Map<String, Integer> patterns = new HashMap<String, Integer>();
+        String strFormat = "#.#########";
+        DecimalFormat decFormat = new DecimalFormat(strFormat);
+        try {
+          if (getPrecision() > 0) {
+            OMVariationSpace[] spaces = { variationSpaceThree,
+                variationSpaceFour, variationSpaceFive, variationSpaceSix };
+            long[] absolutes = { absoluteThree, absoluteFour, absoluteFive,
+                absoluteSix };
+            x = generateAdaptiveCampaigns(spaces, absolutes, total,
+                randomNoise, stats, simulationStore, campaignWriter,
+                patterns, progress);
+            if (x > 0) {
+              perc = 100;
+            }
+          } else if (campaignLengthThree > 0) {
+            tmpUpdate("Starting " + statsType + " simulation for 3 rooms with "
+                + absoluteThree + " random variations.", (int) perc);
+            OMPermutation permutation = getRandomSource().getPermutation(3,
+                campaignLengthThree * total);
+            for (int a = 0; a < absoluteThree; a++) {
+              long sample = permutation.get(a);
+              int start = (int) (sample % total);
+              long index = sample / total;
+              campaign = new OMCampaign(start,
+                  variationSpaceThree.getPattern(index), randomNoise,
+                  getRandomSource().getStream(OMRandomSource.NOISE, 3, a));
+              addCampaign(stats, metrics, campaign);
+              if (isTrace) {
+                logTrace("Campaign: T=" + campaign.getStart() + ", R="
+                    + campaign.getVariation());
+              }
+              writeCampaign(campaignWriter, patterns, campaign, metrics);
+              simulationStore.add(campaign, 3, index, a);
+              x++;
+              progress.increment();
+            }
+            perc = (long) (((double) x / (double) absoluteTotal) * 100.0);
+            tmpUpdate("Status: " + perc
+                + "% - finished for 3 different rooms.", (int) perc);
+            if (campaignLengthFour > 0) {
+              tmpUpdate("Starting " + statsType
+                  + " simulation for 4 rooms with " + absoluteFour
+                  + " random variations.", (int) perc);
+              permutation = getRandomSource().getPermutation(4,
+                  campaignLengthFour * total);
+              for (int a = 0; a < absoluteFour; a++) {
+                long sample = permutation.get(a);
+                int start = (int) (sample % total);
+                long index = sample / total;
+                campaign = new OMCampaign(start,
+                    variationSpaceFour.getPattern(index), randomNoise,
+                    getRandomSource().getStream(OMRandomSource.NOISE, 4, a));
+                addCampaign(stats, metrics, campaign);
+                if (isTrace) {
+                  logTrace("Campaign: T=" + campaign.getStart() + ", R="
+                      + campaign.getVariation());
+                }
+                writeCampaign(campaignWriter, patterns, campaign, metrics);
+                simulationStore.add(campaign, 4, index, a);
+                x++;
+                progress.increment();
+              }
+              perc = (long) (((double) x / (double) absoluteTotal) * 100.0);
+              tmpUpdate("Status: " + perc
+                  + "% - finished for 4 different rooms.", (int) perc);
+              if (campaignLengthFive > 0) {
+                tmpUpdate("Starting " + statsType
+                    + " simulation for 5 rooms with " + absoluteFive
+                    + " random variations.", (int) perc);
+                permutation = getRandomSource().getPermutation(5,
+                    campaignLengthFive * total);
+                for (int a = 0; a < absoluteFive; a++) {
+                  long sample = permutation.get(a);
+                  int start = (int) (sample % total);
+                  long index = sample / total;
+                  campaign = new OMCampaign(start,
+                      variationSpaceFive.getPattern(index), randomNoise,
+                      getRandomSource().getStream(OMRandomSource.NOISE, 5, a));
+                  addCampaign(stats, metrics, campaign);
+                  if (isTrace) {
+                    logTrace("Campaign: T=" + campaign.getStart() + ", R="
+                        + campaign.getVariation());
+                  }
+                  writeCampaign(campaignWriter, patterns, campaign, metrics);
+                  simulationStore.add(campaign, 5, index, a);
+                  x++;
+                  progress.increment();
+                }
+                perc = (long) (((double) x / (double) absoluteTotal) * 100.0);
+                tmpUpdate("Status: " + perc
+                    + "% - finished for 5 different rooms.", (int) perc);
+                if (campaignLengthSix > 0) {
+                  tmpUpdate("Starting " + statsType
+                      + " simulation for 6 rooms with " + absoluteSix
+                      + " random variations.", (int) perc);
+                  permutation = getRandomSource().getPermutation(6,
+                      campaignLengthSix * total);
+                  for (int a = 0; a < absoluteSix; a++) {
+                    long sample = permutation.get(a);
+                    int start = (int) (sample % total);
+                    long index = sample / total;
+                    campaign = new OMCampaign(start,
+                        variationSpaceSix.getPattern(index), randomNoise,
+                        getRandomSource().getStream(OMRandomSource.NOISE, 6, a));
+                    addCampaign(stats, metrics, campaign);
+                    if (isTrace) {
+                      logTrace("Campaign: T=" + campaign.getStart() + ", R="
+                          + campaign.getVariation());
+                    }
+                    writeCampaign(campaignWriter, patterns, campaign, metrics);
+                    simulationStore.add(campaign, 6, index, a);
+                    x++;
+                    progress.increment();
+                  }
+                  perc = (long) (((double) x / (double) absoluteTotal) * 100.0);
+                  tmpUpdate("Status: " + perc
+                      + "% - finished for 6 different rooms.", (int) perc);
+                } else {
+                  tmpUpdate(
+                      "Warning: No variations for 6 different rooms available.",
+                      (int) perc);
+                }
+              } else {
+                tmpUpdate(
+                    "Warning: No variations for 5 different rooms available.",
+                    (int) perc);
+                tmpUpdate(
+                    "Warning: No variations for 6 different rooms available.",
+                    (int) perc);
+              }
+            } else {
+              tmpUpdate(
+                  "Warning: No variations for 4 different rooms available.",
+                  (int) perc);
+              tmpUpdate(
+                  "Warning: No variations for 5 different rooms available.",
+                  (int) perc);
+              tmpUpdate(
+                  "Warning: No variations for 6 different rooms available.",
+                  (int) perc);
+            }
+          } else {
+            tmpUpdate(
+                "Warning: No variations for 3 different rooms available.",
+                (int) perc);
+            tmpUpdate(
+                "Warning: No variations for 4 different rooms available.",
+                (int) perc);
+            tmpUpdate(
+                "Warning: No variations for 5 different rooms available.",
+                (int) perc);
+            tmpUpdate(
+                "Warning: No variations for 6 different rooms available.",
+                (int) perc);
+            tmpUpdate("Error: No variations generated yet, what went wrong?",
+                0);
+          }
+          stopProgress();
+          campaignWriter.close();
+          tmpUpdate("Generated " + x + " campaigns.", (int) perc);
+          exportCampaigns(campaignPath, (int) perc);
+          String csvPath = "";
+          if (getOmsFile() != null && !getOmsFile().equals("")
+              && !getOmsFile().equals(" ")) {
+            csvPath = getOmsFile();
+          } else {
+            csvPath = getOmbFile();
+          }
+          String logName = csvPath + "_random_simulation.result.csv";
+          File logFile = new File(logName);
+          FileWriter logWriter = new FileWriter(logFile);
+          BufferedWriter csvOutput = new BufferedWriter(logWriter);
+          if (type == OMStatisticsType.Descriptive) {
+            descriptiveStatistics(x,
+                stats.getDescriptiveStats(OMStatisticsAccumulator.ROOM_AM),
+                stats.getDescriptiveStats(OMStatisticsAccumulator.CELLAR_AM),
+                stats.getDescriptiveStats(OMStatisticsAccumulator.ROOM_GM),
+                stats.getDescriptiveStats(OMStatisticsAccumulator.CELLAR_GM),
+                stats.getDescriptiveStats(OMStatisticsAccumulator.ROOM_MED),
+                stats.getDescriptiveStats(OMStatisticsAccumulator.CELLAR_MED),
+                stats.getDescriptiveStats(OMStatisticsAccumulator.ROOM_MAX),
+                stats.getDescriptiveStats(OMStatisticsAccumulator.CELLAR_MAX),
+                csvOutput, decFormat);
+          } else if (type == OMStatisticsType.Sketch) {
+            sketchStatistics(x, stats, csvOutput, decFormat);
+          } else {
+            summaryStatistics(x,
+                stats.getSummaryStats(OMStatisticsAccumulator.ROOM_AM),
+                stats.getSummaryStats(OMStatisticsAccumulator.CELLAR_AM),
+                stats.getSummaryStats(OMStatisticsAccumulator.ROOM_GM),
+                stats.getSummaryStats(OMStatisticsAccumulator.CELLAR_GM),
+                stats.getSummaryStats(OMStatisticsAccumulator.ROOM_MED),
+                stats.getSummaryStats(OMStatisticsAccumulator.CELLAR_MED),
+                stats.getSummaryStats(OMStatisticsAccumulator.ROOM_MAX),
+                stats.getSummaryStats(OMStatisticsAccumulator.CELLAR_MAX),
+                csvOutput, decFormat);
+          }
+          csvOutput.close();
+          setSimulationSummary(simulationStore.seal(stats));
+          tmpUpdate("Done. Stored simulation to file '" + getOmsFile() + "'.",
+              (int) perc);
+        } finally {
+          stopProgress();
+          simulationStore.close();
+        }
+        setStatus(100);
+      } else {
+        tmpUpdate("Error: " + valueCount + " are not enough data records.", 0);
+        tmpUpdate("Make sure you have at least one week of records (> 168).",
+            0);
+        setStatus(0);
+      }
+    } else {
+      tmpUpdate("Error: Your entered ratio is: " + ratioThree + ", "
+          + ratioFour + ", " + ratioFive + ", " + ratioSix + ".", 0);
+      tmpUpdate("Error: Please, correct your input.", 0);
+      setStatus(0);
+    }
+  }
+
+  /**
+   * Method to simulate random survey campaigns adaptively. The campaigns of
+   * the different numbers of rooms are interleaved following their ratio, so
+   * the simulation can stop after any campaign. The precision of the
+   * percentiles is estimated after every batch of campaigns, each batch
+   * growing with the number of campaigns simulated so far. The simulation
+   * stops as soon as the target precision is reached by two estimates in a
+   * row or the maximum number of campaigns is simulated. The campaigns of
+   * each number of rooms are the same as the first ones of a simulation of
+   * the maximum number of campaigns.
+   * 
+   * @param spaces
+   *          The variation spaces for three, four, five and six rooms.
+   * @param absolutes
+   *          The maximum number of campaigns for three, four, five and six
+   *          rooms.
+   * @param total
+   *          The number of possible start hours.
+   * @param randomNoise
+   *          The random noise that is added to the values. The unit is [%].
+   * @param stats
+   *          The statistics of the metrics.
+   * @param simulationStore
+   *          The store of the simulation the campaigns are added to.
+   * @param campaignWriter
+   *          The writer of the campaign file.
+   * @param patterns
+   *          The dictionary indices of the variation strings written so far.
+   * @param progress
+   *          The progress of the simulation.
+   * @return The number of campaigns simulated, 0 if there are no variations.
+   * @throws IOException
+   *           If writing the campaign file fails.
+   */
+  private long generateAdaptiveCampaigns(OMVariationSpace[] spaces,
+      long[] absolutes, int total, int randomNoise,
+      OMStatisticsAccumulator stats, OMSimulationStore simulationStore,
+      OMCampaignWriter campaignWriter, Map<String, Integer> patterns,
+      OMProgress progress) throws IOException {
+    double target = getPrecision() / 100.0;
+    OMPermutation[] permutations = new OMPermutation[spaces.length];
+    long[] maxima = new long[spaces.length];
+    long maximum = 0;
+    for (int r = 0; r < spaces.length; r++) {
+      if (absolutes[r] > 0 && spaces[r].getSize() > 0) {
+        permutations[r] = getRandomSource().getPermutation(r + 3,
+            spaces[r].getSize() * total);
+        maxima[r] = absolutes[r];
+        maximum = maximum + maxima[r];
+      }
+    }
+    if (maximum == 0) {
+      for (int r = 0; r < spaces.length; r++) {
+        if (spaces[r].getSize() == 0) {
+          tmpUpdate("Warning: No variations for " + (r + 3)
+              + " different rooms available.", 0);
+        }
+      }
+      tmpUpdate("Error: No variations generated yet, what went wrong?", 0);
+      return 0;
+    }
+    tmpUpdate("Starting adaptive "
+        + stats.getType().toString().toLowerCase()
+        + " simulation with up to " + maximum
+        + " random variations and a target precision of " + getPrecision()
+        + "%.", 1);
+    boolean isTrace = isLogOutput()
+        && OMHelper.isLogEnabled(OMLogLevel.Trace);
+    DecimalFormat decFormat = new DecimalFormat("#.###");
+    long[] counts = new long[spaces.length];
+    double[] metrics = new double[OMStatisticsAccumulator.METRICS];
+    double error = Double.POSITIVE_INFINITY;
+    int[] limit = new int[2];
+    boolean isConverged = false;
+    long check = Math.min(OMConvergence.BATCH, maximum);
+    long x = 0;
+    while (x < maximum) {
+      int rooms = 0;
+      long deficit = Long.MIN_VALUE;
+      for (int r = 0; r < spaces.length; r++) {
+        long tmpDeficit = maxima[r] * (x + 1) - counts[r] * maximum;
+        if (counts[r] < maxima[r] && tmpDeficit > deficit) {
+          rooms = r;
+          deficit = tmpDeficit;
+        }
+      }
+      long a = counts[rooms];
+      counts[rooms]++;
+      long sample = permutations[rooms].get(a);
+      long index = sample / total;
+      OMCampaign campaign = new OMCampaign((int) (sample % total),
+          spaces[rooms].getPattern(index), randomNoise,
+          getRandomSource().getStream(OMRandomSource.NOISE, rooms + 3, a));
+      addCampaign(stats, metrics, campaign);
+      if (isTrace) {
+        logTrace("Campaign: T=" + campaign.getStart() + ", R="
+            + campaign.getVariation());
+      }
+      writeCampaign(campaignWriter, patterns, campaign, metrics);
+      simulationStore.add(campaign, rooms + 3, index, (int) a);
+      x++;
+      progress.increment();
+      if (x == check) {
+        error = OMConvergence.getRelativeError(stats, limit);
+        logOnly("Relative error of the percentiles after " + x
+            + " campaigns: " + decFormat.format(error * 100.0)
+            + "%, limited by " + OMConvergence.getLimitName(limit) + ".",
+            (int) ((x * 100) / maximum));
+        if (error <= target && isConverged) {
+          break;
+        }
+        isConverged = error <= target;
+        check = Math.min(x + Math.max(OMConvergence.BATCH, x / 10), maximum);
+      }
+    }
+    if (error <= target) {
+      tmpUpdate("Status: Precision of " + decFormat.format(error * 100.0)
+          + "% reached after " + x + " of " + maximum + " campaigns.", 100);
+    } else {
+      tmpUpdate("Warning: Precision of " + decFormat.format(error * 100.0)
+          + "% after all " + x + " campaigns, the target of "
+          + getPrecision() + "% was not reached, limited by "
+          + OMConvergence.getLimitName(limit) + ".", 100);
+    }
+    return x;
+  }
+
+  /**
+   * Method used to calculate descriptive statistics which are stored in
+   * memory. Writes results of the calculations to a separate CSV file. Only
+   * use this for small simulations as this can cause memory exceptions.
+   * 
+   * @param x
+   *          The total number of simulations.
+   * @param roomAmDescriptiveStats
+   *          Statistics for room arithmetic means.
+   * @param cellarAmDescriptiveStats
+   *          Statistics for cellar arithmetic means.
+   * @param roomGmDescriptiveStats
+   *          Statistics for room geometric means.
+   * @param cellarGmDescriptiveStats
+   *          Statistics for cellar geometric means.
+   * @param roomMedDescriptiveStats
+   *          Statistics for room medians.
+   * @param cellarMedDescriptiveStats
+   *          Statistics for cellar medians.
+   * @param roomMaxDescriptiveStats
+   *          Statistics for room maximum.
+   * @param cellarMaxDescriptiveStats
+   *          Statistics for cellar maximum.
+   * @param csvOutput
+   *          A a file buffer writer used to write the results to CSV.
+   * @param decFormat
+   *          The format used to store the results with comma or dot used as
+   *          decimal separator.
+   * @throws IOException
+   *           If creating log file or writing logs fails.
+   */
+  private void descriptiveStatistics(long x,
+      DescriptiveStatistics roomAmDescriptiveStats,
+      DescriptiveStatistics cellarAmDescriptiveStats,
+      DescriptiveStatistics roomGmDescriptiveStats,
+      DescriptiveStatistics cellarGmDescriptiveStats,
+      DescriptiveStatistics roomMedDescriptiveStats,
+      DescriptiveStatistics cellarMedDescriptiveStats,
+      DescriptiveStatistics roomMaxDescriptiveStats,
+      DescriptiveStatistics cellarMaxDescriptiveStats,
+      BufferedWriter csvOutput, DecimalFormat decFormat) throws IOException {
+    double roomArithMeans_AM = roomAmDescriptiveStats.getMean();
+    double roomArithMeans_SD = roomAmDescriptiveStats.getStandardDeviation();
+    double roomArithMeans_CV = OMHelper.calculateCV(roomArithMeans_AM,
+        roomArithMeans_SD);
+    double roomArithMeans_Q05 = roomAmDescriptiveStats.getPercentile(5);
+    double roomArithMeans_Q50 = roomAmDescriptiveStats.getPercentile(50);
+    double roomArithMeans_Q95 = roomAmDescriptiveStats.getPercentile(95);
+    double roomArithMeans_QD = OMHelper.calculateQD(roomArithMeans_Q05,
+        roomArithMeans_Q95);
+    double roomArithMeans_RQD = OMHelper.calculateRQD(roomArithMeans_Q05,
+        roomArithMeans_Q50, roomArithMeans_Q95);
+    double roomArithMeans_GM = roomAmDescriptiveStats.getGeometricMean();
+    double roomArithMeans_GSD = OMHelper.calculateGSD(
+        roomAmDescriptiveStats.getValues(), roomArithMeans_GM);
+    double cellarArithMeans_AM = cellarAmDescriptiveStats.getMean();
+    double cellarArithMeans_SD = cellarAmDescriptiveStats
+        .getStandardDeviation();
+    double cellarArithMeans_CV = OMHelper.calculateCV(cellarArithMeans_AM,
+        cellarArithMeans_SD);
+    double cellarArithMeans_Q05 = cellarAmDescriptiveStats.getPercentile(5);
+    double cellarArithMeans_Q50 = cellarAmDescriptiveStats.getPercentile(50);
+    double cellarArithMeans_Q95 = cellarAmDescriptiveStats.getPercentile(95);
+    double cellarArithMeans_QD = OMHelper.calculateQD(cellarArithMeans_Q05,
+        cellarArithMeans_Q95);
+    double cellarArithMeans_RQD = OMHelper.calculateRQD(cellarArithMeans_Q05,
+        cellarArithMeans_Q50, cellarArithMeans_Q95);
+    double cellarArithMeans_GM = cellarAmDescriptiveStats.getGeometricMean();
+    double cellarArithMeans_GSD = OMHelper.calculateGSD(
+        cellarAmDescriptiveStats.getValues(), cellarArithMeans_GM);
+    double roomLogMeans_AM = roomGmDescriptiveStats.getMean();
+    double roomLogMeans_SD = roomGmDescriptiveStats.getStandardDeviation();
+    double roomLogMeans_CV = OMHelper.calculateCV(roomLogMeans_AM,
+        roomLogMeans_SD);
+    double roomLogMeans_Q05 = roomGmDescriptiveStats.getPercentile(5);
+    double roomLogMeans_Q50 = roomGmDescriptiveStats.getPercentile(50);
+    double roomLogMeans_Q95 = roomGmDescriptiveStats.getPercentile(95);
+    double roomLogMeans_QD = OMHelper.calculateQD(roomLogMeans_Q05,
+        roomLogMeans_Q95);
+    double roomLogMeans_RQD = OMHelper.calculateRQD(roomLogMeans_Q05,
+        roomLogMeans_Q50, roomLogMeans_Q95);
+    double roomLogMeans_GM = roomGmDescriptiveStats.getGeometricMean();
+    double roomLogMeans_GSD = OMHelper.calculateGSD(
+        roomGmDescriptiveStats.getValues(), roomLogMeans_GM);
+    double cellarLogMeans_AM = cellarGmDescriptiveStats.getMean();
+    double cellarLogMeans_SD = cellarGmDescriptiveStats
+        .getStandardDeviation();
+    double cellarLogMeans_CV = OMHelper.calculateCV(cellarLogMeans_AM,
+        cellarLogMeans_SD);
+    double cellarLogMeans_Q05 = cellarGmDescriptiveStats.getPercentile(5);
+    double cellarLogMeans_Q50 = cellarGmDescriptiveStats.getPercentile(50);
+    double cellarLogMeans_Q95 = cellarGmDescriptiveStats.getPercentile(95);
+    double cellarLogMeans_QD = OMHelper.calculateQD(cellarLogMeans_Q05,
+        cellarLogMeans_Q95);
+    double cellarLogMeans_RQD = OMHelper.calculateRQD(cellarLogMeans_Q05,
+        cellarLogMeans_Q50, cellarLogMeans_Q95);
+    double cellarLogMeans_GM = cellarGmDescriptiveStats.getGeometricMean();
+    double cellarLogMeans_GSD = OMHelper.calculateGSD(
+        cellarGmDescriptiveStats.getValues(), cellarLogMeans_GM);
+    double roomMedians_AM = roomMedDescriptiveStats.getMean();
+    double roomMedians_SD = roomMedDescriptiveStats.getStandardDeviation();
+    double roomMedians_CV = OMHelper.calculateCV(roomMedians_AM,
+        roomMedians_SD);
+    double roomMedians_Q05 = roomMedDescriptiveStats.getPercentile(5);
+    double roomMedians_Q50 = roomMedDescriptiveStats.getPercentile(50);
+    double roomMedians_Q95 = roomMedDescriptiveStats.getPercentile(95);
+    double roomMedians_QD = OMHelper.calculateQD(roomMedians_Q05,
+        roomMedians_Q95);
+    double roomMedians_RQD = OMHelper.calculateRQD(roomMedians_Q05,
+        roomMedians_Q50, roomMedians_Q95);
+    double roomMedians_GM = roomMedDescriptiveStats.getGeometricMean();
+    double roomMedians_GSD = OMHelper.calculateGSD(
+        roomMedDescriptiveStats.getValues(), roomMedians_GM);
+    double cellarMedians_AM = cellarMedDescriptiveStats.getMean();
+    double cellarMedians_SD = cellarMedDescriptiveStats
+        .getStandardDeviation();
+    double cellarMedians_CV = OMHelper.calculateCV(cellarMedians_AM,
+        cellarMedians_SD);
+    double cellarMedians_Q05 = cellarMedDescriptiveStats.getPercentile(5);
+    double cellarMedians_Q50 = cellarMedDescriptiveStats.getPercentile(50);
+    double cellarMedians_Q95 = cellarMedDescriptiveStats.getPercentile(95);
+    double cellarMedians_QD = OMHelper.calculateQD(cellarMedians_Q05,
+        cellarMedians_Q95);
+    double cellarMedians_RQD = OMHelper.calculateRQD(cellarMedians_Q05,
+        cellarMedians_Q50, cellarMedians_Q95);
+    double cellarMedians_GM = cellarMedDescriptiveStats.getGeometricMean();
+    double cellarMedians_GSD = OMHelper.calculateGSD(
+        cellarMedDescriptiveStats.getValues(), cellarMedians_GM);
+    double roomMaxima_AM = roomMaxDescriptiveStats.getMean();
+    double roomMaxima_SD = roomMaxDescriptiveStats.getStandardDeviation();
+    double roomMaxima_CV = OMHelper.calculateCV(roomMaxima_AM, roomMaxima_SD);
+    double roomMaxima_Q05 = roomMaxDescriptiveStats.getPercentile(5);
+    double roomMaxima_Q50 = roomMaxDescriptiveStats.getPercentile(50);
+    double roomMaxima_Q95 = roomMaxDescriptiveStats.getPercentile(95);
+    double roomMaxima_QD = OMHelper.calculateQD(roomMaxima_Q05,
+        roomMaxima_Q95);
+    double roomMaxima_RQD = OMHelper.calculateRQD(roomMaxima_Q05,
+        roomMaxima_Q50, roomMaxima_Q95);
+    double roomMaxima_GM = roomMaxDescriptiveStats.getGeometricMean();
+    double roomMaxima_GSD = OMHelper.calculateGSD(
+        roomMaxDescriptiveStats.getValues(), roomMaxima_GM);
+    double cellarMaxima_AM = cellarMaxDescriptiveStats.getMean();
+    double cellarMaxima_SD = cellarMaxDescriptiveStats.getStandardDeviation();
+    double cellarMaxima_CV = OMHelper.calculateCV(cellarMaxima_AM,
+        cellarMaxima_SD);
+    double cellarMaxima_Q05 = cellarMaxDescriptiveStats.getPercentile(5);
+    double cellarMaxima_Q50 = cellarMaxDescriptiveStats.getPercentile(50);
+    double cellarMaxima_Q95 = cellarMaxDescriptiveStats.getPercentile(95);
+    double cellarMaxima_QD = OMHelper.calculateQD(cellarMaxima_Q05,
+        cellarMaxima_Q95);
+    double cellarMaxima_RQD = OMHelper.calculateRQD(cellarMaxima_Q05,
+        cellarMaxima_Q50, cellarMaxima_Q95);
+    double cellarMaxima_GM = cellarMaxDescriptiveStats.getGeometricMean();
+    double cellarMaxima_GSD = OMHelper.calculateGSD(
+        cellarMaxDescriptiveStats.getValues(), cellarMaxima_GM);
+    tmpUpdate("Calculated statistics for room arithmetic means:", 99);
+    logOnly("AM=" + roomArithMeans_AM + ", SD=" + roomArithMeans_SD + ", CV="
+        + roomArithMeans_CV + ", GM=" + roomArithMeans_GM + ", GSD="
+        + roomArithMeans_GSD + ", Q5=" + roomArithMeans_Q05 + ", Q50="
+        + roomArithMeans_Q50 + ", Q95=" + roomArithMeans_Q95 + ", QD="
+        + roomArithMeans_QD + ", RQD=" + roomArithMeans_RQD, 99);
+    tmpUpdate("Calculated statistics for cellar arithmetic means:", 99);
+    logOnly("AM=" + cellarArithMeans_AM + ", SD=" + cellarArithMeans_SD
+        + ", CV=" + cellarArithMeans_CV + ", GM=" + cellarArithMeans_GM
+        + ", GSD=" + cellarArithMeans_GSD + ", Q5=" + cellarArithMeans_Q05
+        + ", Q50=" + cellarArithMeans_Q50 + ", Q95=" + cellarArithMeans_Q95
+        + ", QD=" + cellarArithMeans_QD + ", RQD=" + cellarArithMeans_RQD, 99);
+    tmpUpdate("Calculated statistics for room geometric means:", 99);
+    logOnly("AM=" + roomLogMeans_AM + ", SD=" + roomLogMeans_SD + ", CV="
+        + roomLogMeans_CV + ", GM=" + roomLogMeans_GM + ", GSD="
+        + roomLogMeans_GSD + ", Q5=" + roomLogMeans_Q05 + ", Q50="
+        + roomLogMeans_Q50 + ", Q95=" + roomLogMeans_Q95 + ", QD="
+        + roomLogMeans_QD + ", RQD=" + roomLogMeans_RQD, 99);
+    tmpUpdate("Calculated statistics for cellar geometric means:", 99);
+    logOnly("AM=" + cellarLogMeans_AM + ", SD=" + cellarLogMeans_SD + ", CV="
+        + cellarLogMeans_CV + ", GM=" + cellarLogMeans_GM + ", GSD="
+        + cellarLogMeans_GSD + ", Q5=" + cellarLogMeans_Q05 + ", Q50="
+        + cellarLogMeans_Q50 + ", Q95=" + cellarLogMeans_Q95 + ", QD="
+        + cellarLogMeans_QD + ", RQD=" + cellarLogMeans_RQD, 99);
+    tmpUpdate("Calculated statistics for room medians:", 99);
+    logOnly("AM=" + roomMedians_AM + ", SD=" + roomMedians_SD + ", CV="
+        + roomMedians_CV + ", GM=" + roomMedians_GM + ", GSD="
+        + roomMedians_GSD + ", Q5=" + roomMedians_Q05 + ", Q50="
+        + roomMedians_Q50 + ", Q95=" + roomMedians_Q95 + ", QD="
+        + roomMedians_QD + ", RQD=" + roomMedians_RQD, 99);
+    tmpUpdate("Calculated statistics for cellar medians:", 99);
+    logOnly("AM=" + cellarMedians_AM + ", SD=" + cellarMedians_SD + ", CV="
+        + cellarMedians_CV + ", GM=" + cellarMedians_GM + ", GSD="
+        + cellarMedians_GSD + ", Q5=" + cellarMedians_Q05 + ", Q50="
+        + cellarMedians_Q50 + ", Q95=" + cellarMedians_Q95 + ", QD="
+        + cellarMedians_QD + ", RQD=" + cellarMedians_RQD, 99);
+    tmpUpdate("Calculated statistics for room maxima:", 99);
+    logOnly("AM=" + roomMaxima_AM + ", SD=" + roomMaxima_SD + ", CV="
+        + roomMaxima_CV + ", GM=" + roomMaxima_GM + ", GSD=" + roomMaxima_GSD
+        + ", Q5=" + roomMaxima_Q05 + ", Q50=" + roomMaxima_Q50 + ", Q95="
+        + roomMaxima_Q95 + ", QD=" + roomMaxima_QD + ", RQD="
+        + roomMaxima_RQD, 99);
+    tmpUpdate("Calculated statistics for cellar maxima:", 99);
+    logOnly("AM=" + cellarMaxima_AM + ", SD=" + cellarMaxima_SD + ", CV="
+        + cellarMaxima_CV + ", GM=" + cellarMaxima_GM + ", GSD="
+        + cellarMaxima_GSD + ", Q5=" + cellarMaxima_Q05 + ", Q50="
+        + cellarMaxima_Q50 + ", Q95=" + cellarMaxima_Q95 + ", QD="
+        + cellarMaxima_QD + ", RQD=" + cellarMaxima_RQD, 99);
+    csvOutput.write("\"ID\";\"AM\";\"SD\";\"CV\";\"GM\";\"GSD\";"
+        + "\"Q5\";\"Q50\";\"Q95\";\"QD\";\"RQD\"");
+    csvOutput.newLine();
+    csvOutput.write("\"R_AM\";\"" + decFormat.format(roomArithMeans_AM)
+        + "\";\"" + decFormat.format(roomArithMeans_SD) + "\";\""
+        + decFormat.format(roomArithMeans_CV) + "\";\""
+        + decFormat.format(roomArithMeans_GM) + "\";\""
+        + decFormat.format(roomArithMeans_GSD) + "\";\""
+        + decFormat.format(roomArithMeans_Q05) + "\";\""
+        + decFormat.format(roomArithMeans_Q50) + "\";\""
+        + decFormat.format(roomArithMeans_Q95) + "\";\""
+        + decFormat.format(roomArithMeans_QD) + "\";\""
+        + decFormat.format(roomArithMeans_RQD) + "\"");
+    csvOutput.newLine();
+    csvOutput.write("\"R_GM\";\"" + decFormat.format(roomLogMeans_AM)
+        + "\";\"" + decFormat.format(roomLogMeans_SD) + "\";\""
+        + decFormat.format(roomLogMeans_CV) + "\";\""
+        + decFormat.format(roomLogMeans_GM) + "\";\""
+        + decFormat.format(roomLogMeans_GSD) + "\";\""
+        + decFormat.format(roomLogMeans_Q05) + "\";\""
+        + decFormat.format(roomLogMeans_Q50) + "\";\""
+        + decFormat.format(roomLogMeans_Q95) + "\";\""
+        + decFormat.format(roomLogMeans_QD) + "\";\""
+        + decFormat.format(roomLogMeans_RQD) + "\"");
+    csvOutput.newLine();
+    csvOutput.write("\"R_Q50\";\"" + decFormat.format(roomMedians_AM)
+        + "\";\"" + decFormat.format(roomMedians_SD) + "\";\""
+        + decFormat.format(roomMedians_CV) + "\";\""
+        + decFormat.format(roomMedians_GM) + "\";\""
+        + decFormat.format(roomMedians_GSD) + "\";\""
+        + decFormat.format(roomMedians_Q05) + "\";\""
+        + decFormat.format(roomMedians_Q50) + "\";\""
+        + decFormat.format(roomMedians_Q95) + "\";\""
+        + decFormat.format(roomMedians_QD) + "\";\""
+        + decFormat.format(roomMedians_RQD) + "\"");
+    csvOutput.newLine();
+    csvOutput.write("\"R_MAX\";\"" + decFormat.format(roomMaxima_AM)
+        + "\";\"" + decFormat.format(roomMaxima_SD) + "\";\""
+        + decFormat.format(roomMaxima_CV) + "\";\""
+        + decFormat.format(roomMaxima_GM) + "\";\""
+        + decFormat.format(roomMaxima_GSD) + "\";\""
+        + decFormat.format(roomMaxima_Q05) + "\";\""
+        + decFormat.format(roomMaxima_Q50) + "\";\""
+        + decFormat.format(roomMaxima_Q95) + "\";\""
+        + decFormat.format(roomMaxima_QD) + "\";\""
+        + decFormat.format(roomMaxima_RQD) + "\"");
+    csvOutput.newLine();
+    csvOutput.write("\"C_AM\";\"" + decFormat.format(cellarArithMeans_AM)
+        + "\";\"" + decFormat.format(cellarArithMeans_SD) + "\";\""
+        + decFormat.format(cellarArithMeans_CV) + "\";\""
+        + decFormat.format(cellarArithMeans_GM) + "\";\""
+        + decFormat.format(cellarArithMeans_GSD) + "\";\""
+        + decFormat.format(cellarArithMeans_Q05) + "\";\""
+        + decFormat.format(cellarArithMeans_Q50) + "\";\""
+        + decFormat.format(cellarArithMeans_Q95) + "\";\""
+        + decFormat.format(cellarArithMeans_QD) + "\";\""
+        + decFormat.format(cellarArithMeans_RQD) + "\"");
+    csvOutput.newLine();
+    csvOutput.write("\"C_GM\";\"" + decFormat.format(cellarLogMeans_AM)
+        + "\";\"" + decFormat.format(cellarLogMeans_SD) + "\";\""
+        + decFormat.format(cellarLogMeans_CV) + "\";\""
+        + decFormat.format(cellarLogMeans_GM) + "\";\""
+        + decFormat.format(cellarLogMeans_GSD) + "\";\""
+        + decFormat.format(cellarLogMeans_Q05) + "\";\""
+        + decFormat.format(cellarLogMeans_Q50) + "\";\""
+        + decFormat.format(cellarLogMeans_Q95) + "\";\""
+        + decFormat.format(cellarLogMeans_QD) + "\";\""
+        + decFormat.format(cellarLogMeans_RQD) + "\"");
+    csvOutput.newLine();
+    csvOutput.write("\"C_Q50\";\"" + decFormat.format(cellarMedians_AM)
+        + "\";\"" + decFormat.format(cellarMedians_SD) + "\";\""
+        + decFormat.format(cellarMedians_CV) + "\";\""
+        + decFormat.format(cellarMedians_GM) + "\";\""
+        + decFormat.format(cellarMedians_GSD) + "\";\""
+        + decFormat.format(cellarMedians_Q05) + "\";\""
+        + decFormat.format(cellarMedians_Q50) + "\";\""
+        + decFormat.format(cellarMedians_Q95) + "\";\""
+        + decFormat.format(cellarMedians_QD) + "\";\""
+        + decFormat.format(cellarMedians_RQD) + "\"");
+    csvOutput.newLine();
+    csvOutput.write("\"C_MAX\";\"" + decFormat.format(cellarMaxima_AM)
+        + "\";\"" + decFormat.format(cellarMaxima_SD) + "\";\""
+        + decFormat.format(cellarMaxima_CV) + "\";\""
+        + decFormat.format(cellarMaxima_GM) + "\";\""
+        + decFormat.format(cellarMaxima_GSD) + "\";\""
+        + decFormat.format(cellarMaxima_Q05) + "\";\""
+        + decFormat.format(cellarMaxima_Q50) + "\";\""
+        + decFormat.format(cellarMaxima_Q95) + "\";\""
+        + decFormat.format(cellarMaxima_QD) + "\";\""
+        + decFormat.format(cellarMaxima_RQD) + "\"");
+    csvOutput.newLine();
+    csvOutput
+        .write("\" \";\" \";\" \";\" \";\" \";\" \";\" \";\" \";\" \";\" \";\" \"");
+    csvOutput.newLine();
+    csvOutput.write("\"N\";\"" + x
+        + "\";\" \";\" \";\" \";\" \";\" \";\" \";\" \";\" \";\" \"");
+  }
+
+  /**
+   * Method used to calculate summary statistics which are not stored in
+   * memory. Writes results of the calculations to a separate CSV file.
+   * 
+   * @param roomAmSummaryStats
+   *          Statistics for room arithmetic means.
+   * @param cellarAmSummaryStats
+   *          Statistics for cellar arithmetic means.
+   * @param roomGmSummaryStats
+   *          Statistics for room geometric means.
+   * @param cellarGmSummaryStats
+   *          Statistics for cellar geometric means.
+   * @param roomMedSummaryStats
+   *          Statistics for room medians.
+   * @param cellarMedSummaryStats
+   *          Statistics for cellar medians.
+   * @param roomMaxSummaryStats
+   *          Statistics for room maximum.
+   * @param cellarMaxSummaryStats
+   *          Statistics for cellar maximum.
+   * @param csvOutput
+   *          A a file buffer writer used to write the results to CSV.
+   * @param decFormat
+   *          The format used to store the results with comma or dot used as
+   *          decimal separator.
+   * @throws IOException
+   *           If creating log file or writing logs fails.
+   */
+  private void summaryStatistics(long x,
+      OMSummaryStatistics roomAmSummaryStats,
+      OMSummaryStatistics cellarAmSummaryStats,
+      OMSummaryStatistics roomGmSummaryStats,
+      OMSummaryStatistics cellarGmSummaryStats,
+      OMSummaryStatistics roomMedSummaryStats,
+      OMSummaryStatistics cellarMedSummaryStats,
+      OMSummaryStatistics roomMaxSummaryStats,
+      OMSummaryStatistics cellarMaxSummaryStats, BufferedWriter csvOutput,
+      DecimalFormat decFormat) throws IOException {
+    double roomArithMeans_AM = roomAmSummaryStats.getMean();
+    double roomArithMeans_SD = roomAmSummaryStats.getStandardDeviation();
+    double roomArithMeans_CV = OMHelper.calculateCV(roomArithMeans_AM,
+        roomArithMeans_SD);
+    double roomArithMeans_GM = roomAmSummaryStats.getGeometricMean();
+    double cellarArithMeans_AM = cellarAmSummaryStats.getMean();
+    double cellarArithMeans_SD = cellarAmSummaryStats.getStandardDeviation();
+    double cellarArithMeans_CV = OMHelper.calculateCV(cellarArithMeans_AM,
+        cellarArithMeans_SD);
+    double cellarArithMeans_GM = cellarAmSummaryStats.getGeometricMean();
+    double roomLogMeans_AM = roomGmSummaryStats.getMean();
+    double roomLogMeans_SD = roomGmSummaryStats.getStandardDeviation();
+    double roomLogMeans_CV = OMHelper.calculateCV(roomLogMeans_AM,
+        roomLogMeans_SD);
+    double roomLogMeans_GM = roomGmSummaryStats.getGeometricMean();
+    double cellarLogMeans_AM = cellarGmSummaryStats.getMean();
+    double cellarLogMeans_SD = cellarGmSummaryStats.getStandardDeviation();
+    double cellarLogMeans_CV = OMHelper.calculateCV(cellarLogMeans_AM,
+        cellarLogMeans_SD);
+    double cellarLogMeans_GM = cellarGmSummaryStats.getGeometricMean();
+    double roomMedians_AM = roomMedSummaryStats.getMean();
+    double roomMedians_SD = roomMedSummaryStats.getStandardDeviation();
+    double roomMedians_CV = OMHelper.calculateCV(roomMedians_AM,
+        roomMedians_SD);
+    double roomMedians_GM = roomMedSummaryStats.getGeometricMean();
+    double cellarMedians_AM = cellarMedSummaryStats.getMean();
+    double cellarMedians_SD = cellarMedSummaryStats.getStandardDeviation();
+    double cellarMedians_CV = OMHelper.calculateCV(cellarMedians_AM,
+        cellarMedians_SD);
+    double cellarMedians_GM = cellarMedSummaryStats.getGeometricMean();
+    double roomMaxima_AM = roomMaxSummaryStats.getMean();
+    double roomMaxima_SD = roomMaxSummaryStats.getStandardDeviation();
+    double roomMaxima_CV = OMHelper.calculateCV(roomMaxima_AM, roomMaxima_SD);
+    double roomMaxima_GM = roomMaxSummaryStats.getGeometricMean();
+    double cellarMaxima_AM = cellarMaxSummaryStats.getMean();
+    double cellarMaxima_SD = cellarMaxSummaryStats.getStandardDeviation();
+    double cellarMaxima_CV = OMHelper.calculateCV(cellarMaxima_AM,
+        cellarMaxima_SD);
+    double cellarMaxima_GM = cellarMaxSummaryStats.getGeometricMean();
+    tmpUpdate("Calculated statistics for room arithmetic means:", 99);
+    logOnly("AM=" + roomArithMeans_AM + ", SD=" + roomArithMeans_SD + ", CV="
+        + roomArithMeans_CV + ", GM=" + roomArithMeans_GM, 99);
+    tmpUpdate("Calculated statistics for cellar arithmetic means:", 99);
+    logOnly("AM=" + cellarArithMeans_AM + ", SD=" + cellarArithMeans_SD
+        + ", CV=" + cellarArithMeans_CV + ", GM=" + cellarArithMeans_GM, 99);
+    tmpUpdate("Calculated statistics for room geometric means:", 99);
+    logOnly("AM=" + roomLogMeans_AM + ", SD=" + roomLogMeans_SD + ", CV="
+        + roomLogMeans_CV + ", GM=" + roomLogMeans_GM, 99);
+    tmpUpdate("Calculated statistics for cellar geometric means:", 99);
+    logOnly("AM=" + cellarLogMeans_AM + ", SD=" + cellarLogMeans_SD + ", CV="
+        + cellarLogMeans_CV + ", GM=" + cellarLogMeans_GM, 99);
+    tmpUpdate("Calculated statistics for room medians:", 99);
+    logOnly("AM=" + roomMedians_AM + ", SD=" + roomMedians_SD + ", CV="
+        + roomMedians_CV + ", GM=" + roomMedians_GM, 99);
+    tmpUpdate("Calculated statistics for cellar medians:", 99);
+    logOnly("AM=" + cellarMedians_AM + ", SD=" + cellarMedians_SD + ", CV="
+        + cellarMedians_CV + ", GM=" + cellarMedians_GM, 99);
+    tmpUpdate("Calculated statistics for room maxima:", 99);
+    logOnly("AM=" + roomMaxima_AM + ", SD=" + roomMaxima_SD + ", CV="
+        + roomMaxima_CV + ", GM=" + roomMaxima_GM, 99);
+    tmpUpdate("Calculated statistics for cellar maxima:", 99);
+    logOnly("AM=" + cellarMaxima_AM + ", SD=" + cellarMaxima_SD + ", CV="
+        + cellarMaxima_CV + ", GM=" + cellarMaxima_GM, 99);
+    csvOutput.write("\"ID\";\"AM\";\"SD\";\"CV\";\"GM\"");
+    csvOutput.newLine();
+    csvOutput.write("\"R_AM\";\"" + decFormat.format(roomArithMeans_AM)
+        + "\";\"" + decFormat.format(roomArithMeans_SD) + "\";\""
+        + decFormat.format(roomArithMeans_CV) + "\";\""
+        + decFormat.format(roomArithMeans_GM) + "\"");
+    csvOutput.newLine();
+    csvOutput.write("\"R_GM\";\"" + decFormat.format(roomLogMeans_AM)
+        + "\";\"" + decFormat.format(roomLogMeans_SD) + "\";\""
+        + decFormat.format(roomLogMeans_CV) + "\";\""
+        + decFormat.format(roomLogMeans_GM) + "\"");
+    csvOutput.newLine();
+    csvOutput.write("\"R_Q50\";\"" + decFormat.format(roomMedians_AM)
+        + "\";\"" + decFormat.format(roomMedians_SD) + "\";\""
+        + decFormat.format(roomMedians_CV) + "\";\""
+        + decFormat.format(roomMedians_GM) + "\"");
+    csvOutput.newLine();
+    csvOutput.write("\"R_MAX\";\"" + decFormat.format(roomMaxima_AM)
+        + "\";\"" + decFormat.format(roomMaxima_SD) + "\";\""
+        + decFormat.format(roomMaxima_CV) + "\";\""
+        + decFormat.format(roomMaxima_GM) + "\"");
+    csvOutput.newLine();
+    csvOutput.write("\"C_AM\";\"" + decFormat.format(cellarArithMeans_AM)
+        + "\";\"" + decFormat.format(cellarArithMeans_SD) + "\";\""
+        + decFormat.format(cellarArithMeans_CV) + "\";\""
+        + decFormat.format(cellarArithMeans_GM) + "\"");
+    csvOutput.newLine();
+    csvOutput.write("\"C_GM\";\"" + decFormat.format(cellarLogMeans_AM)
+        + "\";\"" + decFormat.format(cellarLogMeans_SD) + "\";\""
+        + decFormat.format(cellarLogMeans_CV) + "\";\""
+        + decFormat.format(cellarLogMeans_GM) + "\"");
+    csvOutput.newLine();
+    csvOutput.write("\"C_Q50\";\"" + decFormat.format(cellarMedians_AM)
+        + "\";\"" + decFormat.format(cellarMedians_SD) + "\";\""
+        + decFormat.format(cellarMedians_CV) + "\";\""
+        + decFormat.format(cellarMedians_GM) + "\"");
+    csvOutput.newLine();
+    csvOutput.write("\"C_MAX\";\"" + decFormat.format(cellarMaxima_AM)
+        + "\";\"" + decFormat.format(cellarMaxima_SD) + "\";\""
+        + decFormat.format(cellarMaxima_CV) + "\";\""
+        + decFormat.format(cellarMaxima_GM) + "\"");
+    csvOutput.newLine();
+    csvOutput.write("\" \";\" \";\" \";\" \";\" \"");
+    csvOutput.newLine();
+    csvOutput.write("\"N\";\"" + x + "\";\" \";\" \";\" \"");
+  }
+
+  /**
+   * Method used to calculate statistics using summary statistics and quantile
+   * sketches which are not stored in memory. Writes results of the
+   * calculations to a separate CSV file in the same format as the descriptive
+   * statistics, the percentiles are estimated by the sketches.
+   * 
+   * @param x
+   *          The total number of simulations.
+   * @param stats
+   *          The accumulator containing the summary statistics and quantile
+   *          sketches for all metrics.
+   * @param csvOutput
+   *          A a file buffer writer used to write the results to CSV.
+   * @param decFormat
+   *          The format used to store the results with comma or dot used as
+   *          decimal separator.
+   * @throws IOException
+   *           If creating log file or writing logs fails.
+   */
+  private void sketchStatistics(long x, OMStatisticsAccumulator stats,
+      BufferedWriter csvOutput, DecimalFormat decFormat) throws IOException {
+    String[] ids = { "R_AM", "R_GM", "R_Q50", "R_MAX", "C_AM", "C_GM",
+        "C_Q50", "C_MAX" };
+    String[] names = { "room arithmetic means", "room geometric means",
+        "room medians", "room maxima", "cellar arithmetic means",
+        "cellar geometric means", "cellar medians", "cellar maxima" };
+    int[] logOrder = { OMStatisticsAccumulator.ROOM_AM,
+        OMStatisticsAccumulator.CELLAR_AM, OMStatisticsAccumulator.ROOM_GM,
+        OMStatisticsAccumulator.CELLAR_GM, OMStatisticsAccumulator.ROOM_MED,
+        OMStatisticsAccumulator.CELLAR_MED, OMStatisticsAccumulator.ROOM_MAX,
+        OMStatisticsAccumulator.CELLAR_MAX };
+    double[][] results = new double[OMStatisticsAccumulator.METRICS][];
+    for (int i = 0; i < OMStatisticsAccumulator.METRICS; i++) {
+      OMSummaryStatistics summaryStats = stats.getSummaryStats(i);
+      OMQuantileSketch sketch = stats.getSketch(i);
+      double am = summaryStats.getMean();
+      double sd = summaryStats.getStandardDeviation();
+      double cv = OMHelper.calculateCV(am, sd);
+      double gm = summaryStats.getGeometricMean();
+      double gsd = stats.getGeometricStandardDeviation(i);
+      double q05 = sketch.getPercentile(5);
+      double q50 = sketch.getPercentile(50);
+      double q95 = sketch.getPercentile(95);
+      double qd = OMHelper.calculateQD(q05, q95);
+      double rqd = OMHelper.calculateRQD(q05, q50, q95);
+      double[] result = { am, sd, cv, gm, gsd, q05, q50, q95, qd, rqd };
+      results[i] = result;
+    }
+    for (int i = 0; i < logOrder.length; i++) {
+      double[] r = results[logOrder[i]];
+      tmpUpdate("Calculated statistics for " + names[logOrder[i]] + ":", 99);
+      logOnly("AM=" + r[0] + ", SD=" + r[1] + ", CV=" + r[2] + ", GM=" + r[3]
+          + ", GSD=" + r[4] + ", Q5=" + r[5] + ", Q50=" + r[6] + ", Q95="
+          + r[7] + ", QD=" + r[8] + ", RQD=" + r[9], 99);
+    }
+    logOnly("Percentiles estimated by quantile sketches with a compression of "
+        + stats.getSketch(0).getCompression() + ".", 99);
+    csvOutput.write("\"ID\";\"AM\";\"SD\";\"CV\";\"GM\";\"GSD\";"
+        + "\"Q5\";\"Q50\";\"Q95\";\"QD\";\"RQD\"");
+    csvOutput.newLine();
+    for (int i = 0; i < OMStatisticsAccumulator.METRICS; i++) {
+      String line = "\"" + ids[i] + "\"";
+      for (int j = 0; j < results[i].length; j++) {
+        line = line + ";\"" + decFormat.format(results[i][j]) + "\"";
+      }
+      csvOutput.write(line);
+      csvOutput.newLine();
+    }
+    csvOutput
+        .write("\" \";\" \";\" \";\" \";\" \";\" \";\" \";\" \";\" \";\" \";\" \"");
+    csvOutput.newLine();
+    csvOutput.write("\"N\";\"" + x
+        + "\";\" \";\" \";\" \";\" \";\" \";\" \";\" \";\" \";\" \"");
+  }
+}
@@ -0,0 +1,230 @@
+/*
+ * OM Simulation Tool: This tool intends to test and evaluate the scientific
+ * robustness of the protocol `6+1`. Therefore, it generates a huge amount of
+ * virtual measurement campaigns based on real radon concentration data
+ * following the mentioned protocol. <http://github.com/donschoe/omsimulation>
+ * 
+ * Copyright (C) 2012 Alexander Schoedon <a.schoedon@student.htw-berlin.de>
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package de.bfs.radon.omsimulation.engine;
+
+import java.io.IOException;
+
+import com.db4o.ObjectContainer;
+import com.db4o.ObjectSet;
+import com.db4o.ext.DatabaseFileLockedException;
+import com.db4o.query.Query;
+
+import org.apache.commons.math.stat.descriptive.StatisticalSummary;
+
+import de.bfs.radon.omsimulation.data.OMCampaign;
+import de.bfs.radon.omsimulation.data.OMDistribution;
+import de.bfs.radon.omsimulation.data.OMRepository;
+import de.bfs.radon.omsimulation.data.OMSimulation;
+import de.bfs.radon.omsimulation.data.OMSimulationChunk;
+import de.bfs.radon.omsimulation.data.OMSimulationSummary;
+
+/**
+ * Public class OMSimulationStore, an append-only store writing a simulation to
+ * an OMS file while its campaigns are generated. The campaigns are collected
+ * in chunks of packed columns, every full chunk is stored and committed at
+ * once and dropped from memory afterwards. Sealing the store writes the last
+ * chunk, the simulation itself holding the dictionary and the catalog entry
+ * holding the compact distributions of all metrics, so the simulation only
+ * becomes visible to readers of the OMS file when it is complete. The
+ * statistics of the simulation are not stored, the values of all campaigns
+ * are kept in the chunks only.
+ * 
+ * The OMS file is acquired from the shared repository and released again when
+ * the store is sealed or closed, so it is only closed if no one else uses it.
+ * Closing a store which is not sealed, e.g. after a failed simulation, deletes
+ * the chunks stored so far.
+ * 
+ * @author A. Schoedon
+ */
+public class OMSimulationStore {
+
+  /**
+   * Stores the object container of the OMS file, null after closing.
+   */
+  private ObjectContainer    db4o;
+
+  /**
+   * Stores the absolute path to the OMS file.
+   */
+  private final String       omsFile;
+
+  /**
+   * Stores the simulation the campaigns are added to.
+   */
+  private final OMSimulation simulation;
+
+  /**
+   * Indicates whether the store is sealed.
+   */
+  private boolean            isSealed;
+
+  /**
+   * Constructor opening the OMS file for a new simulation.
+   * 
+   * @param omsFile
+   *          The absolute path to the OMS file.
+   * @param simulation
+   *          The simulation the campaigns are added to.
+   * @throws IOException
+   *           If the OMS file is locked by another program.
+   */
+  public OMSimulationStore(String omsFile, OMSimulation simulation)
+      throws IOException {
+    super();
+    this.omsFile = omsFile;
+    this.simulation = simulation;
+    try {
+      this.db4o = OMRepository.acquire(omsFile);
+    } catch (DatabaseFileLockedException e) {
+      throw new IOException("'" + omsFile
+          + "' is in use by another program.");
+    }
+  }
+
+  /**
+   * Gets the absolute path to the OMS file.
+   * 
+   * @return The absolute path to the OMS file.
+   */
+  public String getOmsFile() {
+    return this.omsFile;
+  }
+
+  /**
+   * Gets the simulation the campaigns are added to.
+   * 
+   * @return The simulation the campaigns are added to.
+   */
+  public OMSimulation getSimulation() {
+    return this.simulation;
+  }
+
+  /**
+   * Adds a campaign to the simulation. Stores and commits the current chunk
+   * as soon as it is full.
+   * 
+   * @param campaign
+   *          The simulated campaign.
+   * @param differentRooms
+   *          The number of different rooms of the pattern of the campaign.
+   * @param index
+   *          The index of the pattern in its variation space.
+   * @param stream
+   *          The index of the random noise stream of the campaign.
+   */
+  public void add(OMCampaign campaign, int differentRooms, long index,
+      int stream) {
+    OMSimulationChunk chunk = this.simulation.addCampaign(campaign,
+        differentRooms, index, stream);
+    if (chunk != null) {
+      this.db4o.store(chunk);
+      this.db4o.commit();
+    }
+  }
+
+  /**
+   * Seals the store, creating the catalog entry holding the compact
+   * distributions from the statistics of the simulation.
+   * 
+   * @return The catalog entry of the simulation.
+   * @see #seal(OMSimulationSummary)
+   */
+  public OMSimulationSummary seal() {
+    return seal(new OMSimulationSummary(this.simulation));
+  }
+
+  /**
+   * Seals the store, creating the catalog entry holding the compact
+   * distributions from statistics collected separately, e.g. by quantile
+   * sketches for large simulations.
+   * 
+   * @param stats
+   *          The statistics of all campaigns of the simulation.
+   * @return The catalog entry of the simulation.
+   * @see #seal(OMSimulationSummary)
+   */
+  public OMSimulationSummary seal(OMStatisticsAccumulator stats) {
+    StatisticalSummary[] statistics =
+        new StatisticalSummary[OMStatisticsAccumulator.METRICS];
+    double[] medians = new double[OMStatisticsAccumulator.METRICS];
+    OMDistribution[] distributions =
+        new OMDistribution[OMStatisticsAccumulator.METRICS];
+    for (int m = 0; m < OMStatisticsAccumulator.METRICS; m++) {
+      statistics[m] = stats.getStatisticalSummary(m);
+      medians[m] = stats.getMedian(m);
+      distributions[m] = stats.getDistribution(m);
+    }
+    return seal(new OMSimulationSummary(this.simulation, statistics, medians,
+        distributions));
+  }
+
+  /**
+   * Seals the store: clears the statistics of the simulation, stores the last
+   * chunk, the simulation holding the dictionary and its catalog entry,
+   * commits, invalidates the cached catalog and closes the store. The
+   * simulation loads its chunks from the OMS file afterwards.
+   * 
+   * @param summary
+   *          The catalog entry of the simulation.
+   * @return The catalog entry of the simulation.
+   */
+  private OMSimulationSummary seal(OMSimulationSummary summary) {
+    this.simulation.clearDescriptiveStats();
+    OMSimulationChunk chunk = this.simulation.closeChunk();
+    if (chunk != null) {
+      this.db4o.store(chunk);
+    }
+    this.db4o.store(this.simulation);
+    this.db4o.store(summary);
+    this.db4o.commit();
+    OMRepository.invalidate(this.omsFile);
+    this.isSealed = true;
+    close();
+    this.simulation.setOmsFile(this.omsFile);
+    summary.setOmsFile(this.omsFile);
+    return summary;
+  }
+
+  /**
+   * Closes the store and releases the OMS file. If the store is not sealed, the
+   * chunks stored so far under the key of the simulation are deleted from the
+   * file. Closing a closed store has no effect.
+   */
+  public void close() {
+    if (this.db4o != null) {
+      if (!this.isSealed) {
+        Query query = this.db4o.query();
+        query.constrain(OMSimulationChunk.class);
+        query.descend("key").constrain(this.simulation.getKey());
+        ObjectSet<OMSimulationChunk> chunks = query.execute();
+        while (chunks.hasNext()) {
+          this.db4o.delete(chunks.next());
+        }
+        this.db4o.commit();
+      }
+      this.db4o = null;
+      OMRepository.release(this.omsFile);
+    }
+  }
+}
@@ -0,0 +1,401 @@
+/*
+ * OM Simulation Tool: This tool intends to test and evaluate the scientific
+ * robustness of the protocol `6+1`. Therefore, it generates a huge amount of
+ * virtual measurement campaigns based on real radon concentration data
+ * following the mentioned protocol. <http://github.com/donschoe/omsimulation>
+ * 
+ * Copyright (C) 2012 Alexander Schoedon <a.schoedon@student.htw-berlin.de>
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.bfs.radon.omsimulation.engine;
+
+import java.io.Serializable;
+
+import org.apache.commons.math.stat.descriptive.DescriptiveStatistics;
+import org.apache.commons.math.stat.descriptive.StatisticalSummary;
+
+import de.bfs.radon.omsimulation.data.OMDistribution;
+
+/**
+ * Public class OMStatisticsAccumulator, collecting the eight metric streams of
+ * a simulation (room and cellar arithmetic means, geometric means, medians and
+ * maxima). Depending on the size of the simulation either descriptive
+ * statistics, which keep all values in memory, summary statistics or summary
+ * statistics combined with quantile sketches are used. Sketches provide
+ * percentiles for any number of campaigns in bounded memory. Accumulators of
+ * the same type can be merged, so the metrics can be collected in several
+ * threads.
+ * 
+ * @author A. Schoedon
+ */
+public class OMStatisticsAccumulator implements Serializable {
+
+  /**
+   * Unique serial version ID.
+   */
+  private static final long       serialVersionUID = -3318570612409254771L;
+
+  /**
+   * Index of the room arithmetic means in a metric record.
+   */
+  public static final int         ROOM_AM          = 0;
+
+  /**
+   * Index of the room geometric means in a metric record.
+   */
+  public static final int         ROOM_GM          = 1;
+
+  /**
+   * Index of the room medians in a metric record.
+   */
+  public static final int         ROOM_MED         = 2;
+
+  /**
+   * Index of the room maxima in a metric record.
+   */
+  public static final int         ROOM_MAX         = 3;
+
+  /**
+   * Index of the cellar arithmetic means in a metric record.
+   */
+  public static final int         CELLAR_AM        = 4;
+
+  /**
+   * Index of the cellar geometric means in a metric record.
+   */
+  public static final int         CELLAR_GM        = 5;
+
+  /**
+   * Index of the cellar medians in a metric record.
+   */
+  public static final int         CELLAR_MED       = 6;
+
+  /**
+   * Index of the cellar maxima in a metric record.
+   */
+  public static final int         CELLAR_MAX       = 7;
+
+  /**
+   * The number of metrics in a metric record.
+   */
+  public static final int         METRICS          = 8;
+
+  /**
+   * Stores the type of statistics used.
+   */
+  private OMStatisticsType        type;
+
+  /**
+   * Stores the descriptive statistics for each metric, null if summary
+   * statistics are used.
+   */
+  private DescriptiveStatistics[] descriptiveStats;
+
+  /**
+   * Stores the summary statistics for each metric, null if descriptive
+   * statistics are used.
+   */
+  private OMSummaryStatistics[]   summaryStats;
+
+  /**
+   * Stores the quantile sketches for each metric, null if no sketches are
+   * used.
+   */
+  private OMQuantileSketch[]      sketches;
+
+  /**
+   * Stores the sums of the logarithms of all positive values for each metric,
+   * null if no sketches are used.
+   */
+  private double[]                logSums;
+
+  /**
+   * Stores the sums of the squared logarithms of all positive values for each
+   * metric, null if no sketches are used.
+   */
+  private double[]                logSquareSums;
+
+  /**
+   * Stores the number of positive values for each metric, null if no sketches
+   * are used.
+   */
+  private long[]                  positiveCounts;
+
+  /**
+   * Indicates whether descriptive or summary statistics are used.
+   * 
+   * @return True if descriptive statistics are used.
+   */
+  public boolean isDescriptive() {
+    return this.type == OMStatisticsType.Descriptive;
+  }
+
+  /**
+   * Gets the type of statistics used.
+   * 
+   * @return The type of statistics used.
+   */
+  public OMStatisticsType getType() {
+    return this.type;
+  }
+
+  /**
+   * Gets the descriptive statistics of a metric.
+   * 
+   * @param metric
+   *          The index of the metric, e.g. ROOM_AM.
+   * @return The descriptive statistics or null if summary statistics are used.
+   */
+  public DescriptiveStatistics getDescriptiveStats(int metric) {
+    if (this.descriptiveStats == null) {
+      return null;
+    }
+    return this.descriptiveStats[metric];
+  }
+
+  /**
+   * Gets the summary statistics of a metric.
+   * 
+   * @param metric
+   *          The index of the metric, e.g. ROOM_AM.
+   * @return The summary statistics or null if descriptive statistics are used.
+   */
+  public OMSummaryStatistics getSummaryStats(int metric) {
+    if (this.summaryStats == null) {
+      return null;
+    }
+    return this.summaryStats[metric];
+  }
+
+  /**
+   * Gets the quantile sketch of a metric.
+   * 
+   * @param metric
+   *          The index of the metric, e.g. ROOM_AM.
+   * @return The quantile sketch or null if no sketches are used.
+   */
+  public OMQuantileSketch getSketch(int metric) {
+    if (this.sketches == null) {
+      return null;
+    }
+    return this.sketches[metric];
+  }
+
+  /**
+   * Calculates the geometric standard deviation of a metric from the sums of
+   * the logarithms, the same way OMHelper.calculateGSD does using all values.
+   * Only available if sketches are used.
+   * 
+   * @param metric
+   *          The index of the metric, e.g. ROOM_AM.
+   * @return The geometric standard deviation or NaN if no sketches are used.
+   */
+  public double getGeometricStandardDeviation(int metric) {
+    if (this.sketches == null) {
+      return Double.NaN;
+    }
+    double gm = this.summaryStats[metric].getGeometricMean();
+    double gsd = 0.0;
+    if (gm > 0) {
+      double logGm = Math.log(gm);
+      gsd = this.logSquareSums[metric] - 2.0 * logGm * this.logSums[metric]
+          + this.positiveCounts[metric] * logGm * logGm;
+    }
+    gsd = gsd / (this.summaryStats[metric].getN() - 1);
+    gsd = Math.sqrt(gsd);
+    gsd = Math.exp(gsd);
+    return gsd;
+  }
+
+  /**
+   * Gets the statistics of a metric which are available for all types, e.g.
+   * the mean and the standard deviation.
+   * 
+   * @param metric
+   *          The index of the metric, e.g. ROOM_AM.
+   * @return The descriptive or summary statistics of the metric.
+   */
+  public StatisticalSummary getStatisticalSummary(int metric) {
+    if (this.descriptiveStats != null) {
+      return this.descriptiveStats[metric];
+    }
+    return this.summaryStats[metric];
+  }
+
+  /**
+   * Gets the median of a metric, exact for descriptive statistics and
+   * estimated if sketches are used.
+   * 
+   * @param metric
+   *          The index of the metric, e.g. ROOM_AM.
+   * @return The median or NaN if summary statistics are used.
+   */
+  public double getMedian(int metric) {
+    if (this.descriptiveStats != null) {
+      return this.descriptiveStats[metric].getPercentile(50);
+    }
+    if (this.sketches != null) {
+      return this.sketches[metric].getPercentile(50);
+    }
+    return Double.NaN;
+  }
+
+  /**
+   * Creates the compact distribution of a metric, from all values for
+   * descriptive statistics and estimated at the same ranks if sketches are
+   * used. Summary statistics give an empty distribution.
+   * 
+   * @param metric
+   *          The index of the metric, e.g. ROOM_AM.
+   * @return The compact distribution of the metric.
+   */
+  public OMDistribution getDistribution(int metric) {
+    if (this.descriptiveStats != null) {
+      return new OMDistribution(
+          this.descriptiveStats[metric].getSortedValues());
+    }
+    if (this.sketches == null) {
+      return new OMDistribution(new double[0]);
+    }
+    OMQuantileSketch sketch = this.sketches[metric];
+    int count = (int) sketch.getN();
+    int[] ranks = OMDistribution.getRanks(count);
+    double[] values = new double[ranks.length];
+    for (int i = 0; i < ranks.length; i++) {
+      values[i] = sketch.getValueAt(ranks[i]);
+    }
+    return new OMDistribution(count, ranks, values);
+  }
+
+  /**
+   * Constructor for the accumulator, creates empty statistics for all metrics.
+   * 
+   * @param isDescriptive
+   *          True to use descriptive statistics, false to use summary
+   *          statistics.
+   */
+  public OMStatisticsAccumulator(boolean isDescriptive) {
+    this(isDescriptive ? OMStatisticsType.Descriptive
+        : OMStatisticsType.Summary, OMQuantileSketch.DEFAULT_COMPRESSION);
+  }
+
+  /**
+   * Constructor for the accumulator, creates empty statistics for all metrics.
+   * 
+   * @param type
+   *          The type of statistics to use.
+   * @param compression
+   *          The compression of the quantile sketches, only used if the type
+   *          is Sketch.
+   */
+  public OMStatisticsAccumulator(OMStatisticsType type, int compression) {
+    super();
+    this.type = type;
+    if (type == OMStatisticsType.Descriptive) {
+      this.descriptiveStats = new DescriptiveStatistics[METRICS];
+      for (int i = 0; i < METRICS; i++) {
+        this.descriptiveStats[i] = new DescriptiveStatistics();
+      }
+    } else {
+      this.summaryStats = new OMSummaryStatistics[METRICS];
+      for (int i = 0; i < METRICS; i++) {
+        this.summaryStats[i] = new OMSummaryStatistics();
+      }
+      if (type == OMStatisticsType.Sketch) {
+        this.sketches = new OMQuantileSketch[METRICS];
+        for (int i = 0; i < METRICS; i++) {
+          this.sketches[i] = new OMQuantileSketch(compression);
+        }
+        this.logSums = new double[METRICS];
+        this.logSquareSums = new double[METRICS];
+        this.positiveCounts = new long[METRICS];
+      }
+    }
+  }
+
+  /**
+   * Adds one metric record to all metric streams.
+   * 
+   * @param metrics
+   *          An array of metric records, each consisting of METRICS values.
+   * @param offset
+   *          The position of the record in the array.
+   */
+  public void addValues(double[] metrics, int offset) {
+    if (this.descriptiveStats != null) {
+      DescriptiveStatistics[] stats = this.descriptiveStats;
+      for (int i = 0; i < METRICS; i++) {
+        stats[i].addValue(metrics[offset + i]);
+      }
+    } else {
+      OMSummaryStatistics[] stats = this.summaryStats;
+      for (int i = 0; i < METRICS; i++) {
+        stats[i].addValue(metrics[offset + i]);
+      }
+      if (this.sketches != null) {
+        for (int i = 0; i < METRICS; i++) {
+          double value = metrics[offset + i];
+          this.sketches[i].addValue(value);
+          if (value > 0) {
+            double log = Math.log(value);
+            this.logSums[i] = this.logSums[i] + log;
+            this.logSquareSums[i] = this.logSquareSums[i] + log * log;
+            this.positiveCounts[i]++;
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Merges another accumulator of the same type into this accumulator. The
+   * values of descriptive statistics are appended in their order, summary
+   * statistics and quantile sketches are merged and the sums of the logarithms
+   * are added up. The other accumulator is not modified.
+   * 
+   * @param other
+   *          The accumulator to merge into this accumulator.
+   */
+  public void merge(OMStatisticsAccumulator other) {
+    if (other.type != this.type) {
+      throw new IllegalArgumentException("Can not merge " + other.type
+          + " statistics into " + this.type + " statistics.");
+    }
+    if (this.descriptiveStats != null) {
+      for (int i = 0; i < METRICS; i++) {
+        DescriptiveStatistics stats = this.descriptiveStats[i];
+        double[] values = other.descriptiveStats[i].getValues();
+        for (int j = 0; j < values.length; j++) {
+          stats.addValue(values[j]);
+        }
+      }
+    } else {
+      for (int i = 0; i < METRICS; i++) {
+        this.summaryStats[i].merge(other.summaryStats[i]);
+      }
+      if (this.sketches != null) {
+        for (int i = 0; i < METRICS; i++) {
+          this.sketches[i].merge(other.sketches[i]);
+          this.logSums[i] = this.logSums[i] + other.logSums[i];
+          this.logSquareSums[i] = this.logSquareSums[i]
+              + other.logSquareSums[i];
+          this.positiveCounts[i] = this.positiveCounts[i]
+              + other.positiveCounts[i];
+        }
+      }
+    }
+  }
+}
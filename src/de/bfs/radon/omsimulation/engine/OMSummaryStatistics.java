@@ -0,0 +1,248 @@
+/*
+ * OM Simulation Tool: This tool intends to test and evaluate the scientific
+ * robustness of the protocol `6+1`. Therefore, it generates a huge amount of
+ * virtual measurement campaigns based on real radon concentration data
+ * following the mentioned protocol. <http://github.com/donschoe/omsimulation>
+ * 
+ * Copyright (C) 2012 Alexander Schoedon <a.schoedon@student.htw-berlin.de>
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package de.bfs.radon.omsimulation.engine;
+
+import java.io.Serializable;
+
+import org.apache.commons.math.stat.descriptive.StatisticalSummary;
+import org.apache.commons.math.util.FastMath;
+
+/**
+ * Public class OMSummaryStatistics, the mergeable counterpart of the summary
+ * statistics of commons-math. Values are added exactly the way
+ * SummaryStatistics adds them, so a single stream gives the same results. Two
+ * statistics are merged using the pairwise update of the mean and the second
+ * moment, which allows collecting the values in several threads.
+ * 
+ * @author A. Schoedon
+ */
+public class OMSummaryStatistics implements StatisticalSummary, Serializable {
+
+  /**
+   * Unique serial version ID.
+   */
+  private static final long serialVersionUID = -2961745503187420947L;
+
+  /**
+   * Stores the number of values.
+   */
+  private long              n;
+
+  /**
+   * Stores the arithmetic mean of all values.
+   */
+  private double            mean;
+
+  /**
+   * Stores the sum of the squared deviations from the mean.
+   */
+  private double            secondMoment;
+
+  /**
+   * Stores the sum of all values.
+   */
+  private double            sum;
+
+  /**
+   * Stores the sum of the logarithms of all values.
+   */
+  private double            sumOfLogs;
+
+  /**
+   * Stores the smallest value.
+   */
+  private double            min;
+
+  /**
+   * Stores the largest value.
+   */
+  private double            max;
+
+  /**
+   * Constructor for empty statistics.
+   */
+  public OMSummaryStatistics() {
+    super();
+    this.n = 0;
+    this.mean = Double.NaN;
+    this.secondMoment = Double.NaN;
+    this.sum = 0.0;
+    this.sumOfLogs = 0.0;
+    this.min = Double.NaN;
+    this.max = Double.NaN;
+  }
+
+  /**
+   * Adds a value to the statistics.
+   * 
+   * @param value
+   *          The value to add.
+   */
+  public void addValue(double value) {
+    if (this.n == 0) {
+      this.mean = 0.0;
+      this.secondMoment = 0.0;
+    }
+    this.n++;
+    double dev = value - this.mean;
+    double nDev = dev / this.n;
+    this.mean = this.mean + nDev;
+    this.secondMoment = this.secondMoment + (this.n - 1.0) * dev * nDev;
+    this.sum = this.sum + value;
+    this.sumOfLogs = this.sumOfLogs + FastMath.log(value);
+    if (value < this.min || Double.isNaN(this.min)) {
+      this.min = value;
+    }
+    if (value > this.max || Double.isNaN(this.max)) {
+      this.max = value;
+    }
+  }
+
+  /**
+   * Merges other statistics into these statistics. The other statistics are
+   * not modified. The mean and the second moment are combined pairwise, so
+   * they may differ in the last digits from adding all values to a single
+   * stream.
+   * 
+   * @param other
+   *          The statistics to merge into these statistics.
+   */
+  public void merge(OMSummaryStatistics other) {
+    if (other.n == 0) {
+      return;
+    }
+    if (this.n == 0) {
+      this.n = other.n;
+      this.mean = other.mean;
+      this.secondMoment = other.secondMoment;
+      this.sum = other.sum;
+      this.sumOfLogs = other.sumOfLogs;
+      this.min = other.min;
+      this.max = other.max;
+      return;
+    }
+    double n1 = this.n;
+    double n2 = other.n;
+    double total = n1 + n2;
+    double dev = other.mean - this.mean;
+    this.mean = this.mean + dev * n2 / total;
+    this.secondMoment = this.secondMoment + other.secondMoment + dev * dev
+        * n1 * n2 / total;
+    this.n = this.n + other.n;
+    this.sum = this.sum + other.sum;
+    this.sumOfLogs = this.sumOfLogs + other.sumOfLogs;
+    if (other.min < this.min) {
+      this.min = other.min;
+    }
+    if (other.max > this.max) {
+      this.max = other.max;
+    }
+  }
+
+  /**
+   * Gets the number of values.
+   * 
+   * @return The number of values.
+   */
+  public long getN() {
+    return this.n;
+  }
+
+  /**
+   * Gets the arithmetic mean of all values.
+   * 
+   * @return The arithmetic mean or NaN if no values were added.
+   */
+  public double getMean() {
+    return this.mean;
+  }
+
+  /**
+   * Gets the bias corrected variance of all values.
+   * 
+   * @return The variance, 0 for a single value or NaN if no values were added.
+   */
+  public double getVariance() {
+    if (this.n == 0) {
+      return Double.NaN;
+    } else if (this.n == 1) {
+      return 0.0;
+    }
+    return this.secondMoment / (this.n - 1.0);
+  }
+
+  /**
+   * Gets the standard deviation of all values.
+   * 
+   * @return The standard deviation, 0 for a single value or NaN if no values
+   *         were added.
+   */
+  public double getStandardDeviation() {
+    if (this.n == 0) {
+      return Double.NaN;
+    } else if (this.n == 1) {
+      return 0.0;
+    }
+    return FastMath.sqrt(getVariance());
+  }
+
+  /**
+   * Gets the geometric mean of all values.
+   * 
+   * @return The geometric mean or NaN if no values were added.
+   */
+  public double getGeometricMean() {
+    if (this.n == 0) {
+      return Double.NaN;
+    }
+    return FastMath.exp(this.sumOfLogs / this.n);
+  }
+
+  /**
+   * Gets the smallest value.
+   * 
+   * @return The smallest value or NaN if no values were added.
+   */
+  public double getMin() {
+    return this.min;
+  }
+
+  /**
+   * Gets the largest value.
+   * 
+   * @return The largest value or NaN if no values were added.
+   */
+  public double getMax() {
+    return this.max;
+  }
+
+  /**
+   * Gets the sum of all values.
+   * 
+   * @return The sum of all values.
+   */
+  public double getSum() {
+    return this.sum;
+  }
+}
@@ -0,0 +1,351 @@
+/*
+ * OM Simulation Tool: This tool intends to test and evaluate the scientific
+ * robustness of the protocol `6+1`. Therefore, it generates a huge amount of
+ * virtual measurement campaigns based on real radon concentration data
+ * following the mentioned protocol. <http://github.com/donschoe/omsimulation>
+ * 
+ * Copyright (C) 2012 Alexander Schoedon <a.schoedon@student.htw-berlin.de>
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.bfs.radon.omsimulation.engine;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.RecursiveAction;
+
+import de.bfs.radon.omsimulation.data.OMRandomSource;
+import de.bfs.radon.omsimulation.data.OMRoom;
+import de.bfs.radon.omsimulation.data.OMVariationSpace;
+
+/**
+ * Class OMSystematicTask, used to simulate all campaigns for a range of
+ * variation patterns in a fork/join pool. The range is split until each task
+ * handles a single group of consecutive patterns. The metric records are
+ * stored per pattern in the order of the start hours, so they can be written
+ * in exactly the same order as a sequential simulation would produce them.
+ * Each group collects its metrics in an accumulator of its own, which is
+ * merged in the order of the groups afterwards. The groups only depend on the
+ * first pattern and the number of start hours, so the results do not depend on
+ * the number of threads.
+ * 
+ * @author A. Schoedon
+ */
+class OMSystematicTask extends RecursiveAction {
+
+  /**
+   * Unique serial version ID.
+   */
+  private static final long               serialVersionUID = -6174046785315328423L;
+
+  /**
+   * The number of campaigns a group of patterns should contain at least.
+   */
+  static final int                        GROUP_CAMPAIGNS  = 16384;
+
+  /**
+   * Stores the variation space containing the patterns to simulate.
+   */
+  private final OMVariationSpace          space;
+
+  /**
+   * Stores the first pattern index of this task.
+   */
+  private final long                      from;
+
+  /**
+   * Stores the pattern index after the last pattern of this task.
+   */
+  private final long                      to;
+
+  /**
+   * Stores the number of possible start hours per pattern.
+   */
+  private final int                       total;
+
+  /**
+   * Stores the random noise that is added to the values. The unit is [%].
+   */
+  private final int                       randomNoise;
+
+  /**
+   * Stores the table of precalculated cellar metrics, can be null.
+   */
+  private final OMCellarTable             cellarTable;
+
+  /**
+   * Stores the source of the random noise streams, one stream per pattern.
+   */
+  private final OMRandomSource            randomSource;
+
+  /**
+   * Stores the progress of the simulation, counting the simulated campaigns.
+   */
+  private final OMProgress                progress;
+
+  /**
+   * Stores the type of statistics used by the accumulators.
+   */
+  private final OMStatisticsType          type;
+
+  /**
+   * Stores the compression of the quantile sketches of the accumulators.
+   */
+  private final int                       compression;
+
+  /**
+   * Stores the number of patterns per group.
+   */
+  private final long                      group;
+
+  /**
+   * Stores the metric records per pattern, relative to the first pattern of
+   * the root task. Shared by all sub tasks.
+   */
+  private final double[][]                metrics;
+
+  /**
+   * Stores the variation string per pattern, relative to the first pattern of
+   * the root task. Shared by all sub tasks.
+   */
+  private final String[]                  variations;
+
+  /**
+   * Stores the accumulator of each group at the first pattern of the group,
+   * relative to the first pattern of the root task. Shared by all sub tasks.
+   */
+  private final OMStatisticsAccumulator[] statistics;
+
+  /**
+   * Stores the first pattern index of the root task.
+   */
+  private final long                      offset;
+
+  /**
+   * Stores the exception thrown while simulating a pattern, if any.
+   */
+  private IOException                     failure;
+
+  /**
+   * Constructor for the root task of a range of patterns.
+   * 
+   * @param space
+   *          The variation space containing the patterns to simulate.
+   * @param from
+   *          The first pattern index.
+   * @param to
+   *          The pattern index after the last pattern.
+   * @param total
+   *          The number of possible start hours per pattern.
+   * @param randomNoise
+   *          The random noise that is added to the values. The unit is [%].
+   * @param cellarTable
+   *          The table of precalculated cellar metrics or null.
+   * @param randomSource
+   *          The source of the random noise streams.
+   * @param progress
+   *          The progress of the simulation, counting the simulated campaigns.
+   * @param type
+   *          The type of statistics used by the accumulators.
+   * @param compression
+   *          The compression of the quantile sketches of the accumulators.
+   * @param group
+   *          The number of patterns per group, see getGroupSize.
+   */
+  OMSystematicTask(OMVariationSpace space, long from, long to, int total,
+      int randomNoise, OMCellarTable cellarTable,
+      OMRandomSource randomSource, OMProgress progress, OMStatisticsType type,
+      int compression, long group) {
+    this(space, from, to, total, randomNoise, cellarTable, randomSource,
+        progress, type, compression, group, new double[(int) (to - from)][],
+        new String[(int) (to - from)],
+        new OMStatisticsAccumulator[(int) (to - from)], from);
+  }
+
+  /**
+   * Constructor for sub tasks sharing the result arrays of the root task.
+   */
+  private OMSystematicTask(OMVariationSpace space, long from, long to,
+      int total, int randomNoise, OMCellarTable cellarTable,
+      OMRandomSource randomSource, OMProgress progress, OMStatisticsType type,
+      int compression, long group, double[][] metrics, String[] variations,
+      OMStatisticsAccumulator[] statistics, long offset) {
+    super();
+    this.space = space;
+    this.from = from;
+    this.to = to;
+    this.total = total;
+    this.randomNoise = randomNoise;
+    this.cellarTable = cellarTable;
+    this.randomSource = randomSource;
+    this.progress = progress;
+    this.type = type;
+    this.compression = compression;
+    this.group = group;
+    this.metrics = metrics;
+    this.variations = variations;
+    this.statistics = statistics;
+    this.offset = offset;
+  }
+
+  /**
+   * Gets the number of patterns per group, so each group contains at least
+   * GROUP_CAMPAIGNS campaigns.
+   * 
+   * @param total
+   *          The number of possible start hours per pattern.
+   * @return The number of patterns per group.
+   */
+  static long getGroupSize(int total) {
+    return Math.max(1, GROUP_CAMPAIGNS / total);
+  }
+
+  /**
+   * Gets the first pattern index of this task.
+   * 
+   * @return The first pattern index of this task.
+   */
+  long getFrom() {
+    return this.from;
+  }
+
+  /**
+   * Gets the pattern index after the last pattern of this task.
+   * 
+   * @return The pattern index after the last pattern of this task.
+   */
+  long getTo() {
+    return this.to;
+  }
+
+  /**
+   * Gets the metric records of a pattern, METRICS values per start hour.
+   * 
+   * @param pattern
+   *          The pattern index.
+   * @return The metric records of the pattern.
+   */
+  double[] getMetrics(long pattern) {
+    return this.metrics[(int) (pattern - this.offset)];
+  }
+
+  /**
+   * Gets the variation string of a pattern.
+   * 
+   * @param pattern
+   *          The pattern index.
+   * @return The variation string of the pattern.
+   */
+  String getVariation(long pattern) {
+    return this.variations[(int) (pattern - this.offset)];
+  }
+
+  /**
+   * Gets the accumulator of the group starting at a pattern.
+   * 
+   * @param pattern
+   *          The pattern index.
+   * @return The accumulator of the group or null if no group starts at the
+   *         pattern.
+   */
+  OMStatisticsAccumulator getStatistics(long pattern) {
+    return this.statistics[(int) (pattern - this.offset)];
+  }
+
+  /**
+   * Gets the exception thrown while simulating a pattern, if any.
+   * 
+   * @return The exception or null.
+   */
+  IOException getFailure() {
+    return this.failure;
+  }
+
+  /**
+   * Splits the range of patterns at a group boundary or simulates a single
+   * group of patterns.
+   * 
+   * @see java.util.concurrent.RecursiveAction#compute()
+   */
+  @Override
+  protected void compute() {
+    long groups = (this.to - this.from + this.group - 1) / this.group;
+    if (groups > 1) {
+      long middle = this.from + (groups >>> 1) * this.group;
+      OMSystematicTask left = new OMSystematicTask(this.space, this.from,
+          middle, this.total, this.randomNoise, this.cellarTable,
+          this.randomSource, this.progress, this.type, this.compression,
+          this.group, this.metrics, this.variations, this.statistics,
+          this.offset);
+      OMSystematicTask right = new OMSystematicTask(this.space, middle,
+          this.to, this.total, this.randomNoise, this.cellarTable,
+          this.randomSource, this.progress, this.type, this.compression,
+          this.group, this.metrics, this.variations, this.statistics,
+          this.offset);
+      invokeAll(left, right);
+      if (left.failure != null) {
+        this.failure = left.failure;
+      } else {
+        this.failure = right.failure;
+      }
+    } else if (this.to > this.from) {
+      OMStatisticsAccumulator stats = new OMStatisticsAccumulator(this.type,
+          this.compression);
+      for (long a = this.from; a < this.to; a++) {
+        try {
+          simulatePattern(a, stats);
+        } catch (RuntimeException e) {
+          this.failure = new IOException("Failed to simulate pattern " + a
+              + ": " + e.getMessage(), e);
+          return;
+        }
+      }
+      this.statistics[(int) (this.from - this.offset)] = stats;
+    }
+  }
+
+  /**
+   * Simulates all campaigns of a single pattern for every start hour using a
+   * campaign kernel, so no campaign objects are created. The start hours are
+   * evaluated as one sliding range. The random noise is drawn from a stream of
+   * its own per pattern, so the results do not depend on the threads. The
+   * metrics are added to the accumulator of the group.
+   * 
+   * @param a
+   *          The pattern index.
+   * @param stats
+   *          The accumulator of the group.
+   */
+  private void simulatePattern(long a, OMStatisticsAccumulator stats) {
+    int total = this.total;
+    int randomNoise = this.randomNoise;
+    OMRoom[] pattern = this.space.getPattern(a);
+    SplittableRandom generator = this.randomSource.getStream(
+        OMRandomSource.NOISE, this.space.getDifferentRooms(), a);
+    OMCampaignKernel kernel = new OMCampaignKernel(generator);
+    kernel.setCellarTable(this.cellarTable);
+    kernel.setPattern(pattern);
+    String variation = OMCampaignKernel.getVariation(pattern);
+    double[] values = new double[total * OMStatisticsAccumulator.METRICS];
+    kernel.evaluateRange(0, total, randomNoise, values, 0);
+    for (int start = 0; start < total; start++) {
+      stats.addValues(values, start * OMStatisticsAccumulator.METRICS);
+    }
+    int p = (int) (a - this.offset);
+    this.metrics[p] = values;
+    this.variations[p] = variation;
+    this.progress.add(total);
+  }
+}
@@ -37,6 +37,7 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.util.List;
 
 import javax.swing.JButton;
 import javax.swing.JComboBox;
@@ -53,13 +54,11 @@ import javax.swing.filechooser.FileNameExtensionFilter;
 import org.jfree.chart.ChartPanel;
 import org.jfree.chart.JFreeChart;
 
-import com.db4o.Db4oEmbedded;
-import com.db4o.ObjectContainer;
-import com.db4o.ObjectSet;
 import com.itextpdf.awt.DefaultFontMapper;
 import com.itextpdf.text.PageSize;
 
 import de.bfs.radon.omsimulation.data.OMBuilding;
+import de.bfs.radon.omsimulation.data.OMRepository;
 import de.bfs.radon.omsimulation.data.OMRoom;
 import de.bfs.radon.omsimulation.gui.data.OMCharts;
 import de.bfs.radon.omsimulation.gui.data.OMExports;
@@ -276,9 +275,7 @@ public class OMPanelData extends JPanel {
     @Override
     public Void doInBackground() {
       tmpUpdate("Getting objects from Database... ", 1);
-      ObjectContainer db4o = Db4oEmbedded.openFile(
-          Db4oEmbedded.newConfiguration(), getOmbFile());
-      ObjectSet<OMBuilding> result = db4o.queryByExample(OMBuilding.class);
+      List<OMBuilding> result = OMRepository.getBuildings(getOmbFile());
       OMBuilding found;
       tmpUpdate("Refreshing list... ", 2);
       tmpUpdate("Adding items... ", 3);
@@ -287,12 +284,11 @@ public class OMPanelData extends JPanel {
         while (perc > 99) {
           perc--;
         }
-        found = (OMBuilding) result.next();
+        found = result.get(i);
         comboBoxProjects.addItem(found);
         tmpUpdate("Added: " + found.getName(), (int) perc);
       }
       tmpUpdate("Finished. ", 100);
-      db4o.close();
       return null;
     }
 
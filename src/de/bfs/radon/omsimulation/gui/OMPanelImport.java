@@ -29,12 +29,8 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.FocusAdapter;
 import java.awt.event.FocusEvent;
-import java.io.BufferedReader;
-import java.io.DataInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
 import java.util.Date;
@@ -55,14 +51,13 @@ import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 import javax.swing.filechooser.FileNameExtensionFilter;
 
-import com.db4o.Db4oEmbedded;
-import com.db4o.ObjectContainer;
 import com.toedter.calendar.JDateChooser;
 
 import de.bfs.radon.omsimulation.data.OMBuilding;
 import de.bfs.radon.omsimulation.data.OMHelper;
-import de.bfs.radon.omsimulation.data.OMRoom;
-import de.bfs.radon.omsimulation.data.OMRoomType;
+import de.bfs.radon.omsimulation.data.OMRepository;
+import de.bfs.radon.omsimulation.engine.OMImportEngine;
+import de.bfs.radon.omsimulation.engine.OMImportListener;
 
 /**
  * Creates and shows the data import panel for this software tool. Allows the
@@ -128,16 +123,6 @@ public class OMPanelImport extends JPanel implements ActionListener {
    */
   private String            logMsg;
 
-  /**
-   * Stores the total number of measurements for the building.
-   */
-  private int               valueCount;
-
-  /**
-   * Stores the total number of rooms for the building.
-   */
-  private int               roomCount;
-
   /**
    * UI: Label "Project Name"
    */
@@ -232,44 +217,6 @@ public class OMPanelImport extends JPanel implements ActionListener {
    */
   private ImportTask        importTask;
 
-  /**
-   * Gets the total number of measurements for the building. The unit is [h].
-   * 
-   * @return The total number of measurements for the building.
-   */
-  private int getValueCount() {
-    return this.valueCount;
-  }
-
-  /**
-   * Sets the total number of measurements for the building. The unit is [h].
-   * 
-   * @param count
-   *          The total number of measurements for the building.
-   */
-  private void setValueCount(int count) {
-    this.valueCount = count;
-  }
-
-  /**
-   * Gets the total number of rooms for the building.
-   * 
-   * @return The total number of rooms for the building.
-   */
-  private int getRoomCount() {
-    return this.roomCount;
-  }
-
-  /**
-   * Sets the total number of rooms for the building.
-   * 
-   * @param roomCount
-   *          The total number of rooms for the building.
-   */
-  private void setRoomCount(int roomCount) {
-    this.roomCount = roomCount;
-  }
-
   /**
    * Gets the status of the import process. Used to update the progress bar.
    * 
@@ -457,10 +404,7 @@ public class OMPanelImport extends JPanel implements ActionListener {
      *          The status in percent.
      */
     private void tmpUpdate(String s, int i) {
-      setLogMsg(s);
-      setStatus(i);
-      progressBarImport.setString(s);
-      progressBarImport.setValue(i);
+      showProgress(s, i);
       try {
         if (OMHelper.isLogOutputEnabled()) {
           OMHelper.writeLog(getLogMsg());
@@ -468,31 +412,27 @@ public class OMPanelImport extends JPanel implements ActionListener {
       } catch (IOException ioe) {
         ioe.printStackTrace();
       }
-      try {
-        Thread.sleep(100);
-      } catch (InterruptedException ie) {
-        ie.printStackTrace();
-      }
     }
 
     /**
-     * Writes messages to the log file which are not displayed at the progress
-     * bar. This is used to increase performance.
+     * Updates the progress bar status and message without writing to the log
+     * file. Used for the messages of the import engine, which writes its log
+     * messages itself.
      * 
      * @param s
      *          The log message.
      * @param i
      *          The status in percent.
      */
-    private void logOnly(String s, int i) {
+    private void showProgress(String s, int i) {
       setLogMsg(s);
       setStatus(i);
+      progressBarImport.setString(s);
+      progressBarImport.setValue(i);
       try {
-        if (OMHelper.isLogOutputEnabled()) {
-          OMHelper.writeLog(getLogMsg());
-        }
-      } catch (IOException ioe) {
-        ioe.printStackTrace();
+        Thread.sleep(100);
+      } catch (InterruptedException ie) {
+        ie.printStackTrace();
       }
     }
 
@@ -506,8 +446,6 @@ public class OMPanelImport extends JPanel implements ActionListener {
       try {
         int status = 0;
         double start = System.currentTimeMillis();
-        ObjectContainer db4o = Db4oEmbedded.openFile(
-            Db4oEmbedded.newConfiguration(), getOmbFile());
         OMHelper.setLogOutput(getOmbFile(), "import");
         tmpUpdate("Starting ...", 1);
         tmpUpdate("Importing new building from CSV.", 1);
@@ -515,12 +453,24 @@ public class OMPanelImport extends JPanel implements ActionListener {
         String name = getProjectName();
         Date date = getProjectDate();
         double detectionLimit = (double) getDetectionLimit();
-        OMBuilding building = createBuilding(csvFile, name, date,
+        OMImportEngine engine = new OMImportEngine();
+        engine.setListener(new OMImportListener() {
+          @Override
+          public void update(String message, int status) {
+            showProgress(message, status);
+          }
+
+          @Override
+          public void indeterminate(boolean indeterminate) {
+            progressBarImport.setIndeterminate(indeterminate);
+          }
+        });
+        OMBuilding building = engine.createBuilding(csvFile, name, date,
             detectionLimit);
         setOmbObject(building);
         if (building.getRoomCount() >= 4) {
           progressBarImport.setIndeterminate(true);
-          db4o.store(building);
+          OMRepository.store(getOmbFile(), building);
           progressBarImport.setIndeterminate(false);
           status = 100;
           tmpUpdate("Stored new building '" + building + "' to file '"
@@ -529,7 +479,6 @@ public class OMPanelImport extends JPanel implements ActionListener {
           status = 0;
           tmpUpdate("Error: Not enough rooms. No building stored.", status);
         }
-        db4o.close();
         String strFormat = "#.##";
         DecimalFormatSymbols decSymbols = new DecimalFormatSymbols();
         decSymbols.setDecimalSeparator('.');
@@ -568,312 +517,6 @@ public class OMPanelImport extends JPanel implements ActionListener {
       return null;
     }
 
-    /**
-     * Method to generate a building object from the CSV file. This method
-     * triggers parsing the CSV file, parsing the rooms, separating rooms and
-     * finally creates a building.
-     * 
-     * @param csvFile
-     *          A string containing the file name of the CSV. (And path if
-     *          needed.)
-     * @param name
-     *          A custom name for the object which can be set by the user
-     *          creating the building.
-     * @param date
-     *          A custom start date which can be set by the user creating the
-     *          building. The date can be chosen either to identify the start
-     *          date of the measurements or to identify the start date of the
-     *          simulations. That's up to the user and does not affect the
-     *          simulations.
-     * @param detectionLimit
-     *          The detection limit is used to set empty or '0'-values as radon
-     *          concentrations of 0 Bq/m\0x00B3 are most likely below detection
-     *          limit.
-     * @return An building object which can be used to generate campaigns.
-     * @throws IOException
-     *           If creating log file or writing logs fails.
-     */
-    private OMBuilding createBuilding(String csvFile, String name, Date date,
-        double detectionLimit) throws IOException {
-      String[] csv;
-      try {
-        csv = parseCSV(csvFile);
-      } catch (Exception e) {
-        csv = new String[0];
-        tmpUpdate("Error: " + e.getMessage(), 0);
-        tmpUpdate("Error: Failed to read CSV-File.", 0);
-        e.printStackTrace();
-      }
-      OMRoom[] rooms = parseRooms(csv, detectionLimit);
-      OMBuilding current = separateRooms(name, date, rooms);
-      return current;
-    }
-
-    /**
-     * Method for reading and parsing an CSV-file line by line.
-     * 
-     * @param fileName
-     *          The name (and path) of the CSV-file to read.
-     * @return An array of strings, each string representing one line.
-     * @throws IOException
-     *           If creating log file or writing logs fails.
-     */
-    private String[] parseCSV(String fileName) throws IOException {
-      String[] tmpArray = new String[65536];
-      String[] csv = null;
-      tmpUpdate("Trying to read CSV-File '" + fileName + "'.", 2);
-      try {
-        FileInputStream fileInput = new FileInputStream(fileName);
-        DataInputStream dataInput = new DataInputStream(fileInput);
-        InputStreamReader inputReader = new InputStreamReader(dataInput);
-        BufferedReader buffReader = new BufferedReader(inputReader);
-        tmpUpdate("Read CSV-File with success, trying to "
-            + "parse line by line.", 2);
-        int valueCount = 0;
-        while ((tmpArray[valueCount] = buffReader.readLine()) != null) {
-          valueCount++;
-        }
-        valueCount--;
-        if (valueCount >= 168) {
-          if (valueCount <= 1008) {
-            csv = new String[valueCount + 1];
-            for (int x = 0; x <= valueCount; x++) {
-              csv[x] = tmpArray[x];
-              logOnly(csv[x], 2);
-            }
-            setValueCount(valueCount);
-            tmpUpdate("Parsed " + valueCount + " lines with success.", 2);
-          } else {
-            csv = new String[0];
-            tmpUpdate("Error: " + valueCount
-                + " are too many data sets. Aborting.", 0);
-            tmpUpdate(
-                "Error: Make sure you have at maximum six weeks of records (<= 1008).",
-                0);
-          }
-        } else {
-          csv = new String[0];
-          tmpUpdate("Error: " + valueCount
-              + " are not enough data sets. Aborting.", 0);
-          tmpUpdate(
-              "Error: Make sure you have at least one week of records (>= 168).",
-              0);
-        }
-        buffReader.close();
-        inputReader.close();
-        dataInput.close();
-        fileInput.close();
-      } catch (Exception e) {
-        csv = new String[0];
-        tmpUpdate("Error: " + e.getMessage(), 0);
-        tmpUpdate("Error: Failed to read CSV-File" + fileName + ".", 0);
-        e.printStackTrace();
-      }
-      tmpArray = null;
-      return csv;
-    }
-
-    /**
-     * Method for parsing rooms from the CSV-file by extracting each unique room
-     * ID and any related radon values for each room.
-     * 
-     * @param csv
-     *          An array of strings, each string representing one line of the
-     *          previously parsed CSV-file.
-     * @param detectionLimit
-     *          The detection limit is used to set empty or '0'-values as radon
-     *          concentrations of 0 Bq/m\0x00B3 are most likely below detection
-     *          limit.
-     * @return An array consisting of all rooms of the building.
-     * @throws IOException
-     *           If creating log file or writing logs fails.
-     */
-    private OMRoom[] parseRooms(String[] csv, double detectionLimit)
-        throws IOException {
-      tmpUpdate("Trying to parse rooms.", 3);
-      OMRoom[] rooms;
-      try {
-        if (csv.length > 1) {
-          String header = csv[0];
-          String[] roomId = header.split("\\;");
-          int roomCount = roomId.length;
-          for (int i = 1; i < roomCount; i++) {
-            tmpUpdate("Found room: " + roomId[i], 3);
-            if (roomId[i].isEmpty()) {
-              tmpUpdate(
-                  "Warning: malformed room identifier. Using \"m0\" for misc.",
-                  3);
-              roomId[i] = "m0";
-            }
-          }
-          roomCount--;
-          setRoomCount(roomCount);
-          tmpUpdate("Parsed " + roomCount + " rooms with success.", 3);
-          rooms = new OMRoom[roomCount];
-          int valueCount = getValueCount();
-          double[] values[] = new double[roomCount][valueCount];
-          tmpUpdate("Trying to collect values for each room.", 3);
-          String[] tmpValues = roomId;
-          int tmpLength = tmpValues.length;
-          boolean success = true;
-          for (int i = 1; i < csv.length; i++) {
-            tmpValues = csv[i].split("\\;");
-            boolean isFirstDigit = Character.isDigit(csv[i].charAt(0));
-            boolean isLastDigit = Character.isDigit(csv[i].charAt(csv[i]
-                .length() - 1));
-            if (isFirstDigit && isLastDigit) {
-              if (tmpValues.length == tmpLength) {
-                for (int j = 1; j < tmpValues.length; j++) {
-                  int x = j - 1;
-                  int y = i - 1;
-                  if (tmpValues[j].isEmpty()) {
-                    tmpUpdate("Warning: Empty string. Using value 0.", 4);
-                    values[x][y] = 0.0;
-                  } else {
-                    values[x][y] = (double) Integer.parseInt(tmpValues[j]);
-                  }
-                  if (values[x][y] < detectionLimit) {
-                    tmpUpdate("Warning: Value " + i + " for room " + roomId[j]
-                        + ": '" + tmpValues[j]
-                        + "' below detection limit. Using half of the limit ("
-                        + (detectionLimit / 2.0) + ").", 4);
-                    values[x][y] = detectionLimit / 2.0;
-                  }
-                  logOnly("Parsed value " + i + " for room " + roomId[j] + ": "
-                      + values[x][y], 4);
-                }
-                tmpLength = tmpValues.length;
-              } else {
-                tmpUpdate("Error: Malformed CSV-file. Aborting.", 0);
-                i = csv.length + 1;
-                success = false;
-              }
-            } else {
-              tmpUpdate("Error: Malformed CSV-line: " + csv[i], 0);
-              i = csv.length + 1;
-              success = false;
-            }
-          }
-          if (success) {
-            for (int k = 1; k <= roomCount; k++) {
-              int z = k - 1;
-              rooms[z] = new OMRoom(roomId[k], values[z]);
-            }
-            tmpUpdate("Successfully collected values for each room.", 5);
-          } else {
-            rooms = new OMRoom[0];
-            tmpUpdate("Error: Check your CSV-File.", 0);
-          }
-        } else {
-          rooms = new OMRoom[0];
-          tmpUpdate("Error: No data records found.", 0);
-          tmpUpdate("Error: Check your CSV-File.", 0);
-        }
-      } catch (Exception e) {
-        rooms = new OMRoom[0];
-        tmpUpdate("Error: " + e.getMessage(), 0);
-        tmpUpdate("Error: Failed to parse rooms.", 0);
-        e.printStackTrace();
-      }
-      return rooms;
-    }
-
-    /**
-     * Method to separate an array of various rooms by their different types and
-     * to create an OMBuilding object out of this rooms.
-     * 
-     * @param name
-     *          A custom name for the object which can be set by the user
-     *          creating the building.
-     * @param date
-     *          A custom start date which can be set by the user creating the
-     *          building. The date can be chosen either to identify the start
-     *          date of the measurements or to identify the start date of the
-     *          simulations. That's up to the user and does not affect the
-     *          simulations.
-     * @param rooms
-     *          An building consisting of all the rooms.
-     * @return An building object.
-     * @throws IOException
-     *           If creating log file or writing logs fails.
-     */
-    private OMBuilding separateRooms(String name, Date date, OMRoom[] rooms)
-        throws IOException {
-      tmpUpdate("Trying to separate rooms.", 6);
-      int cellarCount = 0;
-      int normalCount = 0;
-      int miscCount = 0;
-      int roomCount = getRoomCount();
-      OMBuilding building = new OMBuilding();
-      if (rooms.length > 0) {
-        for (int i = 0; i < roomCount; i++) {
-          if (rooms[i].getType() == OMRoomType.Cellar) {
-            cellarCount++;
-          } else {
-            if (rooms[i].getType() == OMRoomType.Room) {
-              normalCount++;
-            } else {
-              miscCount++;
-            }
-          }
-        }
-        OMRoom[] cellars = new OMRoom[cellarCount];
-        OMRoom[] normals = new OMRoom[normalCount];
-        OMRoom[] miscs = new OMRoom[miscCount];
-        tmpUpdate("Found " + normalCount + " normal rooms, " + cellarCount
-            + " cellars and " + miscCount + " miscellaneous rooms.", 6);
-        if (normalCount >= 3 && cellarCount >= 1) {
-          if (normalCount <= 8 && cellarCount <= 4) {
-            if (roomCount == cellarCount + normalCount + miscCount) {
-              tmpUpdate("Separation test succeeded, separating rooms.", 6);
-              cellarCount = 0;
-              normalCount = 0;
-              miscCount = 0;
-              for (int j = 0; j < roomCount; j++) {
-                if (rooms[j].getType() == OMRoomType.Cellar) {
-                  cellars[cellarCount] = rooms[j];
-                  cellarCount++;
-                } else {
-                  if (rooms[j].getType() == OMRoomType.Room) {
-                    normals[normalCount] = rooms[j];
-                    normalCount++;
-                  } else {
-                    miscs[miscCount] = rooms[j];
-                    miscCount++;
-                  }
-                }
-              }
-              tmpUpdate(
-                  "Setting up rooms by types. This may take a few minutes.", 7);
-              progressBarImport.setIndeterminate(true);
-              int valueCount = getValueCount();
-              building = new OMBuilding(name, date, roomCount, valueCount,
-                  normals, cellars, miscs);
-              progressBarImport.setIndeterminate(false);
-              tmpUpdate("Done. Finished setting up rooms.", 68);
-            } else {
-              tmpUpdate("Error: Separation test failed. Malformed input.", 0);
-            }
-          } else {
-            tmpUpdate(
-                "Error: Separation test failed. Too many rooms or cellars.", 0);
-            tmpUpdate(
-                "Error: Make sure you don't have more than 8 rooms and 4 cellars.",
-                0);
-          }
-        } else {
-          tmpUpdate(
-              "Error: Separation test failed. Not enough rooms or cellars.", 0);
-          tmpUpdate("Error: Make sure you have at least 3 rooms and 1 cellar.",
-              0);
-        }
-      } else {
-        tmpUpdate(
-            "Error: Separation test failed. Not enough rooms or cellars.", 0);
-      }
-      return building;
-    }
-
     /**
      * Executed in event dispatching thread after finishing the import task.
      * Updates the interface and adds current object to data, simulation and
@@ -37,6 +37,7 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.util.List;
 
 import javax.swing.DefaultComboBoxModel;
 import javax.swing.JButton;
@@ -52,7 +53,6 @@ import javax.swing.JTextField;
 import javax.swing.SwingWorker;
 import javax.swing.filechooser.FileNameExtensionFilter;
 
-import org.apache.commons.math.stat.descriptive.DescriptiveStatistics;
 import org.jfree.chart.ChartMouseEvent;
 import org.jfree.chart.ChartMouseListener;
 import org.jfree.chart.ChartPanel;
@@ -60,15 +60,15 @@ import org.jfree.chart.JFreeChart;
 import org.jfree.chart.entity.XYItemEntity;
 import org.jfree.data.xy.XYDataset;
 
-import com.db4o.Db4oEmbedded;
-import com.db4o.ObjectContainer;
-import com.db4o.ObjectSet;
 import com.itextpdf.awt.DefaultFontMapper;
 import com.itextpdf.text.PageSize;
 
 import de.bfs.radon.omsimulation.data.OMCampaign;
+import de.bfs.radon.omsimulation.data.OMDistribution;
+import de.bfs.radon.omsimulation.data.OMRepository;
 import de.bfs.radon.omsimulation.data.OMRoomType;
 import de.bfs.radon.omsimulation.data.OMSimulation;
+import de.bfs.radon.omsimulation.data.OMSimulationSummary;
 import de.bfs.radon.omsimulation.gui.data.OMCharts;
 import de.bfs.radon.omsimulation.gui.data.OMExports;
 import de.bfs.radon.omsimulation.gui.data.OMStatistics;
@@ -150,9 +150,11 @@ public class OMPanelResults extends JPanel {
   private JButton                 btnMaximize;
 
   /**
-   * UI: Combobox to select a simulation to analyse.
+   * UI: Combobox to select a simulation to analyse. Holds the catalog entries
+   * of the simulations, the charts are drawn from their compact distributions
+   * and a simulation is only loaded to inspect or export its campaigns.
    */
-  private JComboBox<OMSimulation> comboBoxSimulations;
+  private JComboBox<OMSimulationSummary> comboBoxSimulations;
 
   /**
    * UI: Combobox to select a certain statistics type to analyse.
@@ -218,67 +220,62 @@ public class OMPanelResults extends JPanel {
 
     /**
      * Updates the chart panel with the distribution of the selected statistics.
+     * Loads the selected simulation and builds the index of the campaigns
+     * ordered by the selected metric, so clicking the chart only needs to
+     * look up and simulate the nearest campaign.
      * 
      * @see javax.swing.SwingWorker#doInBackground()
      */
     @Override
     protected Void doInBackground() throws Exception {
-      OMSimulation simulation = (OMSimulation) comboBoxSimulations
-          .getSelectedItem();
-      String title = simulation.toString();
-      DescriptiveStatistics statistics = null;
+      OMSimulationSummary summary = getSelectedSummary();
+      String title = summary.toString();
       OMStatistics statisticsType = (OMStatistics) comboBoxStatistics
           .getSelectedItem();
       OMRoomType roomType = null;
       switch (statisticsType) {
         case RoomArithmeticMeans:
           title = "R_AM, " + title;
-          statistics = simulation.getRoomAmDescriptiveStats();
           roomType = OMRoomType.Room;
           break;
         case RoomGeometricMeans:
           title = "R_GM, " + title;
-          statistics = simulation.getRoomGmDescriptiveStats();
           roomType = OMRoomType.Room;
           break;
         case RoomMedianQ50:
           title = "R_MED, " + title;
-          statistics = simulation.getRoomMedDescriptiveStats();
           roomType = OMRoomType.Room;
           break;
         case RoomMaxima:
           title = "R_MAX, " + title;
-          statistics = simulation.getRoomMaxDescriptiveStats();
           roomType = OMRoomType.Room;
           break;
         case CellarArithmeticMeans:
           title = "C_AM, " + title;
-          statistics = simulation.getCellarAmDescriptiveStats();
           roomType = OMRoomType.Cellar;
           break;
         case CellarGeometricMeans:
           title = "C_GM, " + title;
-          statistics = simulation.getCellarGmDescriptiveStats();
           roomType = OMRoomType.Cellar;
           break;
         case CellarMedianQ50:
           title = "C_MED, " + title;
-          statistics = simulation.getCellarMedDescriptiveStats();
           roomType = OMRoomType.Cellar;
           break;
         case CellarMaxima:
           title = "C_MAX, " + title;
-          statistics = simulation.getCellarMaxDescriptiveStats();
           roomType = OMRoomType.Cellar;
           break;
         default:
           title = "R_AM, " + title;
-          statistics = simulation.getRoomAmDescriptiveStats();
           roomType = OMRoomType.Misc;
           break;
       }
-      panelChart = createDistributionPanel(title, statistics, roomType, false,
-          false, true);
+      int metric = getMetric(statisticsType);
+      OMDistribution distribution = summary.getDistribution(metric);
+      summary.getSimulation().getCampaignIndex(metric);
+      panelChart = createDistributionPanel(title, distribution, roomType,
+          false, false, true);
       panelDistribution = new JPanel();
       panelDistribution.setBounds(10, 118, 730, 347);
       panelDistribution.add(panelChart);
@@ -337,23 +334,19 @@ public class OMPanelResults extends JPanel {
     @Override
     public Void doInBackground() {
       tmpUpdate("Getting objects from Database... ", 1);
-      ObjectContainer db4o = Db4oEmbedded.openFile(
-          Db4oEmbedded.newConfiguration(), getOmsFile());
-      ObjectSet<OMSimulation> result = db4o.queryByExample(OMSimulation.class);
-      OMSimulation found;
+      List<OMSimulationSummary> found = OMRepository
+          .getCatalog(getOmsFile());
       tmpUpdate("Refreshing list... ", 2);
       tmpUpdate("Adding items... ", 3);
-      for (int i = 0; i < result.size(); i++) {
-        double perc = (double) i / (double) result.size() * 100.0 + 3.0;
+      for (int i = 0; i < found.size(); i++) {
+        double perc = (double) i / (double) found.size() * 100.0 + 3.0;
         while (perc > 99) {
           perc--;
         }
-        found = (OMSimulation) result.next();
-        comboBoxSimulations.addItem(found);
-        tmpUpdate("Added: " + found, (int) perc);
+        comboBoxSimulations.addItem(found.get(i));
+        tmpUpdate("Added: " + found.get(i), (int) perc);
       }
       tmpUpdate("Finished. ", 100);
-      db4o.close();
       return null;
     }
 
@@ -390,14 +383,14 @@ public class OMPanelResults extends JPanel {
    * 
    * @param oms
    *          Absolute path to an OMS object file to load on init.
-   * @param simulation
-   *          The OMS simulation object.
+   * @param summary
+   *          The catalog entry of the OMS simulation object.
    */
-  public OMPanelResults(String oms, OMSimulation simulation) {
+  public OMPanelResults(String oms, OMSimulationSummary summary) {
     initialize();
     setOmsFile(oms);
     txtOmsFile.setText(oms);
-    comboBoxSimulations.addItem(simulation);
+    comboBoxSimulations.addItem(summary);
     comboBoxSimulations.setEnabled(true);
     comboBoxSimulations.setSelectedIndex(0);
   }
@@ -422,61 +415,52 @@ public class OMPanelResults extends JPanel {
         if (comboBoxSimulations.isEnabled()) {
           if (comboBoxSimulations.getSelectedItem() != null) {
             JFrame chartFrame = new JFrame();
-            OMSimulation simulation = (OMSimulation) comboBoxSimulations
-                .getSelectedItem();
-            String title = simulation.toString();
-            DescriptiveStatistics statistics = null;
+            OMSimulationSummary summary = getSelectedSummary();
+            String title = summary.toString();
             OMStatistics statisticsType = (OMStatistics) comboBoxStatistics
                 .getSelectedItem();
             OMRoomType roomType = null;
             switch (statisticsType) {
               case RoomArithmeticMeans:
                 title = "R_AM, " + title;
-                statistics = simulation.getRoomAmDescriptiveStats();
                 roomType = OMRoomType.Room;
                 break;
               case RoomGeometricMeans:
                 title = "R_GM, " + title;
-                statistics = simulation.getRoomGmDescriptiveStats();
                 roomType = OMRoomType.Room;
                 break;
               case RoomMedianQ50:
                 title = "R_MED, " + title;
-                statistics = simulation.getRoomMedDescriptiveStats();
                 roomType = OMRoomType.Room;
                 break;
               case RoomMaxima:
                 title = "R_MAX, " + title;
-                statistics = simulation.getRoomMaxDescriptiveStats();
                 roomType = OMRoomType.Room;
                 break;
               case CellarArithmeticMeans:
                 title = "C_AM, " + title;
-                statistics = simulation.getCellarAmDescriptiveStats();
                 roomType = OMRoomType.Cellar;
                 break;
               case CellarGeometricMeans:
                 title = "C_GM, " + title;
-                statistics = simulation.getCellarGmDescriptiveStats();
                 roomType = OMRoomType.Cellar;
                 break;
               case CellarMedianQ50:
                 title = "C_MED, " + title;
-                statistics = simulation.getCellarMedDescriptiveStats();
                 roomType = OMRoomType.Cellar;
                 break;
               case CellarMaxima:
                 title = "C_MAX, " + title;
-                statistics = simulation.getCellarMaxDescriptiveStats();
                 roomType = OMRoomType.Cellar;
                 break;
               default:
                 title = "R_AM, " + title;
-                statistics = simulation.getRoomAmDescriptiveStats();
                 roomType = OMRoomType.Misc;
                 break;
             }
-            JPanel chartPanel = createDistributionPanel(title, statistics,
+            OMDistribution distribution = summary
+                .getDistribution(getMetric(statisticsType));
+            JPanel chartPanel = createDistributionPanel(title, distribution,
                 roomType, false, true, true);
             chartFrame.getContentPane().add(chartPanel);
             chartFrame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
@@ -509,9 +493,7 @@ public class OMPanelResults extends JPanel {
             csv = ".csv";
           }
           String csvPath = file.getAbsolutePath() + csv;
-          OMSimulation simulation = (OMSimulation) comboBoxSimulations
-              .getSelectedItem();
-          OMCampaign[] campaigns = simulation.getCampaigns();
+          OMSimulation simulation = getSelectedSimulation();
           File csvFile = new File(csvPath);
           try {
             FileWriter logWriter = new FileWriter(csvFile);
@@ -550,39 +532,12 @@ public class OMPanelResults extends JPanel {
             }
             csvOutput.write("\"ID\";\"CAMPAIGN\";\"START\";\"" + head + "\"");
             csvOutput.newLine();
+            int metric = getMetric(statisticsType);
             int value = 0;
-            for (int i = 0; i < campaigns.length; i++) {
-              switch (statisticsType) {
-                case RoomArithmeticMeans:
-                  value = (int) campaigns[i].getRoomAverage();
-                  break;
-                case RoomGeometricMeans:
-                  value = (int) campaigns[i].getRoomLogAverage();
-                  break;
-                case RoomMedianQ50:
-                  value = (int) campaigns[i].getRoomMedian();
-                  break;
-                case RoomMaxima:
-                  value = (int) campaigns[i].getRoomMaximum();
-                  break;
-                case CellarArithmeticMeans:
-                  value = (int) campaigns[i].getCellarAverage();
-                  break;
-                case CellarGeometricMeans:
-                  value = (int) campaigns[i].getCellarLogAverage();
-                  break;
-                case CellarMedianQ50:
-                  value = (int) campaigns[i].getCellarMedian();
-                  break;
-                case CellarMaxima:
-                  value = (int) campaigns[i].getCellarMaximum();
-                  break;
-                default:
-                  value = (int) campaigns[i].getRoomAverage();
-                  break;
-              }
-              csvOutput.write("\"" + i + "\";\"" + campaigns[i].getVariation()
-                  + "\";\"" + campaigns[i].getStart() + "\";\"" + value + "\"");
+            for (int i = 0; i < simulation.getTotal(); i++) {
+              value = (int) simulation.getMetric(i, metric);
+              csvOutput.write("\"" + i + "\";\"" + simulation.getVariation(i)
+                  + "\";\"" + simulation.getStart(i) + "\";\"" + value + "\"");
               csvOutput.newLine();
             }
             JOptionPane.showMessageDialog(null, "CSV saved successfully!\n"
@@ -623,62 +578,53 @@ public class OMPanelResults extends JPanel {
             pdf = ".pdf";
           }
           String pdfPath = file.getAbsolutePath() + pdf;
-          OMSimulation simulation = (OMSimulation) comboBoxSimulations
-              .getSelectedItem();
-          String title = simulation.toString();
-          DescriptiveStatistics statistics = null;
+          OMSimulationSummary summary = getSelectedSummary();
+          String title = summary.toString();
           OMStatistics statisticsType = (OMStatistics) comboBoxStatistics
               .getSelectedItem();
           OMRoomType roomType = null;
           switch (statisticsType) {
             case RoomArithmeticMeans:
               title = "R_AM, " + title;
-              statistics = simulation.getRoomAmDescriptiveStats();
               roomType = OMRoomType.Room;
               break;
             case RoomGeometricMeans:
               title = "R_GM, " + title;
-              statistics = simulation.getRoomGmDescriptiveStats();
               roomType = OMRoomType.Room;
               break;
             case RoomMedianQ50:
               title = "R_MED, " + title;
-              statistics = simulation.getRoomMedDescriptiveStats();
               roomType = OMRoomType.Room;
               break;
             case RoomMaxima:
               title = "R_MAX, " + title;
-              statistics = simulation.getRoomMaxDescriptiveStats();
               roomType = OMRoomType.Room;
               break;
             case CellarArithmeticMeans:
               title = "C_AM, " + title;
-              statistics = simulation.getCellarAmDescriptiveStats();
               roomType = OMRoomType.Cellar;
               break;
             case CellarGeometricMeans:
               title = "C_GM, " + title;
-              statistics = simulation.getCellarGmDescriptiveStats();
               roomType = OMRoomType.Cellar;
               break;
             case CellarMedianQ50:
               title = "C_MED, " + title;
-              statistics = simulation.getCellarMedDescriptiveStats();
               roomType = OMRoomType.Cellar;
               break;
             case CellarMaxima:
               title = "C_MAX, " + title;
-              statistics = simulation.getCellarMaxDescriptiveStats();
               roomType = OMRoomType.Cellar;
               break;
             default:
               title = "R_AM, " + title;
-              statistics = simulation.getRoomAmDescriptiveStats();
               roomType = OMRoomType.Misc;
               break;
           }
+          OMDistribution distribution = summary
+              .getDistribution(getMetric(statisticsType));
           JFreeChart chart = OMCharts.createDistributionChart(title,
-              statistics, roomType, false);
+              distribution, roomType, false);
           int height = (int) PageSize.A4.getWidth();
           int width = (int) PageSize.A4.getHeight();
           try {
@@ -715,7 +661,7 @@ public class OMPanelResults extends JPanel {
     lblSelectStatistics.setBounds(10, 94, 132, 14);
     add(lblSelectStatistics);
 
-    comboBoxSimulations = new JComboBox<OMSimulation>();
+    comboBoxSimulations = new JComboBox<OMSimulationSummary>();
     comboBoxSimulations.setFont(new Font("SansSerif", Font.PLAIN, 11));
     comboBoxSimulations.addPropertyChangeListener(new PropertyChangeListener() {
       public void propertyChange(PropertyChangeEvent arg0) {
@@ -906,13 +852,13 @@ public class OMPanelResults extends JPanel {
    * 
    * @param title
    *          The headline of the chart. Will be hidden if set to null.
-   * @param statistics
-   *          The selected statistics of a campaign containing all needed
-   *          values.
+   * @param distribution
+   *          The compact distribution of the selected statistics of a
+   *          simulation.
    * @param roomType
    *          The room type to determine the colour of the chart.
    * @param preview
-   *          Will hide annotations, labels and headlines if set true.
+   *          Will draw a coarser distribution if set true.
    * @param fullscreen
    *          Will correctly adjust the preferred size to screen resolution if
    *          true.
@@ -924,9 +870,9 @@ public class OMPanelResults extends JPanel {
    *         values.
    */
   public JPanel createDistributionPanel(String title,
-      DescriptiveStatistics statistics, OMRoomType roomType, boolean preview,
+      OMDistribution distribution, OMRoomType roomType, boolean preview,
       boolean fullscreen, boolean mouseEvent) {
-    JFreeChart chart = OMCharts.createDistributionChart(title, statistics,
+    JFreeChart chart = OMCharts.createDistributionChart(title, distribution,
         roomType, preview);
     ChartPanel chartPanel = new ChartPanel(chart);
     Dimension dim;
@@ -940,58 +886,18 @@ public class OMPanelResults extends JPanel {
       chartPanel.addChartMouseListener(new ChartMouseListener() {
         @Override
         public void chartMouseClicked(ChartMouseEvent e) {
-          OMSimulation simulation = (OMSimulation) comboBoxSimulations
-              .getSelectedItem();
-          OMCampaign[] campaigns = simulation.getCampaigns();
+          OMSimulation simulation = getSelectedSimulation();
           try {
             XYItemEntity entity = (XYItemEntity) e.getEntity();
             XYDataset dataset = entity.getDataset();
             int item = entity.getItem();
             double x = dataset.getXValue(0, item);
-            double comparable = 0.0;
-            OMCampaign result = null;
             OMStatistics selectedType = (OMStatistics) comboBoxStatistics
                 .getSelectedItem();
-            for (int i = 0; i < campaigns.length; i++) {
-              switch (selectedType) {
-                case RoomArithmeticMeans:
-                  comparable = campaigns[i].getRoomAverage();
-                  break;
-                case RoomGeometricMeans:
-                  comparable = campaigns[i].getRoomLogAverage();
-                  break;
-                case RoomMedianQ50:
-                  comparable = campaigns[i].getRoomMedian();
-                  break;
-                case RoomMaxima:
-                  comparable = campaigns[i].getRoomMaximum();
-                  break;
-                case CellarArithmeticMeans:
-                  comparable = campaigns[i].getCellarAverage();
-                  break;
-                case CellarGeometricMeans:
-                  comparable = campaigns[i].getCellarLogAverage();
-                  break;
-                case CellarMedianQ50:
-                  comparable = campaigns[i].getCellarMedian();
-                  break;
-                case CellarMaxima:
-                  comparable = campaigns[i].getCellarMaximum();
-                  break;
-                default:
-                  comparable = campaigns[i].getRoomAverage();
-                  break;
-              }
-              if (comparable == x) {
-                result = campaigns[i];
-              }
-            }
-            if (result != null) {
-              try {
-                Thread.sleep(100);
-              } catch (InterruptedException ie) {
-                ie.printStackTrace();
-              }
+            int metric = getMetric(selectedType);
+            int index = simulation.getCampaignIndex(metric).findNearest(x);
+            if (index >= 0) {
+              OMCampaign result = simulation.getCampaign(index);
               JTabbedPane tab = (JTabbedPane) getParent();
               tab.remove(tab.getComponentAt(4));
               JPanel jpanelTesting = new OMPanelTesting(simulation, result);
@@ -1013,6 +919,54 @@ public class OMPanelResults extends JPanel {
     return distPanel;
   }
 
+  /**
+   * Gets the index of the metric column of a simulation for a type of
+   * statistics.
+   * 
+   * @param statisticsType
+   *          The type of statistics.
+   * @return The index of the metric column, e.g. OMSimulation.ROOM_AM.
+   */
+  private static int getMetric(OMStatistics statisticsType) {
+    switch (statisticsType) {
+      case RoomGeometricMeans:
+        return OMSimulation.ROOM_GM;
+      case RoomMedianQ50:
+        return OMSimulation.ROOM_MED;
+      case RoomMaxima:
+        return OMSimulation.ROOM_MAX;
+      case CellarArithmeticMeans:
+        return OMSimulation.CELLAR_AM;
+      case CellarGeometricMeans:
+        return OMSimulation.CELLAR_GM;
+      case CellarMedianQ50:
+        return OMSimulation.CELLAR_MED;
+      case CellarMaxima:
+        return OMSimulation.CELLAR_MAX;
+      default:
+        return OMSimulation.ROOM_AM;
+    }
+  }
+
+  /**
+   * Gets the catalog entry of the selected simulation.
+   * 
+   * @return The catalog entry of the selected simulation.
+   */
+  private OMSimulationSummary getSelectedSummary() {
+    return (OMSimulationSummary) comboBoxSimulations.getSelectedItem();
+  }
+
+  /**
+   * Gets the selected simulation. Loads the simulation from the OMS file if it
+   * is selected for the first time.
+   * 
+   * @return The selected simulation.
+   */
+  private OMSimulation getSelectedSimulation() {
+    return getSelectedSummary().getSimulation();
+  }
+
   /**
    * Updates the distribution chart in a background thread.
    */
@@ -24,6 +24,7 @@ package de.bfs.radon.omsimulation.gui;
 
 import java.awt.Color;
 import java.awt.Cursor;
+import java.awt.EventQueue;
 import java.awt.Font;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
@@ -31,12 +32,9 @@ import java.awt.event.FocusAdapter;
 import java.awt.event.FocusEvent;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.text.DecimalFormat;
-import java.util.Random;
+import java.util.List;
 
 import javax.swing.JButton;
 import javax.swing.JCheckBox;
@@ -56,18 +54,13 @@ import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 import javax.swing.filechooser.FileNameExtensionFilter;
 
-import org.apache.commons.math.stat.descriptive.DescriptiveStatistics;
-import org.apache.commons.math.stat.descriptive.SummaryStatistics;
-
-import com.db4o.Db4oEmbedded;
-import com.db4o.ObjectContainer;
-import com.db4o.ObjectSet;
-
 import de.bfs.radon.omsimulation.data.OMBuilding;
-import de.bfs.radon.omsimulation.data.OMCampaign;
 import de.bfs.radon.omsimulation.data.OMHelper;
-import de.bfs.radon.omsimulation.data.OMRoom;
-import de.bfs.radon.omsimulation.data.OMSimulation;
+import de.bfs.radon.omsimulation.data.OMRepository;
+import de.bfs.radon.omsimulation.data.OMSimulationSummary;
+import de.bfs.radon.omsimulation.engine.OMProgressSample;
+import de.bfs.radon.omsimulation.engine.OMSimulationEngine;
+import de.bfs.radon.omsimulation.engine.OMSimulationListener;
 
 /**
  * @author A. Schoedon
@@ -109,9 +102,10 @@ public class OMPanelSimulation extends JPanel implements ActionListener {
   private String                omsFile;
 
   /**
-   * Stores the OMS simulation object which is used for analysing results later.
+   * Stores the catalog entry of the OMS simulation object which is used for
+   * analysing results later.
    */
-  private OMSimulation          omsObject;
+  private OMSimulationSummary   omsObject;
 
   /**
    * Stores a custom name for the object defined by the user.
@@ -123,6 +117,11 @@ public class OMPanelSimulation extends JPanel implements ActionListener {
    */
   private boolean               isSystematic;
 
+  /**
+   * Indicates whether a systematic simulation is resumed from its checkpoint.
+   */
+  private boolean               isResume;
+
   /**
    * Stores the number of how many random campaigns will be simulated.
    */
@@ -220,6 +219,11 @@ public class OMPanelSimulation extends JPanel implements ActionListener {
    */
   private JButton               btnStart;
 
+  /**
+   * UI: Button to resume a systematic simulation from its checkpoint.
+   */
+  private JButton               btnResume;
+
   /**
    * UI: Button to open a file browser to load an OMB file.
    */
@@ -360,21 +364,23 @@ public class OMPanelSimulation extends JPanel implements ActionListener {
   }
 
   /**
-   * Gets the OMS simulation object which is used for analysing results later.
+   * Gets the catalog entry of the OMS simulation object which is used for
+   * analysing results later.
    * 
-   * @return The OMS simulation object.
+   * @return The catalog entry of the OMS simulation object.
    */
-  public OMSimulation getOmsObject() {
+  public OMSimulationSummary getOmsObject() {
     return this.omsObject;
   }
 
   /**
-   * Sets the OMS simulation object which is used for analysing results later.
+   * Sets the catalog entry of the OMS simulation object which is used for
+   * analysing results later.
    * 
    * @param omsObject
-   *          The OMS simulation object.
+   *          The catalog entry of the OMS simulation object.
    */
-  public void setOmsObject(OMSimulation omsObject) {
+  public void setOmsObject(OMSimulationSummary omsObject) {
     this.omsObject = omsObject;
   }
 
@@ -435,6 +441,25 @@ public class OMPanelSimulation extends JPanel implements ActionListener {
     this.isSystematic = isSystematic;
   }
 
+  /**
+   * Indicates whether a systematic simulation is resumed from its checkpoint.
+   * 
+   * @return True if a systematic simulation is resumed from its checkpoint.
+   */
+  public boolean isResume() {
+    return this.isResume;
+  }
+
+  /**
+   * Sets whether a systematic simulation is resumed from its checkpoint.
+   * 
+   * @param isResume
+   *          True to resume a systematic simulation from its checkpoint.
+   */
+  public void setResume(boolean isResume) {
+    this.isResume = isResume;
+  }
+
   /**
    * Gets the number of how many random campaigns will be simulated.
    * 
@@ -625,9 +650,7 @@ public class OMPanelSimulation extends JPanel implements ActionListener {
     @Override
     public Void doInBackground() {
       tmpUpdate("Getting objects from file '" + getOmbFile() + "'.", 1);
-      ObjectContainer db4o = Db4oEmbedded.openFile(
-          Db4oEmbedded.newConfiguration(), getOmbFile());
-      ObjectSet<OMBuilding> result = db4o.queryByExample(OMBuilding.class);
+      List<OMBuilding> result = OMRepository.getBuildings(getOmbFile());
       OMBuilding found;
       tmpUpdate("Refreshing list... ", 2);
       tmpUpdate("Adding items... ", 3);
@@ -636,12 +659,11 @@ public class OMPanelSimulation extends JPanel implements ActionListener {
         while (perc > 99) {
           perc--;
         }
-        found = (OMBuilding) result.next();
+        found = result.get(i);
         comboBoxSelectProject.addItem(found);
         tmpUpdate("Added: " + found.getName(), (int) perc);
       }
       tmpUpdate("Finished. ", 100);
-      db4o.close();
       return null;
     }
 
@@ -670,32 +692,38 @@ public class OMPanelSimulation extends JPanel implements ActionListener {
    * 
    * @author A. Schoedon
    */
-  class Simulation extends SwingWorker<Void, Void> {
+  class Simulation extends SwingWorker<Void, OMProgressSample> {
 
     /**
-     * Stores the starting timestamp of the simulation to calculate the status
-     * and remaining time later.
+     * The message of the dialog shown after finishing the simulation.
      */
-    private double start;
+    private String dialogMessage;
 
     /**
-     * Gets the starting timestamp of the simulation.
-     * 
-     * @return The starting timestamp of the simulation.
+     * The title of the dialog shown after finishing the simulation.
      */
-    public double getStart() {
-      return start;
-    }
+    private String dialogTitle;
 
     /**
-     * Sets the starting timestamp of the simulation to calculate the status and
-     * remaining time later.
+     * The message type of the dialog shown after finishing the simulation.
+     */
+    private int    dialogType;
+
+    /**
+     * Remembers a dialog to be shown in the event dispatching thread after
+     * finishing the simulation.
      * 
-     * @param start
-     *          The starting timestamp of the simulation.
+     * @param message
+     *          The message of the dialog.
+     * @param title
+     *          The title of the dialog.
+     * @param type
+     *          The message type of the dialog.
      */
-    public void setStart(double start) {
-      this.start = start;
+    private void setDialog(String message, String title, int type) {
+      this.dialogMessage = message;
+      this.dialogTitle = title;
+      this.dialogType = type;
     }
 
     /**
@@ -710,8 +738,7 @@ public class OMPanelSimulation extends JPanel implements ActionListener {
     private void tmpUpdate(String s, int i) {
       setLogMsg(s);
       setStatus(i);
-      progressBarSimulation.setString(s);
-      progressBarSimulation.setValue(i);
+      showProgress(s, i);
       try {
         if (OMHelper.isLogOutputEnabled()) {
           OMHelper.writeLog(getLogMsg());
@@ -722,89 +749,74 @@ public class OMPanelSimulation extends JPanel implements ActionListener {
     }
 
     /**
-     * Writes messages to the log file which are not displayed at the progress
-     * bar. This is used to increase performance.
+     * Shows a message and a status on the progress bar. May be called from any
+     * thread, the progress bar is only changed in the event dispatching thread.
      * 
      * @param s
-     *          The log message.
+     *          The message.
      * @param i
      *          The status in percent.
      */
-    private void logOnly(String s, int i) {
-      setLogMsg(s);
-      setStatus(i);
-      try {
-        if (OMHelper.isLogOutputEnabled()) {
-          OMHelper.writeLog(getLogMsg());
+    private void showProgress(final String s, final int i) {
+      EventQueue.invokeLater(new Runnable() {
+        public void run() {
+          progressBarSimulation.setString(s);
+          progressBarSimulation.setValue(i);
         }
-      } catch (IOException e) {
-        e.printStackTrace();
-      }
+      });
     }
 
     /**
      * Starts the main simulation task which is executed in background thread.
+     * The simulation itself is done by the OMSimulationEngine, this task only
+     * updates the progress bar and shows the result.
      * 
      * @see javax.swing.SwingWorker#doInBackground()
      */
     @Override
     public Void doInBackground() {
       try {
-        int status = 0;
-        setStart(System.currentTimeMillis());
-        String logPath = getOmsFile();
-        String logType = "random_simulation";
-        if (isSystematic) {
-          logPath = getOmbFile();
-          logType = "systematic_simulation";
-        }
-        OMHelper.setLogOutput(logPath, logType);
-        tmpUpdate("Starting ...", 1);
-        OMBuilding building = getSelectedObject();
-        tmpUpdate("Opened building: " + building, 1);
-        int maxCampaigns = getRandomCampaigns();
-        int ratioThree = getRatio3();
-        int ratioFour = getRatio4();
-        int ratioFive = getRatio5();
-        int ratioSix = getRatio6();
-        int randomNoise = getRandomNoise();
-        if (isSystematic()) {
-          generateSystematicCampaigns(building, randomNoise);
-        } else {
-          generateRandomCampaigns(building, maxCampaigns, ratioThree,
-              ratioFour, ratioFive, ratioSix, randomNoise);
-        }
-        status = getStatus();
-        String strFormat = "#.##";
-        DecimalFormat decFormat = new DecimalFormat(strFormat);
-        double total = (System.currentTimeMillis() - getStart()) / 1000;
-        String unit = " seconds.";
-        if (total > 100) {
-          total = total / 60.0;
-          unit = " minutes.";
-          if (total > 100) {
-            total = total / 60.0;
-            unit = " hours.";
+        OMSimulationEngine engine = new OMSimulationEngine(
+            getSelectedObject(), getOmbFile(), getOmsFile());
+        engine.setSystematic(isSystematic());
+        engine.setRandomCampaigns(getRandomCampaigns());
+        engine.setRatio3(getRatio3());
+        engine.setRatio4(getRatio4());
+        engine.setRatio5(getRatio5());
+        engine.setRatio6(getRatio6());
+        engine.setRandomNoise(getRandomNoise());
+        engine.setResume(isResume());
+        engine.setListener(new OMSimulationListener() {
+          public void update(String message, int status) {
+            setLogMsg(message);
+            setStatus(status);
+            showProgress(message, status);
           }
-        }
+
+          public void indeterminate(final boolean indeterminate) {
+            EventQueue.invokeLater(new Runnable() {
+              public void run() {
+                progressBarSimulation.setIndeterminate(indeterminate);
+              }
+            });
+          }
+
+          public void progress(OMProgressSample sample) {
+            publish(sample);
+          }
+        });
+        int status = engine.run();
+        setOmsObject(engine.getSimulationSummary());
         if (status == 100) {
-          tmpUpdate("Simulation finished after " + decFormat.format(total)
-              + unit, status);
-          JOptionPane.showMessageDialog(null, "Simulation finished after "
-              + decFormat.format(total) + unit, "Success",
+          setDialog(engine.getLogMsg(), "Success",
               JOptionPane.INFORMATION_MESSAGE);
         } else {
-          tmpUpdate("Simulation failed. See log for details.", status);
-          JOptionPane.showMessageDialog(null,
-              "Simulation failed. See log for details.", "Failed",
-              JOptionPane.ERROR_MESSAGE);
+          setDialog(engine.getLogMsg(), "Failed", JOptionPane.ERROR_MESSAGE);
         }
-        OMHelper.closeLog();
       } catch (IOException ioe) {
         tmpUpdate("Error: " + ioe.getMessage(), 0);
         tmpUpdate("Error: Completely Failed.", 0);
-        JOptionPane.showMessageDialog(null,
-            "Completely failed.\n" + ioe.getMessage(), "Error",
+        setDialog("Completely failed.\n" + ioe.getMessage(), "Error",
             JOptionPane.ERROR_MESSAGE);
         ioe.printStackTrace();
       }
@@ -812,1601 +824,23 @@ public class OMPanelSimulation extends JPanel implements ActionListener {
     }
 
     /**
-     * Method to simulate systematic survey campaigns. It calculates summary
-     * statistics for simulations with n > 1 million and descriptive statistics
-     * for simulations with n <= 1 million. It writes a CSV file with the
-     * results of the statistics in the end. This may take a while, grab a
-     * coffee.
-     * 
-     * @param building
-     *          An building consisting of all the rooms and their values.
-     * @param randomNoise
-     *          An integer which defines the random noise that is added to the
-     *          values. A random noise of 0 means the original values wont be
-     *          modified. The unit is [%].
-     * @throws IOException
-     *           If creating log file or writing logs fails.
-     */
-    private void generateSystematicCampaigns(OMBuilding building,
-        int randomNoise) throws IOException {
-      int valueCount = building.getValueCount();
-      int total = valueCount - 7 * 24 + 1;
-      if (total >= 1) {
-        tmpUpdate(valueCount + " data records allow " + total
-            + " possible times for starting a simulation.", 1);
-        OMRoom[] variationSchemeSix[] = building.getVariationSchemeSix();
-        OMRoom[] variationSchemeFive[] = building.getVariationSchemeFive();
-        OMRoom[] variationSchemeFour[] = building.getVariationSchemeFour();
-        OMRoom[] variationSchemeThree[] = building.getVariationSchemeThree();
-        long x = 0;
-        int campaignLengthSix = variationSchemeSix.length;
-        int campaignLengthFive = variationSchemeFive.length;
-        int campaignLengthFour = variationSchemeFour.length;
-        int campaignLengthThree = variationSchemeThree.length;
-        long perc = 1;
-        OMCampaign campaign;
-        SummaryStatistics roomAmSummaryStats = new SummaryStatistics();
-        SummaryStatistics cellarAmSummaryStats = new SummaryStatistics();
-        SummaryStatistics roomGmSummaryStats = new SummaryStatistics();
-        SummaryStatistics cellarGmSummaryStats = new SummaryStatistics();
-        SummaryStatistics roomMedSummaryStats = new SummaryStatistics();
-        SummaryStatistics cellarMedSummaryStats = new SummaryStatistics();
-        SummaryStatistics roomMaxSummaryStats = new SummaryStatistics();
-        SummaryStatistics cellarMaxSummaryStats = new SummaryStatistics();
-        DescriptiveStatistics roomAmDescriptiveStats = new DescriptiveStatistics();
-        DescriptiveStatistics cellarAmDescriptiveStats = new DescriptiveStatistics();
-        DescriptiveStatistics roomGmDescriptiveStats = new DescriptiveStatistics();
-        DescriptiveStatistics cellarGmDescriptiveStats = new DescriptiveStatistics();
-        DescriptiveStatistics roomMedDescriptiveStats = new DescriptiveStatistics();
-        DescriptiveStatistics cellarMedDescriptiveStats = new DescriptiveStatistics();
-        DescriptiveStatistics roomMaxDescriptiveStats = new DescriptiveStatistics();
-        DescriptiveStatistics cellarMaxDescriptiveStats = new DescriptiveStatistics();
-        boolean isDescriptive = false;
-        long max = 0;
-        if (campaignLengthSix > 0) {
-          max = total * campaignLengthSix;
-        } else {
-          if (campaignLengthFive > 0) {
-            max = total * campaignLengthFive;
-          } else {
-            if (campaignLengthFour > 0) {
-              max = total * campaignLengthFour;
-            } else {
-              if (campaignLengthThree > 0) {
-                max = total * campaignLengthThree;
-              } else {
-                max = 0;
-              }
-            }
-          }
-        }
-        String totalCsvPath = getOmbFile()
-            + "_systematic_simulation.campaigns.csv";
-        File totalCsvFile = new File(totalCsvPath);
-        FileWriter totalCsvWriter = new FileWriter(totalCsvFile);
-        BufferedWriter totalCsvOutput = new BufferedWriter(totalCsvWriter);
-        String strFormat = "#.#########";
-        DecimalFormat decFormat = new DecimalFormat(strFormat);
-        totalCsvOutput
-            .write("\"ID\";\"CAMPAIGN\";\"START\";\"R_AM\";\"R_GM\";\"R_MED\";\"R_MAX\";\"C_AM\";\"C_GM\";\"C_MED\";\"C_MAX\"");
-        totalCsvOutput.newLine();
-        if (max <= 1000000) {
-          isDescriptive = true;
-          if (campaignLengthSix > 0) {
-            tmpUpdate(
-                "Starting unlimited descriptive simulation for 6 different rooms.",
-                1);
-            for (int a = 0; a < campaignLengthSix; a++) {
-              perc = (x * 100) / max;
-              tmpUpdate("Status: " + perc + "% (Estimated time left: "
-                  + timeLeft(((double) x * 100.00) / (double) max) + ")",
-                  (int) perc);
-              for (int start = 0; start < total; start++) {
-                campaign = new OMCampaign(start, variationSchemeSix[a],
-                    randomNoise);
-                roomAmDescriptiveStats.addValue(campaign.getRoomAverage());
-                cellarAmDescriptiveStats.addValue(campaign.getCellarAverage());
-                roomGmDescriptiveStats.addValue(campaign.getRoomLogAverage());
-                cellarGmDescriptiveStats.addValue(campaign
-                    .getCellarLogAverage());
-                roomMedDescriptiveStats.addValue(campaign.getRoomMedian());
-                cellarMedDescriptiveStats.addValue(campaign.getCellarMedian());
-                roomMaxDescriptiveStats.addValue(campaign.getRoomMaximum());
-                cellarMaxDescriptiveStats.addValue(campaign.getCellarMaximum());
-                logOnly("Campaign: T=" + campaign.getStart() + ", R="
-                    + campaign.getVariation(), (int) perc);
-                totalCsvOutput.write("\"" + x + "\";\""
-                    + campaign.getVariation() + "\";\"" + campaign.getStart()
-                    + "\";\"" + (int) campaign.getRoomAverage() + "\";\""
-                    + (int) campaign.getRoomLogAverage() + "\";\""
-                    + (int) campaign.getRoomMedian() + "\";\""
-                    + (int) campaign.getRoomMaximum() + "\";\""
-                    + (int) campaign.getCellarAverage() + "\";\""
-                    + (int) campaign.getCellarLogAverage() + "\";\""
-                    + (int) campaign.getCellarMedian() + "\";\""
-                    + (int) campaign.getCellarMaximum() + "\"");
-                totalCsvOutput.newLine();
-                x++;
-              }
-            }
-            perc = (x * 100) / max;
-            tmpUpdate(
-                "Status: " + perc + "% - finished for 6 different rooms.",
-                (int) perc);
-          } else {
-            tmpUpdate(
-                "Warning: No variations for 6 different rooms available.",
-                (int) perc);
-            if (campaignLengthFive > 0) {
-              tmpUpdate(
-                  "Starting unlimited descriptive simulation for 5 different rooms.",
-                  (int) perc);
-              for (int a = 0; a < campaignLengthFive; a++) {
-                perc = (x * 100) / max;
-                tmpUpdate("Status: " + perc + "% (Estimated time left: "
-                    + timeLeft(((double) x * 100.00) / (double) max) + ")",
-                    (int) perc);
-                for (int start = 0; start < total; start++) {
-                  campaign = new OMCampaign(start, variationSchemeFive[a],
-                      randomNoise);
-                  roomAmDescriptiveStats.addValue(campaign.getRoomAverage());
-                  cellarAmDescriptiveStats
-                      .addValue(campaign.getCellarAverage());
-                  roomGmDescriptiveStats.addValue(campaign.getRoomLogAverage());
-                  cellarGmDescriptiveStats.addValue(campaign
-                      .getCellarLogAverage());
-                  roomMedDescriptiveStats.addValue(campaign.getRoomMedian());
-                  cellarMedDescriptiveStats
-                      .addValue(campaign.getCellarMedian());
-                  roomMaxDescriptiveStats.addValue(campaign.getRoomMaximum());
-                  cellarMaxDescriptiveStats.addValue(campaign
-                      .getCellarMaximum());
-                  logOnly("Campaign: T=" + campaign.getStart() + ", R="
-                      + campaign.getVariation(), (int) perc);
-                  totalCsvOutput.write("\"" + x + "\";\""
-                      + campaign.getVariation() + "\";\"" + campaign.getStart()
-                      + "\";\"" + (int) campaign.getRoomAverage() + "\";\""
-                      + (int) campaign.getRoomLogAverage() + "\";\""
-                      + (int) campaign.getRoomMedian() + "\";\""
-                      + (int) campaign.getRoomMaximum() + "\";\""
-                      + (int) campaign.getCellarAverage() + "\";\""
-                      + (int) campaign.getCellarLogAverage() + "\";\""
-                      + (int) campaign.getCellarMedian() + "\";\""
-                      + (int) campaign.getCellarMaximum() + "\"");
-                  totalCsvOutput.newLine();
-                  x++;
-                }
-              }
-              perc = (x * 100) / max;
-              tmpUpdate("Status: " + perc
-                  + "% - finished for 5 different rooms.", (int) perc);
-            } else {
-              tmpUpdate(
-                  "Warning: No variations for 5 different rooms available.",
-                  (int) perc);
-              if (campaignLengthFour > 0) {
-                tmpUpdate(
-                    "Starting unlimited descriptive simulation for 4 different rooms.",
-                    (int) perc);
-                for (int a = 0; a < campaignLengthFour; a++) {
-                  perc = (x * 100) / max;
-                  tmpUpdate("Status: " + perc + "% (Estimated time left: "
-                      + timeLeft(((double) x * 100.00) / (double) max) + ")",
-                      (int) perc);
-                  for (int start = 0; start < total; start++) {
-                    campaign = new OMCampaign(start, variationSchemeFour[a],
-                        randomNoise);
-                    roomAmDescriptiveStats.addValue(campaign.getRoomAverage());
-                    cellarAmDescriptiveStats.addValue(campaign
-                        .getCellarAverage());
-                    roomGmDescriptiveStats.addValue(campaign
-                        .getRoomLogAverage());
-                    cellarGmDescriptiveStats.addValue(campaign
-                        .getCellarLogAverage());
-                    roomMedDescriptiveStats.addValue(campaign.getRoomMedian());
-                    cellarMedDescriptiveStats.addValue(campaign
-                        .getCellarMedian());
-                    roomMaxDescriptiveStats.addValue(campaign.getRoomMaximum());
-                    cellarMaxDescriptiveStats.addValue(campaign
-                        .getCellarMaximum());
-                    logOnly("Campaign: T=" + campaign.getStart() + ", R="
-                        + campaign.getVariation(), (int) perc);
-                    totalCsvOutput.write("\"" + x + "\";\""
-                        + campaign.getVariation() + "\";\""
-                        + campaign.getStart() + "\";\""
-                        + (int) campaign.getRoomAverage() + "\";\""
-                        + (int) campaign.getRoomLogAverage() + "\";\""
-                        + (int) campaign.getRoomMedian() + "\";\""
-                        + (int) campaign.getRoomMaximum() + "\";\""
-                        + (int) campaign.getCellarAverage() + "\";\""
-                        + (int) campaign.getCellarLogAverage() + "\";\""
-                        + (int) campaign.getCellarMedian() + "\";\""
-                        + (int) campaign.getCellarMaximum() + "\"");
-                    totalCsvOutput.newLine();
-                    x++;
-                  }
-                }
-                perc = (x * 100) / max;
-                tmpUpdate("Status: " + perc
-                    + "% - finished for 4 different rooms.", (int) perc);
-              } else {
-                tmpUpdate(
-                    "Warning: No variations for 4 different rooms available.",
-                    (int) perc);
-                if (campaignLengthThree > 0) {
-                  tmpUpdate(
-                      "Starting unlimited descriptive simulation for 3 different rooms.",
-                      (int) perc);
-                  for (int a = 0; a < campaignLengthThree; a++) {
-                    perc = (x * 100) / max;
-                    tmpUpdate("Status: " + perc + "% (Estimated time left: "
-                        + timeLeft(((double) x * 100.00) / (double) max) + ")",
-                        (int) perc);
-                    for (int start = 0; start < total; start++) {
-                      campaign = new OMCampaign(start, variationSchemeThree[a],
-                          randomNoise);
-                      roomAmDescriptiveStats
-                          .addValue(campaign.getRoomAverage());
-                      cellarAmDescriptiveStats.addValue(campaign
-                          .getCellarAverage());
-                      roomGmDescriptiveStats.addValue(campaign
-                          .getRoomLogAverage());
-                      cellarGmDescriptiveStats.addValue(campaign
-                          .getCellarLogAverage());
-                      roomMedDescriptiveStats
-                          .addValue(campaign.getRoomMedian());
-                      cellarMedDescriptiveStats.addValue(campaign
-                          .getCellarMedian());
-                      roomMaxDescriptiveStats.addValue(campaign
-                          .getRoomMaximum());
-                      cellarMaxDescriptiveStats.addValue(campaign
-                          .getCellarMaximum());
-                      logOnly("Campaign: T=" + campaign.getStart() + ", R="
-                          + campaign.getVariation(), (int) perc);
-                      totalCsvOutput.write("\"" + x + "\";\""
-                          + campaign.getVariation() + "\";\""
-                          + campaign.getStart() + "\";\""
-                          + (int) campaign.getRoomAverage() + "\";\""
-                          + (int) campaign.getRoomLogAverage() + "\";\""
-                          + (int) campaign.getRoomMedian() + "\";\""
-                          + (int) campaign.getRoomMaximum() + "\";\""
-                          + (int) campaign.getCellarAverage() + "\";\""
-                          + (int) campaign.getCellarLogAverage() + "\";\""
-                          + (int) campaign.getCellarMedian() + "\";\""
-                          + (int) campaign.getCellarMaximum() + "\"");
-                      totalCsvOutput.newLine();
-                      x++;
-                    }
-                  }
-                  perc = (x * 100) / max;
-                  tmpUpdate("Status: " + perc
-                      + "% - finished for 3 different rooms.", (int) perc);
-                } else {
-                  tmpUpdate(
-                      "Warning: No variations for 3 different rooms available.",
-                      (int) perc);
-                  tmpUpdate(
-                      "Error: No variations generated yet, something went wrong.",
-                      0);
-                }
-              }
-            }
-          }
-        } else {
-          isDescriptive = false;
-          if (campaignLengthSix > 0) {
-            tmpUpdate(
-                "Starting unlimited summary simulation for 6 different rooms.",
-                (int) perc);
-            for (int a = 0; a < campaignLengthSix; a++) {
-              perc = (x * 100) / max;
-              tmpUpdate("Status: " + perc + "% (Estimated time left: "
-                  + timeLeft(((double) x * 100.00) / (double) max) + ")",
-                  (int) perc);
-              for (int start = 0; start < total; start++) {
-                campaign = new OMCampaign(start, variationSchemeSix[a],
-                    randomNoise);
-                roomAmSummaryStats.addValue(campaign.getRoomAverage());
-                cellarAmSummaryStats.addValue(campaign.getCellarAverage());
-                roomGmSummaryStats.addValue(campaign.getRoomLogAverage());
-                cellarGmSummaryStats.addValue(campaign.getCellarLogAverage());
-                roomMedSummaryStats.addValue(campaign.getRoomMedian());
-                cellarMedSummaryStats.addValue(campaign.getCellarMedian());
-                roomMaxSummaryStats.addValue(campaign.getRoomMaximum());
-                cellarMaxSummaryStats.addValue(campaign.getCellarMaximum());
-                logOnly("Campaign: T=" + campaign.getStart() + ", R="
-                    + campaign.getVariation(), (int) perc);
-                totalCsvOutput.write("\"" + x + "\";\""
-                    + campaign.getVariation() + "\";\"" + campaign.getStart()
-                    + "\";\"" + (int) campaign.getRoomAverage() + "\";\""
-                    + (int) campaign.getRoomLogAverage() + "\";\""
-                    + (int) campaign.getRoomMedian() + "\";\""
-                    + (int) campaign.getRoomMaximum() + "\";\""
-                    + (int) campaign.getCellarAverage() + "\";\""
-                    + (int) campaign.getCellarLogAverage() + "\";\""
-                    + (int) campaign.getCellarMedian() + "\";\""
-                    + (int) campaign.getCellarMaximum() + "\"");
-                totalCsvOutput.newLine();
-                x++;
-              }
-            }
-            perc = (x * 100) / max;
-            tmpUpdate(
-                "Status: " + perc + "% - finished for 6 different rooms.",
-                (int) perc);
-          } else {
-            tmpUpdate(
-                "Warning: No variations for 6 different rooms available.",
-                (int) perc);
-            if (campaignLengthFive > 0) {
-              tmpUpdate(
-                  "Starting unlimited summary simulation for 5 different rooms.",
-                  (int) perc);
-              for (int a = 0; a < campaignLengthFive; a++) {
-                perc = (x * 100) / max;
-                tmpUpdate("Status: " + perc + "% (Estimated time left: "
-                    + timeLeft(((double) x * 100.00) / (double) max) + ")",
-                    (int) perc);
-                for (int start = 0; start < total; start++) {
-                  campaign = new OMCampaign(start, variationSchemeFive[a],
-                      randomNoise);
-                  roomAmSummaryStats.addValue(campaign.getRoomAverage());
-                  cellarAmSummaryStats.addValue(campaign.getCellarAverage());
-                  roomGmSummaryStats.addValue(campaign.getRoomLogAverage());
-                  cellarGmSummaryStats.addValue(campaign.getCellarLogAverage());
-                  roomMedSummaryStats.addValue(campaign.getRoomMedian());
-                  cellarMedSummaryStats.addValue(campaign.getCellarMedian());
-                  roomMaxSummaryStats.addValue(campaign.getRoomMaximum());
-                  cellarMaxSummaryStats.addValue(campaign.getCellarMaximum());
-                  logOnly("Campaign: T=" + campaign.getStart() + ", R="
-                      + campaign.getVariation(), (int) perc);
-                  totalCsvOutput.write("\"" + x + "\";\""
-                      + campaign.getVariation() + "\";\"" + campaign.getStart()
-                      + "\";\"" + (int) campaign.getRoomAverage() + "\";\""
-                      + (int) campaign.getRoomLogAverage() + "\";\""
-                      + (int) campaign.getRoomMedian() + "\";\""
-                      + (int) campaign.getRoomMaximum() + "\";\""
-                      + (int) campaign.getCellarAverage() + "\";\""
-                      + (int) campaign.getCellarLogAverage() + "\";\""
-                      + (int) campaign.getCellarMedian() + "\";\""
-                      + (int) campaign.getCellarMaximum() + "\"");
-                  totalCsvOutput.newLine();
-                  x++;
-                }
-              }
-              perc = (x * 100) / max;
-              tmpUpdate("Status: " + perc
-                  + "% - finished for 5 different rooms.", (int) perc);
-            } else {
-              tmpUpdate(
-                  "Warning: No variations for 5 different rooms available.",
-                  (int) perc);
-              if (campaignLengthFour > 0) {
-                tmpUpdate(
-                    "Starting unlimited summary simulation for 4 different rooms.",
-                    (int) perc);
-                for (int a = 0; a < campaignLengthFour; a++) {
-                  perc = (x * 100) / max;
-                  tmpUpdate("Status: " + perc + "% (Estimated time left: "
-                      + timeLeft(((double) x * 100.00) / (double) max) + ")",
-                      (int) perc);
-                  for (int start = 0; start < total; start++) {
-                    campaign = new OMCampaign(start, variationSchemeFour[a],
-                        randomNoise);
-                    roomAmSummaryStats.addValue(campaign.getRoomAverage());
-                    cellarAmSummaryStats.addValue(campaign.getCellarAverage());
-                    roomGmSummaryStats.addValue(campaign.getRoomLogAverage());
-                    cellarGmSummaryStats.addValue(campaign
-                        .getCellarLogAverage());
-                    roomMedSummaryStats.addValue(campaign.getRoomMedian());
-                    cellarMedSummaryStats.addValue(campaign.getCellarMedian());
-                    roomMaxSummaryStats.addValue(campaign.getRoomMaximum());
-                    cellarMaxSummaryStats.addValue(campaign.getCellarMaximum());
-                    logOnly("Campaign: T=" + campaign.getStart() + ", R="
-                        + campaign.getVariation(), (int) perc);
-                    totalCsvOutput.write("\"" + x + "\";\""
-                        + campaign.getVariation() + "\";\""
-                        + campaign.getStart() + "\";\""
-                        + (int) campaign.getRoomAverage() + "\";\""
-                        + (int) campaign.getRoomLogAverage() + "\";\""
-                        + (int) campaign.getRoomMedian() + "\";\""
-                        + (int) campaign.getRoomMaximum() + "\";\""
-                        + (int) campaign.getCellarAverage() + "\";\""
-                        + (int) campaign.getCellarLogAverage() + "\";\""
-                        + (int) campaign.getCellarMedian() + "\";\""
-                        + (int) campaign.getCellarMaximum() + "\"");
-                    totalCsvOutput.newLine();
-                    x++;
-                  }
-                }
-                perc = (x * 100) / max;
-                tmpUpdate("Status: " + perc
-                    + "% - finished for 4 different rooms.", (int) perc);
-              } else {
-                tmpUpdate(
-                    "Warning: No variations for 4 different rooms available.",
-                    (int) perc);
-                if (campaignLengthThree > 0) {
-                  tmpUpdate(
-                      "Starting unlimited summary simulation for 3 different rooms.",
-                      (int) perc);
-                  for (int a = 0; a < campaignLengthThree; a++) {
-                    perc = (x * 100) / max;
-                    tmpUpdate("Status: " + perc + "% (Estimated time left: "
-                        + timeLeft(((double) x * 100.00) / (double) max) + ")",
-                        (int) perc);
-                    for (int start = 0; start < total; start++) {
-                      campaign = new OMCampaign(start, variationSchemeThree[a],
-                          randomNoise);
-                      roomAmSummaryStats.addValue(campaign.getRoomAverage());
-                      cellarAmSummaryStats
-                          .addValue(campaign.getCellarAverage());
-                      roomGmSummaryStats.addValue(campaign.getRoomLogAverage());
-                      cellarGmSummaryStats.addValue(campaign
-                          .getCellarLogAverage());
-                      roomMedSummaryStats.addValue(campaign.getRoomMedian());
-                      cellarMedSummaryStats
-                          .addValue(campaign.getCellarMedian());
-                      roomMaxSummaryStats.addValue(campaign.getRoomMaximum());
-                      cellarMaxSummaryStats.addValue(campaign
-                          .getCellarMaximum());
-                      logOnly("Campaign: T=" + campaign.getStart() + ", R="
-                          + campaign.getVariation(), (int) perc);
-                      totalCsvOutput.write("\"" + x + "\";\""
-                          + campaign.getVariation() + "\";\""
-                          + campaign.getStart() + "\";\""
-                          + (int) campaign.getRoomAverage() + "\";\""
-                          + (int) campaign.getRoomLogAverage() + "\";\""
-                          + (int) campaign.getRoomMedian() + "\";\""
-                          + (int) campaign.getRoomMaximum() + "\";\""
-                          + (int) campaign.getCellarAverage() + "\";\""
-                          + (int) campaign.getCellarLogAverage() + "\";\""
-                          + (int) campaign.getCellarMedian() + "\";\""
-                          + (int) campaign.getCellarMaximum() + "\"");
-                      totalCsvOutput.newLine();
-                      x++;
-                    }
-                  }
-                  perc = (x * 100) / max;
-                  tmpUpdate("Status: " + perc
-                      + "% - finished for 3 different rooms.", (int) perc);
-                } else {
-                  tmpUpdate(
-                      "Warning: No variations for 3 different rooms available.",
-                      (int) perc);
-                  tmpUpdate(
-                      "Error: No variations generated yet, what went wrong?", 0);
-                }
-              }
-            }
-          }
-        }
-        tmpUpdate("Generated " + x + " campaigns.", (int) perc);
-        totalCsvOutput.close();
-        String csvPath = "";
-        if (getOmsFile() != null && !getOmsFile().equals("")
-            && !getOmsFile().equals(" ")) {
-          csvPath = getOmsFile();
-        } else {
-          csvPath = getOmbFile();
-        }
-        String logName = csvPath + "_systematic_simulation.result.csv";
-        File logFile = new File(logName);
-        FileWriter logWriter = new FileWriter(logFile);
-        BufferedWriter csvOutput = new BufferedWriter(logWriter);
-        if (isDescriptive) {
-          descriptiveStatistics(x, roomAmDescriptiveStats,
-              cellarAmDescriptiveStats, roomGmDescriptiveStats,
-              cellarGmDescriptiveStats, roomMedDescriptiveStats,
-              cellarMedDescriptiveStats, roomMaxDescriptiveStats,
-              cellarMaxDescriptiveStats, csvOutput, decFormat);
-        } else {
-          summaryStatistics(x, roomAmSummaryStats, cellarAmSummaryStats,
-              roomGmSummaryStats, cellarGmSummaryStats, roomMedSummaryStats,
-              cellarMedSummaryStats, roomMaxSummaryStats,
-              cellarMaxSummaryStats, csvOutput, decFormat);
-        }
-        csvOutput.close();
-        setStatus(100);
-      } else {
-        tmpUpdate("Error: " + valueCount + " are not enough data records.", 0);
-        tmpUpdate("Make sure you have at least one week of records (> 168).", 0);
-        setStatus(0);
-      }
-    }
-
-    /**
-     * Method to simulate random survey campaigns using a defined maximum number
-     * and a defined ratio between different types of variations used. It
-     * calculates descriptive statistics for simulations with n <= 100000. It
-     * writes a CSV file with the results of the statistics in the end. This may
-     * take a while, grab a coffee.
-     * 
-     * @param building
-     *          An building consisting of all the rooms and their values.
-     * @param maxCampaigns
-     *          The maximum number of campaigns to simulate.
-     * @param ratioThree
-     *          An integer to define the ratio of variations which use three
-     *          different rooms only.
-     * @param ratioFour
-     *          An integer to define the ratio of variations which use four
-     *          different rooms only.
-     * @param ratioFive
-     *          An integer to define the ratio of variations which use five
-     *          different rooms only.
-     * @param ratioSix
-     *          An integer to define the ratio of variations which use six
-     *          different rooms.
-     * @param randomNoise
-     *          An integer which defines the random noise that is added to the
-     *          values. A random noise of 0 means the original values wont be
-     *          modified. The unit is [%].
-     * @throws IOException
-     *           If creating log file or writing logs fails.
-     */
-    private void generateRandomCampaigns(OMBuilding building, int maxCampaigns,
-        int ratioThree, int ratioFour, int ratioFive, int ratioSix,
-        int randomNoise) throws IOException {
-      int valueCount = building.getValueCount();
-      int absoluteThree;
-      int absoluteFour;
-      int absoluteFive;
-      int absoluteSix;
-      long absoluteTotal;
-      if (ratioThree >= 0 && ratioFour >= 0 && ratioFive >= 0 && ratioSix >= 0) {
-        OMRoom[] variationSchemeSix[] = building.getVariationSchemeSix();
-        OMRoom[] variationSchemeFive[] = building.getVariationSchemeFive();
-        OMRoom[] variationSchemeFour[] = building.getVariationSchemeFour();
-        OMRoom[] variationSchemeThree[] = building.getVariationSchemeThree();
-        double tmpDiv = 4.0;
-        int campaignLengthSix = variationSchemeSix.length;
-        if (campaignLengthSix <= 0) {
-          tmpUpdate("Warning: No variations for 6 rooms. Setting ratio to 0.",
-              1);
-          ratioSix = 0;
-          tmpDiv--;
-        }
-        int campaignLengthFive = variationSchemeFive.length;
-        if (campaignLengthFive <= 0) {
-          tmpUpdate("Warning: No variations for 5 rooms. Setting ratio to 0.",
-              1);
-          ratioFive = 0;
-          tmpDiv--;
-        }
-        int campaignLengthFour = variationSchemeFour.length;
-        if (campaignLengthFour <= 0) {
-          tmpUpdate("Warning: No variations for 4 rooms. Setting ratio to 0.",
-              1);
-          ratioFour = 0;
-          tmpDiv--;
-        }
-        int campaignLengthThree = variationSchemeThree.length;
-        int ratioTotal = ratioThree + ratioFour + ratioFive + ratioSix;
-        int total = valueCount - 7 * 24 + 1;
-        if (ratioTotal <= 0) {
-          tmpUpdate("Warning: Your entered ratio is: " + ratioThree + ", "
-              + ratioFour + ", " + ratioFive + ", " + ratioSix + ".", 1);
-          tmpUpdate("Warning: Splitting the simulation in equal parts of 25%.",
-              1);
-          absoluteThree = (int) ((double) maxCampaigns / tmpDiv);
-          if (campaignLengthFour >= 0 && tmpDiv >= 2) {
-            absoluteFour = (int) ((double) maxCampaigns / tmpDiv);
-            if (campaignLengthFive >= 0 && tmpDiv >= 3) {
-              absoluteFive = (int) ((double) maxCampaigns / tmpDiv);
-              if (campaignLengthSix >= 0 && tmpDiv >= 4) {
-                absoluteSix = (int) ((double) maxCampaigns / tmpDiv);
-              } else {
-                absoluteSix = 0;
-              }
-            } else {
-              absoluteFive = 0;
-              absoluteSix = 0;
-            }
-          } else {
-            absoluteFour = 0;
-            absoluteFive = 0;
-            absoluteSix = 0;
-          }
-          absoluteTotal = absoluteSix + absoluteFive + absoluteFour
-              + absoluteThree;
-          while (absoluteTotal != maxCampaigns) {
-            if (absoluteTotal < maxCampaigns) {
-              if (ratioSix > 0) {
-                absoluteSix++;
-              } else {
-                if (ratioFive > 0) {
-                  absoluteFive++;
-                } else {
-                  if (ratioFour > 0) {
-                    absoluteFour++;
-                  } else {
-                    absoluteThree++;
-                  }
-                }
-              }
-            } else {
-              if (ratioSix > 0) {
-                absoluteSix--;
-              } else {
-                if (ratioFive > 0) {
-                  absoluteFive--;
-                } else {
-                  if (ratioFour > 0) {
-                    absoluteFour--;
-                  } else {
-                    absoluteThree--;
-                  }
-                }
-              }
-            }
-            absoluteTotal = absoluteSix + absoluteFive + absoluteFour
-                + absoluteThree;
-          }
-        } else {
-          absoluteThree = (int) (((double) ratioThree / (double) ratioTotal) * (double) maxCampaigns);
-          absoluteFour = (int) (((double) ratioFour / (double) ratioTotal) * (double) maxCampaigns);
-          absoluteFive = (int) (((double) ratioFive / (double) ratioTotal) * (double) maxCampaigns);
-          absoluteSix = (int) (((double) ratioSix / (double) ratioTotal) * (double) maxCampaigns);
-          absoluteTotal = absoluteSix + absoluteFive + absoluteFour
-              + absoluteThree;
-          while (absoluteTotal != maxCampaigns) {
-            if (absoluteTotal < maxCampaigns) {
-              if (ratioSix > 0) {
-                absoluteSix++;
-              } else {
-                if (ratioFive > 0) {
-                  absoluteFive++;
-                } else {
-                  if (ratioFour > 0) {
-                    absoluteFour++;
-                  } else {
-                    absoluteThree++;
-                  }
-                }
-              }
-            } else {
-              if (ratioSix > 0) {
-                absoluteSix--;
-              } else {
-                if (ratioFive > 0) {
-                  absoluteFive--;
-                } else {
-                  if (ratioFour > 0) {
-                    absoluteFour--;
-                  } else {
-                    absoluteThree--;
-                  }
-                }
-              }
-            }
-            absoluteTotal = absoluteSix + absoluteFive + absoluteFour
-                + absoluteThree;
-          }
-        }
-        tmpUpdate("Simulation will start with " + absoluteTotal
-            + " random variations:", 1);
-        tmpUpdate(absoluteThree
-            + " Simulations using 3 different rooms. (Ratio: ca. "
-            + (int) ((double) ratioThree / (double) ratioTotal * 100.0) + "% ("
-            + ratioThree + "))", 1);
-        if (absoluteThree > campaignLengthThree * total) {
-          tmpUpdate("Warning: Simulating " + absoluteThree
-              + " campaigns for 3 rooms, but only "
-              + (campaignLengthThree * total)
-              + " variations are existing for 3 rooms.", 1);
-          tmpUpdate(
-              "Warning: Consider to reduce the ratio or number of total simulations.",
-              1);
-        }
-        tmpUpdate(absoluteFour
-            + " Simulations using 4 different rooms. (Ratio: ca. "
-            + (int) ((double) ratioFour / (double) ratioTotal * 100.0) + "% ("
-            + ratioFour + "))", 1);
-        if (absoluteFour > campaignLengthFour * total) {
-          tmpUpdate("Warning: Simulating " + absoluteFour
-              + " campaigns for 4 rooms, but only "
-              + (campaignLengthFour * total)
-              + " variations are existing for 4 rooms.", 1);
-          tmpUpdate(
-              "Warning: Consider to reduce the ratio or number of total simulations.",
-              1);
-        }
-        tmpUpdate(absoluteFive
-            + " Simulations using 5 different rooms. (Ratio: ca. "
-            + (int) ((double) ratioFive / (double) ratioTotal * 100.0) + "% ("
-            + ratioFive + "))", 1);
-        if (absoluteFive > campaignLengthFive * total) {
-          tmpUpdate("Warning: Simulating " + absoluteFive
-              + " campaigns for 5 rooms, but only "
-              + (campaignLengthFive * total)
-              + " variations are existing for 5 rooms.", 1);
-          tmpUpdate(
-              "Warning: Consider to reduce the ratio or number of total simulations.",
-              1);
-        }
-        tmpUpdate(absoluteSix
-            + " Simulations using 6 different rooms. (Ratio: ca. "
-            + (int) ((double) ratioSix / (double) ratioTotal * 100.0) + "% ("
-            + ratioSix + "))", 1);
-        if (absoluteSix > campaignLengthSix * total) {
-          tmpUpdate("Warning: Simulating " + absoluteSix
-              + " campaigns for 6 rooms, but only "
-              + (campaignLengthSix * total)
-              + " variations are existing for 6 rooms.", 1);
-          tmpUpdate(
-              "Warning: Consider to reduce the ratio or number of total simulations.",
-              1);
-        }
-        if (total >= 1) {
-          tmpUpdate(valueCount + " data records allow " + total
-              + " possible times for starting a simulation.", 1);
-          long x = 0;
-          long perc = 1;
-          OMCampaign campaign;
-          DescriptiveStatistics roomAmDescriptiveStats = new DescriptiveStatistics();
-          DescriptiveStatistics cellarAmDescriptiveStats = new DescriptiveStatistics();
-          DescriptiveStatistics roomGmDescriptiveStats = new DescriptiveStatistics();
-          DescriptiveStatistics cellarGmDescriptiveStats = new DescriptiveStatistics();
-          DescriptiveStatistics roomMedDescriptiveStats = new DescriptiveStatistics();
-          DescriptiveStatistics cellarMedDescriptiveStats = new DescriptiveStatistics();
-          DescriptiveStatistics roomMaxDescriptiveStats = new DescriptiveStatistics();
-          DescriptiveStatistics cellarMaxDescriptiveStats = new DescriptiveStatistics();
-          boolean isDescriptive = false;
-          OMCampaign[] campaigns = new OMCampaign[(int) absoluteTotal];
-          String totalCsvPath = getOmsFile()
-              + "_random_simulation.campaigns.csv";
-          File totalCsvFile = new File(totalCsvPath);
-          FileWriter totalCsvWriter = new FileWriter(totalCsvFile);
-          BufferedWriter totalCsvOutput = new BufferedWriter(totalCsvWriter);
-          String strFormat = "#.#########";
-          DecimalFormat decFormat = new DecimalFormat(strFormat);
-          totalCsvOutput
-              .write("\"ID\";\"CAMPAIGN\";\"START\";\"R_AM\";\"R_GM\";\"R_MED\";\"R_MAX\";\"C_AM\";\"C_GM\";\"C_MED\";\"C_MAX\"");
-          totalCsvOutput.newLine();
-          if (absoluteTotal <= 1000000) {
-            isDescriptive = true;
-            if (campaignLengthThree > 0) {
-              tmpUpdate("Starting descriptive simulation for 3 rooms with "
-                  + absoluteThree + " random variations.", (int) perc);
-              Random generator = new Random();
-              int[] random = new int[absoluteThree];
-              for (int n = 0; n < absoluteThree; n++) {
-                random[n] = generator.nextInt(campaignLengthThree);
-              }
-              int start;
-              int mod = 0;
-              for (int a = 0; a < absoluteThree; a++) {
-                mod = a % 100;
-                if (mod == 0) {
-                  perc = (long) (((double) x / (double) absoluteTotal) * (double) 100.0);
-                  tmpUpdate("Status: "
-                      + perc
-                      + "% (Estimated time left: "
-                      + timeLeft(((double) x / (double) absoluteTotal)
-                          * (double) 100.0) + ")", (int) perc);
-                }
-                if (total > 1) {
-                  start = generator.nextInt(total);
-                } else {
-                  start = 0;
-                }
-                campaign = new OMCampaign(start,
-                    variationSchemeThree[random[a]], randomNoise);
-                roomAmDescriptiveStats.addValue(campaign.getRoomAverage());
-                cellarAmDescriptiveStats.addValue(campaign.getCellarAverage());
-                roomGmDescriptiveStats.addValue(campaign.getRoomLogAverage());
-                cellarGmDescriptiveStats.addValue(campaign
-                    .getCellarLogAverage());
-                roomMedDescriptiveStats.addValue(campaign.getRoomMedian());
-                cellarMedDescriptiveStats.addValue(campaign.getCellarMedian());
-                roomMaxDescriptiveStats.addValue(campaign.getRoomMaximum());
-                cellarMaxDescriptiveStats.addValue(campaign.getCellarMaximum());
-                logOnly("Campaign: T=" + campaign.getStart() + ", R="
-                    + campaign.getVariation(), (int) perc);
-                totalCsvOutput.write("\"" + x + "\";\""
-                    + campaign.getVariation() + "\";\"" + campaign.getStart()
-                    + "\";\"" + (int) campaign.getRoomAverage() + "\";\""
-                    + (int) campaign.getRoomLogAverage() + "\";\""
-                    + (int) campaign.getRoomMedian() + "\";\""
-                    + (int) campaign.getRoomMaximum() + "\";\""
-                    + (int) campaign.getCellarAverage() + "\";\""
-                    + (int) campaign.getCellarLogAverage() + "\";\""
-                    + (int) campaign.getCellarMedian() + "\";\""
-                    + (int) campaign.getCellarMaximum() + "\"");
-                totalCsvOutput.newLine();
-                campaigns[(int) x] = campaign;
-                x++;
-              }
-              perc = (long) (((double) x / (double) absoluteTotal) * (double) 100.0);
-              tmpUpdate("Status: " + perc
-                  + "% - finished for 3 different rooms.", (int) perc);
-              if (campaignLengthFour > 0) {
-                tmpUpdate("Starting descriptive simulation for 4 rooms with "
-                    + absoluteFour + " random variations.", (int) perc);
-                generator = new Random();
-                random = new int[absoluteFour];
-                for (int n = 0; n < absoluteFour; n++) {
-                  random[n] = generator.nextInt(campaignLengthFour);
-                }
-                mod = 0;
-                for (int a = 0; a < absoluteFour; a++) {
-                  mod = a % 100;
-                  if (mod == 0) {
-                    perc = (long) (((double) x / (double) absoluteTotal) * (double) 100.0);
-                    tmpUpdate("Status: "
-                        + perc
-                        + "% (Estimated time left: "
-                        + timeLeft(((double) x / (double) absoluteTotal)
-                            * (double) 100.0) + ")", (int) perc);
-                  }
-                  if (total > 1) {
-                    start = generator.nextInt(total);
-                  } else {
-                    start = 0;
-                  }
-                  campaign = new OMCampaign(start,
-                      variationSchemeFour[random[a]], randomNoise);
-                  roomAmDescriptiveStats.addValue(campaign.getRoomAverage());
-                  cellarAmDescriptiveStats
-                      .addValue(campaign.getCellarAverage());
-                  roomGmDescriptiveStats.addValue(campaign.getRoomLogAverage());
-                  cellarGmDescriptiveStats.addValue(campaign
-                      .getCellarLogAverage());
-                  roomMedDescriptiveStats.addValue(campaign.getRoomMedian());
-                  cellarMedDescriptiveStats
-                      .addValue(campaign.getCellarMedian());
-                  roomMaxDescriptiveStats.addValue(campaign.getRoomMaximum());
-                  cellarMaxDescriptiveStats.addValue(campaign
-                      .getCellarMaximum());
-                  logOnly("Campaign: T=" + campaign.getStart() + ", R="
-                      + campaign.getVariation(), (int) perc);
-                  totalCsvOutput.write("\"" + x + "\";\""
-                      + campaign.getVariation() + "\";\"" + campaign.getStart()
-                      + "\";\"" + (int) campaign.getRoomAverage() + "\";\""
-                      + (int) campaign.getRoomLogAverage() + "\";\""
-                      + (int) campaign.getRoomMedian() + "\";\""
-                      + (int) campaign.getRoomMaximum() + "\";\""
-                      + (int) campaign.getCellarAverage() + "\";\""
-                      + (int) campaign.getCellarLogAverage() + "\";\""
-                      + (int) campaign.getCellarMedian() + "\";\""
-                      + (int) campaign.getCellarMaximum() + "\"");
-                  totalCsvOutput.newLine();
-                  campaigns[(int) x] = campaign;
-                  x++;
-                }
-                perc = (long) (((double) x / (double) absoluteTotal) * (double) 100.0);
-                tmpUpdate("Status: " + perc
-                    + "% - finished for 4 different rooms.", (int) perc);
-                if (campaignLengthFive > 0) {
-                  tmpUpdate("Starting descriptive simulation for 5 rooms with "
-                      + absoluteFive + " random variations.", (int) perc);
-                  generator = new Random();
-                  random = new int[absoluteFive];
-                  for (int n = 0; n < absoluteFive; n++) {
-                    random[n] = generator.nextInt(campaignLengthFive);
-                  }
-                  mod = 0;
-                  for (int a = 0; a < absoluteFive; a++) {
-                    mod = a % 100;
-                    if (mod == 0) {
-                      perc = (long) (((double) x / (double) absoluteTotal) * (double) 100.0);
-                      tmpUpdate("Status: "
-                          + perc
-                          + "% (Estimated time left: "
-                          + timeLeft(((double) x / (double) absoluteTotal)
-                              * (double) 100.0) + ")", (int) perc);
-                    }
-                    if (total > 1) {
-                      start = generator.nextInt(total);
-                    } else {
-                      start = 0;
-                    }
-                    campaign = new OMCampaign(start,
-                        variationSchemeFive[random[a]], randomNoise);
-                    roomAmDescriptiveStats.addValue(campaign.getRoomAverage());
-                    cellarAmDescriptiveStats.addValue(campaign
-                        .getCellarAverage());
-                    roomGmDescriptiveStats.addValue(campaign
-                        .getRoomLogAverage());
-                    cellarGmDescriptiveStats.addValue(campaign
-                        .getCellarLogAverage());
-                    roomMedDescriptiveStats.addValue(campaign.getRoomMedian());
-                    cellarMedDescriptiveStats.addValue(campaign
-                        .getCellarMedian());
-                    roomMaxDescriptiveStats.addValue(campaign.getRoomMaximum());
-                    cellarMaxDescriptiveStats.addValue(campaign
-                        .getCellarMaximum());
-                    logOnly("Campaign: T=" + campaign.getStart() + ", R="
-                        + campaign.getVariation(), (int) perc);
-                    totalCsvOutput.write("\"" + x + "\";\""
-                        + campaign.getVariation() + "\";\""
-                        + campaign.getStart() + "\";\""
-                        + (int) campaign.getRoomAverage() + "\";\""
-                        + (int) campaign.getRoomLogAverage() + "\";\""
-                        + (int) campaign.getRoomMedian() + "\";\""
-                        + (int) campaign.getRoomMaximum() + "\";\""
-                        + (int) campaign.getCellarAverage() + "\";\""
-                        + (int) campaign.getCellarLogAverage() + "\";\""
-                        + (int) campaign.getCellarMedian() + "\";\""
-                        + (int) campaign.getCellarMaximum() + "\"");
-                    totalCsvOutput.newLine();
-                    campaigns[(int) x] = campaign;
-                    x++;
-                  }
-                  perc = (long) (((double) x / (double) absoluteTotal) * (double) 100.0);
-                  tmpUpdate("Status: " + perc
-                      + "% - finished for 5 different rooms.", (int) perc);
-                  if (campaignLengthSix > 0) {
-                    tmpUpdate(
-                        "Starting descriptive simulation for 6 rooms with "
-                            + absoluteSix + " random variations.", (int) perc);
-                    generator = new Random();
-                    random = new int[absoluteSix];
-                    for (int n = 0; n < absoluteSix; n++) {
-                      random[n] = generator.nextInt(campaignLengthSix);
-                    }
-                    mod = 0;
-                    for (int a = 0; a < absoluteSix; a++) {
-                      mod = a % 100;
-                      if (mod == 0) {
-                        perc = (long) (((double) x / (double) absoluteTotal) * (double) 100.0);
-                        tmpUpdate("Status: "
-                            + perc
-                            + "% (Estimated time left: "
-                            + timeLeft(((double) x / (double) absoluteTotal)
-                                * (double) 100.0) + ")", (int) perc);
-                      }
-                      if (total > 1) {
-                        start = generator.nextInt(total);
-                      } else {
-                        start = 0;
-                      }
-                      campaign = new OMCampaign(start,
-                          variationSchemeSix[random[a]], randomNoise);
-                      roomAmDescriptiveStats
-                          .addValue(campaign.getRoomAverage());
-                      cellarAmDescriptiveStats.addValue(campaign
-                          .getCellarAverage());
-                      roomGmDescriptiveStats.addValue(campaign
-                          .getRoomLogAverage());
-                      cellarGmDescriptiveStats.addValue(campaign
-                          .getCellarLogAverage());
-                      roomMedDescriptiveStats
-                          .addValue(campaign.getRoomMedian());
-                      cellarMedDescriptiveStats.addValue(campaign
-                          .getCellarMedian());
-                      roomMaxDescriptiveStats.addValue(campaign
-                          .getRoomMaximum());
-                      cellarMaxDescriptiveStats.addValue(campaign
-                          .getCellarMaximum());
-                      logOnly("Campaign: T=" + campaign.getStart() + ", R="
-                          + campaign.getVariation(), (int) perc);
-                      totalCsvOutput.write("\"" + x + "\";\""
-                          + campaign.getVariation() + "\";\""
-                          + campaign.getStart() + "\";\""
-                          + (int) campaign.getRoomAverage() + "\";\""
-                          + (int) campaign.getRoomLogAverage() + "\";\""
-                          + (int) campaign.getRoomMedian() + "\";\""
-                          + (int) campaign.getRoomMaximum() + "\";\""
-                          + (int) campaign.getCellarAverage() + "\";\""
-                          + (int) campaign.getCellarLogAverage() + "\";\""
-                          + (int) campaign.getCellarMedian() + "\";\""
-                          + (int) campaign.getCellarMaximum() + "\"");
-                      totalCsvOutput.newLine();
-                      campaigns[(int) x] = campaign;
-                      x++;
-                    }
-                    perc = (long) (((double) x / (double) absoluteTotal) * (double) 100.0);
-                    tmpUpdate("Status: " + perc
-                        + "% - finished for 6 different rooms.", (int) perc);
-                  } else {
-                    tmpUpdate(
-                        "Warning: No variations for 6 different rooms available.",
-                        (int) perc);
-                  }
-                } else {
-                  tmpUpdate(
-                      "Warning: No variations for 5 different rooms available.",
-                      (int) perc);
-                  tmpUpdate(
-                      "Warning: No variations for 6 different rooms available.",
-                      (int) perc);
-                }
-              } else {
-                tmpUpdate(
-                    "Warning: No variations for 4 different rooms available.",
-                    (int) perc);
-                tmpUpdate(
-                    "Warning: No variations for 5 different rooms available.",
-                    (int) perc);
-                tmpUpdate(
-                    "Warning: No variations for 6 different rooms available.",
-                    (int) perc);
-              }
-            } else {
-              tmpUpdate(
-                  "Warning: No variations for 3 different rooms available.",
-                  (int) perc);
-              tmpUpdate(
-                  "Warning: No variations for 4 different rooms available.",
-                  (int) perc);
-              tmpUpdate(
-                  "Warning: No variations for 5 different rooms available.",
-                  (int) perc);
-              tmpUpdate(
-                  "Warning: No variations for 6 different rooms available.",
-                  (int) perc);
-              tmpUpdate("Error: No variations generated yet, what went wrong?",
-                  0);
-            }
-          } else {
-            tmpUpdate(
-                "Error: Strange exception occured, this should never happen.",
-                0);
-            tmpUpdate("Error: No campaigns simulated.", 0);
-            JOptionPane.showMessageDialog(null,
-                "Strange exception occured, no campaigns simulated.", "Error",
-                JOptionPane.ERROR_MESSAGE);
-          }
-          totalCsvOutput.close();
-          tmpUpdate("Generated " + x + " campaigns.", (int) perc);
-          String csvPath = "";
-          if (getOmsFile() != null && !getOmsFile().equals("")
-              && !getOmsFile().equals(" ")) {
-            csvPath = getOmsFile();
-          } else {
-            csvPath = getOmbFile();
-          }
-          String logName = csvPath + "_random_simulation.result.csv";
-          File logFile = new File(logName);
-          FileWriter logWriter = new FileWriter(logFile);
-          BufferedWriter csvOutput = new BufferedWriter(logWriter);
-          if (isDescriptive) {
-            descriptiveStatistics(x, roomAmDescriptiveStats,
-                cellarAmDescriptiveStats, roomGmDescriptiveStats,
-                cellarGmDescriptiveStats, roomMedDescriptiveStats,
-                cellarMedDescriptiveStats, roomMaxDescriptiveStats,
-                cellarMaxDescriptiveStats, csvOutput, decFormat);
-            tmpUpdate(
-                "Storing simulation to object file. This can take a few minutes.",
-                (int) perc);
-            progressBarSimulation.setIndeterminate(true);
-            ObjectContainer db4o = Db4oEmbedded.openFile(
-                Db4oEmbedded.newConfiguration(), getOmsFile());
-            OMSimulation simulation = new OMSimulation(building.getName(),
-                building, campaigns, roomAmDescriptiveStats,
-                cellarAmDescriptiveStats, roomGmDescriptiveStats,
-                cellarGmDescriptiveStats, roomMedDescriptiveStats,
-                cellarMedDescriptiveStats, roomMaxDescriptiveStats,
-                cellarMaxDescriptiveStats);
-            setOmsObject(simulation);
-            db4o.store(simulation);
-            db4o.close();
-            tmpUpdate(
-                "Done. Stored simulation to file '" + getOmsFile() + "'.",
-                (int) perc);
-          } else {
-            tmpUpdate(
-                "Error: Strange exception occured, this should never happen.",
-                0);
-            tmpUpdate("Error: No statistics calculated.", 0);
-            JOptionPane.showMessageDialog(null,
-                "Strange exception occured, no statistics calculated.",
-                "Error", JOptionPane.ERROR_MESSAGE);
-          }
-          csvOutput.close();
-          setStatus(100);
-        } else {
-          tmpUpdate("Error: " + valueCount + " are not enough data records.", 0);
-          tmpUpdate("Make sure you have at least one week of records (> 168).",
-              0);
-          setStatus(0);
-        }
-      } else {
-        tmpUpdate("Error: Your entered ratio is: " + ratioThree + ", "
-            + ratioFour + ", " + ratioFive + ", " + ratioSix + ".", 0);
-        tmpUpdate("Error: Please, correct your input.", 0);
-        setStatus(0);
-      }
-    }
-
-    /**
-     * Method used to calculate descriptive statistics which are stored in
-     * memory. Writes results of the calculations to a separate CSV file. Only
-     * use this for small simulations as this can cause memory exceptions.
-     * 
-     * @param x
-     *          The total number of simulations.
-     * @param roomAmDescriptiveStats
-     *          Statistics for room arithmetic means.
-     * @param cellarAmDescriptiveStats
-     *          Statistics for cellar arithmetic means.
-     * @param roomGmDescriptiveStats
-     *          Statistics for room geometric means.
-     * @param cellarGmDescriptiveStats
-     *          Statistics for cellar geometric means.
-     * @param roomMedDescriptiveStats
-     *          Statistics for room medians.
-     * @param cellarMedDescriptiveStats
-     *          Statistics for cellar medians.
-     * @param roomMaxDescriptiveStats
-     *          Statistics for room maximum.
-     * @param cellarMaxDescriptiveStats
-     *          Statistics for cellar maximum.
-     * @param csvOutput
-     *          A a file buffer writer used to write the results to CSV.
-     * @param decFormat
-     *          The format used to store the results with comma or dot used as
-     *          decimal separator.
-     * @throws IOException
-     *           If creating log file or writing logs fails.
-     */
-    private void descriptiveStatistics(long x,
-        DescriptiveStatistics roomAmDescriptiveStats,
-        DescriptiveStatistics cellarAmDescriptiveStats,
-        DescriptiveStatistics roomGmDescriptiveStats,
-        DescriptiveStatistics cellarGmDescriptiveStats,
-        DescriptiveStatistics roomMedDescriptiveStats,
-        DescriptiveStatistics cellarMedDescriptiveStats,
-        DescriptiveStatistics roomMaxDescriptiveStats,
-        DescriptiveStatistics cellarMaxDescriptiveStats,
-        BufferedWriter csvOutput, DecimalFormat decFormat) throws IOException {
-      double roomArithMeans_AM = roomAmDescriptiveStats.getMean();
-      double roomArithMeans_SD = roomAmDescriptiveStats.getStandardDeviation();
-      double roomArithMeans_CV = OMHelper.calculateCV(roomArithMeans_AM,
-          roomArithMeans_SD);
-      double roomArithMeans_Q05 = roomAmDescriptiveStats.getPercentile(5);
-      double roomArithMeans_Q50 = roomAmDescriptiveStats.getPercentile(50);
-      double roomArithMeans_Q95 = roomAmDescriptiveStats.getPercentile(95);
-      double roomArithMeans_QD = OMHelper.calculateQD(roomArithMeans_Q05,
-          roomArithMeans_Q95);
-      double roomArithMeans_RQD = OMHelper.calculateRQD(roomArithMeans_Q05,
-          roomArithMeans_Q50, roomArithMeans_Q95);
-      double roomArithMeans_GM = roomAmDescriptiveStats.getGeometricMean();
-      double roomArithMeans_GSD = OMHelper.calculateGSD(
-          roomAmDescriptiveStats.getValues(), roomArithMeans_GM);
-      double cellarArithMeans_AM = cellarAmDescriptiveStats.getMean();
-      double cellarArithMeans_SD = cellarAmDescriptiveStats
-          .getStandardDeviation();
-      double cellarArithMeans_CV = OMHelper.calculateCV(cellarArithMeans_AM,
-          cellarArithMeans_SD);
-      double cellarArithMeans_Q05 = cellarAmDescriptiveStats.getPercentile(5);
-      double cellarArithMeans_Q50 = cellarAmDescriptiveStats.getPercentile(50);
-      double cellarArithMeans_Q95 = cellarAmDescriptiveStats.getPercentile(95);
-      double cellarArithMeans_QD = OMHelper.calculateQD(cellarArithMeans_Q05,
-          cellarArithMeans_Q95);
-      double cellarArithMeans_RQD = OMHelper.calculateRQD(cellarArithMeans_Q05,
-          cellarArithMeans_Q50, cellarArithMeans_Q95);
-      double cellarArithMeans_GM = cellarAmDescriptiveStats.getGeometricMean();
-      double cellarArithMeans_GSD = OMHelper.calculateGSD(
-          cellarAmDescriptiveStats.getValues(), cellarArithMeans_GM);
-      double roomLogMeans_AM = roomGmDescriptiveStats.getMean();
-      double roomLogMeans_SD = roomGmDescriptiveStats.getStandardDeviation();
-      double roomLogMeans_CV = OMHelper.calculateCV(roomLogMeans_AM,
-          roomLogMeans_SD);
-      double roomLogMeans_Q05 = roomGmDescriptiveStats.getPercentile(5);
-      double roomLogMeans_Q50 = roomGmDescriptiveStats.getPercentile(50);
-      double roomLogMeans_Q95 = roomGmDescriptiveStats.getPercentile(95);
-      double roomLogMeans_QD = OMHelper.calculateQD(roomLogMeans_Q05,
-          roomLogMeans_Q95);
-      double roomLogMeans_RQD = OMHelper.calculateRQD(roomLogMeans_Q05,
-          roomLogMeans_Q50, roomLogMeans_Q95);
-      double roomLogMeans_GM = roomGmDescriptiveStats.getGeometricMean();
-      double roomLogMeans_GSD = OMHelper.calculateGSD(
-          roomGmDescriptiveStats.getValues(), roomLogMeans_GM);
-      double cellarLogMeans_AM = cellarGmDescriptiveStats.getMean();
-      double cellarLogMeans_SD = cellarGmDescriptiveStats
-          .getStandardDeviation();
-      double cellarLogMeans_CV = OMHelper.calculateCV(cellarLogMeans_AM,
-          cellarLogMeans_SD);
-      double cellarLogMeans_Q05 = cellarGmDescriptiveStats.getPercentile(5);
-      double cellarLogMeans_Q50 = cellarGmDescriptiveStats.getPercentile(50);
-      double cellarLogMeans_Q95 = cellarGmDescriptiveStats.getPercentile(95);
-      double cellarLogMeans_QD = OMHelper.calculateQD(cellarLogMeans_Q05,
-          cellarLogMeans_Q95);
-      double cellarLogMeans_RQD = OMHelper.calculateRQD(cellarLogMeans_Q05,
-          cellarLogMeans_Q50, cellarLogMeans_Q95);
-      double cellarLogMeans_GM = cellarGmDescriptiveStats.getGeometricMean();
-      double cellarLogMeans_GSD = OMHelper.calculateGSD(
-          cellarGmDescriptiveStats.getValues(), cellarLogMeans_GM);
-      double roomMedians_AM = roomMedDescriptiveStats.getMean();
-      double roomMedians_SD = roomMedDescriptiveStats.getStandardDeviation();
-      double roomMedians_CV = OMHelper.calculateCV(roomMedians_AM,
-          roomMedians_SD);
-      double roomMedians_Q05 = roomMedDescriptiveStats.getPercentile(5);
-      double roomMedians_Q50 = roomMedDescriptiveStats.getPercentile(50);
-      double roomMedians_Q95 = roomMedDescriptiveStats.getPercentile(95);
-      double roomMedians_QD = OMHelper.calculateQD(roomMedians_Q05,
-          roomMedians_Q95);
-      double roomMedians_RQD = OMHelper.calculateRQD(roomMedians_Q05,
-          roomMedians_Q50, roomMedians_Q95);
-      double roomMedians_GM = roomMedDescriptiveStats.getGeometricMean();
-      double roomMedians_GSD = OMHelper.calculateGSD(
-          roomMedDescriptiveStats.getValues(), roomMedians_GM);
-      double cellarMedians_AM = cellarMedDescriptiveStats.getMean();
-      double cellarMedians_SD = cellarMedDescriptiveStats
-          .getStandardDeviation();
-      double cellarMedians_CV = OMHelper.calculateCV(cellarMedians_AM,
-          cellarMedians_SD);
-      double cellarMedians_Q05 = cellarMedDescriptiveStats.getPercentile(5);
-      double cellarMedians_Q50 = cellarMedDescriptiveStats.getPercentile(50);
-      double cellarMedians_Q95 = cellarMedDescriptiveStats.getPercentile(95);
-      double cellarMedians_QD = OMHelper.calculateQD(cellarMedians_Q05,
-          cellarMedians_Q95);
-      double cellarMedians_RQD = OMHelper.calculateRQD(cellarMedians_Q05,
-          cellarMedians_Q50, cellarMedians_Q95);
-      double cellarMedians_GM = cellarMedDescriptiveStats.getGeometricMean();
-      double cellarMedians_GSD = OMHelper.calculateGSD(
-          cellarMedDescriptiveStats.getValues(), cellarMedians_GM);
-      double roomMaxima_AM = roomMaxDescriptiveStats.getMean();
-      double roomMaxima_SD = roomMaxDescriptiveStats.getStandardDeviation();
-      double roomMaxima_CV = OMHelper.calculateCV(roomMaxima_AM, roomMaxima_SD);
-      double roomMaxima_Q05 = roomMaxDescriptiveStats.getPercentile(5);
-      double roomMaxima_Q50 = roomMaxDescriptiveStats.getPercentile(50);
-      double roomMaxima_Q95 = roomMaxDescriptiveStats.getPercentile(95);
-      double roomMaxima_QD = OMHelper.calculateQD(roomMaxima_Q05,
-          roomMaxima_Q95);
-      double roomMaxima_RQD = OMHelper.calculateRQD(roomMaxima_Q05,
-          roomMaxima_Q50, roomMaxima_Q95);
-      double roomMaxima_GM = roomMaxDescriptiveStats.getGeometricMean();
-      double roomMaxima_GSD = OMHelper.calculateGSD(
-          roomMaxDescriptiveStats.getValues(), roomMaxima_GM);
-      double cellarMaxima_AM = cellarMaxDescriptiveStats.getMean();
-      double cellarMaxima_SD = cellarMaxDescriptiveStats.getStandardDeviation();
-      double cellarMaxima_CV = OMHelper.calculateCV(cellarMaxima_AM,
-          cellarMaxima_SD);
-      double cellarMaxima_Q05 = cellarMaxDescriptiveStats.getPercentile(5);
-      double cellarMaxima_Q50 = cellarMaxDescriptiveStats.getPercentile(50);
-      double cellarMaxima_Q95 = cellarMaxDescriptiveStats.getPercentile(95);
-      double cellarMaxima_QD = OMHelper.calculateQD(cellarMaxima_Q05,
-          cellarMaxima_Q95);
-      double cellarMaxima_RQD = OMHelper.calculateRQD(cellarMaxima_Q05,
-          cellarMaxima_Q50, cellarMaxima_Q95);
-      double cellarMaxima_GM = cellarMaxDescriptiveStats.getGeometricMean();
-      double cellarMaxima_GSD = OMHelper.calculateGSD(
-          cellarMaxDescriptiveStats.getValues(), cellarMaxima_GM);
-      tmpUpdate("Calculated statistics for room arithmetic means:", 99);
-      logOnly("AM=" + roomArithMeans_AM + ", SD=" + roomArithMeans_SD + ", CV="
-          + roomArithMeans_CV + ", GM=" + roomArithMeans_GM + ", GSD="
-          + roomArithMeans_GSD + ", Q5=" + roomArithMeans_Q05 + ", Q50="
-          + roomArithMeans_Q50 + ", Q95=" + roomArithMeans_Q95 + ", QD="
-          + roomArithMeans_QD + ", RQD=" + roomArithMeans_RQD, 99);
-      tmpUpdate("Calculated statistics for cellar arithmetic means:", 99);
-      logOnly("AM=" + cellarArithMeans_AM + ", SD=" + cellarArithMeans_SD
-          + ", CV=" + cellarArithMeans_CV + ", GM=" + cellarArithMeans_GM
-          + ", GSD=" + cellarArithMeans_GSD + ", Q5=" + cellarArithMeans_Q05
-          + ", Q50=" + cellarArithMeans_Q50 + ", Q95=" + cellarArithMeans_Q95
-          + ", QD=" + cellarArithMeans_QD + ", RQD=" + cellarArithMeans_RQD, 99);
-      tmpUpdate("Calculated statistics for room geometric means:", 99);
-      logOnly("AM=" + roomLogMeans_AM + ", SD=" + roomLogMeans_SD + ", CV="
-          + roomLogMeans_CV + ", GM=" + roomLogMeans_GM + ", GSD="
-          + roomLogMeans_GSD + ", Q5=" + roomLogMeans_Q05 + ", Q50="
-          + roomLogMeans_Q50 + ", Q95=" + roomLogMeans_Q95 + ", QD="
-          + roomLogMeans_QD + ", RQD=" + roomLogMeans_RQD, 99);
-      tmpUpdate("Calculated statistics for cellar geometric means:", 99);
-      logOnly("AM=" + cellarLogMeans_AM + ", SD=" + cellarLogMeans_SD + ", CV="
-          + cellarLogMeans_CV + ", GM=" + cellarLogMeans_GM + ", GSD="
-          + cellarLogMeans_GSD + ", Q5=" + cellarLogMeans_Q05 + ", Q50="
-          + cellarLogMeans_Q50 + ", Q95=" + cellarLogMeans_Q95 + ", QD="
-          + cellarLogMeans_QD + ", RQD=" + cellarLogMeans_RQD, 99);
-      tmpUpdate("Calculated statistics for room medians:", 99);
-      logOnly("AM=" + roomMedians_AM + ", SD=" + roomMedians_SD + ", CV="
-          + roomMedians_CV + ", GM=" + roomMedians_GM + ", GSD="
-          + roomMedians_GSD + ", Q5=" + roomMedians_Q05 + ", Q50="
-          + roomMedians_Q50 + ", Q95=" + roomMedians_Q95 + ", QD="
-          + roomMedians_QD + ", RQD=" + roomMedians_RQD, 99);
-      tmpUpdate("Calculated statistics for cellar medians:", 99);
-      logOnly("AM=" + cellarMedians_AM + ", SD=" + cellarMedians_SD + ", CV="
-          + cellarMedians_CV + ", GM=" + cellarMedians_GM + ", GSD="
-          + cellarMedians_GSD + ", Q5=" + cellarMedians_Q05 + ", Q50="
-          + cellarMedians_Q50 + ", Q95=" + cellarMedians_Q95 + ", QD="
-          + cellarMedians_QD + ", RQD=" + cellarMedians_RQD, 99);
-      tmpUpdate("Calculated statistics for room maxima:", 99);
-      logOnly("AM=" + roomMaxima_AM + ", SD=" + roomMaxima_SD + ", CV="
-          + roomMaxima_CV + ", GM=" + roomMaxima_GM + ", GSD=" + roomMaxima_GSD
-          + ", Q5=" + roomMaxima_Q05 + ", Q50=" + roomMaxima_Q50 + ", Q95="
-          + roomMaxima_Q95 + ", QD=" + roomMaxima_QD + ", RQD="
-          + roomMaxima_RQD, 99);
-      tmpUpdate("Calculated statistics for cellar maxima:", 99);
-      logOnly("AM=" + cellarMaxima_AM + ", SD=" + cellarMaxima_SD + ", CV="
-          + cellarMaxima_CV + ", GM=" + cellarMaxima_GM + ", GSD="
-          + cellarMaxima_GSD + ", Q5=" + cellarMaxima_Q05 + ", Q50="
-          + cellarMaxima_Q50 + ", Q95=" + cellarMaxima_Q95 + ", QD="
-          + cellarMaxima_QD + ", RQD=" + cellarMaxima_RQD, 99);
-      csvOutput.write("\"ID\";\"AM\";\"SD\";\"CV\";\"GM\";\"GSD\";"
-          + "\"Q5\";\"Q50\";\"Q95\";\"QD\";\"RQD\"");
-      csvOutput.newLine();
-      csvOutput.write("\"R_AM\";\"" + decFormat.format(roomArithMeans_AM)
-          + "\";\"" + decFormat.format(roomArithMeans_SD) + "\";\""
-          + decFormat.format(roomArithMeans_CV) + "\";\""
-          + decFormat.format(roomArithMeans_GM) + "\";\""
-          + decFormat.format(roomArithMeans_GSD) + "\";\""
-          + decFormat.format(roomArithMeans_Q05) + "\";\""
-          + decFormat.format(roomArithMeans_Q50) + "\";\""
-          + decFormat.format(roomArithMeans_Q95) + "\";\""
-          + decFormat.format(roomArithMeans_QD) + "\";\""
-          + decFormat.format(roomArithMeans_RQD) + "\"");
-      csvOutput.newLine();
-      csvOutput.write("\"R_GM\";\"" + decFormat.format(roomLogMeans_AM)
-          + "\";\"" + decFormat.format(roomLogMeans_SD) + "\";\""
-          + decFormat.format(roomLogMeans_CV) + "\";\""
-          + decFormat.format(roomLogMeans_GM) + "\";\""
-          + decFormat.format(roomLogMeans_GSD) + "\";\""
-          + decFormat.format(roomLogMeans_Q05) + "\";\""
-          + decFormat.format(roomLogMeans_Q50) + "\";\""
-          + decFormat.format(roomLogMeans_Q95) + "\";\""
-          + decFormat.format(roomLogMeans_QD) + "\";\""
-          + decFormat.format(roomLogMeans_RQD) + "\"");
-      csvOutput.newLine();
-      csvOutput.write("\"R_Q50\";\"" + decFormat.format(roomMedians_AM)
-          + "\";\"" + decFormat.format(roomMedians_SD) + "\";\""
-          + decFormat.format(roomMedians_CV) + "\";\""
-          + decFormat.format(roomMedians_GM) + "\";\""
-          + decFormat.format(roomMedians_GSD) + "\";\""
-          + decFormat.format(roomMedians_Q05) + "\";\""
-          + decFormat.format(roomMedians_Q50) + "\";\""
-          + decFormat.format(roomMedians_Q95) + "\";\""
-          + decFormat.format(roomMedians_QD) + "\";\""
-          + decFormat.format(roomMedians_RQD) + "\"");
-      csvOutput.newLine();
-      csvOutput.write("\"R_MAX\";\"" + decFormat.format(roomMaxima_AM)
-          + "\";\"" + decFormat.format(roomMaxima_SD) + "\";\""
-          + decFormat.format(roomMaxima_CV) + "\";\""
-          + decFormat.format(roomMaxima_GM) + "\";\""
-          + decFormat.format(roomMaxima_GSD) + "\";\""
-          + decFormat.format(roomMaxima_Q05) + "\";\""
-          + decFormat.format(roomMaxima_Q50) + "\";\""
-          + decFormat.format(roomMaxima_Q95) + "\";\""
-          + decFormat.format(roomMaxima_QD) + "\";\""
-          + decFormat.format(roomMaxima_RQD) + "\"");
-      csvOutput.newLine();
-      csvOutput.write("\"C_AM\";\"" + decFormat.format(cellarArithMeans_AM)
-          + "\";\"" + decFormat.format(cellarArithMeans_SD) + "\";\""
-          + decFormat.format(cellarArithMeans_CV) + "\";\""
-          + decFormat.format(cellarArithMeans_GM) + "\";\""
-          + decFormat.format(cellarArithMeans_GSD) + "\";\""
-          + decFormat.format(cellarArithMeans_Q05) + "\";\""
-          + decFormat.format(cellarArithMeans_Q50) + "\";\""
-          + decFormat.format(cellarArithMeans_Q95) + "\";\""
-          + decFormat.format(cellarArithMeans_QD) + "\";\""
-          + decFormat.format(cellarArithMeans_RQD) + "\"");
-      csvOutput.newLine();
-      csvOutput.write("\"C_GM\";\"" + decFormat.format(cellarLogMeans_AM)
-          + "\";\"" + decFormat.format(cellarLogMeans_SD) + "\";\""
-          + decFormat.format(cellarLogMeans_CV) + "\";\""
-          + decFormat.format(cellarLogMeans_GM) + "\";\""
-          + decFormat.format(cellarLogMeans_GSD) + "\";\""
-          + decFormat.format(cellarLogMeans_Q05) + "\";\""
-          + decFormat.format(cellarLogMeans_Q50) + "\";\""
-          + decFormat.format(cellarLogMeans_Q95) + "\";\""
-          + decFormat.format(cellarLogMeans_QD) + "\";\""
-          + decFormat.format(cellarLogMeans_RQD) + "\"");
-      csvOutput.newLine();
-      csvOutput.write("\"C_Q50\";\"" + decFormat.format(cellarMedians_AM)
-          + "\";\"" + decFormat.format(cellarMedians_SD) + "\";\""
-          + decFormat.format(cellarMedians_CV) + "\";\""
-          + decFormat.format(cellarMedians_GM) + "\";\""
-          + decFormat.format(cellarMedians_GSD) + "\";\""
-          + decFormat.format(cellarMedians_Q05) + "\";\""
-          + decFormat.format(cellarMedians_Q50) + "\";\""
-          + decFormat.format(cellarMedians_Q95) + "\";\""
-          + decFormat.format(cellarMedians_QD) + "\";\""
-          + decFormat.format(cellarMedians_RQD) + "\"");
-      csvOutput.newLine();
-      csvOutput.write("\"C_MAX\";\"" + decFormat.format(cellarMaxima_AM)
-          + "\";\"" + decFormat.format(cellarMaxima_SD) + "\";\""
-          + decFormat.format(cellarMaxima_CV) + "\";\""
-          + decFormat.format(cellarMaxima_GM) + "\";\""
-          + decFormat.format(cellarMaxima_GSD) + "\";\""
-          + decFormat.format(cellarMaxima_Q05) + "\";\""
-          + decFormat.format(cellarMaxima_Q50) + "\";\""
-          + decFormat.format(cellarMaxima_Q95) + "\";\""
-          + decFormat.format(cellarMaxima_QD) + "\";\""
-          + decFormat.format(cellarMaxima_RQD) + "\"");
-      csvOutput.newLine();
-      csvOutput
-          .write("\" \";\" \";\" \";\" \";\" \";\" \";\" \";\" \";\" \";\" \";\" \"");
-      csvOutput.newLine();
-      csvOutput.write("\"N\";\"" + x
-          + "\";\" \";\" \";\" \";\" \";\" \";\" \";\" \";\" \";\" \"");
-    }
-
-    /**
-     * Method used to calculate summary statistics which are not stored in
-     * memory. Writes results of the calculations to a separate CSV file.
+     * Executed in event dispatching thread with the samples of the progress
+     * published since the last call. Only the latest sample is shown.
      * 
-     * @param roomAmSummaryStats
-     *          Statistics for room arithmetic means.
-     * @param cellarAmSummaryStats
-     *          Statistics for cellar arithmetic means.
-     * @param roomGmSummaryStats
-     *          Statistics for room geometric means.
-     * @param cellarGmSummaryStats
-     *          Statistics for cellar geometric means.
-     * @param roomMedSummaryStats
-     *          Statistics for room medians.
-     * @param cellarMedSummaryStats
-     *          Statistics for cellar medians.
-     * @param roomMaxSummaryStats
-     *          Statistics for room maximum.
-     * @param cellarMaxSummaryStats
-     *          Statistics for cellar maximum.
-     * @param csvOutput
-     *          A a file buffer writer used to write the results to CSV.
-     * @param decFormat
-     *          The format used to store the results with comma or dot used as
-     *          decimal separator.
-     * @throws IOException
-     *           If creating log file or writing logs fails.
+     * @see javax.swing.SwingWorker#process(java.util.List)
      */
-    private void summaryStatistics(long x,
-        SummaryStatistics roomAmSummaryStats,
-        SummaryStatistics cellarAmSummaryStats,
-        SummaryStatistics roomGmSummaryStats,
-        SummaryStatistics cellarGmSummaryStats,
-        SummaryStatistics roomMedSummaryStats,
-        SummaryStatistics cellarMedSummaryStats,
-        SummaryStatistics roomMaxSummaryStats,
-        SummaryStatistics cellarMaxSummaryStats, BufferedWriter csvOutput,
-        DecimalFormat decFormat) throws IOException {
-      double roomArithMeans_AM = roomAmSummaryStats.getMean();
-      double roomArithMeans_SD = roomAmSummaryStats.getStandardDeviation();
-      double roomArithMeans_CV = OMHelper.calculateCV(roomArithMeans_AM,
-          roomArithMeans_SD);
-      double roomArithMeans_GM = roomAmSummaryStats.getGeometricMean();
-      double cellarArithMeans_AM = cellarAmSummaryStats.getMean();
-      double cellarArithMeans_SD = cellarAmSummaryStats.getStandardDeviation();
-      double cellarArithMeans_CV = OMHelper.calculateCV(cellarArithMeans_AM,
-          cellarArithMeans_SD);
-      double cellarArithMeans_GM = cellarAmSummaryStats.getGeometricMean();
-      double roomLogMeans_AM = roomGmSummaryStats.getMean();
-      double roomLogMeans_SD = roomGmSummaryStats.getStandardDeviation();
-      double roomLogMeans_CV = OMHelper.calculateCV(roomLogMeans_AM,
-          roomLogMeans_SD);
-      double roomLogMeans_GM = roomGmSummaryStats.getGeometricMean();
-      double cellarLogMeans_AM = cellarGmSummaryStats.getMean();
-      double cellarLogMeans_SD = cellarGmSummaryStats.getStandardDeviation();
-      double cellarLogMeans_CV = OMHelper.calculateCV(cellarLogMeans_AM,
-          cellarLogMeans_SD);
-      double cellarLogMeans_GM = cellarGmSummaryStats.getGeometricMean();
-      double roomMedians_AM = roomMedSummaryStats.getMean();
-      double roomMedians_SD = roomMedSummaryStats.getStandardDeviation();
-      double roomMedians_CV = OMHelper.calculateCV(roomMedians_AM,
-          roomMedians_SD);
-      double roomMedians_GM = roomMedSummaryStats.getGeometricMean();
-      double cellarMedians_AM = cellarMedSummaryStats.getMean();
-      double cellarMedians_SD = cellarMedSummaryStats.getStandardDeviation();
-      double cellarMedians_CV = OMHelper.calculateCV(cellarMedians_AM,
-          cellarMedians_SD);
-      double cellarMedians_GM = cellarMedSummaryStats.getGeometricMean();
-      double roomMaxima_AM = roomMaxSummaryStats.getMean();
-      double roomMaxima_SD = roomMaxSummaryStats.getStandardDeviation();
-      double roomMaxima_CV = OMHelper.calculateCV(roomMaxima_AM, roomMaxima_SD);
-      double roomMaxima_GM = roomMaxSummaryStats.getGeometricMean();
-      double cellarMaxima_AM = cellarMaxSummaryStats.getMean();
-      double cellarMaxima_SD = cellarMaxSummaryStats.getStandardDeviation();
-      double cellarMaxima_CV = OMHelper.calculateCV(cellarMaxima_AM,
-          cellarMaxima_SD);
-      double cellarMaxima_GM = cellarMaxSummaryStats.getGeometricMean();
-      tmpUpdate("Calculated statistics for room arithmetic means:", 99);
-      logOnly("AM=" + roomArithMeans_AM + ", SD=" + roomArithMeans_SD + ", CV="
-          + roomArithMeans_CV + ", GM=" + roomArithMeans_GM, 99);
-      tmpUpdate("Calculated statistics for cellar arithmetic means:", 99);
-      logOnly("AM=" + cellarArithMeans_AM + ", SD=" + cellarArithMeans_SD
-          + ", CV=" + cellarArithMeans_CV + ", GM=" + cellarArithMeans_GM, 99);
-      tmpUpdate("Calculated statistics for room geometric means:", 99);
-      logOnly("AM=" + roomLogMeans_AM + ", SD=" + roomLogMeans_SD + ", CV="
-          + roomLogMeans_CV + ", GM=" + roomLogMeans_GM, 99);
-      tmpUpdate("Calculated statistics for cellar geometric means:", 99);
-      logOnly("AM=" + cellarLogMeans_AM + ", SD=" + cellarLogMeans_SD + ", CV="
-          + cellarLogMeans_CV + ", GM=" + cellarLogMeans_GM, 99);
-      tmpUpdate("Calculated statistics for room medians:", 99);
-      logOnly("AM=" + roomMedians_AM + ", SD=" + roomMedians_SD + ", CV="
-          + roomMedians_CV + ", GM=" + roomMedians_GM, 99);
-      tmpUpdate("Calculated statistics for cellar medians:", 99);
-      logOnly("AM=" + cellarMedians_AM + ", SD=" + cellarMedians_SD + ", CV="
-          + cellarMedians_CV + ", GM=" + cellarMedians_GM, 99);
-      tmpUpdate("Calculated statistics for room maxima:", 99);
-      logOnly("AM=" + roomMaxima_AM + ", SD=" + roomMaxima_SD + ", CV="
-          + roomMaxima_CV + ", GM=" + roomMaxima_GM, 99);
-      tmpUpdate("Calculated statistics for cellar maxima:", 99);
-      logOnly("AM=" + cellarMaxima_AM + ", SD=" + cellarMaxima_SD + ", CV="
-          + cellarMaxima_CV + ", GM=" + cellarMaxima_GM, 99);
-      csvOutput.write("\"ID\";\"AM\";\"SD\";\"CV\";\"GM\"");
-      csvOutput.newLine();
-      csvOutput.write("\"R_AM\";\"" + decFormat.format(roomArithMeans_AM)
-          + "\";\"" + decFormat.format(roomArithMeans_SD) + "\";\""
-          + decFormat.format(roomArithMeans_CV) + "\";\""
-          + decFormat.format(roomArithMeans_GM) + "\"");
-      csvOutput.newLine();
-      csvOutput.write("\"R_GM\";\"" + decFormat.format(roomLogMeans_AM)
-          + "\";\"" + decFormat.format(roomLogMeans_SD) + "\";\""
-          + decFormat.format(roomLogMeans_CV) + "\";\""
-          + decFormat.format(roomLogMeans_GM) + "\"");
-      csvOutput.newLine();
-      csvOutput.write("\"R_Q50\";\"" + decFormat.format(roomMedians_AM)
-          + "\";\"" + decFormat.format(roomMedians_SD) + "\";\""
-          + decFormat.format(roomMedians_CV) + "\";\""
-          + decFormat.format(roomMedians_GM) + "\"");
-      csvOutput.newLine();
-      csvOutput.write("\"R_MAX\";\"" + decFormat.format(roomMaxima_AM)
-          + "\";\"" + decFormat.format(roomMaxima_SD) + "\";\""
-          + decFormat.format(roomMaxima_CV) + "\";\""
-          + decFormat.format(roomMaxima_GM) + "\"");
-      csvOutput.newLine();
-      csvOutput.write("\"C_AM\";\"" + decFormat.format(cellarArithMeans_AM)
-          + "\";\"" + decFormat.format(cellarArithMeans_SD) + "\";\""
-          + decFormat.format(cellarArithMeans_CV) + "\";\""
-          + decFormat.format(cellarArithMeans_GM) + "\"");
-      csvOutput.newLine();
-      csvOutput.write("\"C_GM\";\"" + decFormat.format(cellarLogMeans_AM)
-          + "\";\"" + decFormat.format(cellarLogMeans_SD) + "\";\""
-          + decFormat.format(cellarLogMeans_CV) + "\";\""
-          + decFormat.format(cellarLogMeans_GM) + "\"");
-      csvOutput.newLine();
-      csvOutput.write("\"C_Q50\";\"" + decFormat.format(cellarMedians_AM)
-          + "\";\"" + decFormat.format(cellarMedians_SD) + "\";\""
-          + decFormat.format(cellarMedians_CV) + "\";\""
-          + decFormat.format(cellarMedians_GM) + "\"");
-      csvOutput.newLine();
-      csvOutput.write("\"C_MAX\";\"" + decFormat.format(cellarMaxima_AM)
-          + "\";\"" + decFormat.format(cellarMaxima_SD) + "\";\""
-          + decFormat.format(cellarMaxima_CV) + "\";\""
-          + decFormat.format(cellarMaxima_GM) + "\"");
-      csvOutput.newLine();
-      csvOutput.write("\" \";\" \";\" \";\" \";\" \"");
-      csvOutput.newLine();
-      csvOutput.write("\"N\";\"" + x + "\";\" \";\" \";\" \"");
-    }
-
-    /**
-     * Creates a timestamp indicating how much time is left using the percentage
-     * of the overall status and the start time.
-     * 
-     * @param perc
-     *          The percentage of the overall status.
-     * @return A timestamp indicating how much time is left.
-     */
-    private String timeLeft(double perc) {
-      String strFormat = "#";
-      double timePassed = (System.currentTimeMillis() - getStart()) / 1000;
-      double time = (timePassed / perc * 100.0) - timePassed;
-      String unit = " seconds.";
-      final double days = time / 60.0 / 60.0 / 24.0;
-      if (time > 100) {
-        strFormat = "#";
-        time = time / 60.0;
-        unit = " minutes.";
-        if (time > 100) {
-          strFormat = "#.#";
-          time = time / 60.0;
-          unit = " hours.";
-          if (time > 48) {
-            strFormat = "#.##";
-            time = time / 24.0;
-            unit = " days.";
-            if (time > 50) {
-              strFormat = "#.##";
-              time = time / 28.0;
-              unit = " months.";
-              if (time > 20) {
-                strFormat = "#.##";
-                time = days / 365.2424;
-                unit = " years.";
-              }
-            }
-          }
-        }
-      }
-      DecimalFormat decFormat = new DecimalFormat(strFormat);
-      return decFormat.format(time) + unit;
+    @Override
+    protected void process(List<OMProgressSample> samples) {
+      OMProgressSample sample = samples.get(samples.size() - 1);
+      progressBarSimulation.setString(sample.toString());
+      progressBarSimulation.setValue(sample.getPercent());
     }
 
     /**
      * Executed in event dispatching thread after finishing the simulation task.
-     * Updates the interface and adds current simulation results to results
-     * panel if this is a random simulation.
+     * Updates the interface, shows the success or failure dialog and adds
+     * current simulation results to results panel if this is a random
+     * simulation.
      * 
      * @see javax.swing.SwingWorker#done()
      */
@@ -2417,12 +851,17 @@ public class OMPanelSimulation extends JPanel implements ActionListener {
       progressBarSimulation.setIndeterminate(false);
       progressBarSimulation.setVisible(false);
       btnStart.setEnabled(true);
+      btnResume.setEnabled(isSystematic);
       setCursor(null);
       try {
         Thread.sleep(500);
       } catch (InterruptedException ie) {
         ie.printStackTrace();
       }
+      if (dialogMessage != null) {
+        JOptionPane.showMessageDialog(null, dialogMessage, dialogTitle,
+            dialogType);
+      }
       if (!isSystematic) {
         try {
           JTabbedPane tab = (JTabbedPane) getParent();
@@ -2475,6 +914,12 @@ public class OMPanelSimulation extends JPanel implements ActionListener {
     btnStart.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 11));
     add(btnStart);
 
+    btnResume = new JButton("Resume");
+    btnResume.addActionListener(this);
+    btnResume.setBounds(482, 326, 124, 23);
+    btnResume.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 11));
+    add(btnResume);
+
     progressBarSimulation = new JProgressBar();
     progressBarSimulation.setBounds(10, 475, 730, 23);
     progressBarSimulation.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 11));
@@ -2848,6 +1293,7 @@ public class OMPanelSimulation extends JPanel implements ActionListener {
           lblWarning.setVisible(true);
           txtOmsFile.setEnabled(false);
           btnBrowseOms.setEnabled(false);
+          btnResume.setEnabled(btnStart.isEnabled());
         } else {
           setSystematic(false);
           rdbtnRandom.setSelected(true);
@@ -2876,6 +1322,7 @@ public class OMPanelSimulation extends JPanel implements ActionListener {
           lblWarning.setVisible(false);
           txtOmsFile.setEnabled(true);
           btnBrowseOms.setEnabled(true);
+          btnResume.setEnabled(false);
         } else {
           setSystematic(true);
           rdbtnSystematic.setSelected(true);
@@ -2905,6 +1352,7 @@ public class OMPanelSimulation extends JPanel implements ActionListener {
             }
             progressBarSimulation.setEnabled(b);
             btnStart.setEnabled(b);
+            btnResume.setEnabled(b && rdbtnSystematic.isSelected());
             chckbxRandomNoise.setEnabled(b);
             rdbtnRandom.setEnabled(b);
             rdbtnSystematic.setEnabled(b);
@@ -2931,6 +1379,7 @@ public class OMPanelSimulation extends JPanel implements ActionListener {
         }
         progressBarSimulation.setEnabled(b);
         btnStart.setEnabled(b);
+        btnResume.setEnabled(b && rdbtnSystematic.isSelected());
         chckbxRandomNoise.setEnabled(b);
         rdbtnRandom.setEnabled(b);
         rdbtnSystematic.setEnabled(b);
@@ -2945,6 +1394,7 @@ public class OMPanelSimulation extends JPanel implements ActionListener {
     add(comboBoxSelectProject);
 
     btnStart.setEnabled(false);
+    btnResume.setEnabled(false);
     chckbxRandomNoise.setEnabled(false);
     chckbxRatio6.setEnabled(false);
     chckbxRatio5.setEnabled(false);
@@ -2984,6 +1434,7 @@ public class OMPanelSimulation extends JPanel implements ActionListener {
   public void actionPerformed(ActionEvent e) {
     setSelectedObject((OMBuilding) comboBoxSelectProject.getSelectedItem());
     setProjectName(getSelectedObject().getName());
+    setResume(e.getSource() == btnResume);
     if (rdbtnSystematic.isSelected()) {
       setSystematic(true);
       setRandomCampaigns(0);
@@ -3019,6 +1470,7 @@ public class OMPanelSimulation extends JPanel implements ActionListener {
 
     if (isSystematic) {
       btnStart.setEnabled(false);
+      btnResume.setEnabled(false);
       comboBoxSelectProject.setEnabled(false);
       setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
       progressBarSimulation.setStringPainted(true);
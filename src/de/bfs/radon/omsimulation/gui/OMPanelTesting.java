@@ -37,6 +37,7 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.util.List;
 
 import javax.swing.JButton;
 import javax.swing.JComboBox;
@@ -58,14 +59,12 @@ import javax.swing.filechooser.FileNameExtensionFilter;
 import org.jfree.chart.ChartPanel;
 import org.jfree.chart.JFreeChart;
 
-import com.db4o.Db4oEmbedded;
-import com.db4o.ObjectContainer;
-import com.db4o.ObjectSet;
 import com.itextpdf.awt.DefaultFontMapper;
 import com.itextpdf.text.PageSize;
 
 import de.bfs.radon.omsimulation.data.OMBuilding;
 import de.bfs.radon.omsimulation.data.OMCampaign;
+import de.bfs.radon.omsimulation.data.OMRepository;
 import de.bfs.radon.omsimulation.data.OMRoom;
 import de.bfs.radon.omsimulation.data.OMRoomType;
 import de.bfs.radon.omsimulation.data.OMSimulation;
@@ -319,9 +318,7 @@ public class OMPanelTesting extends JPanel implements ActionListener {
       removeEventListener();
       addEventListener();
       tmpUpdate("Getting objects from Database... ", 1);
-      ObjectContainer db4o = Db4oEmbedded.openFile(
-          Db4oEmbedded.newConfiguration(), getOmbFile());
-      ObjectSet<OMBuilding> result = db4o.queryByExample(OMBuilding.class);
+      List<OMBuilding> result = OMRepository.getBuildings(getOmbFile());
       OMBuilding found;
       tmpUpdate("Refreshing list... ", 2);
       tmpUpdate("Adding items... ", 3);
@@ -330,12 +327,11 @@ public class OMPanelTesting extends JPanel implements ActionListener {
         while (perc > 99) {
           perc--;
         }
-        found = (OMBuilding) result.next();
+        found = result.get(i);
         comboBoxProjects.addItem(found);
         tmpUpdate("Added: " + found.getName(), (int) perc);
       }
       tmpUpdate("Finished. ", 100);
-      db4o.close();
       return null;
     }
 
@@ -27,7 +27,6 @@ import java.awt.Color;
 import java.awt.Font;
 import java.awt.Stroke;
 
-import org.apache.commons.math.stat.descriptive.DescriptiveStatistics;
 import org.jfree.chart.ChartFactory;
 import org.jfree.chart.JFreeChart;
 import org.jfree.chart.annotations.XYPointerAnnotation;
@@ -43,6 +42,7 @@ import org.jfree.ui.Layer;
 import org.jfree.ui.RectangleInsets;
 
 import de.bfs.radon.omsimulation.data.OMCampaign;
+import de.bfs.radon.omsimulation.data.OMDistribution;
 import de.bfs.radon.omsimulation.data.OMRoom;
 import de.bfs.radon.omsimulation.data.OMRoomType;
 
@@ -54,6 +54,12 @@ import de.bfs.radon.omsimulation.data.OMRoomType;
  */
 public abstract class OMCharts {
 
+  /**
+   * Stores the maximum number of points of a distribution chart in preview
+   * mode.
+   */
+  private static final int PREVIEW_POINTS = 128;
+
   /**
    * Creates a chart displaying the radon concentration of a single room. Uses
    * red for normal rooms, blue for cellar rooms and green for misc rooms.
@@ -351,22 +357,24 @@ public abstract class OMCharts {
 
   /**
    * Creates a chart displaying the distribution of certain selected statistical
-   * values. Uses red for normal rooms and blue for cellar rooms.
+   * values. Uses red for normal rooms and blue for cellar rooms. The chart is
+   * drawn from the compact distribution only, the annotated percentiles are
+   * exact.
    * 
    * @param title
    *          The headline of the chart. Will be hidden if set to null.
-   * @param statistics
-   *          The selected statistics of a campaign containing all needed
-   *          values.
+   * @param distribution
+   *          The compact distribution of the selected statistics of a
+   *          simulation.
    * @param roomType
    *          The room type to determine the colour of the chart.
    * @param preview
-   *          Will hide annotations, labels and headlines if true.
+   *          Will draw a coarser distribution if true.
    * @return A chart displaying the distribution of certain selected statistical
    *         values.
    */
   public static JFreeChart createDistributionChart(String title,
-      DescriptiveStatistics statistics, OMRoomType roomType, boolean preview) {
+      OMDistribution distribution, OMRoomType roomType, boolean preview) {
     Color lineColor = new Color(0, 0, 0, 128);
     Color rangeColor = new Color(222, 222, 222, 128);
     if (roomType == OMRoomType.Room) {
@@ -381,12 +389,15 @@ public abstract class OMCharts {
         rangeColor = new Color(222, 255, 222, 128);
       }
     }
-    double[] distValues = statistics.getSortedValues();
+    if (preview) {
+      distribution = distribution.getResolution(PREVIEW_POINTS);
+    }
+    double count = (double) distribution.getCount();
     XYSeriesCollection dataSet = new XYSeriesCollection();
     XYSeries distSeries = new XYSeries("Distribution");
-    for (int i = 0; i < distValues.length; i++) {
-      distSeries.add(distValues[i], (0.5 + (double) i)
-          / (double) distValues.length);
+    for (int i = 0; i < distribution.getSize(); i++) {
+      distSeries.add(distribution.getValue(i),
+          (0.5 + (double) distribution.getRank(i)) / count);
     }
     dataSet.addSeries(distSeries);
     JFreeChart chart = ChartFactory.createXYLineChart(title, "Rn [Bq/m\u00B3]",
@@ -394,46 +405,45 @@ public abstract class OMCharts {
     XYPlot plot = (XYPlot) chart.getPlot();
     float[] dash = { 5, 3 };
     int pos = 0;
-    double y = (Double) distSeries.getY(pos);
+    double value = distribution.getValueAt(pos);
+    double y = (0.5 + (double) pos) / count;
     XYPointerAnnotation minPointer = new XYPointerAnnotation("MIN="
-        + (int) distValues[pos], distValues[pos], y, Math.PI * 1.5);
+        + (int) value, value, y, Math.PI * 1.5);
     plot.addAnnotation(minPointer);
-    pos = (int) (((double) distValues.length / 100. * 5.0) - 1.0);
-    while (pos < 0) {
-      pos++;
-    }
+    pos = OMDistribution.getQ05Rank(distribution.getCount());
     if (pos > 0) {
-      y = (Double) distSeries.getY(pos);
+      y = (0.5 + (double) pos) / count;
     } else {
-      y = (Double) distSeries.getY(pos + 1);
+      y = (0.5 + (double) (pos + 1)) / count;
     }
-    final double posQ5 = distValues[pos];
+    final double posQ5 = distribution.getValueAt(pos);
     XYPointerAnnotation q05Pointer = new XYPointerAnnotation("Q5="
-        + (int) distValues[pos], distValues[pos], y, Math.PI * 1.5);
+        + (int) posQ5, posQ5, y, Math.PI * 1.5);
     plot.addAnnotation(q05Pointer);
-    pos = (int) (((double) distValues.length / 2.0) - 1.0);
-    y = (Double) distSeries.getY(pos);
+    pos = OMDistribution.getQ50Rank(distribution.getCount());
+    value = distribution.getValueAt(pos);
+    y = (0.5 + (double) pos) / count;
     XYPointerAnnotation q50Pointer = new XYPointerAnnotation("Q50="
-        + (int) distValues[pos], distValues[pos], y, Math.PI * 1.5);
+        + (int) value, value, y, Math.PI * 1.5);
     plot.addAnnotation(q50Pointer);
-    ValueMarker medMarker = new ValueMarker(distValues[pos], lineColor,
-        new BasicStroke(1, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 1,
-            dash, 0));
+    ValueMarker medMarker = new ValueMarker(value, lineColor, new BasicStroke(
+        1, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 1, dash, 0));
     plot.addDomainMarker(medMarker);
-    pos = (int) (((double) distValues.length / 100.0 * 95.0) - 1.0);
-    if (pos < distValues.length - 1) {
-      y = (Double) distSeries.getY(pos);
+    pos = OMDistribution.getQ95Rank(distribution.getCount());
+    if (pos < distribution.getCount() - 1) {
+      y = (0.5 + (double) pos) / count;
     } else {
-      y = (Double) distSeries.getY(pos - 1);
+      y = (0.5 + (double) (pos - 1)) / count;
     }
-    final double posQ95 = distValues[pos];
+    final double posQ95 = distribution.getValueAt(pos);
     XYPointerAnnotation q95Pointer = new XYPointerAnnotation("Q95="
-        + (int) distValues[pos], distValues[pos], y, Math.PI * 0.5);
+        + (int) posQ95, posQ95, y, Math.PI * 0.5);
     plot.addAnnotation(q95Pointer);
-    pos = distValues.length - 1;
-    y = (Double) distSeries.getY(pos);
+    pos = distribution.getCount() - 1;
+    value = distribution.getValueAt(pos);
+    y = (0.5 + (double) pos) / count;
     XYPointerAnnotation maxPointer = new XYPointerAnnotation("MAX="
-        + (int) distValues[pos], distValues[pos], y, Math.PI * 0.5);
+        + (int) value, value, y, Math.PI * 0.5);
     plot.addAnnotation(maxPointer);
     IntervalMarker percentiles = new IntervalMarker(posQ5, posQ95);
     percentiles.setPaint(rangeColor);